@@ -193,6 +193,15 @@ public class ConfigDefaults {
     private static final String REPORT_DB_PROTO = "reporting.hibernate.connection.driver_proto";
     public static final String REPORT_DB_BATCH_SIZE = "report_db_batch_size";
     public static final String REPORT_DB_HUB_WORKERS = "report_db_hub_workers";
+    private static final String REPORT_DB_INCREMENTAL_REFRESH = "report_db_incremental_refresh";
+    private static final String REPORT_DB_COPY_REFRESH = "report_db_copy_refresh";
+    private static final String REPORT_DB_REFRESH_WORKERS = "report_db_refresh_workers";
+
+    private static final String API_SESSION_CACHE_TTL = "java.api_session_cache_ttl";
+    private static final String API_ACCESS_CACHE_TTL = "java.api_access_cache_ttl";
+    private static final String API_CACHE_SIZE = "java.api_cache_size";
+    private static final String DOWNLOAD_CACHE_TTL = "java.download_cache_ttl";
+    private static final String DOWNLOAD_CACHE_SIZE = "java.download_cache_size";
 
     public static final String LOOKUP_EXCEPT_SEND_EMAIL = "lookup_exception_email";
 
@@ -219,6 +228,13 @@ public class ConfigDefaults {
      * Taskomatic defaults
      */
     private static final String TASKOMATIC_CHANNEL_REPODATA_WORKERS = "java.taskomatic_channel_repodata_workers";
+    private static final String TASKOMATIC_SYSTEMS_OVERVIEW_UPDATE_WORKERS =
+            "taskomatic.systems_overview_update_workers";
+    private static final String TASKOMATIC_SYSTEMS_OVERVIEW_UPDATE_BATCH_SIZE =
+            "taskomatic.systems_overview_update_batch_size";
+    public static final String INCREMENTAL_REPODATA = "java.incremental_repodata";
+    public static final String INCREMENTAL_REPODATA_CACHE_DIR = "java.incremental_repodata_cache_dir";
+    public static final String REPODATA_COMPRESSION = "java.repodata_compression";
 
     /**
      * HTTP proxy defaults
@@ -240,8 +256,20 @@ public class ConfigDefaults {
 
     public static final String MESSAGE_QUEUE_THREAD_POOL_SIZE = "java.message_queue_thread_pool_size";
 
+    /**
+     * Number of dispatch shards for messages whose actions can run concurrently, 0 disables sharding
+     */
+    public static final String MESSAGE_QUEUE_DISPATCH_SHARDS = "java.message_queue_dispatch_shards";
+
+    /**
+     * Maximum number of messages waiting in a single dispatch shard before publishers are blocked
+     */
+    public static final String MESSAGE_QUEUE_SHARD_CAPACITY = "java.message_queue_shard_capacity";
+
     public static final String CVE_AUDIT_ENABLE_OVAL_METADATA = "java.cve_audit.enable_oval_metadata";
 
+    public static final String CVE_AUDIT_ENABLE_EXPOSURE_STORE = "java.cve_audit.enable_exposure_store";
+
     /**
      * Token lifetime in seconds
      */
@@ -340,6 +368,17 @@ public class ConfigDefaults {
      */
     public static final String SALT_EVENTS_PER_COMMIT = "java.salt_events_per_commit";
 
+    /**
+     * Number of threads decoding the JSON data of Salt events ahead of their handling, 0 to decode inline.
+     * Only used when {@link #SALT_EVENTS_PER_COMMIT} is above 1.
+     */
+    public static final String SALT_EVENT_PARSER_THREADS = "java.salt_event_parser_threads";
+
+    /**
+     * Time window in seconds in which repeated idempotent beacon events of a minion are coalesced, 0 disables it
+     */
+    public static final String SALT_EVENT_COALESCING_WINDOW = "java.salt_event_coalescing_window";
+
     /**
      * Single Sign-On associated config option name in rhn.conf
      */
@@ -921,6 +960,48 @@ public class ConfigDefaults {
         return Config.get().getInt(TASKOMATIC_CHANNEL_REPODATA_WORKERS, 1);
     }
 
+    /**
+     * Returns the maximum number of taskomatic system overview update workers
+     * @return the maximum number of system overview update workers
+     */
+    public int getTaskoSystemsOverviewUpdateWorkers() {
+        return Config.get().getInt(TASKOMATIC_SYSTEMS_OVERVIEW_UPDATE_WORKERS, 2);
+    }
+
+    /**
+     * Returns the number of systems whose overview is updated with a single statement, at least 1
+     * @return the system overview update batch size
+     */
+    public int getTaskoSystemsOverviewUpdateBatchSize() {
+        return Math.max(1, Config.get().getInt(TASKOMATIC_SYSTEMS_OVERVIEW_UPDATE_BATCH_SIZE, 100));
+    }
+
+    /**
+     * Returns true if repository metadata should be regenerated incrementally, reusing the package
+     * fragments of the previous generation
+     * @return true if incremental repodata generation is enabled
+     */
+    public boolean isIncrementalRepodata() {
+        return Config.get().getBoolean(INCREMENTAL_REPODATA, false);
+    }
+
+    /**
+     * Returns the directory keeping the package fragments of the last repository metadata generation
+     * of every channel, outside of the published repodata
+     * @return the incremental repodata cache directory
+     */
+    public String getIncrementalRepodataCacheDir() {
+        return Config.get().getString(INCREMENTAL_REPODATA_CACHE_DIR, "/var/cache/rhn/repodata-fragments");
+    }
+
+    /**
+     * Returns the compression of the repository metadata files: gz, xz or zst
+     * @return the repository metadata compression label
+     */
+    public String getRepodataCompression() {
+        return Config.get().getString(REPODATA_COMPRESSION, "gz");
+    }
+
     /**
      * Gets the proxy host.
      * @return the proxy host
@@ -1108,6 +1189,47 @@ public class ConfigDefaults {
         return Config.get().getInt(SALT_EVENTS_PER_COMMIT, 1);
     }
 
+    /**
+     * Returns the number of threads decoding Salt event data. The next events of a queue are read and
+     * decoded by these threads before the transaction handling them is opened, so that JSON parsing does
+     * not lengthen it. Only used when more than one event is handled per commit. 0, the default, decodes
+     * events inline.
+     * @return the number of parser threads
+     */
+    public int getSaltEventParserThreads() {
+        return Config.get().getInt(SALT_EVENT_PARSER_THREADS, 0);
+    }
+
+    /**
+     * Returns the time window in seconds in which repeated beacon events of a minion reporting the
+     * same change (package set changed, reboot needed, inventory changed) are coalesced: the first
+     * event is handled right away, the last repetition within the window once the window closes.
+     * 0 disables coalescing.
+     * @return the coalescing window in seconds
+     */
+    public int getSaltEventCoalescingWindow() {
+        return Config.get().getInt(SALT_EVENT_COALESCING_WINDOW, 0);
+    }
+
+    /**
+     * Returns the number of message queue dispatch shards. Messages whose actions can all run
+     * concurrently are distributed over the shards directly by the publisher instead of passing
+     * through the single dispatcher thread. 0 (the default) disables sharding.
+     * @return the number of shards
+     */
+    public int getMessageQueueDispatchShards() {
+        return Config.get().getInt(MESSAGE_QUEUE_DISPATCH_SHARDS, 0);
+    }
+
+    /**
+     * Returns the maximum number of messages waiting in a single dispatch shard. Publishers are
+     * blocked while the shard their message maps to is full.
+     * @return the shard capacity
+     */
+    public int getMessageQueueShardCapacity() {
+        return Config.get().getInt(MESSAGE_QUEUE_SHARD_CAPACITY, 1000);
+    }
+
 
     /**
      * Returns the notifications type disabled.
@@ -1227,4 +1349,89 @@ public class ConfigDefaults {
     public boolean isOvalEnabledForCveAudit() {
         return Config.get().getBoolean(CVE_AUDIT_ENABLE_OVAL_METADATA, false);
     }
+
+    /**
+     * Check if CVE audit results should be kept per system and CVE, and reused until the packages, channels or
+     * vulnerability data of the system change.
+     *
+     * @return {@code true} if the exposure store is used and {@code false} otherwise.
+     * */
+    public boolean isCveAuditExposureStoreEnabled() {
+        return Config.get().getBoolean(CVE_AUDIT_ENABLE_EXPOSURE_STORE, false);
+    }
+
+    /**
+     * Check if the per-system tables of the local reporting database should be refreshed only for the systems
+     * that changed since the last refresh.
+     *
+     * @return {@code true} if the incremental refresh is used and {@code false} otherwise.
+     * */
+    public boolean isReportDbIncrementalRefreshEnabled() {
+        return Config.get().getBoolean(REPORT_DB_INCREMENTAL_REFRESH, false);
+    }
+
+    /**
+     * Check if the tables of the local reporting database should be refreshed streaming the data with COPY, each
+     * table in its own transaction.
+     *
+     * @return {@code true} if COPY is used and {@code false} otherwise.
+     * */
+    public boolean isReportDbCopyRefreshEnabled() {
+        return Config.get().getBoolean(REPORT_DB_COPY_REFRESH, false);
+    }
+
+    /**
+     * Returns the number of tables of the local reporting database refreshed concurrently when COPY is used.
+     *
+     * @return the number of tables refreshed concurrently
+     * */
+    public int getReportDbRefreshWorkers() {
+        return Config.get().getInt(REPORT_DB_REFRESH_WORKERS, 4);
+    }
+
+    /**
+     * Returns how long the user of an API session key is remembered, in seconds. 0 disables the cache.
+     *
+     * @return the time to live of the API session cache entries, in seconds
+     * */
+    public int getApiSessionCacheTtl() {
+        return Config.get().getInt(API_SESSION_CACHE_TTL, 60);
+    }
+
+    /**
+     * Returns how long the role based access decisions of a user are remembered, in seconds. 0 disables the cache.
+     *
+     * @return the time to live of the access cache entries, in seconds
+     * */
+    public int getApiAccessCacheTtl() {
+        return Config.get().getInt(API_ACCESS_CACHE_TTL, 60);
+    }
+
+    /**
+     * Returns the maximum number of entries of the API session and access caches.
+     *
+     * @return the maximum number of entries of each cache
+     * */
+    public int getApiCacheSize() {
+        return Config.get().getInt(API_CACHE_SIZE, 10000);
+    }
+
+    /**
+     * Returns how long the verified download tokens and the package paths served by the download endpoint are
+     * remembered, in seconds. 0 disables the caches.
+     *
+     * @return the time to live of the download cache entries, in seconds
+     * */
+    public int getDownloadCacheTtl() {
+        return Config.get().getInt(DOWNLOAD_CACHE_TTL, 60);
+    }
+
+    /**
+     * Returns the maximum number of entries of each of the download endpoint caches.
+     *
+     * @return the maximum number of entries of each cache
+     * */
+    public int getDownloadCacheSize() {
+        return Config.get().getInt(DOWNLOAD_CACHE_SIZE, 20000);
+    }
 }
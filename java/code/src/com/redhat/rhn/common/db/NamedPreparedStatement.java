@@ -100,6 +100,44 @@ public final class NamedPreparedStatement {
         return sql.toString();
     }
 
+    /**
+     * Given a SQL query with named bind parameters, replace the parameters with the given values as SQL literals.
+     * This is meant for statements that cannot be prepared, like COPY, and only supports numbers and strings.
+     * @param rawSQL the SQL statement with named bind parameters
+     * @param parameters the values of the named bind parameters
+     * @return a SQL statement without bind parameters
+     */
+    public static String inlineBindParams(String rawSQL, Map<String, ?> parameters) {
+        StringBuilder sql = new StringBuilder(rawSQL);
+
+        int idx = findColon(0, sql);
+        while (idx != -1) {
+            int end = findEndofVariable(sql, idx);
+            String name = sql.substring(idx + 1, end).toLowerCase();
+            if (!parameters.containsKey(name)) {
+                throw new BindVariableNotFoundException("Can't find variable: " + name);
+            }
+
+            String literal = toLiteral(parameters.get(name));
+            sql = sql.replace(idx, end, literal);
+            idx = findColon(idx + literal.length(), sql);
+        }
+        return sql.toString();
+    }
+
+    private static String toLiteral(Object value) {
+        if (value == null) {
+            return "NULL";
+        }
+        if (value instanceof Number) {
+            return value.toString();
+        }
+        if (value instanceof String str) {
+            return "'" + str.replace("'", "''") + "'";
+        }
+        throw new IllegalArgumentException("Unsupported parameter type " + value.getClass().getName());
+    }
+
     /**
      * Execute the CallableStatement using the given values for bind parameters.
      * @param cs The CallableStatement to execute
@@ -40,12 +40,20 @@ import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import javax.persistence.FlushModeType;
 
@@ -70,6 +78,22 @@ public class CachedStatement implements Serializable {
      */
     public static final int BATCH_SIZE = 500;
 
+    /** Matches the in-clauses that can be compared with an array instead */
+    private static final Pattern IN_CLAUSE = Pattern.compile("\\b(not\\s+)?in\\s*\\(\\s*%s\\s*\\)",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final String IN_CLAUSE_PARAM = "in_clause_array";
+
+    private static final String PAGED_ALIAS = "paged_query";
+    private static final String PAGED_ROW = "paged_row";
+    private static final String PAGED_VALUE = "paged_value";
+    private static final String PAGED_POSITION = "paged_position";
+    private static final String PAGED_FILTER_PARAM = "paged_filter";
+    private static final String PAGED_CHARACTER_PARAM = "paged_character";
+
+    private static final Set<String> ORACLE_TIMESTAMP_CLASSES = Set.of(
+            "oracle.sql.TIMESTAMPLTZ", "oracle.sql.TIMESTAMP", "oracle.sql.TIMESTAMPTZ");
+
     /*
      * This is the original config for this query as specified in the mode query
      * xml file. It is intended to be immutable.
@@ -88,9 +112,17 @@ public class CachedStatement implements Serializable {
     private String name;
 
     private Map<String, List<Integer>> qMap;
+    private boolean bindParamsReplaced = false;
+
+    /** The statement with its in-clause bound as a single array parameter, null if it can not be */
+    private String arrayStatement;
+    private Map<String, List<Integer>> arrayQMap;
 
     private List<String> params;
 
+    /** The columns of the results and their JDBC types, once a paged statement has been run */
+    private Map<String, Integer> columnTypes;
+
     // This is only set if the current CachedStatement is a duplicate of an
     // existing one with the %s expanded out.
     private CachedStatement parentStatement;
@@ -224,6 +256,55 @@ public class CachedStatement implements Serializable {
         sqlStatement = sqlStatement.replace(replaceToken, replacementString);
     }
 
+    /**
+     * Replaces the named bind parameters with JDBC ones, the first time it is called. The statement with the
+     * in-clause bound as an array is prepared at the same time, as it needs the named parameters.
+     */
+    private void replaceBindParams() {
+        if (!bindParamsReplaced) {
+            Matcher matcher = IN_CLAUSE.matcher(sqlStatement);
+            StringBuilder sb = new StringBuilder();
+            while (matcher.find()) {
+                matcher.appendReplacement(sb, matcher.group(1) == null ?
+                        "= ANY(:" + IN_CLAUSE_PARAM + ")" : "<> ALL(:" + IN_CLAUSE_PARAM + ")");
+            }
+            matcher.appendTail(sb);
+            if (!sb.toString().contains("%s")) {
+                arrayQMap = new HashMap<>();
+                arrayStatement = NamedPreparedStatement.replaceBindParams(sb.toString(), arrayQMap);
+            }
+            bindParamsReplaced = true;
+        }
+        sqlStatement = NamedPreparedStatement.replaceBindParams(sqlStatement, qMap);
+    }
+
+    /**
+     * Checks if the in-clause of this statement can be bound as a single array parameter. Only integer values are,
+     * other values are compared with columns of many different types and are still written in the statement.
+     * @param inClause the values of the in-clause
+     * @return true if the in-clause can be bound as an array
+     */
+    private boolean canBindAsArray(List<?> inClause) {
+        if (arrayStatement == null || inClause == null || inClause.isEmpty()) {
+            return false;
+        }
+        for (Object value : inClause) {
+            if (!(value instanceof Long || value instanceof Integer || value instanceof Short)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Object executeWithArray(Map<String, ?> parameters, List<?> inClause, Mode mode) {
+        return executeChecking(arrayStatement, arrayQMap, connection -> {
+            Map<String, Object> values = new HashMap<>(setupParamMap(parameters));
+            Long[] array = inClause.stream().map(value -> ((Number) value).longValue()).toArray(Long[]::new);
+            values.put(IN_CLAUSE_PARAM, connection.createArrayOf("int8", array));
+            return values;
+        }, mode, null);
+    }
+
     int executeUpdate(Map<String, ?> parameters) {
         return executeUpdate(parameters, null);
     }
@@ -243,10 +324,20 @@ public class CachedStatement implements Serializable {
             try {
                 List<Integer> result = new ArrayList<>(parameterList.size());
 
-                sqlStatement = NamedPreparedStatement.replaceBindParams(sqlStatement, qMap);
-                for (Map<String, Object> parameters : parameterList) {
-                    result.add((Integer) execute(connection, sqlStatement, qMap, parameters,
-                            null, null));
+                replaceBindParams();
+                PreparedStatement ps = null;
+                try {
+                    ps = prepareStatement(connection, sqlStatement, null);
+                    for (Map<String, Object> parameters : parameterList) {
+                        if (log.isDebugEnabled()) {
+                            log.debug("executeUpdates() - With: {}", parameters);
+                        }
+                        NamedPreparedStatement.execute(ps, qMap, setupParamMap(parameters));
+                        result.add(ps.getUpdateCount());
+                    }
+                }
+                finally {
+                    HibernateHelper.cleanupDB(ps);
                 }
                 return result;
             }
@@ -290,7 +381,7 @@ public class CachedStatement implements Serializable {
 
     private <T> DataResult<T> internalExecuteNoSubClause(Map<String, ?> parameters, Mode mode) {
         storeForRestart(parameters, null, mode);
-        this.sqlStatement = NamedPreparedStatement.replaceBindParams(sqlStatement, qMap);
+        replaceBindParams();
         Object resultObj = executeChecking(sqlStatement, qMap, parameters, mode, null);
         Class<DataResult<T>> drClazz = (Class<DataResult<T>>)(Class<?>) DataResult.class;
         if (drClazz.isAssignableFrom(resultObj.getClass())) {
@@ -301,8 +392,12 @@ public class CachedStatement implements Serializable {
 
     private int internalExecuteUpdate(Map<String, ?> parameters, List<?> inClause, Mode mode) {
         storeForRestart(parameters, inClause, mode);
-        this.sqlStatement = NamedPreparedStatement.replaceBindParams(sqlStatement, qMap);
+        replaceBindParams();
 
+        if (canBindAsArray(inClause)) {
+            Object resultObj = executeWithArray(parameters, inClause, mode);
+            return resultObj instanceof Integer integer ? integer : 0;
+        }
         if (sqlStatement.contains("%s")) {
             int returnInt = 0;
 
@@ -345,13 +440,17 @@ public class CachedStatement implements Serializable {
     private <T> DataResult<T> internalExecute(Map<String, ?> parameters, List<?> inClause, Mode mode) {
 
         storeForRestart(parameters, inClause, mode);
-        this.sqlStatement = NamedPreparedStatement.replaceBindParams(sqlStatement, qMap);
+        replaceBindParams();
 
         if (sqlStatement.contains("%s")) {
             if (inClause == null || inClause.isEmpty()) {
                 return new DataResult<>(mode);
             }
             Class<DataResult<T>> drClazz = (Class<DataResult<T>>)(Class<?>) DataResult.class;
+            if (canBindAsArray(inClause)) {
+                Object resultObj = executeWithArray(parameters, inClause, mode);
+                return drClazz.isAssignableFrom(resultObj.getClass()) ? drClazz.cast(resultObj) : null;
+            }
 
             List<String> batches = queryBatches(inClause);
             List<DataResult<T>> results = batches.stream()
@@ -373,6 +472,258 @@ public class CachedStatement implements Serializable {
         }
     }
 
+    /**
+     * Returns the columns of the results of this statement with their JDBC types, see {@link java.sql.Types}. The
+     * statement is run once without fetching any row, then the columns are kept for the next calls. No columns
+     * are returned when the statement can not be wrapped in a paged one: when it has an in-clause or when it
+     * returns the same column more than once.
+     * @param parameters the values of the named parameters
+     * @param mode the select mode of the statement
+     * @return the JDBC type of every column, in the order of the results
+     */
+    Map<String, Integer> getColumnTypes(Map<String, ?> parameters, Mode mode) {
+        storeForRestart(parameters, null, mode);
+        replaceBindParams();
+        if (columnTypes == null) {
+            if (sqlStatement.contains("%s")) {
+                columnTypes = Map.of();
+            }
+            else {
+                String sql = "SELECT * FROM (" + sqlStatement + ") " + PAGED_ALIAS + " LIMIT 0";
+                columnTypes = executeQuery(sql, qMap, setupParamMap(parameters), rs -> {
+                    ResultSetMetaData rsmd = rs.getMetaData();
+                    Map<String, Integer> types = new LinkedHashMap<>();
+                    for (int i = 1; i <= rsmd.getColumnCount(); i++) {
+                        if (types.put(rsmd.getColumnName(i).toLowerCase(), rsmd.getColumnType(i)) != null) {
+                            return Map.of();
+                        }
+                    }
+                    return Collections.unmodifiableMap(types);
+                });
+            }
+        }
+        return columnTypes;
+    }
+
+    /**
+     * Executes this statement, filtered, sorted and limited to a window of its results by the database.
+     * @param parameters the values of the named parameters
+     * @param page the window of results to return
+     * @param mode the select mode of the statement
+     * @param <T> the type of the returned items
+     * @return the results in the window
+     */
+    @SuppressWarnings("unchecked")
+    <T> DataResult<T> executePage(Map<String, ?> parameters, QueryPage page, Mode mode) {
+        if (getColumnTypes(parameters, mode).isEmpty()) {
+            throw new IllegalArgumentException("Query can not be paged: " + getName());
+        }
+        List<String> names = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT ");
+        sql.append(columnTypes.keySet().stream()
+                .map(column -> PAGED_ALIAS + "." + quote(column))
+                .collect(Collectors.joining(", ")));
+        sql.append(pagedFrom(page, names)).append(pagedOrder(page));
+        if (page.limit() > 0) {
+            sql.append(" LIMIT ").append(page.limit());
+        }
+        sql.append(" OFFSET ").append(Math.max(page.offset(), 0));
+
+        Object resultObj = executeChecking(sql.toString(), pagedParameterMap(names),
+                connection -> pagedParameters(parameters, page, names, null), mode, null);
+        DataResult<T> result = resultObj instanceof DataResult ? (DataResult<T>) resultObj : new DataResult<>(mode);
+        if (!result.isEmpty()) {
+            result.setStart(page.offset() + 1);
+            result.setEnd(page.offset() + result.size());
+        }
+        return result;
+    }
+
+    /**
+     * Counts the results of this statement which match the filter of a window.
+     * @param parameters the values of the named parameters
+     * @param page the window of results, only its filter is used
+     * @param mode the select mode of the statement
+     * @return the number of results
+     */
+    int countRows(Map<String, ?> parameters, QueryPage page, Mode mode) {
+        getColumnTypes(parameters, mode);
+        List<String> names = new ArrayList<>();
+        String sql = "SELECT count(*)" + pagedFrom(page, names);
+        return executeQuery(sql, pagedParameterMap(names), pagedParameters(parameters, page, names, null),
+                rs -> rs.next() ? rs.getInt(1) : 0);
+    }
+
+    /**
+     * Returns the upper case first characters of the non blank values of a text column, in the results of this
+     * statement which match the filter of a window.
+     * @param parameters the values of the named parameters
+     * @param page the window of results, only its filter is used
+     * @param column the text column
+     * @param mode the select mode of the statement
+     * @return the first characters
+     */
+    Set<Character> getFirstCharacters(Map<String, ?> parameters, QueryPage page, String column, Mode mode) {
+        checkColumn(parameters, column, mode);
+        List<String> names = new ArrayList<>();
+        String value = PAGED_ALIAS + "." + quote(column);
+        String sql = "SELECT DISTINCT upper(substr(" + value + ", 1, 1))" + pagedFrom(page, names) +
+                (page.isFiltered() ? " AND " : " WHERE ") + "btrim(" + value + ") <> ''";
+        return executeQuery(sql, pagedParameterMap(names), pagedParameters(parameters, page, names, null), rs -> {
+            Set<Character> characters = new HashSet<>();
+            while (rs.next()) {
+                characters.add(rs.getString(1).charAt(0));
+            }
+            return characters;
+        });
+    }
+
+    /**
+     * Returns the position of the first result whose sort column starts with a character, ignoring case, in the
+     * results of this statement filtered and sorted as in a window.
+     * @param parameters the values of the named parameters
+     * @param page the window of results, its filter and sort column are used
+     * @param firstCharacter the first character to look for
+     * @param mode the select mode of the statement
+     * @return the position of the result starting from 0, or -1 if no result starts with the character
+     */
+    int findFirstPosition(Map<String, ?> parameters, QueryPage page, char firstCharacter, Mode mode) {
+        checkColumn(parameters, page.sortColumn(), mode);
+        List<String> names = new ArrayList<>();
+        String sql = "SELECT min(" + PAGED_POSITION + ") - 1 FROM (SELECT " + PAGED_ALIAS + "." +
+                quote(page.sortColumn()) + " AS " + PAGED_VALUE + ", row_number() OVER (" + pagedOrder(page) +
+                ") AS " + PAGED_POSITION + pagedFrom(page, names) + ") " + PAGED_ALIAS +
+                "_positions WHERE upper(substr(" + PAGED_VALUE + ", 1, 1)) = ?";
+        names.add(PAGED_CHARACTER_PARAM);
+        String character = String.valueOf(Character.toUpperCase(firstCharacter));
+        return executeQuery(sql, pagedParameterMap(names),
+                pagedParameters(parameters, page, names, character), rs -> {
+                    if (!rs.next()) {
+                        return -1;
+                    }
+                    int position = rs.getInt(1);
+                    return rs.wasNull() ? -1 : position;
+                });
+    }
+
+    /**
+     * Returns the FROM clause of a paged statement, with the WHERE clause of the filter. The rows are numbered as
+     * this statement returns them. The database does not guarantee that this follows the ORDER BY of the statement
+     * once it is wrapped, so the numbers only break the ties left by the order columns of the window.
+     */
+    private String pagedFrom(QueryPage page, List<String> names) {
+        String from = " FROM (SELECT " + PAGED_ALIAS + "_rows.*, row_number() OVER () AS " + PAGED_ROW + " FROM (" +
+                sqlStatement + ") " + PAGED_ALIAS + "_rows) " + PAGED_ALIAS;
+        if (page.isFiltered()) {
+            if (!isTextColumn(page.filterColumn())) {
+                throw new IllegalArgumentException("Can not filter on column: " + page.filterColumn());
+            }
+            names.add(PAGED_FILTER_PARAM);
+            from += " WHERE " + PAGED_ALIAS + "." + quote(page.filterColumn()) + " ILIKE ?";
+        }
+        return from;
+    }
+
+    /**
+     * Returns the ORDER BY clause of a paged statement: the sort column, then the order columns and the row numbers.
+     * Text is sorted ignoring case and null values come first in ascending order, like the in-memory sort of the
+     * list tag.
+     */
+    private String pagedOrder(QueryPage page) {
+        List<String> order = new ArrayList<>();
+        if (page.sortColumn() != null) {
+            order.add(pagedOrderValue(page.sortColumn()) +
+                    (page.ascending() ? " ASC NULLS FIRST" : " DESC NULLS LAST"));
+        }
+        for (String column : page.orderColumns()) {
+            order.add(pagedOrderValue(column) + " ASC NULLS FIRST");
+        }
+        order.add(PAGED_ROW);
+        return " ORDER BY " + String.join(", ", order);
+    }
+
+    private String pagedOrderValue(String column) {
+        if (!columnTypes.containsKey(column)) {
+            throw new IllegalArgumentException("Can not sort by column: " + column);
+        }
+        String value = PAGED_ALIAS + "." + quote(column);
+        return isTextColumn(column) ? "lower(" + value + ")" : value;
+    }
+
+    private void checkColumn(Map<String, ?> parameters, String column, Mode mode) {
+        if (!getColumnTypes(parameters, mode).containsKey(column)) {
+            throw new IllegalArgumentException("Unknown column: " + column);
+        }
+    }
+
+    private boolean isTextColumn(String column) {
+        Integer type = columnTypes.get(column);
+        return type != null && QueryPage.isText(type);
+    }
+
+    private static String quote(String column) {
+        return "\"" + column.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * Returns the positions of the parameters of a paged statement: those of this statement, followed by the
+     * parameters added by the paged statement, in their order.
+     */
+    private Map<String, List<Integer>> pagedParameterMap(List<String> names) {
+        Map<String, List<Integer>> parameterMap = new HashMap<>(qMap);
+        int position = qMap.values().stream().mapToInt(List::size).sum();
+        for (String paramName : names) {
+            parameterMap.put(paramName, List.of(++position));
+        }
+        return parameterMap;
+    }
+
+    private Map<String, ?> pagedParameters(Map<String, ?> parameters, QueryPage page, List<String> names,
+            String character) {
+        Map<String, Object> values = new HashMap<>(setupParamMap(parameters));
+        if (names.contains(PAGED_FILTER_PARAM)) {
+            values.put(PAGED_FILTER_PARAM, "%" + page.filterValue().replace("\\", "\\\\").replace("%", "\\%")
+                    .replace("_", "\\_") + "%");
+        }
+        if (names.contains(PAGED_CHARACTER_PARAM)) {
+            values.put(PAGED_CHARACTER_PARAM, character);
+        }
+        return values;
+    }
+
+    private <R> R executeQuery(String sql, Map<String, List<Integer>> parameterMap, Map<String, ?> parameters,
+            ResultSetReader<R> reader) {
+        if (log.isDebugEnabled()) {
+            log.debug("executeQuery() - Executing: {}", sql);
+            log.debug("executeQuery() - With: {}", parameters);
+        }
+        return doWithStolenConnection(connection -> {
+            PreparedStatement ps = null;
+            ResultSet rs = null;
+            try {
+                ps = connection.prepareStatement(sql);
+                NamedPreparedStatement.execute(ps, parameterMap, parameters);
+                rs = ps.getResultSet();
+                return reader.read(rs);
+            }
+            catch (SQLException e) {
+                throw SqlExceptionTranslator.sqlException(e);
+            }
+            finally {
+                HibernateHelper.cleanupDB(rs, ps);
+            }
+        });
+    }
+
+    /**
+     * Reads the result set of a statement.
+     * @param <R> the type of the value read
+     */
+    @FunctionalInterface
+    private interface ResultSetReader<R> {
+        R read(ResultSet rs) throws SQLException;
+    }
+
     private String commaSeparatedList(List<?> list) {
         StringBuilder sb = new StringBuilder();
         boolean firstValue = true;
@@ -411,7 +762,7 @@ public class CachedStatement implements Serializable {
     private Collection<Object> executeElaboratorBatch(List<Object> resultList, Mode mode,
         Map<String, ?> parametersIn) {
 
-        this.sqlStatement = NamedPreparedStatement.replaceBindParams(sqlStatement, qMap);
+        replaceBindParams();
 
         int len = resultList.size();
 
@@ -486,9 +837,25 @@ public class CachedStatement implements Serializable {
      */
     private Object executeChecking(String sql, Map<String, List<Integer>> parameterMap,
             Map<String, ?> parameters, Mode mode, List<Object> dr) {
+        return executeChecking(sql, parameterMap, connection -> setupParamMap(parameters), mode, dr);
+    }
+
+    /**
+     * Same as {@link #executeChecking(String, Map, Map, Mode, List)}, with parameter values that need the connection.
+     * @param sql SQL string to be prepared and executed
+     * @param parameterMap The Map returned setup by replaceBindParams
+     * @param values computes the values of the parameters of the statement
+     * @param mode Mode for selection queries
+     * @param dr Data result list or null
+     * @return either an integer count of the number of rows updated, or the
+     *         DataResult. Casting to int or DataResult is caller's
+     *         responsibility
+     */
+    private Object executeChecking(String sql, Map<String, List<Integer>> parameterMap,
+            ReturningWork<Map<String, ?>> values, Mode mode, List<Object> dr) {
         return doWithStolenConnection(connection -> {
             try {
-                return execute(connection, sql, parameterMap, parameters, mode, dr);
+                return execute(connection, sql, parameterMap, values.execute(connection), mode, dr);
             }
             catch (SQLException e) {
                 throw SqlExceptionTranslator.sqlException(e);
@@ -511,7 +878,7 @@ public class CachedStatement implements Serializable {
      * @param connection a JDBC Connection object
      * @param sql SQL string to be prepared and executed
      * @param parameterMap The Map returned setup by replaceBindParams
-     * @param parameters The Map returned setup by replaceBindParams
+     * @param parameters The values of the parameters of the statement, as returned by setupParamMap
      * @param mode Mode for selection queries
      * @param dr Data result list or null
      * @return either an integer count of the number of rows updated, or the
@@ -531,8 +898,7 @@ public class CachedStatement implements Serializable {
         PreparedStatement ps = null;
         try {
             ps = prepareStatement(connection, sql, mode);
-            boolean returnType = NamedPreparedStatement.execute(ps, parameterMap,
-                    setupParamMap(parameters));
+            boolean returnType = NamedPreparedStatement.execute(ps, parameterMap, parameters);
             if (log.isDebugEnabled()) {
                 log.debug("execute() - Return type: {}", returnType);
             }
@@ -590,8 +956,7 @@ public class CachedStatement implements Serializable {
             Map<String, Integer> outParams) {
 
         return doWithStolenConnection(connection -> {
-            this.sqlStatement =
-                    NamedPreparedStatement.replaceBindParams(sqlStatement, qMap);
+            replaceBindParams();
             CallableStatement cs = null;
             try {
                 cs = connection.prepareCall(this.sqlStatement);
@@ -633,6 +998,13 @@ public class CachedStatement implements Serializable {
         try {
             // Get the column names from the result set.
             List<String> columns = getColumnNames(rs.getMetaData());
+            int[] positions = getColumnPositions(columns);
+            Class<?> clazz = null;
+            RowMapper.ColumnSetter[] setters = null;
+            if (className != null && !className.equals("java.util.Map")) {
+                clazz = Class.forName(className);
+                setters = RowMapper.forClass(clazz).getSetters(columns);
+            }
             if (currentResults != null && !columns.contains(getColumn().toLowerCase())) {
                 // This is ugly, but we check driving query results someplace
                 // else, so this is only executed if we are elaborating.
@@ -645,7 +1017,7 @@ public class CachedStatement implements Serializable {
                 /*
                  * If no className was specified *or* if the caller wants a Map
                  */
-                if (className == null || className.equals("java.util.Map")) {
+                if (clazz == null) {
                     Row resultMap;
                     if (pointers == null) {
                         resultMap = new Row();
@@ -662,7 +1034,7 @@ public class CachedStatement implements Serializable {
                          */
                         resultMap = (Row) currentResults.get(pos);
                     }
-                    addToMap(columns, rs, resultMap,
+                    addToMap(columns, positions, rs, resultMap,
                             mode.getElaborators().indexOf(parentStatement));
 
                     // bug 141664: Don't add to the DataResult if we are
@@ -675,7 +1047,6 @@ public class CachedStatement implements Serializable {
                  * Otherwise, try to set the results to the class given.
                  */
                 else {
-                    Class<?> clazz = Class.forName(className);
                     Object obj;
                     if (pointers == null) {
                         obj = clazz.newInstance();
@@ -690,7 +1061,7 @@ public class CachedStatement implements Serializable {
                         obj = currentResults.get(pos);
                     }
                     // if pointers are null, we are doing an elaborator.
-                    addToObject(columns, rs, obj, (pointers != null));
+                    addToObject(columns, positions, setters, rs, obj, (pointers != null));
                     // bug 141664: Don't add to the DataResult if we are
                     // elaborating the data.
                     if (pointers == null) {
@@ -724,12 +1095,12 @@ public class CachedStatement implements Serializable {
     }
 
     @SuppressWarnings("unchecked")
-    private void addToMap(List<String> columns, ResultSet rs, Map<String, Object> resultMap,
+    private void addToMap(List<String> columns, int[] positions, ResultSet rs, Map<String, Object> resultMap,
             int pos)
         throws SQLException {
         Map<String, Object> newMap = new HashMap<>();
-        for (String columnName : columns) {
-            newMap.put(columnName.toLowerCase(), getObject(rs, columnName));
+        for (int i = 0; i < positions.length; i++) {
+            newMap.put(columns.get(i), getObject(rs, positions[i]));
         }
         if (resultMap.isEmpty()) {
             resultMap.putAll(newMap);
@@ -766,9 +1137,8 @@ public class CachedStatement implements Serializable {
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private void addToObject(List<String> columns, ResultSet rs, Object obj,
-            boolean elaborator)
+    private void addToObject(List<String> columns, int[] positions, RowMapper.ColumnSetter[] setters,
+            ResultSet rs, Object obj, boolean elaborator)
         throws SQLException {
 
         List<String> columnSkip;
@@ -777,57 +1147,21 @@ public class CachedStatement implements Serializable {
             columnSkip = cb.getCallBackColumns();
         }
         else {
-            columnSkip = new ArrayList<>();
+            columnSkip = List.of();
         }
 
-        for (String columnName : columns) {
-            if (columnSkip.contains(columnName.toLowerCase())) {
+        /*
+         * Call the set method of every column, or add the value to the collection of the column if the set method
+         * takes one. This will call the same set method multiple times. If the result set should be a list, but has
+         * a non-Collection set method, the attribute corresponding to this column will ultimately contain the last
+         * item found for this column.
+         */
+        for (int i = 0; i < positions.length; i++) {
+            if (columnSkip.contains(columns.get(i))) {
                 continue;
             }
-
-            String setName = StringUtil.beanify("set " + columnName.toLowerCase());
-            String getName = StringUtil.beanify("get " + columnName.toLowerCase());
-
-            boolean isList = false;
-            Method[] methods = obj.getClass().getMethods();
-            /*
-             * Now loop through the methods and find the set method for this
-             * column then decide if it takes a collection Note: This action
-             * might not complete correctly if there are two set methods with
-             * the same name
-             */
-            for (Method methodIn : methods) {
-                // getName() gets the name of the set method
-                // setName is the name of the set method
-                if (methodIn.getName().equals(setName)) {
-                    Class<?> paramType = methodIn.getParameterTypes()[0];
-                    if (Collection.class.isAssignableFrom(paramType)) {
-                        isList = true;
-                    }
-                    break;
-                }
-            }
-
-            if (isList) { // requires matching get method returning the same
-                // list
-                Collection<Object> c = (Collection<Object>) MethodUtil.callMethod(obj,
-                        getName, new Object[0]);
-                if (c == null) {
-                    c = new ArrayList<>();
-                }
-                c.add(getObject(rs, columnName));
-                MethodUtil.callMethod(obj, setName, c);
-                continue;
-            }
-            /*
-             * Just call the set method. This will call the same set method
-             * multiple times. If the result set should be a list, but has a
-             * non-Collection set method, the attribute corresponding to this
-             * column will ultimately contain the last item found for this
-             * column.
-             */
-            MethodUtil.callMethod(obj, setName, getObject(rs, columnName));
-        } // while
+            setters[i].set(obj, getObject(rs, positions[i]));
+        }
     }
 
     /**
@@ -843,7 +1177,19 @@ public class CachedStatement implements Serializable {
      * @throws SQLException if rs.getObject/rs.getTimestamp raise an exception.
      */
     private Object getObject(ResultSet rs, String columnName) throws SQLException {
-        Object columnValue = rs.getObject(columnName);
+        return getObject(rs, rs.findColumn(columnName));
+    }
+
+    /**
+     * Same as {@link #getObject(ResultSet, String)}, with the position of the column.
+     * @param rs the sql result set
+     * @param position the position of the column, starting from 1
+     * @return the timestamp if rs.getObject is a date, the Long if rs.getObject
+     * is a BigDecimal, or just rs.getObject otherwise.
+     * @throws SQLException if rs.getObject/rs.getTimestamp raise an exception.
+     */
+    private Object getObject(ResultSet rs, int position) throws SQLException {
+        Object columnValue = rs.getObject(position);
         if (columnValue == null) {
             return null;
         }
@@ -853,21 +1199,32 @@ public class CachedStatement implements Serializable {
         // precision beyond 12:00AM Midnight so you get dates like
         // this : August 23, 2005 12:00:00 AM PDT
         // vs the real date: August 23, 2005 1:36:12 PM PDT
-        if (columnValue instanceof Date ||
-                ("oracle.sql.TIMESTAMPLTZ"
-                     .equals(columnValue.getClass().getCanonicalName())) ||
-                ("oracle.sql.TIMESTAMP"
-                     .equals(columnValue.getClass().getCanonicalName())) ||
-                ("oracle.sql.TIMESTAMPTZ"
-                     .equals(columnValue.getClass().getCanonicalName()))) {
-            return rs.getTimestamp(columnName);
+        if (columnValue instanceof Date) {
+            return rs.getTimestamp(position);
         }
         else if (columnValue instanceof BigDecimal) {
-            return rs.getLong(columnName);
+            return rs.getLong(position);
+        }
+        else if (ORACLE_TIMESTAMP_CLASSES.contains(columnValue.getClass().getName())) {
+            return rs.getTimestamp(position);
         }
         return columnValue;
     }
 
+    /**
+     * Returns the position of every column in the result set. As when looking up a column by name, a column
+     * whose name appears more than once is read from its first occurrence.
+     * @param columns the column names, in lower case
+     * @return the positions, starting from 1
+     */
+    private static int[] getColumnPositions(List<String> columns) {
+        int[] positions = new int[columns.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = columns.indexOf(columns.get(i)) + 1;
+        }
+        return positions;
+    }
+
     private List<String> getColumnNames(ResultSetMetaData rsmd) {
         try {
             ArrayList<String> columns = new ArrayList<>();
@@ -958,6 +1315,94 @@ public class CachedStatement implements Serializable {
                         restartData.getInClause(), restartData.getMode());
     }
 
+    /**
+     * Restart the latest query, handing its rows over in batches as they are fetched from a database
+     * cursor instead of loading all of them first. Queries with an in clause are run as usual and their
+     * rows handed over at once.
+     * @param newSession the new hibernate session to use
+     * @param batchSize the number of rows to fetch and hand over at a time
+     * @param consumer gets the batches of rows, in order
+     * @param <T> the type of the returned items
+     */
+    public <T> void restartQuery(Session newSession, int batchSize, Consumer<DataResult<T>> consumer) {
+        session = newSession;
+        if (restartData == null) {
+            return;
+        }
+
+        replaceBindParams();
+        if (sqlStatement.contains("%s") || !(restartData.getMode() instanceof SelectMode)) {
+            DataResult<T> result = internalExecute(restartData.getParameters(),
+                    restartData.getInClause(), restartData.getMode());
+            if (result != null && !result.isEmpty()) {
+                consumer.accept(result);
+            }
+            return;
+        }
+        executeInBatches(restartData.getParameters(), (SelectMode) restartData.getMode(), batchSize, consumer);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> void executeInBatches(Map<String, ?> parameters, SelectMode mode, int batchSize,
+            Consumer<DataResult<T>> consumer) {
+        if (log.isDebugEnabled()) {
+            log.debug("executeInBatches() - Executing: {}", sqlStatement);
+            log.debug("executeInBatches() - With: {}", parameters);
+        }
+        String className = mode.getClassString();
+        doWithStolenConnection(connection -> {
+            PreparedStatement ps = null;
+            ResultSet rs = null;
+            try {
+                ps = prepareStatement(connection, sqlStatement, mode);
+                ps.setFetchSize(batchSize);
+                NamedPreparedStatement.execute(ps, qMap, setupParamMap(parameters));
+                rs = ps.getResultSet();
+
+                List<String> columns = getColumnNames(rs.getMetaData());
+                int[] positions = getColumnPositions(columns);
+                Class<?> clazz = null;
+                RowMapper.ColumnSetter[] setters = null;
+                if (className != null && !className.equals("java.util.Map")) {
+                    clazz = Class.forName(className);
+                    setters = RowMapper.forClass(clazz).getSetters(columns);
+                }
+
+                DataResult<T> batch = new DataResult<>(mode);
+                while (rs.next()) {
+                    Object row;
+                    if (clazz == null) {
+                        Row resultMap = new Row();
+                        addToMap(columns, positions, rs, resultMap, -1);
+                        row = resultMap;
+                    }
+                    else {
+                        row = clazz.newInstance();
+                        addToObject(columns, positions, setters, rs, row, false);
+                    }
+                    batch.add((T) row);
+                    if (batch.size() == batchSize) {
+                        consumer.accept(batch);
+                        batch = new DataResult<>(mode);
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    consumer.accept(batch);
+                }
+                return null;
+            }
+            catch (SQLException e) {
+                throw SqlExceptionTranslator.sqlException(e);
+            }
+            catch (ClassNotFoundException | IllegalAccessException | InstantiationException e) {
+                throw new ObjectCreateWrapperException("Could not create " + className, e);
+            }
+            finally {
+                HibernateHelper.cleanupDB(rs, ps);
+            }
+        });
+    }
+
     /**
      * Executes multiple updates with one only prepared statement in batch mode.
      *
@@ -967,7 +1412,7 @@ public class CachedStatement implements Serializable {
     public int [] executeBatchUpdates(DataResult<Map<String, Object>> batch) {
         return doWithStolenConnection(connection -> {
             try {
-                sqlStatement = NamedPreparedStatement.replaceBindParams(sqlStatement, qMap);
+                replaceBindParams();
 
                 return executeBatch(connection, sqlStatement, qMap, batch);
             }
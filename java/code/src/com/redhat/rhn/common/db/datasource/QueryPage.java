@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2025 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.common.db.datasource;
+
+import java.sql.Types;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A window over the results of a select mode, filtered and sorted by the database, see
+ * {@link SelectMode#execute(java.util.Map, QueryPage)}.
+ *
+ * @param filterColumn the text column to filter on, or null not to filter
+ * @param filterValue the value the filter column must contain, ignoring case
+ * @param sortColumn the column to sort by, or null to keep the default order
+ * @param ascending true to sort in ascending order, with null values first as the list tag does
+ * @param offset the number of rows to skip
+ * @param limit the maximum number of rows to return, zero or less for all of them
+ * @param orderColumns the columns giving the default order of the rows, in ascending order. They also order the
+ * rows having the same value of the sort column. The order of the query itself is only used after them, as the
+ * database does not have to keep it once the query is wrapped
+ */
+public record QueryPage(String filterColumn, String filterValue, String sortColumn, boolean ascending, int offset,
+                        int limit, List<String> orderColumns) {
+
+    /** The JDBC types of the columns that can be filtered and are sorted ignoring case */
+    private static final Set<Integer> TEXT_TYPES = Set.of(Types.CHAR, Types.VARCHAR, Types.LONGVARCHAR, Types.NCHAR,
+            Types.NVARCHAR, Types.LONGNVARCHAR, Types.CLOB);
+
+    /**
+     * Builds a window without order columns, whose default order is the one the database returns the rows in.
+     * @param filterColumnIn the text column to filter on, or null not to filter
+     * @param filterValueIn the value the filter column must contain, ignoring case
+     * @param sortColumnIn the column to sort by, or null to keep the default order
+     * @param ascendingIn true to sort in ascending order
+     * @param offsetIn the number of rows to skip
+     * @param limitIn the maximum number of rows to return, zero or less for all of them
+     */
+    public QueryPage(String filterColumnIn, String filterValueIn, String sortColumnIn, boolean ascendingIn,
+                     int offsetIn, int limitIn) {
+        this(filterColumnIn, filterValueIn, sortColumnIn, ascendingIn, offsetIn, limitIn, List.of());
+    }
+
+    /**
+     * Tells if a column of a JDBC type holds text, which can be filtered on.
+     * @param jdbcType the JDBC type of the column, see {@link Types}
+     * @return true if the column holds text
+     */
+    public static boolean isText(int jdbcType) {
+        return TEXT_TYPES.contains(jdbcType);
+    }
+
+    /**
+     * Tells if the rows are filtered.
+     * @return true if there is a filter
+     */
+    public boolean isFiltered() {
+        return filterColumn != null && filterValue != null && !filterValue.isEmpty();
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2025 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.common.db.datasource;
+
+import com.redhat.rhn.common.MethodInvocationException;
+import com.redhat.rhn.common.util.MethodUtil;
+import com.redhat.rhn.common.util.StringUtil;
+
+import org.apache.commons.lang3.ClassUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sets the columns of the query results on the objects of a class. The set and get methods of every column are
+ * looked up once per class, instead of once per column and row, and called through method handles.
+ *
+ * Values are passed as they are when the set method accepts them, anything else, like a value to convert or an
+ * overloaded set method, goes through {@link MethodUtil#callMethod(Object, String, Object...)} as before.
+ */
+public final class RowMapper {
+
+    private static final Map<Class<?>, RowMapper> MAPPERS = new ConcurrentHashMap<>();
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private final Class<?> clazz;
+    private final Map<String, ColumnSetter> setters = new ConcurrentHashMap<>();
+
+    private RowMapper(Class<?> clazzIn) {
+        this.clazz = clazzIn;
+    }
+
+    /**
+     * Returns the mapper of a class.
+     * @param clazz the class of the result objects
+     * @return the mapper
+     */
+    public static RowMapper forClass(Class<?> clazz) {
+        return MAPPERS.computeIfAbsent(clazz, RowMapper::new);
+    }
+
+    /**
+     * Returns the setters of the given columns.
+     * @param columns the column names, in lower case
+     * @return the setters, in the same order as the columns
+     */
+    public ColumnSetter[] getSetters(List<String> columns) {
+        ColumnSetter[] result = new ColumnSetter[columns.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = getSetter(columns.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the setter of a column.
+     * @param column the column name, in lower case
+     * @return the setter
+     */
+    public ColumnSetter getSetter(String column) {
+        return setters.computeIfAbsent(column, c -> new ColumnSetter(clazz, c));
+    }
+
+    /**
+     * Sets the value of a column on an object, by calling the set method named after the column. If the set method
+     * takes a collection, the value is instead added to the collection returned by the get method.
+     */
+    public static final class ColumnSetter {
+
+        private final String setName;
+        private final String getName;
+        private final boolean isList;
+        private final MethodHandle setter;
+        private final Class<?> parameterType;
+        private final boolean primitive;
+        private final MethodHandle getter;
+
+        private ColumnSetter(Class<?> clazz, String column) {
+            setName = StringUtil.beanify("set " + column);
+            getName = StringUtil.beanify("get " + column);
+
+            List<Method> candidates = new ArrayList<>();
+            for (Method method : clazz.getMethods()) {
+                if (method.getName().equals(setName)) {
+                    candidates.add(method);
+                }
+            }
+
+            // As before, the first set method found decides if the column is a collection
+            isList = !candidates.isEmpty() && candidates.get(0).getParameterCount() > 0 &&
+                    Collection.class.isAssignableFrom(candidates.get(0).getParameterTypes()[0]);
+
+            Method single = candidates.size() == 1 && candidates.get(0).getParameterCount() == 1 ?
+                    candidates.get(0) : null;
+            setter = single == null ? null : unreflect(single, SETTER_TYPE);
+            parameterType = single == null ? null : ClassUtils.primitiveToWrapper(single.getParameterTypes()[0]);
+            primitive = single != null && single.getParameterTypes()[0].isPrimitive();
+            getter = isList ? findGetter(clazz, getName) : null;
+        }
+
+        /**
+         * Sets a value on an object.
+         * @param obj the object
+         * @param value the column value
+         */
+        @SuppressWarnings("unchecked")
+        public void set(Object obj, Object value) {
+            if (isList) {
+                Collection<Object> c = (Collection<Object>) (getter != null ?
+                        invoke(getter, getName, obj) : MethodUtil.callMethod(obj, getName, new Object[0]));
+                if (c == null) {
+                    c = new ArrayList<>();
+                }
+                c.add(value);
+                callSetter(obj, c);
+            }
+            else {
+                callSetter(obj, value);
+            }
+        }
+
+        private void callSetter(Object obj, Object value) {
+            boolean accepted = value == null ? !primitive : parameterType != null && parameterType.isInstance(value);
+            if (setter == null || !accepted) {
+                MethodUtil.callMethod(obj, setName, value);
+                return;
+            }
+            try {
+                setter.invokeExact(obj, value);
+            }
+            catch (Throwable t) {
+                throw new MethodInvocationException("Something bad happened when calling " + setName, t);
+            }
+        }
+
+        private static Object invoke(MethodHandle handle, String name, Object obj) {
+            try {
+                return (Object) handle.invokeExact(obj);
+            }
+            catch (Throwable t) {
+                throw new MethodInvocationException("Something bad happened when calling " + name, t);
+            }
+        }
+
+        private static MethodHandle findGetter(Class<?> clazz, String name) {
+            try {
+                return unreflect(clazz.getMethod(name), GETTER_TYPE);
+            }
+            catch (NoSuchMethodException e) {
+                return null;
+            }
+        }
+
+        private static MethodHandle unreflect(Method method, MethodType type) {
+            try {
+                return MethodHandles.publicLookup().unreflect(method).asType(type);
+            }
+            catch (IllegalAccessException e) {
+                // Left to the reflective call, which reports the failure as it did before
+                return null;
+            }
+        }
+    }
+}
@@ -21,6 +21,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * A cached set of query/elaborator strings and the parameterMap hash maps.
@@ -136,6 +137,62 @@ public class SelectMode extends BaseMode implements Serializable {
         return getQuery().execute(parameters, inClause, this);
     }
 
+    /**
+     * Executes the query, filtered, sorted and limited to a window of its results by the database. The query
+     * must not have an IN clause, and the columns of the window must be among {@link #getColumnTypes(Map)}.
+     * @param parameters named parameters for the Query.
+     * @param page the window of results to return
+     * @param <T> the type of the returned items
+     * @return DataResult containing the results in the window.
+     */
+    public <T> DataResult<T> execute(Map<String, ?> parameters, QueryPage page) {
+        return getQuery().executePage(parameters, page, this);
+    }
+
+    /**
+     * Returns the columns of the results of the query and their JDBC types, see {@link java.sql.Types}.
+     * The map is empty when the query can not be paged by the database.
+     * @param parameters named parameters for the Query.
+     * @return the JDBC type of every column, by column name in lower case
+     */
+    public Map<String, Integer> getColumnTypes(Map<String, ?> parameters) {
+        return getQuery().getColumnTypes(parameters, this);
+    }
+
+    /**
+     * Counts the results of the query matching the filter of a window.
+     * @param parameters named parameters for the Query.
+     * @param page the window of results, only its filter is used
+     * @return the number of results
+     */
+    public int countRows(Map<String, ?> parameters, QueryPage page) {
+        return getQuery().countRows(parameters, page, this);
+    }
+
+    /**
+     * Returns the upper case first characters of the non blank values of a text column, in the results of the
+     * query matching the filter of a window.
+     * @param parameters named parameters for the Query.
+     * @param page the window of results, only its filter is used
+     * @param column the text column
+     * @return the first characters
+     */
+    public Set<Character> getFirstCharacters(Map<String, ?> parameters, QueryPage page, String column) {
+        return getQuery().getFirstCharacters(parameters, page, column, this);
+    }
+
+    /**
+     * Returns the position of the first result whose sort column starts with a character, ignoring case, in the
+     * results of the query filtered and sorted as in a window.
+     * @param parameters named parameters for the Query.
+     * @param page the window of results, its filter and sort column are used
+     * @param firstCharacter the character to look for
+     * @return the position of the result starting from 0, or -1 if none starts with the character
+     */
+    public int findFirstPosition(Map<String, ?> parameters, QueryPage page, char firstCharacter) {
+        return getQuery().findFirstPosition(parameters, page, firstCharacter, this);
+    }
+
     /**
      * Elaborates a list by calling the elaboration queries with the given
      * parameters.
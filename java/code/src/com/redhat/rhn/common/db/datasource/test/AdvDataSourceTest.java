@@ -25,6 +25,7 @@ import com.redhat.rhn.common.ObjectCreateWrapperException;
 import com.redhat.rhn.common.db.datasource.CallableMode;
 import com.redhat.rhn.common.db.datasource.DataResult;
 import com.redhat.rhn.common.db.datasource.ModeFactory;
+import com.redhat.rhn.common.db.datasource.QueryPage;
 import com.redhat.rhn.common.db.datasource.Row;
 import com.redhat.rhn.common.db.datasource.SelectMode;
 import com.redhat.rhn.common.db.datasource.WriteMode;
@@ -51,6 +52,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 public class AdvDataSourceTest extends RhnBaseTestCase {
 
@@ -309,6 +311,108 @@ public class AdvDataSourceTest extends RhnBaseTestCase {
     }
 
 
+    @Test
+    public void testLargeInClause() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 3000; i < 3600; i++) {
+            insert("large_in_clause", i);
+            ids.add((long) i);
+        }
+        Map<String, Object> params = new HashMap<>();
+        params.put("foobar", "large_in_clause");
+
+        SelectMode m = ModeFactory.getMode(TEST_QUERIES, "find_in_table_by_ids");
+        DataResult<AdvDataSourceDto> dr = m.execute(params, ids.subList(0, 550));
+        assertEquals(550, dr.size());
+        // The same mode can be executed again with other values
+        dr = m.execute(params, ids.subList(550, 600));
+        assertEquals(50, dr.size());
+
+        m = ModeFactory.getMode(TEST_QUERIES, "find_not_in_table_by_ids");
+        dr = m.execute(params, ids.subList(0, 550));
+        assertEquals(50, dr.size());
+        assertTrue(dr.stream().allMatch(row -> row.getId() >= 3550));
+
+        // String values are still written in the statement
+        m = ModeFactory.getMode(TEST_QUERIES, "find_in_table_by_ids");
+        dr = m.execute(params, List.of("3000", "3001"));
+        assertEquals(2, dr.size());
+
+        WriteMode w = ModeFactory.getWriteMode(TEST_QUERIES, "delete_from_table_by_ids");
+        assertEquals(0, w.executeUpdate(params, List.of()));
+        assertEquals(550, w.executeUpdate(params, ids.subList(0, 550)));
+        assertEquals(50, w.executeUpdate(params, ids));
+    }
+
+    @Test
+    public void testPagedQuery() {
+        for (int i = 4000; i < 4025; i++) {
+            insert("paged_query", i);
+        }
+        Map<String, Object> params = new HashMap<>();
+        params.put("foobar", "paged_query");
+
+        SelectMode m = ModeFactory.getMode(TEST_QUERIES, "find_in_table");
+        assertEquals(List.of("foobar", "id"), new ArrayList<>(m.getColumnTypes(params).keySet()));
+        assertTrue(QueryPage.isText(m.getColumnTypes(params).get("foobar")));
+        assertEquals(25, m.countRows(params, new QueryPage(null, null, null, true, 0, 0)));
+
+        DataResult<AdvDataSourceDto> dr = m.execute(params, new QueryPage(null, null, "id", false, 0, 10));
+        assertEquals(10, dr.size());
+        assertEquals(Long.valueOf(4024), dr.get(0).getId());
+        assertEquals(Long.valueOf(4015), dr.get(9).getId());
+        dr = m.execute(params, new QueryPage(null, null, "id", false, 20, 10));
+        assertEquals(5, dr.size());
+        assertEquals(Long.valueOf(4000), dr.get(4).getId());
+
+        // the filter ignores case and matches wildcards literally
+        assertEquals(25, m.countRows(params, new QueryPage("foobar", "PAGED_", null, true, 0, 0)));
+        assertEquals(0, m.countRows(params, new QueryPage("foobar", "paged%", null, true, 0, 0)));
+        dr = m.execute(params, new QueryPage("foobar", "query", "id", true, 0, 0));
+        assertEquals(25, dr.size());
+        assertEquals(Long.valueOf(4000), dr.get(0).getId());
+
+        QueryPage byName = new QueryPage(null, null, "foobar", true, 0, 0);
+        assertEquals(Set.of('P'), m.getFirstCharacters(params, byName, "foobar"));
+        assertEquals(0, m.findFirstPosition(params, byName, 'p'));
+        assertEquals(-1, m.findFirstPosition(params, byName, 'x'));
+
+        // the order columns break the ties of the sort column
+        dr = m.execute(params, new QueryPage(null, null, "foobar", false, 5, 3, List.of("id")));
+        assertEquals(List.of(4005L, 4006L, 4007L), dr.stream().map(AdvDataSourceDto::getId).toList());
+
+        // statements with an in-clause can not be paged
+        m = ModeFactory.getMode(TEST_QUERIES, "find_in_table_by_ids");
+        assertTrue(m.getColumnTypes(params).isEmpty());
+    }
+
+    @Test
+    public void testRestartQueryInBatches() {
+        for (int i = 5000; i < 5025; i++) {
+            insert("restart_query", i);
+        }
+        Map<String, Object> params = new HashMap<>();
+        params.put("foobar", "restart_query");
+
+        SelectMode m = ModeFactory.getMode(TEST_QUERIES, "find_in_table");
+        DataResult<AdvDataSourceDto> dr = m.execute(params);
+        assertEquals(25, dr.size());
+
+        // the rows of the latest query are fetched again a batch at a time
+        List<DataResult<AdvDataSourceDto>> batches = new ArrayList<>();
+        m.getQuery().<AdvDataSourceDto>restartQuery(HibernateFactory.getSession(), 10, batches::add);
+        assertEquals(List.of(10, 10, 5), batches.stream().map(DataResult::size).toList());
+        assertEquals(dr.stream().map(AdvDataSourceDto::getId).collect(Collectors.toSet()),
+                batches.stream().flatMap(List::stream).map(AdvDataSourceDto::getId).collect(Collectors.toSet()));
+
+        // statements with an in-clause hand all their rows over at once
+        m = ModeFactory.getMode(TEST_QUERIES, "find_in_table_by_ids");
+        assertEquals(3, m.execute(params, List.of(5000L, 5001L, 5002L)).size());
+        batches.clear();
+        m.getQuery().<AdvDataSourceDto>restartQuery(HibernateFactory.getSession(), 2, batches::add);
+        assertEquals(List.of(3), batches.stream().map(DataResult::size).toList());
+    }
+
     @Override
     @BeforeEach
     public void setUp() {
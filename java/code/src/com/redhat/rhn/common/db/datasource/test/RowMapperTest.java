@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2025 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.common.db.datasource.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.redhat.rhn.common.db.datasource.RowMapper;
+import com.redhat.rhn.common.util.MethodNotFoundException;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+/**
+ * Tests for {@link RowMapper}.
+ */
+public class RowMapperTest {
+
+    /**
+     * A result object with the kinds of set methods found in DTOs.
+     */
+    public static class SampleDto {
+        private Long id;
+        private String name;
+        private long size;
+        private Integer count;
+        private List<String> tags;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long idIn) {
+            id = idIn;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String nameIn) {
+            name = nameIn;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public void setSize(long sizeIn) {
+            size = sizeIn;
+        }
+
+        public Integer getCount() {
+            return count;
+        }
+
+        public void setCount(Integer countIn) {
+            count = countIn;
+        }
+
+        public List<String> getTags() {
+            return tags;
+        }
+
+        public void setTags(List<String> tagsIn) {
+            tags = tagsIn;
+        }
+    }
+
+    @Test
+    public void testSetValues() {
+        RowMapper mapper = RowMapper.forClass(SampleDto.class);
+        RowMapper.ColumnSetter[] setters = mapper.getSetters(List.of("id", "name", "size"));
+        SampleDto dto = new SampleDto();
+
+        setters[0].set(dto, 42L);
+        setters[1].set(dto, "foo");
+        setters[2].set(dto, 7L);
+
+        assertEquals(42L, dto.getId());
+        assertEquals("foo", dto.getName());
+        assertEquals(7L, dto.getSize());
+
+        setters[1].set(dto, null);
+        assertNull(dto.getName());
+    }
+
+    @Test
+    public void testConvertedValues() {
+        SampleDto dto = new SampleDto();
+
+        RowMapper.forClass(SampleDto.class).getSetter("count").set(dto, 3L);
+
+        assertEquals(3, dto.getCount());
+    }
+
+    @Test
+    public void testCollections() {
+        RowMapper.ColumnSetter setter = RowMapper.forClass(SampleDto.class).getSetter("tags");
+        SampleDto dto = new SampleDto();
+
+        setter.set(dto, "a");
+        setter.set(dto, "b");
+
+        assertEquals(List.of("a", "b"), dto.getTags());
+    }
+
+    @Test
+    public void testMissingSetter() {
+        RowMapper.ColumnSetter setter = RowMapper.forClass(SampleDto.class).getSetter("missing_column");
+
+        assertThrows(MethodNotFoundException.class, () -> setter.set(new SampleDto(), 1L));
+    }
+
+    @Test
+    public void testSettersAreResolvedOnce() {
+        RowMapper mapper = RowMapper.forClass(SampleDto.class);
+
+        assertSame(mapper, RowMapper.forClass(SampleDto.class));
+        assertSame(mapper.getSetter("id"), mapper.getSetter("id"));
+    }
+}
@@ -16,6 +16,7 @@ package com.redhat.rhn.common.db.test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -192,4 +193,19 @@ public class NamedPreparedStatementTest extends RhnBaseTestCase {
             }
         });
     }
+
+    @Test
+    public void testInlineBindParams() {
+        String query = "SELECT id, name::text FROM rhnPackageName WHERE id > :id AND name > :name " +
+                "AND name <> 'a:b' ORDER BY id FETCH FIRST :limit ROWS ONLY";
+
+        String sql = NamedPreparedStatement.inlineBindParams(query, Map.of("id", 0, "name", "it's", "limit", 10L));
+        assertEquals("SELECT id, name::text FROM rhnPackageName WHERE id > 0 AND name > 'it''s' " +
+                "AND name <> 'a:b' ORDER BY id FETCH FIRST 10 ROWS ONLY", sql);
+
+        session.doWork(c -> c.prepareStatement(sql).executeQuery().close());
+
+        assertThrows(BindVariableNotFoundException.class,
+                () -> NamedPreparedStatement.inlineBindParams(query, Map.of("id", 0)));
+    }
 }
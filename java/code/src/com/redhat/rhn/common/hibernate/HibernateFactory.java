@@ -56,6 +56,7 @@ import javax.persistence.FlushModeType;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaDelete;
 import javax.persistence.criteria.Root;
+import javax.transaction.Synchronization;
 
 /**
  * HibernateFactory - Helper superclass that contains methods for fetching and
@@ -408,6 +409,30 @@ public abstract class HibernateFactory {
         return connectionManager.isTransactionPending();
     }
 
+    /**
+     * Runs an action right away and again once the transaction of the current thread completes, whether it is
+     * committed or rolled back. Meant to drop cached state: until the commit, other threads may cache the old
+     * state again, and this thread the uncommitted one.
+     * @param action the action to run
+     */
+    public static void runNowAndAfterTransaction(Runnable action) {
+        action.run();
+        if (!inTransaction()) {
+            return;
+        }
+        getSession().getTransaction().registerSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+                // nothing to do
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                action.run();
+            }
+        });
+    }
+
     /**
      * Closes the Hibernate Session stored in ThreadLocal storage.
      */
@@ -33,6 +33,17 @@ public interface EventMessage {
      * @return the user that scheduled the Event
      */
     Long getUserId();
+
+    /**
+     * Get the key used to pick a dispatch shard for this message. Messages with equal keys are
+     * handled in publishing order. The default key is the message class, so all messages of a
+     * type go to a single shard and are handled one at a time: message types published often
+     * should override this with a finer key, like the id of the minion they are about.
+     * @return the dispatch key
+     */
+    default Object getDispatchKey() {
+        return getClass();
+    }
 }
 
 
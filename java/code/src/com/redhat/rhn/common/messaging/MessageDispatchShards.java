@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2025 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.common.messaging;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Set of single threaded executors with bounded queues, used to dispatch messages whose actions
+ * can run concurrently directly from the publishing thread, bypassing the central dispatcher.
+ *
+ * Messages are assigned to a shard by hashing {@link EventMessage#getDispatchKey()}, so messages
+ * sharing the same key are always executed in publishing order. When a shard holds as many messages
+ * as its capacity the publisher blocks until there is space again, which propagates backpressure to
+ * the producer. Actions publishing further messages from a shard thread are not blocked, as waiting
+ * there could deadlock: their messages are queued past the capacity, behind the ones already waiting.
+ */
+public class MessageDispatchShards {
+
+    private static final Logger LOG = LogManager.getLogger(MessageDispatchShards.class);
+
+    private static final String THREAD_PREFIX = "message-queue-shard-";
+
+    private final List<MessageQueueThreadPool> shards;
+    private final Semaphore[] capacities;
+    private final LongAdder[] waitNanos;
+    private final LongAdder[] executionNanos;
+
+    /**
+     * Creates and starts the shards.
+     *
+     * @param shardCount the number of shards, i.e. threads
+     * @param capacity the maximum number of messages waiting in each shard
+     */
+    public MessageDispatchShards(int shardCount, int capacity) {
+        shards = new ArrayList<>(shardCount);
+        capacities = new Semaphore[shardCount];
+        waitNanos = new LongAdder[shardCount];
+        executionNanos = new LongAdder[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(new MessageQueueThreadPool(1, new LinkedBlockingQueue<>(), THREAD_PREFIX + i + "-%d"));
+            capacities[i] = new Semaphore(capacity);
+            waitNanos[i] = new LongAdder();
+            executionNanos[i] = new LongAdder();
+        }
+        LOG.info("Started {} message dispatch shards (capacity: {})", shardCount, capacity);
+    }
+
+    /**
+     * Queues the executor on the shard the message key maps to.
+     *
+     * @param executor the executor to run
+     * @param msg the message executed by the executor
+     */
+    void dispatch(ActionExecutor executor, EventMessage msg) {
+        int index = shardIndex(msg.getDispatchKey());
+        boolean bounded = !Thread.currentThread().getName().startsWith(THREAD_PREFIX);
+        if (bounded) {
+            try {
+                capacities[index].acquire();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException("Interrupted while waiting for a dispatch shard", e);
+            }
+        }
+        try {
+            shards.get(index).execute(new ShardTask(executor, index, bounded));
+        }
+        catch (RejectedExecutionException e) {
+            if (bounded) {
+                capacities[index].release();
+            }
+            throw e;
+        }
+    }
+
+    private int shardIndex(Object key) {
+        int hash = key == null ? 0 : key.hashCode();
+        // spread the bits, as keys like Long ids or Class objects have poor low order entropy
+        hash ^= (hash >>> 16);
+        return Math.floorMod(hash, shards.size());
+    }
+
+    /**
+     * Stops accepting messages and waits for the queued ones to be executed.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit the unit of the timeout argument
+     */
+    public void shutdown(long timeout, TimeUnit unit) {
+        shards.forEach(ThreadPoolExecutor::shutdown);
+        try {
+            for (ThreadPoolExecutor shard : shards) {
+                if (!shard.awaitTermination(timeout, unit)) {
+                    LOG.warn("Message dispatch shard did not terminate, {} messages pending",
+                            shard.getQueue().size());
+                }
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.error("Interrupted while awaiting termination of the dispatch shards", e);
+        }
+    }
+
+    /**
+     * @return the shard executors
+     */
+    public List<? extends ThreadPoolExecutor> getShards() {
+        return shards;
+    }
+
+    /**
+     * @param index the shard index
+     * @return the total time in nanoseconds messages spent waiting in the queue of the shard
+     */
+    public long getWaitNanos(int index) {
+        return waitNanos[index].sum();
+    }
+
+    /**
+     * @param index the shard index
+     * @return the total time in nanoseconds spent executing messages of the shard
+     */
+    public long getExecutionNanos(int index) {
+        return executionNanos[index].sum();
+    }
+
+    /**
+     * Wraps an executor to measure the time spent in the queue and running.
+     */
+    private class ShardTask implements Runnable {
+
+        private final ActionExecutor executor;
+        private final int index;
+        private final boolean bounded;
+        private final long queuedAt = System.nanoTime();
+
+        ShardTask(ActionExecutor executorIn, int indexIn, boolean boundedIn) {
+            executor = executorIn;
+            index = indexIn;
+            bounded = boundedIn;
+        }
+
+        @Override
+        public void run() {
+            if (bounded) {
+                capacities[index].release();
+            }
+            long startedAt = System.nanoTime();
+            waitNanos[index].add(startedAt - queuedAt);
+            try {
+                executor.run();
+            }
+            finally {
+                executionNanos[index].add(System.nanoTime() - startedAt);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return executor.toString();
+        }
+    }
+}
@@ -15,6 +15,7 @@
 
 package com.redhat.rhn.common.messaging;
 
+import com.redhat.rhn.common.conf.ConfigDefaults;
 import com.redhat.rhn.domain.server.ServerFactory;
 import com.redhat.rhn.domain.server.ServerGroupFactory;
 import com.redhat.rhn.frontend.events.AlignSoftwareTargetAction;
@@ -57,6 +58,7 @@ import com.redhat.rhn.frontend.events.UpdateErrataCacheAction;
 import com.redhat.rhn.frontend.events.UpdateErrataCacheEvent;
 import com.redhat.rhn.manager.system.SystemManager;
 
+import com.suse.manager.metrics.PrometheusExporter;
 import com.suse.manager.reactor.messaging.ChannelsChangedEventMessage;
 import com.suse.manager.reactor.messaging.ChannelsChangedEventMessageAction;
 import com.suse.manager.webui.services.iface.SaltApi;
@@ -64,24 +66,32 @@ import com.suse.manager.webui.services.iface.SaltApi;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
+import io.prometheus.client.Collector;
+
 /**
  * A class that passes messages from the sender to an action class
  */
 public class MessageQueue {
     private static final Logger LOGGER = LogManager.getLogger(MessageQueue.class);
-    private static final Map<Class<? extends EventMessage>, List<MessageAction>> ACTIONS = new HashMap<>();
+    // handler lists are copy-on-write, so publishing never needs to lock the registry
+    private static final Map<Class<? extends EventMessage>, List<MessageAction>> ACTIONS =
+            new ConcurrentHashMap<>();
     private static final BlockingQueue<Runnable> MESSAGE_QUEUE = new LinkedBlockingQueue<>();
-    private static MessageDispatcher dispatcher = null;
-    private static int messageCount;
+    private static final AtomicInteger MESSAGE_COUNT = new AtomicInteger();
+    private static volatile MessageDispatcher dispatcher = null;
+    private static volatile MessageDispatchShards shards = null;
+    private static Collector shardsCollector = null;
 
     /**
      * Util class so we don't have a usable constructor
@@ -91,7 +101,9 @@ public class MessageQueue {
 
     /**
      * Publish a new message
-     * Each message is wrapped in a ActionExecutor instance
+     * Each message is wrapped in a ActionExecutor instance. If dispatch shards are configured, messages
+     * whose actions can all run concurrently are handed to a shard directly instead of going through
+     * the dispatcher thread.
      * @param msg EventMessage to publish to queue.
      */
     public static void publish(EventMessage msg) {
@@ -102,23 +114,33 @@ public class MessageQueue {
             startMessaging();
         }
         if (msg != null) {
-            synchronized (ACTIONS) {
-                List<MessageAction> handlers = ACTIONS.get(msg.getClass());
-                if (handlers != null && !handlers.isEmpty()) {
-                    LOGGER.debug("creating ActionExecutor");
-                    ActionExecutor executor = new ActionExecutor(handlers, msg);
+            List<MessageAction> handlers = ACTIONS.get(msg.getClass());
+            if (handlers != null && !handlers.isEmpty()) {
+                LOGGER.debug("creating ActionExecutor");
+                ActionExecutor executor = new ActionExecutor(handlers, msg);
+                MessageDispatchShards currentShards = shards;
+                if (currentShards != null && executor.canRunConcurrently()) {
+                    try {
+                        currentShards.dispatch(executor, msg);
+                    }
+                    catch (RejectedExecutionException e) {
+                        LOGGER.error("Unable to dispatch {}", executor, e);
+                    }
+                }
+                else {
                     try {
+                        MESSAGE_COUNT.incrementAndGet();
                         MESSAGE_QUEUE.put(executor);
-                        messageCount++;
                     }
                     catch (InterruptedException e) {
+                        MESSAGE_COUNT.decrementAndGet();
                         Thread.currentThread().interrupt();
                         LOGGER.error(e.getMessage(), e);
                     }
                 }
-                else {
-                    LOGGER.debug("handlers is null, not processing!");
-                }
+            }
+            else {
+                LOGGER.debug("handlers is null, not processing!");
             }
         }
 
@@ -139,9 +161,7 @@ public class MessageQueue {
     static ActionExecutor popEventMessage() throws InterruptedException {
         ActionExecutor retval = (ActionExecutor) MESSAGE_QUEUE.poll(500, TimeUnit.MILLISECONDS);
         if (retval != null) {
-            synchronized (ACTIONS) {
-                messageCount--;
-            }
+            MESSAGE_COUNT.decrementAndGet();
         }
         return retval;
     }
@@ -156,6 +176,11 @@ public class MessageQueue {
         if (isMessaging()) {
             return;
         }
+        int shardCount = ConfigDefaults.get().getMessageQueueDispatchShards();
+        if (shardCount > 0) {
+            shards = new MessageDispatchShards(shardCount, ConfigDefaults.get().getMessageQueueShardCapacity());
+            shardsCollector = PrometheusExporter.INSTANCE.registerMessageDispatchShards(shards, "message_queue_shards");
+        }
         dispatcher = new MessageDispatcher();
         Thread dispatcherThread = new Thread(dispatcher);
         dispatcherThread.setName("RHN Message Dispatcher");
@@ -174,17 +199,27 @@ public class MessageQueue {
             LOGGER.debug("stopMessaging() - start");
         }
         dispatcher.stop();
+        if (shards != null) {
+            shards.shutdown(1, TimeUnit.MINUTES);
+            shards = null;
+            // A collector with the same metrics is registered on the next start
+            PrometheusExporter.INSTANCE.unregister(shardsCollector);
+            shardsCollector = null;
+        }
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("stopMessaging() - end");
         }
     }
 
     /**
-     * Get the number of messages in the queue
+     * Get the number of messages in the queue, including the ones waiting in dispatch shards
      * @return int number of messages in queue.
      */
     public static int getMessageCount() {
-        return messageCount;
+        MessageDispatchShards currentShards = shards;
+        int shardCount = currentShards == null ? 0 :
+                currentShards.getShards().stream().mapToInt(s -> s.getQueue().size()).sum();
+        return MESSAGE_COUNT.get() + shardCount;
     }
 
     /**
@@ -196,10 +231,7 @@ public class MessageQueue {
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("registerAction(MessageAction, Class) - : {} class: {}", act, eventType.getName());
         }
-        synchronized (ACTIONS) {
-            List<MessageAction> handlers = ACTIONS.computeIfAbsent(eventType, k -> new ArrayList<>());
-            handlers.add(act);
-        }
+        ACTIONS.computeIfAbsent(eventType, k -> new CopyOnWriteArrayList<>()).add(act);
     }
 
     /**
@@ -211,8 +243,8 @@ public class MessageQueue {
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("deRegisterAction(MessageAction, Class) - start");
         }
-        synchronized (ACTIONS) {
-            List<MessageAction> handlers = ACTIONS.get(eventType);
+        List<MessageAction> handlers = ACTIONS.get(eventType);
+        if (handlers != null) {
             handlers.remove(act);
         }
         if (LOGGER.isDebugEnabled()) {
@@ -230,15 +262,8 @@ public class MessageQueue {
             LOGGER.debug("getRegisteredEventNames() - start");
         }
         String[] retval = null;
-        synchronized (ACTIONS) {
-            if (!ACTIONS.keySet().isEmpty()) {
-                retval = new String[ACTIONS.keySet().size()];
-                int index = 0;
-                for (Class<? extends EventMessage> klazz : ACTIONS.keySet()) {
-                    retval[index] = klazz.getName();
-                    index++;
-                }
-            }
+        if (!ACTIONS.isEmpty()) {
+            retval = ACTIONS.keySet().stream().map(Class::getName).toArray(String[]::new);
         }
 
         if (LOGGER.isDebugEnabled()) {
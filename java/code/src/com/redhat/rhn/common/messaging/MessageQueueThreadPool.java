@@ -21,6 +21,7 @@ import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
@@ -50,6 +51,20 @@ public class MessageQueueThreadPool extends ThreadPoolExecutor {
         log.info("Started message queue thread pool (size: {})", size);
     }
 
+    /**
+     * Constructor for creating a thread pool working off the given queue. The pool does not limit the number of
+     * waiting tasks itself: callers wanting backpressure have to limit what they submit.
+     *
+     * @param size the number of threads to create, i.e. pool size
+     * @param queue the queue holding tasks before they are executed
+     * @param namingPattern the naming pattern for the threads of this pool
+     */
+    public MessageQueueThreadPool(int size, BlockingQueue<Runnable> queue, String namingPattern) {
+        super(size, size, 0, TimeUnit.MILLISECONDS, queue);
+        setThreadFactory(new BasicThreadFactory.Builder().namingPattern(namingPattern).build());
+        log.info("Started message queue thread pool (size: {}, thread names: {})", size, namingPattern);
+    }
+
     @Override
     public void execute(Runnable command) {
         int queueSize = getQueue().size();
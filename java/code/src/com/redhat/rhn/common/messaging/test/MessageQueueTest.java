@@ -15,10 +15,14 @@
 
 package com.redhat.rhn.common.messaging.test;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.redhat.rhn.common.conf.Config;
+import com.redhat.rhn.common.conf.ConfigDefaults;
+import com.redhat.rhn.common.messaging.EventMessage;
+import com.redhat.rhn.common.messaging.MessageAction;
 import com.redhat.rhn.common.messaging.MessageQueue;
 import com.redhat.rhn.domain.user.User;
 import com.redhat.rhn.testing.RhnBaseTestCase;
@@ -29,6 +33,11 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
 public class MessageQueueTest extends RhnBaseTestCase {
 
     private static Logger logger = LogManager.getLogger(MessageQueueTest.class);
@@ -136,6 +145,90 @@ public class MessageQueueTest extends RhnBaseTestCase {
         logger.debug("testMultiThreadedPublishRegister - end");
     }
 
+    @Test
+    public void testShardedPublish() throws Exception {
+        MessageQueue.stopMessaging();
+        Config.get().setString(ConfigDefaults.MESSAGE_QUEUE_DISPATCH_SHARDS, "2");
+        AtomicReference<String> threadName = new AtomicReference<>();
+        MessageAction concurrentAction = new MessageAction() {
+            @Override
+            public void execute(EventMessage msg) {
+                threadName.set(Thread.currentThread().getName());
+                ((TestEventMessage) msg).setMessageReceived(true);
+            }
+
+            @Override
+            public boolean canRunConcurrently() {
+                return true;
+            }
+
+            @Override
+            public boolean needsTransactionHandling() {
+                return false;
+            }
+        };
+        MessageQueue.registerAction(concurrentAction, ShardedTestEventMessage.class);
+        try {
+            MessageQueue.startMessaging();
+            ShardedTestEventMessage me = new ShardedTestEventMessage();
+            MessageQueue.publish(me);
+            for (int i = 0; i < 20 && !me.getMessageReceived(); i++) {
+                Thread.sleep(100);
+            }
+            assertTrue(me.getMessageReceived());
+            assertTrue(threadName.get().startsWith("message-queue-shard-"));
+        }
+        finally {
+            MessageQueue.deRegisterAction(concurrentAction, ShardedTestEventMessage.class);
+            Config.get().remove(ConfigDefaults.MESSAGE_QUEUE_DISPATCH_SHARDS);
+        }
+    }
+
+    @Test
+    public void testShardedPublishFromFullShard() throws Exception {
+        MessageQueue.stopMessaging();
+        Config.get().setString(ConfigDefaults.MESSAGE_QUEUE_DISPATCH_SHARDS, "1");
+        Config.get().setString(ConfigDefaults.MESSAGE_QUEUE_SHARD_CAPACITY, "1");
+        List<Integer> handled = Collections.synchronizedList(new ArrayList<>());
+        MessageAction concurrentAction = new MessageAction() {
+            @Override
+            public void execute(EventMessage msg) {
+                int sequence = ((ShardedTestEventMessage) msg).getSequence();
+                if (sequence == 0) {
+                    // publish from the shard thread while the shard is full
+                    for (int i = 1; i <= 5; i++) {
+                        MessageQueue.publish(new ShardedTestEventMessage(i));
+                    }
+                }
+                handled.add(sequence);
+            }
+
+            @Override
+            public boolean canRunConcurrently() {
+                return true;
+            }
+
+            @Override
+            public boolean needsTransactionHandling() {
+                return false;
+            }
+        };
+        MessageQueue.registerAction(concurrentAction, ShardedTestEventMessage.class);
+        try {
+            MessageQueue.startMessaging();
+            MessageQueue.publish(new ShardedTestEventMessage(0));
+            for (int i = 0; i < 20 && handled.size() < 6; i++) {
+                Thread.sleep(100);
+            }
+            assertEquals(List.of(0, 1, 2, 3, 4, 5), handled);
+        }
+        finally {
+            MessageQueue.deRegisterAction(concurrentAction, ShardedTestEventMessage.class);
+            Config.get().remove(ConfigDefaults.MESSAGE_QUEUE_DISPATCH_SHARDS);
+            Config.get().remove(ConfigDefaults.MESSAGE_QUEUE_SHARD_CAPACITY);
+        }
+    }
+
     @Test
     public void testStop() throws Exception {
         logger.debug("testStop - start");
@@ -219,6 +312,35 @@ public class MessageQueueTest extends RhnBaseTestCase {
 
     }
 
+    /**
+     * Message type dispatched through the shards.
+     */
+    public static class ShardedTestEventMessage extends TestEventMessage {
+
+        private final int sequence;
+
+        /**
+         * Default constructor
+         */
+        public ShardedTestEventMessage() {
+            this(0);
+        }
+
+        /**
+         * @param sequenceIn the sequence number of the message
+         */
+        public ShardedTestEventMessage(int sequenceIn) {
+            sequence = sequenceIn;
+        }
+
+        /**
+         * @return the sequence number of the message
+         */
+        public int getSequence() {
+            return sequence;
+        }
+    }
+
     /**
     * Util thread to simulate multiple Threads publishing
     * events.
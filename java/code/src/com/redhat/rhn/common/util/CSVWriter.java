@@ -39,6 +39,7 @@ public class CSVWriter extends BufferedWriter implements ExportWriter {
     private Writer contents;
     private String headerText;
     private char separatorChar = ',';
+    private int rowsWritten;
 
     /**
      * Constructor
@@ -187,6 +188,67 @@ public class CSVWriter extends BufferedWriter implements ExportWriter {
         newLine();
     }
 
+    /**
+     * Starts writing rows in batches with {@link #writeRows(List)}, for exports too large to be built
+     * in memory: writes the header text, if any, and the column headers. Unlike {@link #write(List)}, the
+     * header text goes to the underlying Writer, so the contents can be sent as they are written.
+     */
+    public void beginRows() {
+        try {
+            if (headerText != null) {
+                super.write(getHeaderText());
+                newLine();
+            }
+            writeColumns();
+            rowsWritten = 0;
+        }
+        catch (IOException e) {
+            throw new RhnRuntimeException("IOException caught trying to write the headers: " + e);
+        }
+    }
+
+    /**
+     * Writes a batch of rows, after {@link #beginRows()}
+     * @param rows the Maps or Dtos to write
+     */
+    public void writeRows(List<?> rows) {
+        rows.forEach(this::writeRow);
+    }
+
+    /**
+     * Writes a single row, after {@link #beginRows()}
+     * @param row the Map or Dto to write
+     */
+    public void writeRow(Object row) {
+        if (!(row instanceof Map || row instanceof BaseDto)) {
+            throw new IllegalArgumentException("Must pass in a Map or AbstractDto class");
+        }
+        try {
+            writeDto(row, true);
+            rowsWritten++;
+        }
+        catch (IOException e) {
+            throw new RhnRuntimeException("IOException caught trying to write the row: " + e);
+        }
+    }
+
+    /**
+     * Ends writing rows in batches and flushes them: the output is the same as the one of
+     * {@link #write(List)} with all the rows.
+     */
+    public void endRows() {
+        try {
+            // write(List) ends an export without rows with an empty line
+            if (rowsWritten == 0) {
+                newLine();
+            }
+            flush();
+        }
+        catch (IOException e) {
+            throw new RhnRuntimeException("IOException caught trying to end the rows: " + e);
+        }
+    }
+
     /**
      * Util function to get the value for the current row/column in the List.
      */
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2025 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.common.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A small thread safe cache whose entries are dropped after a fixed time. It holds at most a given number of
+ * entries: when it is full, the expired entries are removed and, if that is not enough, the whole cache is emptied.
+ *
+ * A value loaded while the cache is being invalidated is returned to the caller but not stored, so that a value read
+ * before a change can not survive the invalidation of that change. Null values are never stored.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class ExpiringCache<K, V> {
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final long ttlMillis;
+    private final int maxSize;
+
+    /**
+     * Standard constructor.
+     * @param ttlMillisIn how long an entry is kept, in milliseconds. Zero or less disables the cache.
+     * @param maxSizeIn the maximum number of entries
+     */
+    public ExpiringCache(long ttlMillisIn, int maxSizeIn) {
+        this.ttlMillis = ttlMillisIn;
+        this.maxSize = maxSizeIn;
+    }
+
+    /**
+     * Returns the cached value of a key, loading and caching it if it is missing or expired.
+     * @param key the key
+     * @param loader computes the value of a key
+     * @return the value, as returned by the loader
+     */
+    public V get(K key, Function<K, V> loader) {
+        return get(key, loader, value -> true);
+    }
+
+    /**
+     * Returns the cached value of a key, loading it if it is missing or expired. The loaded value is only cached if
+     * it matches the given condition.
+     * @param key the key
+     * @param loader computes the value of a key
+     * @param cacheable tells if a loaded value can be cached
+     * @return the value, as returned by the loader
+     */
+    public V get(K key, Function<K, V> loader, Predicate<V> cacheable) {
+        if (ttlMillis <= 0 || maxSize <= 0) {
+            return loader.apply(key);
+        }
+
+        long now = System.currentTimeMillis();
+        Entry<V> entry = entries.get(key);
+        if (entry != null && entry.expiresAt() > now) {
+            hits.incrementAndGet();
+            return entry.value();
+        }
+        misses.incrementAndGet();
+
+        long loadGeneration = generation.get();
+        V value = loader.apply(key);
+        if (value == null || !cacheable.test(value)) {
+            return value;
+        }
+
+        if (entries.size() >= maxSize) {
+            entries.values().removeIf(e -> e.expiresAt() <= now);
+            if (entries.size() >= maxSize) {
+                entries.clear();
+            }
+        }
+        entries.put(key, new Entry<>(value, now + ttlMillis));
+        if (generation.get() != loadGeneration) {
+            entries.remove(key);
+        }
+        return value;
+    }
+
+    /**
+     * Drops the entry of a key.
+     * @param key the key
+     */
+    public void invalidate(K key) {
+        generation.incrementAndGet();
+        entries.remove(key);
+    }
+
+    /**
+     * Drops the entries matching a condition.
+     * @param condition tested with the key and value of every entry
+     */
+    public void invalidateIf(BiPredicate<K, V> condition) {
+        generation.incrementAndGet();
+        entries.entrySet().removeIf(e -> condition.test(e.getKey(), e.getValue().value()));
+    }
+
+    /**
+     * Drops all the entries.
+     */
+    public void clear() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    /**
+     * @return the number of entries, including the expired ones not removed yet
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the number of lookups answered from the cache
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of lookups that had to load the value
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2025 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.common.util.download;
+
+import com.redhat.rhn.common.util.CSVWriter;
+
+import org.apache.commons.io.output.CloseShieldOutputStream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * CSVDownloadUtils - writes CSV exports straight to the HTTP response
+ */
+public class CSVDownloadUtils {
+
+    /**
+     * Number of rows to fetch from the database and write at a time
+     */
+    public static final int BATCH_SIZE = 500;
+
+    private CSVDownloadUtils() {
+    }
+
+    /**
+     * Opens a CSV writer on the response to write the rows in batches, see {@link CSVWriter#beginRows()}.
+     * No Content-Length is set, so the rows are sent chunked as they get written instead of being built
+     * in memory first, and they are compressed with gzip when the client accepts it. The writer has to be
+     * closed once done to complete the compressed content; this leaves the response output stream open.
+     * When writing fails after the response got committed, the writer must not be closed: throw a
+     * {@link DownloadAbortedException} instead, so that the client does not get a truncated file.
+     *
+     * @param request the HTTP request
+     * @param response the HTTP response
+     * @param filename the name of the downloaded file
+     * @param separator the CSV separator character
+     * @return the CSV writer
+     * @throws IOException if the response can't be written
+     */
+    public static CSVWriter openCSVWriter(HttpServletRequest request, HttpServletResponse response,
+                                          String filename, char separator) throws IOException {
+        response.setContentType("text/csv;charset=UTF-8");
+        response.setHeader("Content-Disposition", String.format("attachment; filename=\"%s\"", filename));
+
+        OutputStream out = CloseShieldOutputStream.wrap(response.getOutputStream());
+        if (acceptsGzip(request)) {
+            response.setHeader("Content-Encoding", "gzip");
+            response.addHeader("Vary", "Accept-Encoding");
+            out = new GZIPOutputStream(out);
+        }
+        return new CSVWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), separator);
+    }
+
+    /**
+     * @param request the HTTP request
+     * @return true if the client accepts gzip encoded responses
+     */
+    public static boolean acceptsGzip(HttpServletRequest request) {
+        String encodings = request.getHeader("Accept-Encoding");
+        if (encodings == null) {
+            return false;
+        }
+        return Arrays.stream(encodings.split(","))
+                .map(encoding -> encoding.replaceAll("\\s", "").toLowerCase())
+                .anyMatch(encoding -> encoding.equals("gzip") ||
+                        encoding.startsWith("gzip;") && !encoding.matches("gzip;q=0(\\.0*)?"));
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2025 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.common.util.download;
+
+import com.redhat.rhn.common.RhnRuntimeException;
+
+/**
+ * Thrown when a download fails once part of it has been sent. It has to reach the servlet container, which
+ * then closes the connection without ending the response body, so that the client sees the download failing
+ * instead of getting a truncated file with a successful status.
+ */
+public class DownloadAbortedException extends RhnRuntimeException {
+
+    private static final long serialVersionUID = 3127702913744256915L;
+
+    /**
+     * @param msg the error message
+     * @param t the cause of the failure
+     */
+    public DownloadAbortedException(String msg, Throwable t) {
+        super(msg, t);
+    }
+}
@@ -117,6 +117,38 @@ public class CSVWriterTest {
                 endsWith("f1 - 9,f2 - 9,f3 - 9\n"));
     }
 
+    @Test
+    public void testRowsInBatches() {
+        List<String> columns = List.of("column1", "column2", "column3");
+        List<Map<String, String>> values = getTestListOfMaps();
+
+        CSVWriter whole = new CSVWriter(new StringWriter());
+        whole.setColumns(columns);
+        whole.setHeaderText("Header");
+        whole.write(values);
+
+        StringWriter out = new StringWriter();
+        CSVWriter batched = new CSVWriter(out);
+        batched.setColumns(columns);
+        batched.setHeaderText("Header");
+        batched.beginRows();
+        batched.writeRows(values.subList(0, 4));
+        batched.writeRows(values.subList(4, 10));
+        batched.endRows();
+        assertEquals(whole.getContents(), out.toString());
+
+        whole = new CSVWriter(new StringWriter());
+        whole.setColumns(columns);
+        whole.write(List.of());
+
+        out = new StringWriter();
+        batched = new CSVWriter(out);
+        batched.setColumns(columns);
+        batched.beginRows();
+        batched.endRows();
+        assertEquals(whole.getContents(), out.toString());
+    }
+
     public static List<Map<String, String>> getTestListOfMaps() {
         List<Map<String, String>> values = new LinkedList<>();
 
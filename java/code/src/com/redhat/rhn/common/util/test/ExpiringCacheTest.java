@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2025 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.common.util.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.redhat.rhn.common.util.ExpiringCache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for {@link ExpiringCache}.
+ */
+public class ExpiringCacheTest {
+
+    @Test
+    public void testValuesAreLoadedOnce() {
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>(60000, 10);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals(3, cache.get("foo", k -> loads.incrementAndGet() + 2));
+        assertEquals(3, cache.get("foo", k -> loads.incrementAndGet() + 2));
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void testInvalidation() {
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>(60000, 10);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("foo", k -> loads.incrementAndGet());
+        cache.get("bar", k -> loads.incrementAndGet());
+        cache.invalidate("foo");
+        assertEquals(3, cache.get("foo", k -> loads.incrementAndGet()));
+        assertEquals(2, cache.get("bar", k -> loads.incrementAndGet()));
+
+        cache.invalidateIf((key, value) -> value == 2);
+        assertEquals(1, cache.size());
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testNullValuesAreNotCached() {
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>(60000, 10);
+
+        assertNull(cache.get("foo", k -> null));
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.get("foo", k -> 1));
+    }
+
+    @Test
+    public void testUncacheableValuesAreNotCached() {
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>(60000, 10);
+
+        assertEquals(-1, cache.get("foo", k -> -1, value -> value > 0));
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.get("foo", k -> 1, value -> value > 0));
+        assertEquals(1, cache.get("foo", k -> 2, value -> value > 0));
+    }
+
+    @Test
+    public void testInvalidationDuringLoad() {
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>(60000, 10);
+
+        assertEquals(1, cache.get("foo", k -> {
+            cache.invalidate(k);
+            return 1;
+        }));
+        assertEquals(2, cache.get("foo", k -> 2));
+    }
+
+    @Test
+    public void testSizeIsBounded() {
+        ExpiringCache<Integer, Integer> cache = new ExpiringCache<>(60000, 10);
+        for (int i = 0; i < 25; i++) {
+            cache.get(i, k -> k);
+        }
+        assertEquals(5, cache.size());
+    }
+
+    @Test
+    public void testDisabled() {
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>(0, 10);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("foo", k -> loads.incrementAndGet());
+        cache.get("foo", k -> loads.incrementAndGet());
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.size());
+    }
+}
@@ -15,7 +15,9 @@
 
 package com.redhat.rhn.domain.access;
 
+import com.redhat.rhn.common.conf.ConfigDefaults;
 import com.redhat.rhn.common.hibernate.HibernateFactory;
+import com.redhat.rhn.common.util.ExpiringCache;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -29,6 +31,19 @@ public class WebEndpointFactory extends HibernateFactory {
 
     private static final Logger LOG = LogManager.getLogger(WebEndpointFactory.class);
 
+    /**
+     * An access decision: a web endpoint path with its HTTP method, or an API handler class and method when the HTTP
+     * method is null, for a user in a scope, null when any scope applies.
+     */
+    private record AccessKey(Long userId, String endpoint, String httpMethod, WebEndpoint.Scope scope) {
+    }
+
+    private static final ExpiringCache<AccessKey, Boolean> ACCESS_CACHE = new ExpiringCache<>(
+            ConfigDefaults.get().getApiAccessCacheTtl() * 1000L, ConfigDefaults.get().getApiCacheSize());
+
+    private static final ExpiringCache<WebEndpoint.Scope, Set<String>> UNAUTHORIZED_CACHE = new ExpiringCache<>(
+            ConfigDefaults.get().getApiAccessCacheTtl() * 1000L, WebEndpoint.Scope.values().length);
+
     private WebEndpointFactory() {
     }
 
@@ -86,14 +101,74 @@ public class WebEndpointFactory extends HibernateFactory {
         return query.uniqueResultOptional();
     }
 
+    /**
+     * Check if a user can access a web endpoint in a scope. The decision is cached for a short time.
+     * @param userId the user ID
+     * @param endpoint the path of the web endpoint
+     * @param httpMethod the HTTP method of the endpoint
+     * @param scope the scope of the endpoint (Web UI or API)
+     * @return true if the endpoint is in the user access table
+     */
+    public static boolean isAccessibleByEndpointScope(Long userId, String endpoint, String httpMethod,
+                                                      WebEndpoint.Scope scope) {
+        return ACCESS_CACHE.get(new AccessKey(userId, endpoint, httpMethod, scope),
+                k -> lookupByUserIdEndpointScope(userId, endpoint, httpMethod, scope).isPresent());
+    }
+
+    /**
+     * Check if a user can access a web endpoint. The decision is cached for a short time.
+     * @param userId the user ID
+     * @param endpoint the path of the web endpoint
+     * @param httpMethod the HTTP method of the endpoint
+     * @return true if the endpoint is in the user access table
+     */
+    public static boolean isAccessibleByEndpoint(Long userId, String endpoint, String httpMethod) {
+        return ACCESS_CACHE.get(new AccessKey(userId, endpoint, httpMethod, null),
+                k -> lookupByUserIdEndpoint(userId, endpoint, httpMethod).isPresent());
+    }
+
+    /**
+     * Check if a user can call a handler method in a scope. The decision is cached for a short time.
+     * @param userId the user ID
+     * @param classMethod the class and method name of the handler method
+     * @param scope the scope of the endpoint (Web UI or API)
+     * @return true if the handler method is in the user access table
+     */
+    public static boolean isAccessibleByClassMethodScope(Long userId, String classMethod, WebEndpoint.Scope scope) {
+        return ACCESS_CACHE.get(new AccessKey(userId, classMethod, null, scope),
+                k -> lookupByUserIdClassMethodScope(userId, classMethod, scope).isPresent());
+    }
+
+    /**
+     * Forget the cached access decisions of a user, after its access groups or permissions changed.
+     * They are forgotten again once the current transaction completes.
+     * @param userId the user ID
+     */
+    public static void invalidateAccess(Long userId) {
+        HibernateFactory.runNowAndAfterTransaction(
+                () -> ACCESS_CACHE.invalidateIf((key, accessible) -> key.userId().equals(userId)));
+    }
+
+    /**
+     * Forget all the cached access decisions, after access groups or endpoints changed.
+     * They are forgotten again once the current transaction completes.
+     */
+    public static void invalidateAccess() {
+        HibernateFactory.runNowAndAfterTransaction(() -> {
+            ACCESS_CACHE.clear();
+            UNAUTHORIZED_CACHE.clear();
+        });
+    }
+
     /**
      * Get all endpoints that don't require authorization
      * @return the set of endpoints that don't require authorization
      */
     public static Set<String> getUnauthorizedWebEndpoints() {
-        // TODO: Cache
-        NativeQuery<String> query = getSession().getNamedNativeQuery("WebEndpoint_get_unauthorized");
-        return query.getResultStream().collect(Collectors.toUnmodifiableSet());
+        return UNAUTHORIZED_CACHE.get(WebEndpoint.Scope.W, scope -> {
+            NativeQuery<String> query = getSession().getNamedNativeQuery("WebEndpoint_get_unauthorized");
+            return query.getResultStream().collect(Collectors.toUnmodifiableSet());
+        });
     }
 
     /**
@@ -101,8 +176,9 @@ public class WebEndpointFactory extends HibernateFactory {
      * @return the set of unauthorized API methods as a string of qualified class name & method
      */
     public static Set<String> getUnauthorizedApiMethods() {
-        // TODO: Cache
-        NativeQuery<String> query = getSession().getNamedNativeQuery("WebEndpoint_get_unauthorized_api");
-        return query.getResultStream().collect(Collectors.toUnmodifiableSet());
+        return UNAUTHORIZED_CACHE.get(WebEndpoint.Scope.A, scope -> {
+            NativeQuery<String> query = getSession().getNamedNativeQuery("WebEndpoint_get_unauthorized_api");
+            return query.getResultStream().collect(Collectors.toUnmodifiableSet());
+        });
     }
 }
@@ -17,6 +17,7 @@ import com.redhat.rhn.domain.server.MinionServer;
 import com.redhat.rhn.taskomatic.task.TaskConstants;
 
 import com.suse.manager.webui.utils.token.DownloadTokenBuilder;
+import com.suse.manager.webui.utils.token.DownloadTokenCache;
 import com.suse.manager.webui.utils.token.Token;
 import com.suse.manager.webui.utils.token.TokenException;
 import com.suse.utils.Opt;
@@ -102,6 +103,7 @@ public class AccessTokenFactory extends HibernateFactory {
      */
     public static AccessToken save(AccessToken accessToken) {
         singleton.saveObject(accessToken);
+        DownloadTokenCache.invalidate(accessToken.getToken());
         return accessToken;
     }
 
@@ -212,6 +214,7 @@ public class AccessTokenFactory extends HibernateFactory {
         minion.getAccessTokens().addAll(tokens);
         tokensToActivate.forEach(toActivate -> {
             toActivate.setValid(true);
+            DownloadTokenCache.invalidate(toActivate.getToken());
             minion.getAccessTokens().add(toActivate);
         });
 
@@ -251,6 +254,7 @@ public class AccessTokenFactory extends HibernateFactory {
      */
     public static void delete(AccessToken token) {
         HibernateFactory.getSession().delete(token);
+        DownloadTokenCache.invalidate(token.getToken());
     }
 
     /**
@@ -639,6 +639,26 @@ public class ChannelFactory extends HibernateFactory {
         m.executeUpdate(params);
     }
 
+    /**
+     * Adds packages to a channel, skipping the ones already in it
+     * @param cid Channel packages are being added to
+     * @param pids Package ids from rhnPackage
+     */
+    public static void addChannelPackages(Long cid, List<Long> pids) {
+        WriteMode m = ModeFactory.getWriteMode(CHANNEL_QUERIES, "add_channel_packages");
+        m.executeUpdate(Map.of("cid", cid), pids);
+    }
+
+    /**
+     * Removes packages from a channel
+     * @param cid Channel packages are being removed from
+     * @param pids Package ids from rhnPackage
+     */
+    public static void removeChannelPackages(Long cid, List<Long> pids) {
+        WriteMode m = ModeFactory.getWriteMode(CHANNEL_QUERIES, "remove_packages");
+        m.executeUpdate(Map.of("cid", cid), pids);
+    }
+
     /**
      * Creates empty SSL set for repository
      *
@@ -1324,13 +1344,10 @@ public class ChannelFactory extends HibernateFactory {
      */
     public static void addErrataToChannel(Set<Long> eids, Long cid) {
         WriteMode m = ModeFactory.getWriteMode(CHANNEL_QUERIES,
-                "add_cloned_erratum_to_channel");
+                "add_cloned_errata_to_channel");
         Map<String, Object> params = new HashMap<>();
         params.put("cid", cid);
-        for (Long eid : eids) {
-            params.put("eid", eid);
-            m.executeUpdate(params);
-        }
+        m.executeUpdate(params, new ArrayList<>(eids));
     }
 
     /**
@@ -26,18 +26,26 @@ import com.redhat.rhn.domain.channel.ChannelFactory;
 import com.redhat.rhn.domain.channel.ClonedChannel;
 import com.redhat.rhn.domain.contentmgmt.ProjectSource.Type;
 import com.redhat.rhn.domain.org.Org;
+import com.redhat.rhn.domain.rhnpackage.PackageEvr;
 import com.redhat.rhn.domain.user.User;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.hibernate.type.StandardBasicTypes;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import javax.persistence.Tuple;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Predicate;
@@ -668,6 +676,145 @@ public class ContentProjectFactory extends HibernateFactory {
                 .executeUpdate();
     }
 
+    /**
+     * List the projections of the packages of a channel, to be filtered without loading the package entities.
+     *
+     * @param channel the channel
+     * @return the package projections
+     */
+    public static List<FilterablePackage> listFilterablePackages(Channel channel) {
+        Map<Long, PackageEvr> evrs = new HashMap<>();
+        return getSession().createNativeQuery("""
+                SELECT p.id, pn.name, evr.id AS evr_id, evr.epoch, evr.version, evr.release, evr.type,
+                       pa.label AS arch, p.build_time
+                  FROM rhnChannelPackage cp
+                  JOIN rhnPackage p ON p.id = cp.package_id
+                  JOIN rhnPackageName pn ON pn.id = p.name_id
+                  JOIN rhnPackageEVR evr ON evr.id = p.evr_id
+                  JOIN rhnPackageArch pa ON pa.id = p.package_arch_id
+                 WHERE cp.channel_id = :cid
+                """, Tuple.class)
+                .setParameter("cid", channel.getId())
+                .addScalar("id", StandardBasicTypes.LONG)
+                .addScalar("name", StandardBasicTypes.STRING)
+                .addScalar("evr_id", StandardBasicTypes.LONG)
+                .addScalar("epoch", StandardBasicTypes.STRING)
+                .addScalar("version", StandardBasicTypes.STRING)
+                .addScalar("release", StandardBasicTypes.STRING)
+                .addScalar("type", StandardBasicTypes.STRING)
+                .addScalar("arch", StandardBasicTypes.STRING)
+                .addScalar("build_time", StandardBasicTypes.TIMESTAMP)
+                .stream()
+                .map(tuple -> toFilterablePackage(tuple, evrs))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * List the projections of the packages of the errata of a channel, to filter the errata without loading their
+     * packages one erratum at a time.
+     *
+     * @param channel the channel
+     * @return the package projections, grouped by erratum id
+     */
+    public static Map<Long, List<FilterablePackage>> listErrataFilterablePackages(Channel channel) {
+        Map<Long, PackageEvr> evrs = new HashMap<>();
+        return getSession().createNativeQuery("""
+                SELECT ep.errata_id, p.id, pn.name, evr.id AS evr_id, evr.epoch, evr.version, evr.release, evr.type,
+                       pa.label AS arch, p.build_time
+                  FROM rhnChannelErrata ce
+                  JOIN rhnErrataPackage ep ON ep.errata_id = ce.errata_id
+                  JOIN rhnPackage p ON p.id = ep.package_id
+                  JOIN rhnPackageName pn ON pn.id = p.name_id
+                  JOIN rhnPackageEVR evr ON evr.id = p.evr_id
+                  JOIN rhnPackageArch pa ON pa.id = p.package_arch_id
+                 WHERE ce.channel_id = :cid
+                """, Tuple.class)
+                .setParameter("cid", channel.getId())
+                .addScalar("errata_id", StandardBasicTypes.LONG)
+                .addScalar("id", StandardBasicTypes.LONG)
+                .addScalar("name", StandardBasicTypes.STRING)
+                .addScalar("evr_id", StandardBasicTypes.LONG)
+                .addScalar("epoch", StandardBasicTypes.STRING)
+                .addScalar("version", StandardBasicTypes.STRING)
+                .addScalar("release", StandardBasicTypes.STRING)
+                .addScalar("type", StandardBasicTypes.STRING)
+                .addScalar("arch", StandardBasicTypes.STRING)
+                .addScalar("build_time", StandardBasicTypes.TIMESTAMP)
+                .stream()
+                .collect(Collectors.groupingBy(tuple -> tuple.get("errata_id", Long.class),
+                        Collectors.mapping(tuple -> toFilterablePackage(tuple, evrs), Collectors.toList())));
+    }
+
+    private static FilterablePackage toFilterablePackage(Tuple tuple, Map<Long, PackageEvr> evrs) {
+        // packages of a channel share few distinct EVRs, keep a single instance of each
+        PackageEvr evr = evrs.computeIfAbsent(tuple.get("evr_id", Long.class), id -> new PackageEvr(
+                tuple.get("epoch", String.class),
+                tuple.get("version", String.class),
+                tuple.get("release", String.class),
+                tuple.get("type", String.class)));
+        return new FilterablePackage(
+                tuple.get("id", Long.class),
+                tuple.get("name", String.class),
+                evr,
+                tuple.get("arch", String.class),
+                tuple.get("build_time", Date.class));
+    }
+
+    /**
+     * List the ids of the packages of a channel that provide a capability with one of the given names.
+     *
+     * @param channel the channel
+     * @param names the capability names
+     * @return the package ids
+     */
+    public static Set<Long> listPackageIdsProvidingNames(Channel channel, Collection<String> names) {
+        if (names.isEmpty()) {
+            return Set.of();
+        }
+        return getSession().createNativeQuery("""
+                SELECT DISTINCT cp.package_id
+                  FROM rhnChannelPackage cp
+                  JOIN rhnPackageProvides pp ON pp.package_id = cp.package_id
+                  JOIN rhnPackageCapability c ON c.id = pp.capability_id
+                 WHERE cp.channel_id = :cid
+                   AND c.name IN (:names)
+                """, Tuple.class)
+                .setParameter("cid", channel.getId())
+                .setParameterList("names", names)
+                .addScalar("package_id", StandardBasicTypes.LONG)
+                .stream()
+                .map(tuple -> tuple.get("package_id", Long.class))
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * List the ids of the errata of a channel with a package providing a capability with one of the given names.
+     *
+     * @param channel the channel
+     * @param names the capability names
+     * @return the errata ids
+     */
+    public static Set<Long> listErrataIdsProvidingNames(Channel channel, Collection<String> names) {
+        if (names.isEmpty()) {
+            return Set.of();
+        }
+        return getSession().createNativeQuery("""
+                SELECT DISTINCT ce.errata_id
+                  FROM rhnChannelErrata ce
+                  JOIN rhnErrataPackage ep ON ep.errata_id = ce.errata_id
+                  JOIN rhnPackageProvides pp ON pp.package_id = ep.package_id
+                  JOIN rhnPackageCapability c ON c.id = pp.capability_id
+                 WHERE ce.channel_id = :cid
+                   AND c.name IN (:names)
+                """, Tuple.class)
+                .setParameter("cid", channel.getId())
+                .setParameterList("names", names)
+                .addScalar("errata_id", StandardBasicTypes.LONG)
+                .stream()
+                .map(tuple -> tuple.get("errata_id", Long.class))
+                .collect(Collectors.toSet());
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -16,16 +16,21 @@
 package com.redhat.rhn.domain.contentmgmt;
 
 import com.redhat.rhn.domain.errata.Errata;
-import com.redhat.rhn.domain.rhnpackage.Package;
 import com.redhat.rhn.domain.rhnpackage.PackageEvr;
+import com.redhat.rhn.domain.rhnpackage.PackageType;
 
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BiPredicate;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
-import java.util.stream.Stream;
 
 import javax.persistence.DiscriminatorValue;
 import javax.persistence.Entity;
@@ -38,10 +43,50 @@ import javax.persistence.Transient;
 @DiscriminatorValue("errata")
 public class ErrataFilter extends ContentFilter<Errata> {
 
-    private Pattern pattern;
+    private BiPredicate<Errata, Supplier<Collection<FilterablePackage>>> compiled;
 
     @Override
     public boolean test(Errata erratum) {
+        if ("package_provides_name".equals(getCriteria().getField())) {
+            FilterCriteria.Matcher matcher = getCriteria().getMatcher();
+            String value = getCriteria().getValue();
+            if (matcher == FilterCriteria.Matcher.CONTAINS_PROVIDES_NAME) {
+                return erratum.getPackages().stream()
+                              .flatMap(pkg -> pkg.getProvides().stream())
+                              .map(p -> p.getCapability().getName())
+                              .anyMatch(n -> n.equals(value));
+            }
+
+            throw new UnsupportedOperationException("Matcher " + matcher + " not supported");
+        }
+        return test(erratum, () -> erratum.getPackages().stream().map(FilterablePackage::of).toList());
+    }
+
+    /**
+     * Tests an erratum whose packages are already known, so that they do not need to be loaded from the erratum.
+     * The criteria are compiled on the first call and the value of the criteria is not parsed again.
+     *
+     * The package_provides_name field needs the package capabilities and is not supported here, it is evaluated in
+     * the database instead.
+     *
+     * @param erratum the erratum
+     * @param packages supplies the packages of the erratum, called only by the criteria on package fields
+     * @return true if the erratum matches the criteria
+     */
+    public boolean test(Errata erratum, Supplier<Collection<FilterablePackage>> packages) {
+        if (compiled == null) {
+            compiled = compile();
+        }
+        return compiled.test(erratum, packages);
+    }
+
+    @Override
+    public void setCriteria(FilterCriteria criteriaIn) {
+        super.setCriteria(criteriaIn);
+        compiled = null;
+    }
+
+    private BiPredicate<Errata, Supplier<Collection<FilterablePackage>>> compile() {
         FilterCriteria.Matcher matcher = getCriteria().getMatcher();
         String field = getCriteria().getField();
         String value = getCriteria().getValue();
@@ -49,38 +94,33 @@ public class ErrataFilter extends ContentFilter<Errata> {
         switch (field) {
             case "issue_date":
                 ZonedDateTime valDate = ZonedDateTime.parse(value, DateTimeFormatter.ISO_OFFSET_DATE_TIME);
-                ZonedDateTime issueDate = getField(erratum, field, ZonedDateTime.class);
                 switch (matcher) {
                     case GREATEREQ:
-                        return !issueDate.isBefore(valDate);
+                        return (erratum, packages) ->
+                                !getField(erratum, field, ZonedDateTime.class).isBefore(valDate);
                     case GREATER:
-                        return issueDate.isAfter(valDate);
+                        return (erratum, packages) -> getField(erratum, field, ZonedDateTime.class).isAfter(valDate);
                     default:
                         throw new UnsupportedOperationException("Matcher " + matcher + " not supported");
                 }
             case "advisory_name":
                 switch (matcher) {
                     case EQUALS:
-                        return getField(erratum, field, String.class).equals(value);
+                        return (erratum, packages) -> getField(erratum, field, String.class).equals(value);
                     case MATCHES:
-                        if (pattern == null) {
-                            pattern = Pattern.compile(value);
-                        }
-                        return pattern.matcher(getField(erratum, field, String.class)).matches();
+                        Pattern pattern = Pattern.compile(value);
+                        return (erratum, packages) -> pattern.matcher(getField(erratum, field, String.class)).matches();
                     default:
                         throw new UnsupportedOperationException("Matcher " + matcher + " not supported");
                 }
             case "package_name":
                 switch (matcher) {
                     case CONTAINS_PKG_NAME:
-                        return erratum.getPackages().stream()
-                                .anyMatch(p -> p.getPackageName().getName().equals(value));
+                        return (erratum, packages) -> packages.get().stream().anyMatch(p -> p.name().equals(value));
                     case MATCHES_PKG_NAME:
-                        if (pattern == null) {
-                            pattern = Pattern.compile(value);
-                        }
-                        return erratum.getPackages().stream()
-                                .anyMatch(p -> pattern.matcher(p.getPackageName().getName()).matches());
+                        Pattern pattern = Pattern.compile(value);
+                        return (erratum, packages) -> packages.get().stream()
+                                .anyMatch(p -> pattern.matcher(p.name()).matches());
                     default:
                         throw new UnsupportedOperationException("Matcher " + matcher + " not supported");
                 }
@@ -91,59 +131,53 @@ public class ErrataFilter extends ContentFilter<Errata> {
                 }
                 String name = split.get(0);
                 String evr = split.get(1);
-                Stream<Package> pstream = erratum.getPackages().stream()
-                        .filter(p -> p.getPackageName().getName().equals(name));
+                IntPredicate comparison;
                 switch (matcher) {
                     case CONTAINS_PKG_LT_EVR:
-                        return pstream.anyMatch(p -> p.getPackageEvr().compareTo(
-                                PackageEvr.parsePackageEvr(p.getPackageEvr().getPackageType(), evr)) < 0);
+                        comparison = c -> c < 0;
+                        break;
                     case CONTAINS_PKG_LE_EVR:
-                        return pstream.anyMatch(p -> p.getPackageEvr().compareTo(
-                                PackageEvr.parsePackageEvr(p.getPackageEvr().getPackageType(), evr)) <= 0);
+                        comparison = c -> c <= 0;
+                        break;
                     case CONTAINS_PKG_EQ_EVR:
-                        return pstream.anyMatch(p -> p.getPackageEvr().compareTo(
-                                PackageEvr.parsePackageEvr(p.getPackageEvr().getPackageType(), evr)) == 0);
+                        comparison = c -> c == 0;
+                        break;
                     case CONTAINS_PKG_GE_EVR:
-                        return pstream.anyMatch(p -> p.getPackageEvr().compareTo(
-                                PackageEvr.parsePackageEvr(p.getPackageEvr().getPackageType(), evr)) >= 0);
+                        comparison = c -> c >= 0;
+                        break;
                     case CONTAINS_PKG_GT_EVR:
-                        return pstream.anyMatch(p -> p.getPackageEvr().compareTo(
-                                PackageEvr.parsePackageEvr(p.getPackageEvr().getPackageType(), evr)) > 0);
+                        comparison = c -> c > 0;
+                        break;
                     default:
                         throw new UnsupportedOperationException("Matcher " + matcher + " not supported");
                 }
+                // the value is parsed once per package type, as rpm and deb versions are parsed differently
+                Map<PackageType, PackageEvr> parsedEvr = new EnumMap<>(PackageType.class);
+                return (erratum, packages) -> packages.get().stream()
+                        .filter(p -> p.name().equals(name))
+                        .anyMatch(p -> comparison.test(p.evr().compareTo(parsedEvr.computeIfAbsent(
+                                p.evr().getPackageType(), t -> PackageEvr.parsePackageEvr(t, evr)))));
             case "advisory_type":
                 if (matcher == FilterCriteria.Matcher.EQUALS) {
-                    return getField(erratum, field, String.class).equals(value);
+                    return (erratum, packages) -> getField(erratum, field, String.class).equals(value);
                 }
 
                 throw new UnsupportedOperationException("Matcher " + matcher + " not supported");
             case "synopsis":
                 switch (matcher) {
                     case EQUALS:
-                        return getField(erratum, field, String.class).equals(value);
+                        return (erratum, packages) -> getField(erratum, field, String.class).equals(value);
                     case CONTAINS:
-                        return getField(erratum, field, String.class).contains(value);
+                        return (erratum, packages) -> getField(erratum, field, String.class).contains(value);
                     case MATCHES:
-                        if (pattern == null) {
-                            pattern = Pattern.compile(value);
-                        }
-                        return pattern.matcher(getField(erratum, field, String.class)).matches();
+                        Pattern pattern = Pattern.compile(value);
+                        return (erratum, packages) -> pattern.matcher(getField(erratum, field, String.class)).matches();
                     default:
                         throw new UnsupportedOperationException("Matcher " + matcher + " not supported");
                 }
             case "keyword":
                 if (matcher == FilterCriteria.Matcher.CONTAINS) {
-                    return erratum.hasKeyword(value);
-                }
-
-                throw new UnsupportedOperationException("Matcher " + matcher + " not supported");
-            case "package_provides_name":
-                if (matcher == FilterCriteria.Matcher.CONTAINS_PROVIDES_NAME) {
-                    return erratum.getPackages().stream()
-                                  .flatMap(pkg -> pkg.getProvides().stream())
-                                  .map(p -> p.getCapability().getName())
-                                  .anyMatch(n -> n.equals(value));
+                    return (erratum, packages) -> erratum.hasKeyword(value);
                 }
 
                 throw new UnsupportedOperationException("Matcher " + matcher + " not supported");
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2025 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.domain.contentmgmt;
+
+import com.redhat.rhn.domain.rhnpackage.Package;
+import com.redhat.rhn.domain.rhnpackage.PackageEvr;
+
+import java.util.Date;
+
+/**
+ * The fields of a package that the content lifecycle filters look at, loaded without the package entity.
+ *
+ * @param id the package id
+ * @param name the package name
+ * @param evr the package epoch, version and release
+ * @param arch the package architecture label
+ * @param buildTime the build time, may be null
+ */
+public record FilterablePackage(Long id, String name, PackageEvr evr, String arch, Date buildTime) {
+
+    /**
+     * Creates the projection of a package entity.
+     * @param pack the package
+     * @return the projection
+     */
+    public static FilterablePackage of(Package pack) {
+        return new FilterablePackage(pack.getId(), pack.getPackageName().getName(), pack.getPackageEvr(),
+                pack.getPackageArch().getLabel(), pack.getBuildTime());
+    }
+
+    /**
+     * Util to output package name + evr, see {@link Package#getNameEvr()}
+     * @return the package name and evr
+     */
+    public String getNameEvr() {
+        return name + "-" + evr.toString();
+    }
+
+    /**
+     * Util to output package name + evra always including an epoch, see {@link Package#getNevraWithEpoch()}
+     * @return the package name and evra
+     */
+    public String getNevraWithEpoch() {
+        PackageEvr withEpoch = new PackageEvr(evr);
+        if (withEpoch.getEpoch() == null || withEpoch.getEpoch().isEmpty()) {
+            withEpoch.setEpoch("0");
+        }
+        return name + "-" + withEpoch.toString() + "." + arch;
+    }
+}
@@ -17,6 +17,8 @@ package com.redhat.rhn.domain.contentmgmt;
 
 import com.redhat.rhn.domain.rhnpackage.Package;
 
+import java.util.function.Predicate;
+
 /**
  * Modular package filter that filters out every modular package in a project.
  * <p>This is an internal filter that cannot be created or manipulated by the user.</p>
@@ -34,6 +36,11 @@ public class ModularPackageFilter extends PackageFilter {
         return pack.getPackageEvr().getRelease().contains(".module");
     }
 
+    @Override
+    public Predicate<FilterablePackage> compile() {
+        return pack -> pack.evr().getRelease().contains(".module");
+    }
+
     @Override
     public void setCriteria(FilterCriteria criteriaIn) {
         throw new UnsupportedOperationException("Criteria cannot be set for the modular package filter.");
@@ -17,10 +17,16 @@ package com.redhat.rhn.domain.contentmgmt;
 
 import com.redhat.rhn.domain.rhnpackage.Package;
 import com.redhat.rhn.domain.rhnpackage.PackageEvr;
+import com.redhat.rhn.domain.rhnpackage.PackageType;
 
 import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
 
 import javax.persistence.DiscriminatorValue;
@@ -36,87 +42,121 @@ public class PackageFilter extends ContentFilter<Package> {
 
     public static final String BUILD_DATE = "build_date";
 
-    private Pattern pattern;
+    private Predicate<FilterablePackage> compiled;
 
     @Override
     public boolean test(Package pack) {
+        if (getCriteria().getMatcher() == FilterCriteria.Matcher.PROVIDES_NAME) {
+            String value = getCriteria().getValue();
+            return pack.getProvides().stream()
+                    .map(p -> p.getCapability().getName())
+                    .anyMatch(n -> n.equals(value));
+        }
+        if (compiled == null) {
+            compiled = compile();
+        }
+        return compiled.test(FilterablePackage.of(pack));
+    }
+
+    @Override
+    public void setCriteria(FilterCriteria criteriaIn) {
+        super.setCriteria(criteriaIn);
+        compiled = null;
+    }
+
+    /**
+     * Compiles the criteria of the filter into a predicate over package projections. The value of the criteria is
+     * parsed once, so the predicate can be tested against all the packages of a channel.
+     *
+     * The {@link FilterCriteria.Matcher#PROVIDES_NAME} matcher needs the package capabilities and can not be compiled,
+     * it is evaluated in the database instead.
+     *
+     * @return the predicate
+     */
+    public Predicate<FilterablePackage> compile() {
         FilterCriteria.Matcher matcher = getCriteria().getMatcher();
         String field = getCriteria().getField();
         String value = getCriteria().getValue();
 
         switch (matcher) {
             case CONTAINS:
-                return getField(pack, field, String.class).contains(value);
+                Function<FilterablePackage, String> containsField = fieldGetter(field);
+                return pack -> containsField.apply(pack).contains(value);
             case LOWER:
-                return preCondition(pack, field, value) && compareField(pack, field, value) < 0;
+                return compileComparison(field, value, c -> c < 0);
             case LOWEREQ:
-                return preCondition(pack, field, value) && compareField(pack, field, value) <= 0;
+                return compileComparison(field, value, c -> c <= 0);
             case EQUALS:
-                return getField(pack, field, String.class).equals(value);
+                Function<FilterablePackage, String> equalsField = fieldGetter(field);
+                return pack -> equalsField.apply(pack).equals(value);
             case GREATEREQ:
-                return preCondition(pack, field, value) && compareField(pack, field, value) >= 0;
+                return compileComparison(field, value, c -> c >= 0);
             case GREATER:
-                return preCondition(pack, field, value) && compareField(pack, field, value) > 0;
+                return compileComparison(field, value, c -> c > 0);
             case MATCHES:
-                if (pattern == null) {
-                    pattern = Pattern.compile(value);
-                }
-                return pattern.matcher(getField(pack, field, String.class)).matches();
-            case PROVIDES_NAME:
-                return pack.getProvides().stream()
-                        .map(p -> p.getCapability().getName())
-                        .anyMatch(n -> n.equals(value));
+                Function<FilterablePackage, String> matchesField = fieldGetter(field);
+                Pattern pattern = Pattern.compile(value);
+                return pack -> pattern.matcher(matchesField.apply(pack)).matches();
             default:
                 throw new UnsupportedOperationException("Matcher " + matcher + " not supported");
         }
     }
 
-    private int compareField(Package pack, String field, String value) {
-        return BUILD_DATE.equals(field) ? compareBuildDate(pack, value) : comparePackageEvr(pack, field, value);
-    }
-
-    private boolean preCondition(Package pack, String field, String value) {
-        return BUILD_DATE.equals(field) ? pack.getBuildTime() != null : checkNameAndArch(field, value, pack);
-    }
-
-    private int comparePackageEvr(Package pack, String field, String value) {
-        return pack.getPackageEvr().compareTo(PackageEvr.parsePackageEvr(pack.getPackageType(), getEvr(field, value)));
-    }
+    private static Predicate<FilterablePackage> compileComparison(String field, String value,
+            IntPredicate comparison) {
+        if (BUILD_DATE.equals(field)) {
+            Instant valDate = ZonedDateTime.parse(value, DateTimeFormatter.ISO_OFFSET_DATE_TIME).toInstant();
+            return pack -> pack.buildTime() != null &&
+                    comparison.test(pack.buildTime().toInstant().compareTo(valDate));
+        }
 
-    private int compareBuildDate(Package pack, String value) {
-        Instant valDate = ZonedDateTime.parse(value, DateTimeFormatter.ISO_OFFSET_DATE_TIME).toInstant();
-        Instant issueDate = pack.getBuildTime().toInstant();
-        return issueDate.compareTo(valDate);
+        Predicate<FilterablePackage> nameAndArch = compileNameAndArch(field, value);
+        // the value is parsed once per package type, as rpm and deb versions are parsed differently
+        Map<PackageType, PackageEvr> parsedEvr = new EnumMap<>(PackageType.class);
+        return pack -> nameAndArch.test(pack) && comparison.test(pack.evr().compareTo(parsedEvr.computeIfAbsent(
+                pack.evr().getPackageType(), t -> PackageEvr.parsePackageEvr(t, getEvr(field, value)))));
     }
 
-    private static <T> T getField(Package pack, String field, Class<T> type) {
+    /**
+     * Returns the getter of a textual package field that can be used in the criteria.
+     * @param field the field name
+     * @return the getter of the field value
+     */
+    public static Function<FilterablePackage, String> fieldGetter(String field) {
         switch (field) {
             case "name":
-                return type.cast(pack.getPackageName().getName());
+                return FilterablePackage::name;
             case "nevr":
-                return type.cast(pack.getNameEvr());
+                return FilterablePackage::getNameEvr;
             case "nevra":
                 //Case for null epoch: Module metadata reports epoch as '0' even if there's none. We need to match it.
                 // pack.getNameEvra() omits the epoch if null so instead, pack.getNevraWithEpoch() is used here.
-                return type.cast(pack.getNevraWithEpoch());
+                return FilterablePackage::getNevraWithEpoch;
             default:
                 throw new UnsupportedOperationException("Field " + field + " not supported");
         }
     }
 
-    private static boolean checkNameAndArch(String field, String value, Package pack) {
+    private static Predicate<FilterablePackage> compileNameAndArch(String field, String value) {
         if (field.equals("nevr")) {
             int relIdx = value.lastIndexOf('-');
             int verIdx = value.lastIndexOf('-', relIdx - 1);
-            return (verIdx > 0) && value.substring(0, verIdx).equals(pack.getPackageName().getName());
+            if (verIdx <= 0) {
+                return pack -> false;
+            }
+            String name = value.substring(0, verIdx);
+            return pack -> name.equals(pack.name());
         }
         else if (field.equals("nevra")) {
             int relIdx = value.lastIndexOf('-');
             int verIdx = value.lastIndexOf('-', relIdx - 1);
             int archIdx = value.lastIndexOf('.');
-            return (verIdx > 0) && (archIdx > 0) &&
-                   value.substring(0, verIdx).equals(pack.getPackageName().getName()) &&
-                   value.substring(archIdx + 1).equals(pack.getPackageArch().getLabel());
+            if (verIdx <= 0 || archIdx <= 0) {
+                return pack -> false;
+            }
+            String name = value.substring(0, verIdx);
+            String arch = value.substring(archIdx + 1);
+            return pack -> name.equals(pack.name()) && arch.equals(pack.arch());
         }
         else {
             throw new UnsupportedOperationException("Field " + field + " not supported for filter Package (NEVRA)");
@@ -23,7 +23,6 @@ import com.redhat.rhn.common.db.DatabaseException;
 import com.redhat.rhn.common.db.datasource.DataResult;
 import com.redhat.rhn.common.db.datasource.ModeFactory;
 import com.redhat.rhn.common.db.datasource.SelectMode;
-import com.redhat.rhn.common.db.datasource.WriteMode;
 import com.redhat.rhn.common.hibernate.HibernateFactory;
 import com.redhat.rhn.common.hibernate.HibernateRuntimeException;
 import com.redhat.rhn.domain.channel.Channel;
@@ -57,6 +56,7 @@ import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -1029,87 +1029,99 @@ public class ErrataFactory extends HibernateFactory {
     }
 
     /**
-     * Get ErrataOverview by errata id
-     * @param eid errata id
-     * @return ErrataOverview object
+     * Get the advisories and advisory names ending with one of the given endings after
+     * a three characters prefix, like the ones of clones. Useful when cloning many errata.
+     * @param endings endings of the advisories and advisory names
+     * @return existing advisories and existing advisory names
      */
-    public static ErrataOverview getOverviewById(Long eid) {
-        SelectMode mode = ModeFactory.getMode(ERRATA_QUERIES, "overview_by_id");
-        Map<String, Object> params = new HashMap<>();
-        params.put("eid", eid);
-        DataResult<ErrataOverview> results = mode.execute(params);
-        if (results.isEmpty()) {
-            return null;
+    public static Tuple2<Set<String>, Set<String>> listCloneAdvisoriesEndingWith(Collection<String> endings) {
+        Set<String> advisories = new HashSet<>();
+        Set<String> advisoryNames = new HashSet<>();
+        List<String> endingList = new ArrayList<>(endings);
+        for (int i = 0; i < endingList.size(); i += 500) {
+            List<Object[]> results = singleton.listObjectsByNamedQuery("Errata.listCloneAdvisoriesEndingWith",
+                    Map.of("endings", endingList.subList(i, Math.min(i + 500, endingList.size()))));
+            for (Object[] result : results) {
+                advisories.add((String) result[0]);
+                advisoryNames.add((String) result[1]);
+            }
         }
-        results.elaborate();
-        return results.get(0);
+        return new Tuple2<>(advisories, advisoryNames);
     }
 
     /**
-     * Get ErrataOverview by advisory
-     * @param advisory the advisory
-     * @return ErrataOverview object
+     * Get ErrataOverviews by errata ids
+     * @param eids errata ids
+     * @return ErrataOverview objects
      */
-    public static ErrataOverview getOverviewByAdvisory(String advisory) {
-        SelectMode mode = ModeFactory.getMode(ERRATA_QUERIES, "overview_by_advisory");
-        Map<String, Object> params = new HashMap<>();
-        params.put("advisory", advisory);
-        DataResult<ErrataOverview> results = mode.execute(params);
-        if (results.isEmpty()) {
-            return null;
+    public static List<ErrataOverview> getOverviewsByIds(Collection<Long> eids) {
+        if (eids.isEmpty()) {
+            return new ArrayList<>();
         }
+        SelectMode mode = ModeFactory.getMode(ERRATA_QUERIES, "overviews_by_ids");
+        DataResult<ErrataOverview> results = mode.execute(new ArrayList<>(eids));
         results.elaborate();
-        return results.get(0);
+        return results;
     }
 
     /**
-     * Clone an erratum in the db. Will fill contents of rhnErrata, rhnErrataCloned,
-     * rhnErrataBugList, rhnErrataPackage, rhnErrataKeyword, and rhnErrataCVE. Basically
-     * do everything that ErrataHelper.cloneErrataFast does, but much, much faster.
-     * @param originalEid erratum id to clone from
-     * @param advisory unique advisory
-     * @param advisoryName unique name
+     * Clone errata in the db. Will fill contents of rhnErrata, rhnErrataCloned,
+     * rhnErrataBugList, rhnErrataPackage, rhnErrataKeyword, rhnErrataCVE and rhnErrataFile.
+     * Basically do everything that ErrataHelper.cloneErrataFast does, but much, much faster:
+     * the errata are inserted in a batch and their contents copied with one statement each.
+     * @param clones the errata to clone from, with the unique advisory and name of their clone
      * @param orgId org id to clone into
-     * @return ErrataOverview for the cloned erratum
+     * @return the ids of the cloned errata, by id of the erratum they were cloned from
      */
-    public static ErrataOverview cloneErratum(Long originalEid, String advisory, String advisoryName, Long orgId) {
-        WriteMode m = ModeFactory.getWriteMode(ERRATA_QUERIES, "clone_erratum");
-        Map<String, Object> params = new HashMap<>();
-        params.put("eid", originalEid);
-        params.put("advisory", advisory);
-        params.put("name", advisoryName);
-        params.put("org_id", orgId);
-        m.executeUpdate(params);
-        ErrataOverview clone = getOverviewByAdvisory(advisory);
-
-        // set original
-        m = ModeFactory.getWriteMode(ERRATA_QUERIES, "set_original");
-        params = new HashMap<>();
-        params.put("original_id", originalEid);
-        params.put("clone_id", clone.getId());
-        m.executeUpdate(params);
-
-        // clone bugs
-        m = ModeFactory.getWriteMode(ERRATA_QUERIES, "clone_bugs");
-        m.executeUpdate(params);
-
-        // clone keywords
-        m = ModeFactory.getWriteMode(ERRATA_QUERIES, "clone_keywords");
-        m.executeUpdate(params);
-
-        // clone packages
-        m = ModeFactory.getWriteMode(ERRATA_QUERIES, "clone_packages");
-        m.executeUpdate(params);
+    public static Map<Long, Long> cloneErrata(List<CloneAdvisory> clones, Long orgId) {
+        Map<Long, Long> cloneIds = new LinkedHashMap<>();
+        if (clones.isEmpty()) {
+            return cloneIds;
+        }
 
-        // clone cves
-        m = ModeFactory.getWriteMode(ERRATA_QUERIES, "clone_cves");
-        m.executeUpdate(params);
+        SelectMode idMode = ModeFactory.getMode(ERRATA_QUERIES, "next_errata_ids");
+        List<Map<String, Object>> ids = idMode.execute(Map.of("count", clones.size()));
+
+        DataResult<Map<String, Object>> errata = new DataResult<>(new ArrayList<>());
+        DataResult<Map<String, Object>> originals = new DataResult<>(new ArrayList<>());
+        for (int i = 0; i < clones.size(); i++) {
+            CloneAdvisory clone = clones.get(i);
+            Long cloneId = ((Number) ids.get(i).get("id")).longValue();
+            cloneIds.put(clone.originalId(), cloneId);
+
+            Map<String, Object> params = new HashMap<>();
+            params.put("eid", clone.originalId());
+            params.put("clone_id", cloneId);
+            params.put("advisory", clone.advisory());
+            params.put("name", clone.advisoryName());
+            params.put("org_id", orgId);
+            errata.add(params);
+
+            params = new HashMap<>();
+            params.put("original_id", clone.originalId());
+            params.put("clone_id", cloneId);
+            originals.add(params);
+        }
+        ModeFactory.getWriteMode(ERRATA_QUERIES, "clone_erratum").executeBatchUpdates(errata);
+        ModeFactory.getWriteMode(ERRATA_QUERIES, "set_original").executeBatchUpdates(originals);
+
+        // clone bugs, keywords, packages, cves and files of all the clones at once
+        List<Long> cloneIdList = new ArrayList<>(cloneIds.values());
+        for (String query : List.of("clone_bugs", "clone_keywords", "clone_packages", "clone_cves",
+                "clone_files")) {
+            ModeFactory.getWriteMode(ERRATA_QUERIES, query).executeUpdate(new HashMap<>(), cloneIdList);
+        }
 
-        // clone files
-        m = ModeFactory.getWriteMode(ERRATA_QUERIES, "clone_files");
-        m.executeUpdate(params);
+        return cloneIds;
+    }
 
-        return clone;
+    /**
+     * An erratum to clone, with the advisory and advisory name of its clone.
+     * @param originalId id of the erratum to clone
+     * @param advisory unique advisory of the clone
+     * @param advisoryName unique advisory name of the clone
+     */
+    public record CloneAdvisory(Long originalId, String advisory, String advisoryName) {
     }
 
 }
@@ -337,6 +337,32 @@ public class ErrataFactoryTest extends BaseTestCaseWithUser {
         assertEquals(clone.getOriginal(), testErrata);
     }
 
+    @Test
+    public void testCloneErrataInBulk() throws Exception {
+        String suffix = TestUtils.randomString();
+        Errata first = createTestErrata(null, Optional.of("RHBA-" + suffix));
+        Errata second = createTestErrata(null, Optional.of("BA-" + suffix));
+        HibernateFactory.getSession().flush();
+
+        Map<Long, Long> clones = ErrataHelper.cloneErrataFaster(List.of(second.getId(), first.getId()),
+                user.getOrg());
+
+        assertEquals(2, clones.size());
+        Errata firstClone = ErrataFactory.lookupById(clones.get(first.getId()));
+        Errata secondClone = ErrataFactory.lookupById(clones.get(second.getId()));
+        // both originals end the same, so the one cloned last in the given order gets the next prefix
+        assertEquals("CL-BA-" + suffix, secondClone.getAdvisory());
+        assertEquals("CM-BA-" + suffix, firstClone.getAdvisory());
+        for (Errata original : List.of(first, second)) {
+            ClonedErrata clone = (ClonedErrata) ErrataFactory.lookupById(clones.get(original.getId()));
+            assertEquals(original, clone.getOriginal());
+            assertEquals(user.getOrg(), clone.getOrg());
+            assertEquals(original.getPackages().size(), clone.getPackages().size());
+            assertEquals(original.getKeywords().size(), clone.getKeywords().size());
+            assertEquals(original.getFiles().size(), clone.getFiles().size());
+        }
+    }
+
     @Test
     public void testListErrataChannelPackages() {
         try {
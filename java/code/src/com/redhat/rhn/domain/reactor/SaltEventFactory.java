@@ -73,6 +73,20 @@ public class SaltEventFactory extends HibernateFactory {
                 .map(o -> new SaltEvent((long)o[0], (String)o[1], (String)o[2], (int)o[3]));
     }
 
+    /**
+     * Returns the next Salt events of a queue, if any, up to limit, without removing or locking them.
+     * @param limit the maximum count of events to return
+     * @param queue the thread to read events for, 0 for those associated with no particular queue.
+     * @return events
+     */
+    public static Stream<SaltEvent> peekSaltEvents(int limit, int queue) {
+        List<Object[]> eventObjects = singleton.listObjectsByNamedQuery("SaltEvent.peekSaltEvents",
+                Map.of("limit", limit, "queue", queue));
+
+        return eventObjects.stream()
+                .map(o -> new SaltEvent((long)o[0], (String)o[1], (String)o[2], (int)o[3]));
+    }
+
     /**
      * Deletes SaltEvents
      * @param ids event ids
@@ -14,6 +14,7 @@
  */
 package com.redhat.rhn.domain.rhnpackage;
 
+import com.redhat.rhn.common.conf.ConfigDefaults;
 import com.redhat.rhn.common.db.datasource.CachedStatement;
 import com.redhat.rhn.common.db.datasource.CallableMode;
 import com.redhat.rhn.common.db.datasource.DataResult;
@@ -21,6 +22,7 @@ import com.redhat.rhn.common.db.datasource.ModeFactory;
 import com.redhat.rhn.common.db.datasource.Row;
 import com.redhat.rhn.common.db.datasource.SelectMode;
 import com.redhat.rhn.common.hibernate.HibernateFactory;
+import com.redhat.rhn.common.util.ExpiringCache;
 import com.redhat.rhn.domain.org.Org;
 import com.redhat.rhn.domain.server.InstalledPackage;
 import com.redhat.rhn.domain.server.Server;
@@ -57,6 +59,13 @@ public class PackageFactory extends HibernateFactory {
     private static PackageFactory singleton = new PackageFactory();
     private static Logger log = LogManager.getLogger(PackageFactory.class);
 
+    private record PathKey(String channel, String name, String version, String release, String epoch, String arch,
+                           String checksum) {
+    }
+
+    private static final ExpiringCache<PathKey, String> PATH_CACHE = new ExpiringCache<>(
+            ConfigDefaults.get().getDownloadCacheTtl() * 1000L, ConfigDefaults.get().getDownloadCacheSize());
+
     public static final PackageKeyType PACKAGE_KEY_TYPE_GPG = lookupKeyTypeByLabel("gpg");
 
     public static final String ARCH_TYPE_RPM = "rpm";
@@ -415,6 +424,44 @@ public class PackageFactory extends HibernateFactory {
         return packages.get(0);
     }
 
+    /**
+     * Find the path of a package based off of the channel, NEVRA and checksum. The paths found are remembered for a
+     * short time, see {@link #invalidatePathCache(String)}; packages not found are looked up again on every call.
+     * @param channel the channel label
+     * @param name the name to search for
+     * @param version the version to search for
+     * @param release the release to search for
+     * @param epoch if epoch is null, the best match for epoch will be used.
+     * @param arch the arch to search for
+     * @param checksum Optional the checksum to search for
+     * @return the path of the requested package, null if it is not found
+     */
+    public static String lookupPathByChannelLabelNevraCs(String channel, String name,
+            String version, String release, String epoch, String arch, Optional<String> checksum) {
+        PathKey key = new PathKey(channel, name, version, release, epoch, arch, checksum.orElse(null));
+        return PATH_CACHE.get(key, k -> Optional.ofNullable(
+                lookupByChannelLabelNevraCs(channel, name, version, release, epoch, arch, checksum))
+                .map(Package::getPath)
+                .orElse(null));
+    }
+
+    /**
+     * Drops the remembered package paths of a channel, after its content changed. They are dropped again once
+     * the current transaction completes, as paths looked up meanwhile may not reflect the change yet.
+     * @param channelLabel the channel label
+     */
+    public static void invalidatePathCache(String channelLabel) {
+        HibernateFactory.runNowAndAfterTransaction(
+                () -> PATH_CACHE.invalidateIf((key, path) -> key.channel().equals(channelLabel)));
+    }
+
+    /**
+     * @return the cache of the package paths
+     */
+    public static ExpiringCache<?, String> getPathCache() {
+        return PATH_CACHE;
+    }
+
     /**
      * Returns an InstalledPackage object, given a server and package name to
      * lookup the latest version of the package. Return null if the package
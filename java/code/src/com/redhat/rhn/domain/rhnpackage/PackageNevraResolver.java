@@ -0,0 +1,278 @@
+/*
+ * Copyright (c) 2025 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.domain.rhnpackage;
+
+import com.redhat.rhn.common.hibernate.HibernateFactory;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.Session;
+import org.hibernate.type.StandardBasicTypes;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import javax.persistence.Tuple;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+
+/**
+ * Resolves the names, EVRs and architectures of many packages at once, as needed to store the package profile of a
+ * system. The missing names and EVRs are looked up or created by calling the lookup_* stored functions over a whole
+ * batch in a single statement, instead of one call per package.
+ *
+ * Names, EVRs and architectures are never changed nor deleted, so their ids are kept in a cache shared by all
+ * threads. Ids of rows created by a transaction are only added to the cache once the transaction is committed.
+ */
+public final class PackageNevraResolver {
+
+    private static final Logger LOG = LogManager.getLogger(PackageNevraResolver.class);
+
+    /** Upper bound of the ids kept in each cache, the cache is emptied when it is reached */
+    private static final int MAX_CACHED_IDS = 200000;
+
+    private static final Comparator<EvrKey> EVR_ORDER = Comparator
+            .comparing(EvrKey::type)
+            .thenComparing(EvrKey::epoch, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(EvrKey::version)
+            .thenComparing(EvrKey::release);
+
+    /**
+     * The values identifying a package EVR.
+     * @param epoch the epoch, null if none
+     * @param version the version
+     * @param release the release
+     * @param type the package type, as stored in the database
+     */
+    public record EvrKey(String epoch, String version, String release, String type) {
+
+        /**
+         * Builds the key of an EVR. An empty epoch is the same as no epoch.
+         * @param evr the EVR, not necessarily stored
+         * @return the key
+         */
+        public static EvrKey of(PackageEvr evr) {
+            return new EvrKey(emptyToNull(evr.getEpoch()), evr.getVersion(), evr.getRelease(), evr.getType());
+        }
+    }
+
+    private static final Map<String, Long> NAME_IDS = new ConcurrentHashMap<>();
+    private static final Map<EvrKey, Long> EVR_IDS = new ConcurrentHashMap<>();
+    private static final Map<String, Long> ARCH_IDS = new ConcurrentHashMap<>();
+
+    private PackageNevraResolver() {
+    }
+
+    /**
+     * Looks up the given package names, creating the missing ones.
+     * @param names the package names
+     * @return the package names, by name
+     */
+    public static Map<String, PackageName> resolveNames(Collection<String> names) {
+        Map<String, Long> ids = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        // Sorted, so that concurrent transactions insert the same new names in the same order
+        for (String name : new TreeSet<>(names)) {
+            Long id = NAME_IDS.get(name);
+            if (id != null) {
+                ids.put(name, id);
+            }
+            else {
+                missing.add(name);
+            }
+        }
+
+        Map<String, Long> created = new HashMap<>();
+        for (List<String> batch : partition(missing)) {
+            HibernateFactory.getSession().createNativeQuery("""
+                    SELECT n.name, lookup_package_name(n.name) AS id
+                      FROM unnest(ARRAY[:names]) AS n(name)
+                    """, Tuple.class)
+                    .setParameterList("names", batch)
+                    .addScalar("name", StandardBasicTypes.STRING)
+                    .addScalar("id", StandardBasicTypes.LONG)
+                    .stream()
+                    .forEach(row -> created.put(row.get("name", String.class), row.get("id", Long.class)));
+        }
+        ids.putAll(created);
+        publishAfterCommit(NAME_IDS, created);
+
+        Map<Long, PackageName> entities = loadByIds(PackageName.class, ids.values(), PackageName::getId);
+        Map<String, PackageName> result = new HashMap<>();
+        ids.forEach((name, id) -> result.put(name, entities.get(id)));
+        return result;
+    }
+
+    /**
+     * Looks up the given package EVRs, creating the missing ones.
+     * @param evrs the EVRs, not necessarily stored
+     * @return the stored EVRs, by their values
+     */
+    public static Map<EvrKey, PackageEvr> resolveEvrs(Collection<PackageEvr> evrs) {
+        Map<EvrKey, Long> ids = new HashMap<>();
+        List<EvrKey> missing = new ArrayList<>();
+        TreeSet<EvrKey> keys = new TreeSet<>(EVR_ORDER);
+        evrs.forEach(evr -> keys.add(EvrKey.of(evr)));
+        for (EvrKey key : keys) {
+            Long id = EVR_IDS.get(key);
+            if (id != null) {
+                ids.put(key, id);
+            }
+            else {
+                missing.add(key);
+            }
+        }
+
+        Map<EvrKey, Long> created = new HashMap<>();
+        for (List<EvrKey> batch : partition(missing)) {
+            // Array elements can not be bound to null, so a missing epoch is passed as an empty string
+            HibernateFactory.getSession().createNativeQuery("""
+                    SELECT e.epoch, e.version, e.release, e.type,
+                           lookup_evr(NULLIF(e.epoch, ''), e.version, e.release, e.type) AS id
+                      FROM unnest(ARRAY[:epochs], ARRAY[:versions], ARRAY[:releases], ARRAY[:types])
+                           AS e(epoch, version, release, type)
+                    """, Tuple.class)
+                    .setParameterList("epochs", batch.stream().map(k -> Objects.toString(k.epoch(), "")).toList())
+                    .setParameterList("versions", batch.stream().map(EvrKey::version).toList())
+                    .setParameterList("releases", batch.stream().map(EvrKey::release).toList())
+                    .setParameterList("types", batch.stream().map(EvrKey::type).toList())
+                    .addScalar("epoch", StandardBasicTypes.STRING)
+                    .addScalar("version", StandardBasicTypes.STRING)
+                    .addScalar("release", StandardBasicTypes.STRING)
+                    .addScalar("type", StandardBasicTypes.STRING)
+                    .addScalar("id", StandardBasicTypes.LONG)
+                    .stream()
+                    .forEach(row -> created.put(new EvrKey(
+                            emptyToNull(row.get("epoch", String.class)),
+                            row.get("version", String.class),
+                            row.get("release", String.class),
+                            row.get("type", String.class)), row.get("id", Long.class)));
+        }
+        ids.putAll(created);
+        publishAfterCommit(EVR_IDS, created);
+
+        Map<Long, PackageEvr> entities = loadByIds(PackageEvr.class, ids.values(), PackageEvr::getId);
+        Map<EvrKey, PackageEvr> result = new HashMap<>();
+        ids.forEach((key, id) -> result.put(key, entities.get(id)));
+        return result;
+    }
+
+    /**
+     * Looks up the given package architectures. Architectures are never created.
+     * @param labels the architecture labels
+     * @return the architectures found, by label
+     */
+    public static Map<String, PackageArch> resolveArches(Collection<String> labels) {
+        Map<String, PackageArch> result = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        Session session = HibernateFactory.getSession();
+        for (String label : new TreeSet<>(labels)) {
+            Long id = ARCH_IDS.get(label);
+            if (id != null) {
+                // Architectures are in the second level cache, so this is usually not a query
+                result.put(label, session.get(PackageArch.class, id));
+            }
+            else {
+                missing.add(label);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            Map<String, Long> found = new HashMap<>();
+            session.createQuery("FROM PackageArch WHERE label IN (:labels)", PackageArch.class)
+                    .setParameterList("labels", missing)
+                    .getResultList()
+                    .forEach(arch -> {
+                        result.put(arch.getLabel(), arch);
+                        found.put(arch.getLabel(), arch.getId());
+                    });
+            publish(ARCH_IDS, found);
+        }
+        return result;
+    }
+
+    /**
+     * Empties the caches of ids.
+     */
+    public static void clear() {
+        NAME_IDS.clear();
+        EVR_IDS.clear();
+        ARCH_IDS.clear();
+    }
+
+    private static <T> Map<Long, T> loadByIds(Class<T> clazz, Collection<Long> ids, Function<T, Long> getId) {
+        Map<Long, T> result = new HashMap<>();
+        for (List<Long> batch : partition(new ArrayList<>(new TreeSet<>(ids)))) {
+            HibernateFactory.getSession()
+                    .createQuery("FROM " + clazz.getSimpleName() + " WHERE id IN (:ids)", clazz)
+                    .setParameterList("ids", batch)
+                    .getResultList()
+                    .forEach(entity -> result.put(getId.apply(entity), entity));
+        }
+        return result;
+    }
+
+    private static <K> void publishAfterCommit(Map<K, Long> cache, Map<K, Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        if (!HibernateFactory.inTransaction()) {
+            publish(cache, ids);
+            return;
+        }
+        // The new rows are only visible to other transactions after the commit, and gone after a rollback
+        HibernateFactory.getSession().getTransaction().registerSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+                // nothing to do
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    publish(cache, ids);
+                }
+            }
+        });
+    }
+
+    private static <K> void publish(Map<K, Long> cache, Map<K, Long> ids) {
+        if (cache.size() + ids.size() > MAX_CACHED_IDS) {
+            LOG.debug("Package id cache is full, emptying it");
+            cache.clear();
+        }
+        cache.putAll(ids);
+    }
+
+    private static <E> List<List<E>> partition(List<E> list) {
+        List<List<E>> batches = new ArrayList<>();
+        for (int i = 0; i < list.size(); i += HibernateFactory.LIST_BATCH_MAX_SIZE) {
+            batches.add(list.subList(i, Math.min(i + HibernateFactory.LIST_BATCH_MAX_SIZE, list.size())));
+        }
+        return batches;
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2025 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.domain.rhnpackage.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.redhat.rhn.domain.rhnpackage.PackageArch;
+import com.redhat.rhn.domain.rhnpackage.PackageEvr;
+import com.redhat.rhn.domain.rhnpackage.PackageEvrFactory;
+import com.redhat.rhn.domain.rhnpackage.PackageFactory;
+import com.redhat.rhn.domain.rhnpackage.PackageName;
+import com.redhat.rhn.domain.rhnpackage.PackageNevraResolver;
+import com.redhat.rhn.domain.rhnpackage.PackageType;
+import com.redhat.rhn.testing.RhnBaseTestCase;
+import com.redhat.rhn.testing.TestUtils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests for {@link PackageNevraResolver}.
+ */
+public class PackageNevraResolverTest extends RhnBaseTestCase {
+
+    @AfterEach
+    public void clearCaches() {
+        PackageNevraResolver.clear();
+    }
+
+    @Test
+    public void testResolveNames() {
+        PackageName existing = PackageNameTest.createTestPackageName();
+        String newName = "00JavaTest" + TestUtils.randomString();
+
+        Map<String, PackageName> names = PackageNevraResolver.resolveNames(List.of(existing.getName(), newName));
+
+        assertEquals(2, names.size());
+        assertEquals(existing.getId(), names.get(existing.getName()).getId());
+        assertNotNull(names.get(newName).getId());
+        assertEquals(newName, names.get(newName).getName());
+        assertEquals(names.get(newName).getId(), PackageFactory.lookupOrCreatePackageNameId(newName));
+    }
+
+    @Test
+    public void testResolveEvrs() {
+        String version = TestUtils.randomString();
+        PackageEvr existing = PackageEvrFactory.lookupOrCreatePackageEvr("1", version, "1", PackageType.RPM);
+        PackageEvr noEpoch = new PackageEvr(null, version, "2", PackageType.RPM);
+        PackageEvr deb = PackageEvr.parseDebian("2:" + version + "-3");
+
+        Map<PackageNevraResolver.EvrKey, PackageEvr> evrs = PackageNevraResolver.resolveEvrs(
+                List.of(new PackageEvr(existing), noEpoch, deb));
+
+        assertEquals(3, evrs.size());
+        assertEquals(existing.getId(), evrs.get(PackageNevraResolver.EvrKey.of(existing)).getId());
+
+        PackageEvr created = evrs.get(PackageNevraResolver.EvrKey.of(noEpoch));
+        assertNull(created.getEpoch());
+        assertEquals("2", created.getRelease());
+        assertEquals(created.getId(), PackageEvrFactory.lookupOrCreatePackageEvr(noEpoch).getId());
+
+        PackageEvr createdDeb = evrs.get(PackageNevraResolver.EvrKey.of(deb));
+        assertEquals("2", createdDeb.getEpoch());
+        assertEquals(PackageType.DEB, createdDeb.getPackageType());
+    }
+
+    @Test
+    public void testResolveArches() {
+        Map<String, PackageArch> arches = PackageNevraResolver.resolveArches(List.of("x86_64", "noarch", "unknown"));
+
+        assertEquals(2, arches.size());
+        assertEquals(PackageFactory.lookupPackageArchByLabel("x86_64"), arches.get("x86_64"));
+
+        // Resolved again through the cached ids
+        arches = PackageNevraResolver.resolveArches(List.of("x86_64"));
+        assertEquals("x86_64", arches.get("x86_64").getLabel());
+    }
+}
@@ -14,7 +14,9 @@
  */
 package com.redhat.rhn.domain.session;
 
+import com.redhat.rhn.common.conf.ConfigDefaults;
 import com.redhat.rhn.common.hibernate.HibernateFactory;
+import com.redhat.rhn.common.util.ExpiringCache;
 import com.redhat.rhn.domain.user.User;
 
 import org.apache.logging.log4j.LogManager;
@@ -22,6 +24,8 @@ import org.apache.logging.log4j.Logger;
 import org.hibernate.Session;
 import org.hibernate.query.Query;
 
+import java.util.Objects;
+
 /**
  * SessionFactory - the singleton class used to fetch and store
  * com.redhat.rhn.domain.session.Session objects from the
@@ -32,6 +36,18 @@ public class WebSessionFactory extends HibernateFactory {
     private static WebSessionFactory singleton = new WebSessionFactory();
     private static Logger log = LogManager.getLogger(WebSessionFactory.class);
 
+    /**
+     * The state of a session as last read from the database.
+     * @param id the session id
+     * @param webUserId the id of the user logged into the session, null if none
+     * @param expires the time the session expires, in seconds since the epoch
+     */
+    public record CachedWebSession(Long id, Long webUserId, long expires) {
+    }
+
+    private static final ExpiringCache<Long, CachedWebSession> CACHE = new ExpiringCache<>(
+            ConfigDefaults.get().getApiSessionCacheTtl() * 1000L, ConfigDefaults.get().getApiCacheSize());
+
 
     private WebSessionFactory() {
         super();
@@ -64,12 +80,27 @@ public class WebSessionFactory extends HibernateFactory {
         return (WebSession)session.get(WebSessionImpl.class, id);
     }
 
+    /**
+     * Lookup the state of a Session by its id. The state is read from a short-lived cache, which is invalidated when
+     * the session is saved or removed through this factory, and again when the transaction completes.
+     * @param id the id to search for
+     * @return the state of the Session found, null if there is none
+     */
+    public static CachedWebSession lookupCachedById(Long id) {
+        return CACHE.get(id, sessionId -> {
+            WebSession session = lookupById(sessionId);
+            return session == null ? null :
+                    new CachedWebSession(session.getId(), session.getWebUserId(), session.getExpires());
+        });
+    }
+
     /**
      * Insert or Update a Session.
      * @param webSession WebSession to be stored in database.
      */
     public static void save(WebSession webSession) {
         singleton.saveObject(webSession);
+        invalidate(webSession);
     }
 
     /**
@@ -78,9 +109,17 @@ public class WebSessionFactory extends HibernateFactory {
      * @return the number of items affected.
      */
     public static int remove(WebSession webSession) {
+        invalidate(webSession);
         return singleton.removeObject(webSession);
     }
 
+    private static void invalidate(WebSession webSession) {
+        Long id = webSession.getId();
+        if (id != null) {
+            HibernateFactory.runNowAndAfterTransaction(() -> CACHE.invalidate(id));
+        }
+    }
+
     /**
      * Removes all the sessions of a user. This action is useful
      * especially when we disable/deactivate a user. We donot want
@@ -93,6 +132,16 @@ public class WebSessionFactory extends HibernateFactory {
         Query<Integer> query = session.getNamedQuery("WebSession.deleteByUserId");
         query.setParameter("user_id", user.getId());
         query.executeUpdate();
+        invalidateUserSessions(user.getId());
+    }
+
+    /**
+     * Forget the cached state of all the sessions of a user, now and once the current transaction completes.
+     * @param userId the id of the user whose sessions changed
+     */
+    public static void invalidateUserSessions(Long userId) {
+        HibernateFactory.runNowAndAfterTransaction(
+                () -> CACHE.invalidateIf((id, session) -> Objects.equals(session.webUserId(), userId)));
     }
 }
 
@@ -147,6 +147,27 @@ public class TaskFactory extends HibernateFactory {
         session.createQuery(criteriaDelete).executeUpdate();
     }
 
+    /**
+     * Delete tasks matching a name and any of the given data, ignoring priority and organization.
+     *
+     * @param name the tasks name
+     * @param data the tasks data
+     */
+    public static void deleteByNameData(String name, List<Long> data) {
+        if (data.isEmpty()) {
+            return;
+        }
+        Session session = HibernateFactory.getSession();
+        CriteriaBuilder builder = session.getCriteriaBuilder();
+        CriteriaDelete<Task> criteriaDelete = builder.createCriteriaDelete(Task.class);
+        Root<Task> root = criteriaDelete.from(Task.class);
+        criteriaDelete.where(builder.and(
+                builder.equal(root.get("name"), name),
+                root.get("data").in(data)
+        ));
+        session.createQuery(criteriaDelete).executeUpdate();
+    }
+
     /**
      * Gets the list of "update errata cache for channel" tasks.
      * @param org The org containing the tasks
@@ -84,4 +84,21 @@ public class TaskTest extends RhnBaseTestCase {
         assertNotNull(lookedup.get(0));
         assertInstanceOf(Task.class, lookedup.get(0));
     }
+
+    @Test
+    public void testDeleteByNameData() {
+        Org org = UserTestUtils.findNewOrg("testOrg" + this.getClass().getSimpleName());
+        String testname = "task_object_unit_test_" + TestUtils.randomString();
+
+        TaskFactory.createTask(org, testname, 42L);
+        TaskFactory.createTask(org, testname, 42L);
+        TaskFactory.createTask(org, testname, 43L);
+        TaskFactory.createTask(org, testname, 44L);
+        assertEquals(4, TaskFactory.getTaskListByNameLike(testname).size());
+
+        TaskFactory.deleteByNameData(testname, List.of(42L, 44L));
+        List<Task> remaining = TaskFactory.getTaskListByNameLike(testname);
+        assertEquals(1, remaining.size());
+        assertEquals(43L, remaining.get(0).getData());
+    }
 }
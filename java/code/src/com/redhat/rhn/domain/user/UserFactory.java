@@ -22,11 +22,13 @@ import com.redhat.rhn.common.db.datasource.SelectMode;
 import com.redhat.rhn.common.hibernate.HibernateFactory;
 import com.redhat.rhn.common.hibernate.LookupException;
 import com.redhat.rhn.common.localization.LocalizationService;
+import com.redhat.rhn.domain.access.WebEndpointFactory;
 import com.redhat.rhn.domain.org.Org;
 import com.redhat.rhn.domain.org.OrgFactory;
 import com.redhat.rhn.domain.role.Role;
 import com.redhat.rhn.domain.role.RoleFactory;
 import com.redhat.rhn.domain.server.Server;
+import com.redhat.rhn.domain.session.WebSessionFactory;
 import com.redhat.rhn.domain.user.legacy.UserImpl;
 import com.redhat.rhn.manager.session.SessionManager;
 
@@ -403,6 +405,7 @@ public  class UserFactory extends HibernateFactory {
         }
         saveObject(user);
         syncUserPerms(user);
+        WebEndpointFactory.invalidateAccess(user.getId());
     }
 
     /**
@@ -712,5 +715,7 @@ public  class UserFactory extends HibernateFactory {
         Map<String, Integer> outParams = new HashMap<>();
         inParams.put(USER_ID, userId);
         m.execute(inParams, outParams);
+        WebEndpointFactory.invalidateAccess(userId);
+        WebSessionFactory.invalidateUserSessions(userId);
     }
 }
@@ -19,7 +19,8 @@ import com.redhat.rhn.common.db.datasource.CachedStatement;
 import com.redhat.rhn.common.db.datasource.Elaborator;
 import com.redhat.rhn.common.hibernate.HibernateFactory;
 import com.redhat.rhn.common.util.CSVWriter;
-import com.redhat.rhn.common.util.download.ByteArrayStreamInfo;
+import com.redhat.rhn.common.util.download.CSVDownloadUtils;
+import com.redhat.rhn.common.util.download.DownloadAbortedException;
 import com.redhat.rhn.domain.user.User;
 import com.redhat.rhn.frontend.dto.BaseDto;
 import com.redhat.rhn.frontend.struts.RequestContext;
@@ -28,15 +29,16 @@ import com.redhat.rhn.frontend.taglibs.list.TagHelper;
 import org.apache.commons.collections.ListUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.struts.action.Action;
 import org.apache.struts.action.ActionForm;
 import org.apache.struts.action.ActionForward;
 import org.apache.struts.action.ActionMapping;
-import org.apache.struts.actions.DownloadAction;
 
-import java.io.StringWriter;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import javax.servlet.http.HttpServletRequest;
@@ -54,7 +56,7 @@ import javax.servlet.http.HttpSession;
  *
  * @author jmatthews
  */
-public class CSVDownloadAction extends DownloadAction {
+public class CSVDownloadAction extends Action {
 
     private static final Logger LOG = LogManager.getLogger(CSVDownloadAction.class);
 
@@ -71,14 +73,19 @@ public class CSVDownloadAction extends DownloadAction {
     public ActionForward execute(ActionMapping mapping, ActionForm form,
                                  HttpServletRequest request, HttpServletResponse response) {
         try {
-            super.execute(mapping, form, request, response);
+            writeCsv(request, response);
         }
         catch (Exception e) {
             /*
-             * Overridden to redirect for case of errors while processing CSV Export,
-             * example: Session timeout.
+             * Redirect for case of errors while processing CSV Export,
+             * example: Session timeout. Once the first rows are sent, the
+             * download has to fail instead of ending like a complete file.
              */
             LOG.error("Failed to generate CSV", e);
+            if (response.isCommitted()) {
+                throw new DownloadAbortedException("Failed to generate CSV", e);
+            }
+            response.reset();
             return mapping.findForward("error");
         }
         return null;
@@ -107,22 +114,25 @@ public class CSVDownloadAction extends DownloadAction {
     }
 
     /**
-     * Returns List of data referred to by session attribute with the name
-     * PAGE_LIST_DATA. Throws Exception if request attribute PAGE_LIST_DATA is
-     * missing or session attribute is null.
+     * Hands the data referred to by session attribute with the name QUERY_DATA
+     * or PAGE_LIST_DATA over in batches: a query is run again and its rows fetched
+     * a batch at a time. Throws Exception if both request attributes are missing
+     * or the session attribute is null.
      *
      * @param request HTTP Request
      * @param session HTTP session
-     * @return page data
+     * @param consumer gets the batches of page data
      */
-    protected List<BaseDto> getPageData(HttpServletRequest request, HttpSession session) {
+    protected void forEachPageData(HttpServletRequest request, HttpSession session,
+                                   Consumer<List<BaseDto>> consumer) {
         String paramQuery = request.getParameter(QUERY_DATA);
         if (paramQuery != null) {
             CachedStatement query = (CachedStatement) session.getAttribute(paramQuery);
             if (query == null) {
                 throw new IllegalArgumentException("Missing request parameter, " + QUERY_DATA);
             }
-            return query.restartQuery(HibernateFactory.getSession());
+            query.<BaseDto>restartQuery(HibernateFactory.getSession(), CSVDownloadUtils.BATCH_SIZE, consumer::accept);
+            return;
         }
 
         String paramPageData = request.getParameter(PAGE_LIST_DATA);
@@ -130,7 +140,7 @@ public class CSVDownloadAction extends DownloadAction {
             throw new IllegalArgumentException("Missing request parameter, " + EXPORT_COLUMNS);
         }
 
-        return ListUtils.typedList((List<?>) session.getAttribute(paramPageData), BaseDto.class);
+        consumer.accept(ListUtils.typedList((List<?>) session.getAttribute(paramPageData), BaseDto.class));
     }
 
     /**
@@ -170,38 +180,41 @@ public class CSVDownloadAction extends DownloadAction {
 
 
     /**
-     * {@inheritDoc}
+     * Writes the CSV to the response as the rows are fetched, elaborating them a batch at a time.
+     *
+     * @param request HTTP request
+     * @param response HTTP response
+     * @throws IOException if the response can't be written
      */
-    @Override
-    protected StreamInfo getStreamInfo(ActionMapping mapping, ActionForm form,
-                                       HttpServletRequest request, HttpServletResponse response) {
+    protected void writeCsv(HttpServletRequest request, HttpServletResponse response) throws IOException {
         HttpSession session = request.getSession(false);
         if (null == session) {
             throw new RhnRuntimeException("Missing session");
         }
 
         String exportColumns = getExportColumns(request, session);
-        List<BaseDto> pageData = getPageData(request, session);
+        String header = getHeaderText(request, session);
+        Elaborator elaborator = TagHelper.lookupElaboratorFor(getUniqueName(request), request);
 
         // Read the CSV separator from user preferences
         User user = new RequestContext(request).getCurrentUser();
-        CSVWriter csvWriter = new CSVWriter(new StringWriter(), user.getCsvSeparator());
-        csvWriter.setColumns(Arrays.stream(exportColumns.split(",")).map(String::trim).collect(Collectors.toList()));
-
-        String header = getHeaderText(request, session);
+        CSVWriter csvWriter = CSVDownloadUtils.openCSVWriter(request, response, "download.csv",
+                user.getCsvSeparator());
+        csvWriter.setColumns(Arrays.stream(exportColumns.split(",")).map(String::trim)
+                .collect(Collectors.toList()));
         if (header != null) {
             csvWriter.setHeaderText(header);
         }
 
-        Elaborator elaborator = TagHelper.lookupElaboratorFor(getUniqueName(request), request);
-        if (elaborator != null) {
-            elaborator.elaborate(new ArrayList<>(pageData), HibernateFactory.getSession());
-        }
-
-        String contentType = csvWriter.getMimeType() + ";charset=" + response.getCharacterEncoding();
-        response.setHeader("Content-Disposition", "attachment; filename=download." + csvWriter.getFileExtension());
-        csvWriter.write(pageData);
-
-        return new ByteArrayStreamInfo(contentType, csvWriter.getContents().getBytes());
+        csvWriter.beginRows();
+        forEachPageData(request, session, pageData -> {
+            if (elaborator != null) {
+                elaborator.elaborate(new ArrayList<>(pageData), HibernateFactory.getSession());
+            }
+            csvWriter.writeRows(pageData);
+        });
+        csvWriter.endRows();
+        // not closed on failures, so that an aborted download does not end like a complete one
+        csvWriter.close();
     }
 }
@@ -61,7 +61,7 @@ public class ChannelPackagesAction extends RhnAction {
         request.setAttribute("cid", chan.getId());
         request.setAttribute(ListTagHelper.PARENT_URL, request.getRequestURI() + "?" + request.getQueryString());
         request.setAttribute(RequestContext.PAGE_LIST,
-                PackageManager.listPackagesInChannelForList(cid));
+                PackageManager.packagesInChannelPageSource(cid));
 
         return mapping.findForward(RhnHelper.DEFAULT_FORWARD);
 
@@ -14,7 +14,6 @@
  */
 package com.redhat.rhn.frontend.action.channel.manage;
 
-import com.redhat.rhn.common.db.datasource.DataResult;
 import com.redhat.rhn.common.localization.LocalizationService;
 import com.redhat.rhn.common.security.PermissionException;
 import com.redhat.rhn.domain.access.AccessGroupFactory;
@@ -22,6 +21,7 @@ import com.redhat.rhn.domain.channel.Channel;
 import com.redhat.rhn.domain.channel.ChannelFactory;
 import com.redhat.rhn.domain.rhnset.RhnSet;
 import com.redhat.rhn.domain.user.User;
+import com.redhat.rhn.frontend.dto.PackageOverview;
 import com.redhat.rhn.frontend.struts.RequestContext;
 import com.redhat.rhn.frontend.struts.RhnAction;
 import com.redhat.rhn.frontend.struts.RhnHelper;
@@ -29,6 +29,7 @@ import com.redhat.rhn.frontend.struts.RhnListSetHelper;
 import com.redhat.rhn.frontend.taglibs.list.AlphaBarHelper;
 import com.redhat.rhn.frontend.taglibs.list.ListTagHelper;
 import com.redhat.rhn.frontend.taglibs.list.TagHelper;
+import com.redhat.rhn.frontend.taglibs.list.helper.SelectModePageSource;
 import com.redhat.rhn.frontend.xmlrpc.PermissionCheckFailureException;
 import com.redhat.rhn.manager.rhnpackage.PackageManager;
 import com.redhat.rhn.manager.rhnset.RhnSetDecl;
@@ -75,7 +76,7 @@ public class ChannelPackagesAction extends RhnAction {
 
 
 
-        DataResult result = PackageManager.listPackagesInChannelForList(cid);
+        SelectModePageSource<PackageOverview> result = PackageManager.packagesInChannelPageSource(cid);
         RhnListSetHelper helper = new RhnListSetHelper(request);
 
         RhnSet set =  RhnSetDecl.PACKAGES_TO_REMOVE.get(user);
@@ -90,7 +91,8 @@ public class ChannelPackagesAction extends RhnAction {
         }
 
         if (!set.isEmpty()) {
-            helper.syncSelections(set, result);
+            // only the rows of the displayed page are loaded
+            result.setOnLoad(rows -> helper.syncSelections(set, rows));
             ListTagHelper.setSelectedAmount(LIST_NAME, set.size(), request);
         }
 
@@ -27,11 +27,20 @@ import com.redhat.rhn.domain.errata.Errata;
 import com.redhat.rhn.domain.errata.ErrataFactory;
 import com.redhat.rhn.domain.errata.Keyword;
 import com.redhat.rhn.domain.org.Org;
+import com.redhat.rhn.domain.product.Tuple2;
 import com.redhat.rhn.domain.user.User;
 import com.redhat.rhn.frontend.dto.ErrataOverview;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * ErrataHelper
@@ -67,15 +76,50 @@ public class ErrataHelper {
      * @return Id of the cloned erratum
      */
     public static Long cloneErrataFaster(Long eid, Org org) {
-        ErrataOverview original = ErrataFactory.getOverviewById(eid);
-
-        String advisorySuffix = getSuffix(original.getAdvisory(), original.isCloned());
-        String nameSuffix = getSuffix(original.getAdvisoryName(), original.isCloned());
-        String prefix = findNextPrefix(advisorySuffix, nameSuffix);
+        return cloneErrataFaster(List.of(eid), org).get(eid);
+    }
 
-        ErrataOverview clone = ErrataFactory.cloneErratum(original.getId(), prefix +
-                advisorySuffix, prefix + nameSuffix, org.getId());
-        return clone.getId();
+    /**
+     * Clones many errata at once like {@link #cloneErrataFaster(Long, Org)}: the names
+     * already taken are looked up once for all of them, and the errata are copied with a
+     * few statements for the whole set instead of a few for each erratum. When several
+     * originals would get the same name, the first ones in the given order get the first
+     * prefixes.
+     * @param eids Ids of the original errata to clone
+     * @param org Org to clone into
+     * @return Ids of the cloned errata, by id of their original
+     */
+    public static Map<Long, Long> cloneErrataFaster(Collection<Long> eids, Org org) {
+        Set<Long> ids = new LinkedHashSet<>(eids);
+        Map<Long, ErrataOverview> overviews = ErrataFactory.getOverviewsByIds(ids).stream()
+                .collect(Collectors.toMap(ErrataOverview::getId, Function.identity()));
+        List<ErrataOverview> originals = ids.stream()
+                .map(overviews::get)
+                .filter(Objects::nonNull)
+                .toList();
+
+        Set<String> endings = new HashSet<>();
+        for (ErrataOverview original : originals) {
+            endings.add(getSuffix(original.getAdvisory(), original.isCloned()));
+            endings.add(getSuffix(original.getAdvisoryName(), original.isCloned()));
+        }
+        Tuple2<Set<String>, Set<String>> taken = ErrataFactory.listCloneAdvisoriesEndingWith(endings);
+        Set<String> advisories = taken.getA();
+        Set<String> advisoryNames = taken.getB();
+
+        List<ErrataFactory.CloneAdvisory> clones = new ArrayList<>();
+        for (ErrataOverview original : originals) {
+            String advisorySuffix = getSuffix(original.getAdvisory(), original.isCloned());
+            String nameSuffix = getSuffix(original.getAdvisoryName(), original.isCloned());
+            String prefix = findNextPrefix(advisorySuffix, nameSuffix, advisories, advisoryNames);
+
+            // two originals of the set may share their suffixes
+            advisories.add(prefix + advisorySuffix);
+            advisoryNames.add(prefix + nameSuffix);
+            clones.add(new ErrataFactory.CloneAdvisory(original.getId(), prefix + advisorySuffix,
+                    prefix + nameSuffix));
+        }
+        return ErrataFactory.cloneErrata(clones, org.getId());
     }
 
 
@@ -172,9 +216,12 @@ public class ErrataHelper {
     }
 
     private static String findNextPrefix(String advisoryLike, String nameLike) {
-        Set<String> advisories = ErrataFactory.listAdvisoriesEndingWith(advisoryLike);
-        Set<String> advisoryNames = ErrataFactory.listAdvisoryNamesEndingWith(nameLike);
+        return findNextPrefix(advisoryLike, nameLike, ErrataFactory.listAdvisoriesEndingWith(advisoryLike),
+                ErrataFactory.listAdvisoryNamesEndingWith(nameLike));
+    }
 
+    private static String findNextPrefix(String advisoryLike, String nameLike, Set<String> advisories,
+            Set<String> advisoryNames) {
         boolean unusedNameFound = false;
         String prefix = DEFAULT_ERRATA_CLONE_PREFIX;
 
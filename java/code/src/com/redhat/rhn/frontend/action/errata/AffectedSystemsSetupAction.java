@@ -14,10 +14,10 @@
  */
 package com.redhat.rhn.frontend.action.errata;
 
-import com.redhat.rhn.common.db.datasource.DataResult;
 import com.redhat.rhn.domain.errata.Errata;
 import com.redhat.rhn.domain.rhnset.RhnSet;
 import com.redhat.rhn.domain.user.User;
+import com.redhat.rhn.frontend.dto.SystemOverview;
 import com.redhat.rhn.frontend.struts.RequestContext;
 import com.redhat.rhn.frontend.struts.RhnHelper;
 import com.redhat.rhn.frontend.struts.RhnListAction;
@@ -25,6 +25,7 @@ import com.redhat.rhn.frontend.struts.RhnListSetHelper;
 import com.redhat.rhn.frontend.struts.StrutsDelegate;
 import com.redhat.rhn.frontend.taglibs.list.ListTagHelper;
 import com.redhat.rhn.frontend.taglibs.list.TagHelper;
+import com.redhat.rhn.frontend.taglibs.list.helper.SelectModePageSource;
 import com.redhat.rhn.manager.errata.ErrataManager;
 import com.redhat.rhn.manager.rhnset.RhnSetDecl;
 import com.redhat.rhn.manager.rhnset.RhnSetManager;
@@ -57,7 +58,7 @@ public class AffectedSystemsSetupAction extends RhnListAction {
 
 
         Errata errata = requestContext.lookupErratum();
-        DataResult dr = ErrataManager.systemsAffected(user, errata.getId(), null);
+        SelectModePageSource<SystemOverview> dr = ErrataManager.systemsAffectedPageSource(user, errata.getId());
 
         RhnSet set = RhnSetDecl.SYSTEMS_AFFECTED.get(user);
         RhnListSetHelper helper = new RhnListSetHelper(request);
@@ -87,11 +88,12 @@ public class AffectedSystemsSetupAction extends RhnListAction {
 
         // if I have a previous set selections populate data using it
         if (!set.isEmpty()) {
-            helper.syncSelections(set, dr);
+            // only the rows of the displayed page are loaded
+            dr.setOnLoad(rows -> helper.syncSelections(set, rows));
             ListTagHelper.setSelectedAmount(LIST_NAME, set.size(), request);
         }
 
-        TagHelper.bindElaboratorTo("systemAffectedList", dr.getElaborator(), request);
+        TagHelper.bindElaboratorTo(LIST_NAME, dr.getElaborator(), request);
         ListTagHelper.bindSetDeclTo(LIST_NAME, RhnSetDecl.SYSTEMS_AFFECTED, request);
 
         request.setAttribute(RequestContext.PAGE_LIST, dr);
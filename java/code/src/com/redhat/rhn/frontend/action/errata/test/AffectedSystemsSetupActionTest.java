@@ -16,7 +16,6 @@ package com.redhat.rhn.frontend.action.errata.test;
 
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
-import com.redhat.rhn.common.db.datasource.DataResult;
 import com.redhat.rhn.domain.errata.Errata;
 import com.redhat.rhn.domain.errata.test.ErrataFactoryTest;
 import com.redhat.rhn.frontend.dto.SystemOverview;
@@ -26,6 +25,8 @@ import com.redhat.rhn.testing.RhnMockStrutsTestCase;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 /**
  * AffectedSystemsSetupActionTest
  */
@@ -56,7 +57,7 @@ public class AffectedSystemsSetupActionTest extends RhnMockStrutsTestCase {
         Errata e = ErrataFactoryTest.createTestErrata(user.getOrg().getId());
         addRequestParameter("eid", e.getId().toString());
         actionPerform();
-        DataResult dr = (DataResult) request.getAttribute(RequestContext.PAGE_LIST);
+        List<?> dr = (List<?>) request.getAttribute(RequestContext.PAGE_LIST);
         assertNotNull(dr);
         for (Object oIn : dr) {
             SystemOverview s = (SystemOverview) oIn;
@@ -58,6 +58,6 @@ public class ListSystemsAction extends RhnAction implements Listable<SystemOverv
      */
     @Override
     public List<SystemOverview> getResult(RequestContext context) {
-        return SystemManager.inSet(context.getCurrentUser(), RhnSetDecl.SYSTEMS.getLabel());
+        return SystemManager.inSetPageSource(context.getCurrentUser(), RhnSetDecl.SYSTEMS.getLabel());
     }
 }
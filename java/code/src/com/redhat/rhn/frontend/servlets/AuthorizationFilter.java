@@ -30,7 +30,6 @@ import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
 import java.util.Date;
-import java.util.Optional;
 import java.util.Set;
 
 import javax.servlet.Filter;
@@ -116,11 +115,10 @@ public class AuthorizationFilter implements Filter {
         }
         else {
             if (!user.hasRole(RoleFactory.SAT_ADMIN)) {
-                Optional<WebEndpoint> endpointOpts = WebEndpointFactory.lookupByUserIdEndpointScope(user.getId(),
+                if (!WebEndpointFactory.isAccessibleByEndpointScope(user.getId(),
                         path,
                         hreq.getMethod(),
-                        WebEndpoint.Scope.W);
-                if (endpointOpts.isEmpty()) {
+                        WebEndpoint.Scope.W)) {
                     throw new PermissionException("The URI " + hreq.getRequestURI() +
                             " is not available to user " + user.getLogin());
                 }
@@ -142,11 +140,10 @@ public class AuthorizationFilter implements Filter {
         }
         else {
             if (!user.hasRole(RoleFactory.SAT_ADMIN)) {
-                Optional<WebEndpoint> endpointOpts = WebEndpointFactory.lookupByUserIdEndpointScope(user.getId(),
+                if (!WebEndpointFactory.isAccessibleByEndpointScope(user.getId(),
                         hreq.getServletPath(),
                         hreq.getMethod(),
-                        WebEndpoint.Scope.W);
-                if (endpointOpts.isEmpty()) {
+                        WebEndpoint.Scope.W)) {
                     throw new PermissionException("The URI " + hreq.getRequestURI() +
                             " is not available to user " + user.getLogin());
                 }
@@ -177,11 +174,10 @@ public class AuthorizationFilter implements Filter {
         }
         else {
             if (!user.hasRole(RoleFactory.SAT_ADMIN)) {
-                Optional<WebEndpoint> endpoinOpts = WebEndpointFactory.lookupByUserIdEndpoint(user.getId(),
+                if (!WebEndpointFactory.isAccessibleByEndpoint(user.getId(),
                         route.getMatchUri(),
                         // TODO: use AcceptType to check for 'scope'?
-                        hreq.getMethod());
-                if (endpoinOpts.isEmpty()) {
+                        hreq.getMethod())) {
                     throw new PermissionException("The URI " + route.getRequestURI() +
                             " is not available to user " + user.getLogin());
                 }
@@ -81,4 +81,26 @@ public abstract class BaseListFilter implements ListFilter {
     public void postFilter(List filteredList) {
         // No default behavior
     }
+
+    /**
+     * Returns the bean attribute matched by this filter, if it only checks that the attribute contains the
+     * criteria, ignoring case. A {@link ListPageSource} can then do the filtering.
+     * @return the bean attribute, or null if the filter is not a plain "contains" match
+     */
+    public String getContainsAttribute() {
+        if (fieldMap == null || fieldMap.isEmpty()) {
+            return null;
+        }
+        try {
+            if (getClass().getMethod("filter", Object.class, String.class, String.class)
+                    .getDeclaringClass() != BaseListFilter.class ||
+                    getClass().getMethod("postFilter", List.class).getDeclaringClass() != BaseListFilter.class) {
+                return null;
+            }
+        }
+        catch (NoSuchMethodException e) {
+            return null;
+        }
+        return fieldMap.values().iterator().next();
+    }
 }
@@ -20,6 +20,7 @@ import com.redhat.rhn.frontend.action.CSVDownloadAction;
 import com.redhat.rhn.frontend.dto.BaseDto;
 import com.redhat.rhn.frontend.taglibs.IconTag;
 import com.redhat.rhn.frontend.taglibs.list.helper.ListHelper;
+import com.redhat.rhn.frontend.taglibs.list.helper.SelectModePageSource;
 
 import java.util.List;
 
@@ -250,6 +251,13 @@ public class CSVTag extends BodyTagSupport {
 
             return CSVDownloadAction.QUERY_DATA + "=" + paramQuery;
         }
+        if (pageData instanceof SelectModePageSource<?> source) {
+            // the list tag only loaded a page, export the query which loads all the rows again
+            String paramQuery = "query_" + getUniqueName();
+            session.setAttribute(paramQuery, source.getMode().getQuery());
+            session.setAttribute("list_" + getUniqueName() + TagHelper.ELAB_TAG, source.getElaborator());
+            return CSVDownloadAction.QUERY_DATA + "=" + paramQuery;
+        }
         String paramPageList = "pageList_" + getUniqueName();
         session.setAttribute(paramPageList, pageData);
         return CSVDownloadAction.PAGE_LIST_DATA + "=" + paramPageList;
@@ -60,9 +60,17 @@ public class DataSetManipulator {
     private String alphaCol;
     private int alphaPosition = -1;
     private boolean ascending = true;
-    private final int unfilteredDataSize;
+    private int unfilteredDataSize;
     private final boolean parentIsAnElement;
     private String defaultSortAttribute;
+    private boolean alphaPositionFound;
+
+    // set while the filter, sort and page are pushed down to the data set
+    private ListPageSource<?> source;
+    private ListFilter sourceFilter;
+    private String sourceFilterAttribute;
+    private String sourceSortAttribute;
+    private boolean sourceAscending = true;
 
     public static final String ICON_FIRST = "fa fa-angle-double-left";
     public static final String ICON_PREV = "fa fa-angle-left";
@@ -72,7 +80,7 @@ public class DataSetManipulator {
     /**
      * Constructor
      * @param pageSizeIn page size of the list
-     * @param datasetIn dataset to be displayed
+     * @param datasetIn dataset to be displayed, a {@link ListPageSource} only loads the rows of the page
      * @param requestIn HttpServletRequest of the caller
      * @param listNameIn name of the list
      * @param parentIsElement true of the parent value in the list should be
@@ -84,9 +92,33 @@ public class DataSetManipulator {
         dataset = datasetIn;
         request = requestIn;
         uniqueName = listNameIn;
-        totalDataSetSize = dataset.size();
-        unfilteredDataSize = dataset.size();
         parentIsAnElement = parentIsElement;
+        if (datasetIn instanceof ListPageSource<?> pageSource && pageSource.isPageable()) {
+            source = pageSource;
+            totalDataSetSize = source.getRowCount(null, null);
+        }
+        else {
+            totalDataSetSize = dataset.size();
+        }
+        unfilteredDataSize = totalDataSetSize;
+    }
+
+    /**
+     * Falls back to filtering, sorting and paging all the rows in memory, when the data set can not do it.
+     */
+    private void loadDataSet() {
+        if (source == null) {
+            return;
+        }
+        source = null;
+        unfilteredDataSize = dataset.size();
+        totalDataSetSize = unfilteredDataSize;
+        if (sourceFilter != null) {
+            dataset = ListFilterHelper.filter(dataset, sourceFilter, filterBy, filterValue);
+            totalDataSetSize = dataset.size();
+            sourceFilter = null;
+            sourceFilterAttribute = null;
+        }
     }
 
     /**
@@ -111,6 +143,18 @@ public class DataSetManipulator {
         filterClass.setAttribute("value", f.getClass().getCanonicalName());
         ListTagUtil.write(context, filterClass.render());
 
+        if (source != null) {
+            String attribute = f instanceof BaseListFilter baseFilter ? baseFilter.getContainsAttribute() : null;
+            if (attribute != null && source.canFilter(attribute)) {
+                if (!attribute.equals(sourceFilterAttribute)) {
+                    sourceFilter = f;
+                    sourceFilterAttribute = attribute;
+                    totalDataSetSize = source.getRowCount(sourceFilterAttribute, filterValue);
+                }
+                return;
+            }
+            loadDataSet();
+        }
         dataset = ListFilterHelper.filter(dataset, f, filterBy, filterValue);
         totalDataSetSize = dataset.size();
     }
@@ -125,6 +169,14 @@ public class DataSetManipulator {
         }
 
         String sortDir = getActiveSortDirection();
+        if (source != null) {
+            if (source.canSort(sortAttr)) {
+                sourceSortAttribute = sortAttr;
+                sourceAscending = !RequestContext.SORT_DESC.equals(sortDir);
+                return;
+            }
+            loadDataSet();
+        }
         try {
             dataset = dataset.stream().sorted(new DynamicComparator<>(sortAttr, sortDir)).toList();
         }
@@ -147,15 +199,13 @@ public class DataSetManipulator {
      * @return list representing one page of data
      */
     public List getPage() {
+        if (source != null) {
+            return source.getRows(sourceFilterAttribute, filterValue, sourceSortAttribute, sourceAscending,
+                    pageSize > 0 ? getPageOffset() : 0, pageSize);
+        }
         List retval = new LinkedList<>();
         if (pageSize > 0) {
-            int startOffset = getCurrentPageNumber() * pageSize;
-            if (startOffset > dataset.size()) {
-                startOffset = dataset.size() - 1;
-            }
-            if (startOffset < 0) {
-                startOffset = 0;
-            }
+            int startOffset = getPageOffset();
             int endOffset = startOffset + pageSize;
             if (endOffset > dataset.size()) {
                 endOffset = dataset.size();
@@ -173,6 +223,7 @@ public class DataSetManipulator {
      * @return List representing all data available
      */
     public List getAllData() {
+        loadDataSet();
         List retval = new LinkedList<>();
         retval.addAll(dataset);
         return expand(retval);
@@ -245,10 +296,10 @@ public class DataSetManipulator {
      * @return answer to that burning question
      */
     public boolean isLastPage() {
-        int maxPage = (dataset.size() / pageSize) - 1;
+        int maxPage = (totalDataSetSize / pageSize) - 1;
         // Add a page for overflow, since the dataset is not
         // evenly divisible by the pagesize
-        if (dataset.size() % pageSize > 0) {
+        if (totalDataSetSize % pageSize > 0) {
             maxPage++;
         }
         return getCurrentPageNumber() == maxPage;
@@ -297,7 +348,7 @@ public class DataSetManipulator {
      */
     public Map<String, String[]> getPaginationLinks() {
         Map<String, String[]> links = new HashMap<>();
-        if (pageSize > 0 && !dataset.isEmpty() && getTotalDataSetSize() > pageSize) {
+        if (pageSize > 0 && !isListEmpty() && getTotalDataSetSize() > pageSize) {
             String pageLinkName = "list_" + uniqueName + "_page";
             String[] data = new String[4];
             if (!isFirstPage()) {
@@ -362,6 +413,9 @@ public class DataSetManipulator {
      * @return boolean
      */
     public boolean isListEmpty() {
+        if (source != null) {
+            return totalDataSetSize == 0;
+        }
         return dataset == null || dataset.isEmpty();
     }
 
@@ -370,6 +424,9 @@ public class DataSetManipulator {
      * @return the set of characters that are active
      */
     public Set<Character> getAlphaBarIndex() {
+        if (source != null) {
+            return source.getFirstCharacters(sourceFilterAttribute, filterValue, alphaCol);
+        }
         Set<Character> chars = new HashSet<>();
         int i = 0;
         for (Object inputRow : dataset) {
@@ -395,6 +452,9 @@ public class DataSetManipulator {
      */
     public void setAlphaColumn(String col) {
         alphaCol = col;
+        if (source != null && !StringUtils.isBlank(col) && !source.canFilter(col)) {
+            loadDataSet();
+        }
     }
 
     /**
@@ -410,6 +470,13 @@ public class DataSetManipulator {
             }
             char alpha = Character
                     .toUpperCase(helper.getAlphaValue(uniqueName, request).charAt(0));
+            if (source != null) {
+                if (!alphaPositionFound) {
+                    alphaPosition = source.findFirstPosition(sourceFilterAttribute, filterValue, alphaCol, alpha);
+                    alphaPositionFound = true;
+                }
+                return alphaPosition;
+            }
             int i = 0;
             for (Object inputRow : dataset) {
                 String value = getAlphaValue(inputRow);
@@ -532,6 +599,10 @@ public class DataSetManipulator {
         if (startOffset < 0) {
             startOffset = 0;
         }
+        if (source != null) {
+            // rows of a page source are never expanded
+            return parentIsAnElement ? startOffset + 1 : 1;
+        }
         List parentList = dataset.subList(0, startOffset);
         List data = expand(parentList);
         int ret = data.size() + 1;
@@ -553,8 +624,11 @@ public class DataSetManipulator {
         }
 
         int endOffset = startOffset + pageSize;
-        if (endOffset > dataset.size()) {
-            endOffset = dataset.size();
+        if (endOffset > totalDataSetSize) {
+            endOffset = totalDataSetSize;
+        }
+        if (source != null) {
+            return parentIsAnElement ? endOffset : 0;
         }
         List parentList = dataset.subList(0, endOffset);
         List data = expand(parentList);
@@ -567,12 +641,30 @@ public class DataSetManipulator {
     }
 
     private int getExpandedDataSize() {
+        if (source != null) {
+            return parentIsAnElement ? totalDataSetSize : 0;
+        }
         if (!parentIsAnElement) {
             return expand(dataset).size() - dataset.size();
         }
         return expand(dataset).size();
     }
 
+    /**
+     * Returns the offset of the first row of the current page
+     * @return the offset, within the filtered data set
+     */
+    private int getPageOffset() {
+        int startOffset = getCurrentPageNumber() * pageSize;
+        if (startOffset > totalDataSetSize) {
+            startOffset = totalDataSetSize - 1;
+        }
+        if (startOffset < 0) {
+            startOffset = 0;
+        }
+        return startOffset;
+    }
+
     /**
      * Determines the current page number based on URL params
      * @return current page number
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2025 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.frontend.taglibs.list;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A data set of the list tag which filters, sorts and pages its rows itself, usually in the database, so that
+ * only the rows of the current page are loaded. Used as a {@link List}, all the rows are loaded: the list tag
+ * falls back to this when the source can not handle the filter or the sort column of the request.
+ *
+ * Filters are case insensitive "contains" matches on a bean attribute, like {@link BaseListFilter} does.
+ * Sorting puts null values first in ascending order, like the in-memory sort of the list tag.
+ *
+ * @param <T> the type of the rows
+ */
+public interface ListPageSource<T> extends List<T> {
+
+    /**
+     * Tells if the rows can be paged by the source at all. Rows which have to be expanded can not.
+     * @return true if the rows can be paged
+     */
+    boolean isPageable();
+
+    /**
+     * Tells if the rows can be filtered on a bean attribute.
+     * @param attribute the bean attribute
+     * @return true if the source can filter on the attribute
+     */
+    boolean canFilter(String attribute);
+
+    /**
+     * Tells if the rows can be sorted by a bean attribute.
+     * @param attribute the bean attribute
+     * @return true if the source can sort by the attribute
+     */
+    boolean canSort(String attribute);
+
+    /**
+     * Counts the rows matching a filter.
+     * @param filterAttribute the attribute to filter on, or null not to filter
+     * @param filterValue the value the attribute must contain
+     * @return the number of rows
+     */
+    int getRowCount(String filterAttribute, String filterValue);
+
+    /**
+     * Returns a page of the rows matching a filter.
+     * @param filterAttribute the attribute to filter on, or null not to filter
+     * @param filterValue the value the attribute must contain
+     * @param sortAttribute the attribute to sort by, or null to keep the default order
+     * @param ascending true to sort in ascending order
+     * @param offset the number of rows to skip
+     * @param limit the maximum number of rows to return, zero or less for all of them
+     * @return the rows of the page
+     */
+    List<T> getRows(String filterAttribute, String filterValue, String sortAttribute, boolean ascending,
+            int offset, int limit);
+
+    /**
+     * Returns the upper case first characters of the non blank values of an attribute in the rows matching a
+     * filter, for the alpha bar.
+     * @param filterAttribute the attribute to filter on, or null not to filter
+     * @param filterValue the value the attribute must contain
+     * @param attribute the attribute of the alpha bar
+     * @return the first characters
+     */
+    Set<Character> getFirstCharacters(String filterAttribute, String filterValue, String attribute);
+
+    /**
+     * Returns the position of the first row whose attribute starts with a character, ignoring case, in the rows
+     * matching a filter sorted by that attribute in ascending order.
+     * @param filterAttribute the attribute to filter on, or null not to filter
+     * @param filterValue the value the attribute must contain
+     * @param attribute the attribute of the alpha bar
+     * @param firstCharacter the character to look for
+     * @return the position of the row, starting from 0, or -1 if no row starts with the character
+     */
+    int findFirstPosition(String filterAttribute, String filterValue, String attribute, char firstCharacter);
+}
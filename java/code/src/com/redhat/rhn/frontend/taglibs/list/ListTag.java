@@ -205,6 +205,10 @@ public class ListTag extends BodyTagSupport {
      * @return true if the data in use for the current page is empty
      */
     public boolean isEmpty() {
+        if (getPageData() instanceof ListPageSource && manip != null) {
+            // the page is not known yet, do not load all the rows
+            return manip.isListEmpty();
+        }
         return getPageData() == null || getPageData().isEmpty();
     }
 
@@ -876,7 +880,7 @@ public class ListTag extends BodyTagSupport {
             ListTagUtil.write(pageContext, "<div class=\"site-info\">");
 
             if (manip.getTotalDataSetSize() != manip.getUnfilteredDataSize()) {
-                if (manip.getAllData().isEmpty()) {
+                if (manip.isListEmpty()) {
                     ListTagUtil.write(pageContext, ls.getMessage(
                             "listtag.filteredmessageempty",
                             manip.getTotalDataSetSize()));
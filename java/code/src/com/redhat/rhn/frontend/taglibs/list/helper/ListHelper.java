@@ -112,6 +112,9 @@ public class ListHelper {
                 TagHelper.bindElaboratorTo(getListName(), elab, request);
             }
         }
+        else if (!StringUtils.isBlank(getListName()) && dataSet instanceof SelectModePageSource<?> source) {
+            TagHelper.bindElaboratorTo(getListName(), source.getElaborator(), request);
+        }
     }
     /**
      * Basically returns a bound data set or null
@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2025 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.frontend.taglibs.list.helper;
+
+import com.redhat.rhn.common.db.datasource.DataResult;
+import com.redhat.rhn.common.db.datasource.Elaborator;
+import com.redhat.rhn.common.db.datasource.ModeElaborator;
+import com.redhat.rhn.common.db.datasource.QueryPage;
+import com.redhat.rhn.common.db.datasource.SelectMode;
+import com.redhat.rhn.common.util.StringUtil;
+import com.redhat.rhn.frontend.struts.Expandable;
+import com.redhat.rhn.frontend.taglibs.list.ListPageSource;
+
+import java.beans.Introspector;
+import java.sql.Types;
+import java.util.AbstractList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * A data set of the list tag backed by a select mode: the filter, the sort column and the current page are
+ * pushed down to the query, see {@link SelectMode#execute(Map, QueryPage)}. Bean attributes are matched to the
+ * columns of the query the same way rows are built, so attributes which are not columns of the query, like the
+ * ones set by elaborators, are handled in memory by the list tag after loading all the rows.
+ *
+ * The default order of the rows is given by order columns, which should end with a unique one: the order of the
+ * query is not kept by the database once the query is wrapped to page it.
+ *
+ * @param <T> the type of the rows
+ */
+public class SelectModePageSource<T> extends AbstractList<T> implements ListPageSource<T> {
+
+    /** The JDBC types of the columns the database can not sort */
+    private static final Set<Integer> UNSORTABLE_TYPES = Set.of(Types.ARRAY, Types.BINARY, Types.BLOB,
+            Types.JAVA_OBJECT, Types.LONGVARBINARY, Types.OTHER, Types.SQLXML, Types.STRUCT, Types.VARBINARY);
+
+    private final SelectMode mode;
+    private final Map<String, Object> params;
+    private final Map<String, Object> elabParams;
+    private final List<String> orderColumns;
+    private Consumer<List<T>> onLoad = rowsIn -> { };
+    private Map<String, String> columns;
+    private Map<String, Integer> columnTypes;
+    private DataResult<T> rows;
+
+    /**
+     * Constructor
+     * @param modeIn the select mode of the rows, without IN clause
+     * @param paramsIn the parameters of the query
+     * @param elabParamsIn the parameters of the elaborators of the mode
+     * @param orderColumnsIn the columns of the query giving the default order of the rows
+     */
+    public SelectModePageSource(SelectMode modeIn, Map<String, Object> paramsIn,
+            Map<String, Object> elabParamsIn, String... orderColumnsIn) {
+        mode = modeIn;
+        params = paramsIn;
+        elabParams = elabParamsIn;
+        orderColumns = List.of(orderColumnsIn);
+    }
+
+    /**
+     * Sets an action run on the rows every time they are loaded, like syncing their selection with a set.
+     * @param onLoadIn the action
+     */
+    public void setOnLoad(Consumer<List<T>> onLoadIn) {
+        onLoad = onLoadIn;
+    }
+
+    /**
+     * Returns the select mode of the rows
+     * @return the select mode
+     */
+    public SelectMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Returns an elaborator of the rows, to bind to the list tag.
+     * @return the elaborator
+     */
+    public Elaborator getElaborator() {
+        return new ModeElaborator(mode, elabParams);
+    }
+
+    /**
+     * ${@inheritDoc}
+     */
+    @Override
+    public T get(int index) {
+        return getAllRows().get(index);
+    }
+
+    /**
+     * ${@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return getAllRows().size();
+    }
+
+    /**
+     * ${@inheritDoc}
+     */
+    @Override
+    public boolean isPageable() {
+        return !getColumns().isEmpty() && !Expandable.class.isAssignableFrom(getRowClass());
+    }
+
+    /**
+     * ${@inheritDoc}
+     */
+    @Override
+    public boolean canFilter(String attribute) {
+        String column = getColumns().get(attribute);
+        return column != null && QueryPage.isText(columnTypes.get(column));
+    }
+
+    /**
+     * ${@inheritDoc}
+     */
+    @Override
+    public boolean canSort(String attribute) {
+        String column = getColumns().get(attribute);
+        return column != null && !UNSORTABLE_TYPES.contains(columnTypes.get(column));
+    }
+
+    /**
+     * ${@inheritDoc}
+     */
+    @Override
+    public int getRowCount(String filterAttribute, String filterValue) {
+        return mode.countRows(params, toQueryPage(filterAttribute, filterValue, null, true, 0, 0));
+    }
+
+    /**
+     * ${@inheritDoc}
+     */
+    @Override
+    public List<T> getRows(String filterAttribute, String filterValue, String sortAttribute, boolean ascending,
+            int offset, int limit) {
+        DataResult<T> page = mode.execute(params,
+                toQueryPage(filterAttribute, filterValue, sortAttribute, ascending, offset, limit));
+        page.setElaborationParams(elabParams);
+        onLoad.accept(page);
+        return page;
+    }
+
+    /**
+     * ${@inheritDoc}
+     */
+    @Override
+    public Set<Character> getFirstCharacters(String filterAttribute, String filterValue, String attribute) {
+        return mode.getFirstCharacters(params, toQueryPage(filterAttribute, filterValue, null, true, 0, 0),
+                getColumns().get(attribute));
+    }
+
+    /**
+     * ${@inheritDoc}
+     */
+    @Override
+    public int findFirstPosition(String filterAttribute, String filterValue, String attribute,
+            char firstCharacter) {
+        return mode.findFirstPosition(params, toQueryPage(filterAttribute, filterValue, attribute, true, 0, 0),
+                firstCharacter);
+    }
+
+    private QueryPage toQueryPage(String filterAttribute, String filterValue, String sortAttribute,
+            boolean ascending, int offset, int limit) {
+        String filterColumn = filterAttribute == null ? null : getColumns().get(filterAttribute);
+        String sortColumn = sortAttribute == null ? null : getColumns().get(sortAttribute);
+        if ((filterAttribute != null && filterColumn == null) || (sortAttribute != null && sortColumn == null)) {
+            throw new IllegalArgumentException("Attributes are not columns of the query: " + filterAttribute +
+                    ", " + sortAttribute);
+        }
+        return new QueryPage(filterColumn, filterValue, sortColumn, ascending, offset, limit, orderColumns);
+    }
+
+    private DataResult<T> getAllRows() {
+        if (rows == null) {
+            rows = mode.execute(params);
+            rows.setElaborationParams(elabParams);
+            onLoad.accept(rows);
+        }
+        return rows;
+    }
+
+    /**
+     * Returns the columns of the query by bean attribute. Rows which are maps use the column names, beans have
+     * the attributes of the get methods of the columns, as the set methods are looked up when building them.
+     */
+    private Map<String, String> getColumns() {
+        if (columns == null) {
+            columnTypes = mode.getColumnTypes(params);
+            columns = new HashMap<>();
+            Class<?> rowClass = getRowClass();
+            for (String column : columnTypes.keySet()) {
+                if (Map.class.isAssignableFrom(rowClass)) {
+                    columns.put(column, column);
+                }
+                else {
+                    String getter = StringUtil.beanify("get " + column);
+                    try {
+                        rowClass.getMethod(getter);
+                        columns.put(Introspector.decapitalize(getter.substring(3)), column);
+                    }
+                    catch (NoSuchMethodException e) {
+                        // not an attribute of the rows, it can only be used by elaborators
+                    }
+                }
+            }
+        }
+        return columns;
+    }
+
+    private Class<?> getRowClass() {
+        String className = mode.getClassString();
+        if (className == null) {
+            return Map.class;
+        }
+        try {
+            return Class.forName(className);
+        }
+        catch (ClassNotFoundException e) {
+            throw new IllegalArgumentException("Could not find the class of the rows: " + className, e);
+        }
+    }
+}
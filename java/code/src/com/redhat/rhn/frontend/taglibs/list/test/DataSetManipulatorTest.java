@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2025 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ */
+package com.redhat.rhn.frontend.taglibs.list.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.redhat.rhn.frontend.taglibs.list.BaseListFilter;
+import com.redhat.rhn.frontend.taglibs.list.DataSetManipulator;
+import com.redhat.rhn.frontend.taglibs.list.ListPageSource;
+import com.redhat.rhn.frontend.taglibs.list.ListTagUtil;
+import com.redhat.rhn.testing.RhnMockHttpServletRequest;
+import com.redhat.rhn.testing.RhnMockJspWriter;
+import com.redhat.rhn.testing.RhnMockPageContext;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.AbstractList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Checks that the list tag pushes the filter, the sort and the page down to a {@link ListPageSource}.
+ */
+public class DataSetManipulatorTest {
+
+    private static final String LIST_NAME = "test";
+
+    private RhnMockHttpServletRequest request;
+    private TestPageSource source;
+
+    @BeforeEach
+    public void setUp() {
+        request = new RhnMockHttpServletRequest();
+        source = new TestPageSource();
+    }
+
+    @Test
+    public void testPagedSort() {
+        request.setupAddParameter(ListTagUtil.makeSortByLabel(LIST_NAME), "name");
+        request.setupAddParameter(ListTagUtil.makeSortDirLabel(LIST_NAME), "desc");
+        request.setupAddParameter(ListTagUtil.makePageNumberName(LIST_NAME) + "_next", "1");
+
+        DataSetManipulator manip = new DataSetManipulator(5, source, request, LIST_NAME, false);
+        manip.sort();
+
+        assertEquals(List.of("name 19", "name 18", "name 17", "name 16", "name 15"), names(manip.getPage()));
+        assertEquals(25, manip.getTotalDataSetSize());
+        assertFalse(source.loaded);
+    }
+
+    @Test
+    public void testPagedFilter() throws Exception {
+        request.setupAddParameter(ListTagUtil.makeFilterByLabel(LIST_NAME), "Name");
+        request.setupAddParameter(ListTagUtil.makeFilterValueByLabel(LIST_NAME), "2");
+        request.setupAddParameter(ListTagUtil.makeFilterNameByLabel(LIST_NAME), "Name");
+        RhnMockPageContext context = new RhnMockPageContext();
+        context.setJspWriter(new RhnMockJspWriter());
+        BaseListFilter filter = new NameFilter();
+        filter.prepare(Locale.ENGLISH);
+
+        DataSetManipulator manip = new DataSetManipulator(5, source, request, LIST_NAME, false);
+        manip.filter(filter, context);
+        manip.sort();
+
+        // name 02, name 12 and name 20 to name 24
+        assertEquals(7, manip.getTotalDataSetSize());
+        assertEquals(List.of("name 02", "name 12", "name 20", "name 21", "name 22"), names(manip.getPage()));
+        assertFalse(source.loaded);
+    }
+
+    @Test
+    public void testFallbackToMemory() {
+        request.setupAddParameter(ListTagUtil.makeSortByLabel(LIST_NAME), "id");
+        request.setupAddParameter(ListTagUtil.makeSortDirLabel(LIST_NAME), "desc");
+
+        DataSetManipulator manip = new DataSetManipulator(5, source, request, LIST_NAME, false);
+        manip.sort();
+
+        assertEquals(List.of("name 24", "name 23", "name 22", "name 21", "name 20"), names(manip.getPage()));
+        assertEquals(25, manip.getTotalDataSetSize());
+        assertTrue(source.loaded);
+    }
+
+    private static List<?> names(List<?> rows) {
+        return rows.stream().map(row -> ((Map<?, ?>) row).get("name")).toList();
+    }
+
+    /**
+     * Filters on the name of the rows.
+     */
+    public static class NameFilter extends BaseListFilter {
+
+        @Override
+        public void processMap(Map<String, String> map, Locale userLocale) {
+            map.put("Name", "name");
+        }
+    }
+
+    /**
+     * Rows kept in memory, which can only be filtered and sorted on their name.
+     */
+    private static class TestPageSource extends AbstractList<Map<String, Object>>
+            implements ListPageSource<Map<String, Object>> {
+
+        private final List<Map<String, Object>> rows = IntStream.range(0, 25)
+                .mapToObj(i -> Map.<String, Object>of("name", String.format("name %02d", i), "id", (long) i))
+                .toList();
+        private boolean loaded;
+
+        @Override
+        public Map<String, Object> get(int index) {
+            loaded = true;
+            return rows.get(index);
+        }
+
+        @Override
+        public int size() {
+            loaded = true;
+            return rows.size();
+        }
+
+        @Override
+        public boolean isPageable() {
+            return true;
+        }
+
+        @Override
+        public boolean canFilter(String attribute) {
+            return "name".equals(attribute);
+        }
+
+        @Override
+        public boolean canSort(String attribute) {
+            return "name".equals(attribute);
+        }
+
+        @Override
+        public int getRowCount(String filterAttribute, String filterValue) {
+            return filtered(filterValue).size();
+        }
+
+        @Override
+        public List<Map<String, Object>> getRows(String filterAttribute, String filterValue, String sortAttribute,
+                boolean ascending, int offset, int limit) {
+            Comparator<Map<String, Object>> order = Comparator.comparing(row -> (String) row.get("name"));
+            return filtered(filterValue).stream()
+                    .sorted(ascending ? order : order.reversed())
+                    .skip(offset)
+                    .limit(limit > 0 ? limit : Long.MAX_VALUE)
+                    .toList();
+        }
+
+        @Override
+        public Set<Character> getFirstCharacters(String filterAttribute, String filterValue, String attribute) {
+            return filtered(filterValue).stream()
+                    .map(row -> Character.toUpperCase(((String) row.get(attribute)).charAt(0)))
+                    .collect(Collectors.toSet());
+        }
+
+        @Override
+        public int findFirstPosition(String filterAttribute, String filterValue, String attribute,
+                char firstCharacter) {
+            return filtered(filterValue).isEmpty() ? -1 : 0;
+        }
+
+        private List<Map<String, Object>> filtered(String filterValue) {
+            return rows.stream()
+                    .filter(row -> filterValue == null || ((String) row.get("name")).contains(filterValue))
+                    .toList();
+        }
+    }
+}
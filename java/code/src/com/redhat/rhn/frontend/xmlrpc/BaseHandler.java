@@ -34,14 +34,11 @@ import com.redhat.rhn.domain.product.Tuple2;
 import com.redhat.rhn.domain.role.Role;
 import com.redhat.rhn.domain.role.RoleFactory;
 import com.redhat.rhn.domain.server.Server;
-import com.redhat.rhn.domain.session.WebSession;
 import com.redhat.rhn.domain.user.User;
+import com.redhat.rhn.domain.user.UserFactory;
 import com.redhat.rhn.manager.session.SessionManager;
 import com.redhat.rhn.manager.system.SystemManager;
 
-import com.suse.manager.api.ApiIgnore;
-import com.suse.manager.api.ApiType;
-import com.suse.manager.api.ReadOnly;
 import com.suse.salt.netapi.utils.Xor;
 
 import com.google.gson.Gson;
@@ -54,19 +51,14 @@ import org.xml.sax.SAXException;
 
 import java.io.IOException;
 import java.io.StringReader;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import io.prometheus.client.Histogram;
 import redstone.xmlrpc.XmlRpcFault;
 import redstone.xmlrpc.XmlRpcInvocationHandler;
 
@@ -83,6 +75,17 @@ public class BaseHandler implements XmlRpcInvocationHandler {
 
     private static final String KEY_REGEX = "^[1-9][0-9]*x[a-f0-9]{64}$";
 
+    /**
+     * Duration of the XMLRPC calls, by handler class and method. The sample count is the number of calls.
+     */
+    public static final Histogram CALL_DURATION = Histogram.build()
+            .name("xmlrpc_call_duration_seconds")
+            .help("Duration of the XMLRPC API calls")
+            .labelNames("endpoint")
+            .create();
+
+    private volatile HandlerDispatchTable dispatchTable;
+
     protected boolean providesAuthentication() {
         return false;
     }
@@ -99,23 +102,21 @@ public class BaseHandler implements XmlRpcInvocationHandler {
      */
     @Override
     public Object invoke(String methodCalled, List params) throws XmlRpcFault {
+        long start = System.nanoTime();
         Class<? extends BaseHandler> myClass = this.getClass();
-        Method[] methods = Arrays.stream(myClass.getDeclaredMethods())
-                .filter(m -> Modifier.isPublic(m.getModifiers()))
-                .filter(BaseHandler::isMethodAvailable)
-                .toArray(Method[]::new);
+        HandlerDispatchTable table = getDispatchTable();
 
         String[] byNamespace = methodCalled.split("\\.");
         String namespace = byNamespace[byNamespace.length - 1];
         String beanifiedMethod = StringUtil.beanify(namespace);
-        WebSession session = null;
+        String sessionKey = null;
         User user = null;
 
         if (!params.isEmpty() && params.get(0) instanceof String p0 && isSessionKey(p0) &&
                 !myClass.getName().endsWith("AuthHandler") && !myClass.getName().endsWith("SearchHandler")) {
 
-            session = SessionManager.loadSession((String) params.get(0));
-            user = getLoggedInUser((String) params.get(0));
+            sessionKey = p0;
+            user = getLoggedInUser(sessionKey);
             params.set(0, user);
         }
         else if (!params.isEmpty() && params.get(0) instanceof User) {
@@ -124,44 +125,42 @@ public class BaseHandler implements XmlRpcInvocationHandler {
 
 
         //we've found all the methods that have the same number of parameters
-        List<Method> matchedMethods = findMethods(methods, params, beanifiedMethod);
+        List<HandlerDispatchTable.Target> matchedMethods = findMethods(table, params, beanifiedMethod);
 
         //Attempt to find a perfect match
-        Method foundMethod = findPerfectMethod(params, matchedMethods);
+        HandlerDispatchTable.Target found = table.findPerfectMatch(beanifiedMethod, params).orElse(null);
         Object[] converted = params.toArray();
 
-        if (foundMethod == null) {
-            Tuple2<Method, Object[]> fallbackMethod = findFallbackMethod(params, matchedMethods);
-            foundMethod = fallbackMethod.getA();
+        if (found == null) {
+            Tuple2<HandlerDispatchTable.Target, Object[]> fallbackMethod = findFallbackMethod(params, matchedMethods);
+            found = fallbackMethod.getA();
             converted = fallbackMethod.getB();
         }
-        XmlRpcLoggingInvocationProcessor.setCalledMethod(foundMethod);
+        XmlRpcLoggingInvocationProcessor.setCalledMethod(found.method());
 
         if (user != null && user.isReadOnly()) {
-            if (!foundMethod.isAnnotationPresent(ReadOnly.class)) {
+            if (!found.readOnly()) {
                 throw new SecurityException("The " + beanifiedMethod + " API is not available to read-only API users");
             }
         }
 
         ensureRoleBasedAccess(user, myClass.getCanonicalName(), beanifiedMethod);
 
-        try {
-            return foundMethod.invoke(this, converted);
-        }
-        catch (IllegalAccessException e) {
+        if (found.handle() == null) {
             throw new XmlRpcFault(-1, "unhandled internal exception");
         }
-        catch (InvocationTargetException e) {
-            Throwable cause = e.getCause();
 
+        try {
+            return found.invoke(converted);
+        }
+        catch (Throwable cause) {
             if (cause instanceof FaultException fault) {
                 // FaultExceptions are "bad request" type of exceptions
                 // Normally they should be thrown as response to the client but there's no need to log them as errors.
                 log.debug("'{}' returned: [{}] {}", methodCalled, fault.getErrorCode(), fault.getMessage());
             }
             else {
-                log.error("Error calling method: ", e);
-                log.error("Caused by: ", cause);
+                log.error("Error calling method: {}", methodCalled, cause);
             }
 
             /*
@@ -183,12 +182,27 @@ public class BaseHandler implements XmlRpcInvocationHandler {
             throw ExceptionTranslator.translateException(cause);
         }
         finally {
-            if (session != null) {
-                SessionManager.extendSessionLifetime(session);
+            if (sessionKey != null) {
+                SessionManager.extendSessionLifetime(sessionKey);
             }
+            CALL_DURATION.labels(myClass.getSimpleName() + "." + beanifiedMethod)
+                    .observe((System.nanoTime() - start) / 1.0e9);
         }
     }
 
+    /**
+     * Returns the table used to dispatch the calls to the methods of this handler, building it on first use.
+     * @return the dispatch table
+     */
+    public HandlerDispatchTable getDispatchTable() {
+        HandlerDispatchTable table = dispatchTable;
+        if (table == null) {
+            table = new HandlerDispatchTable(this);
+            dispatchTable = table;
+        }
+        return table;
+    }
+
     protected void ensureRoleBasedAccess(User user, String className, String methodName) {
         String apiEndpoint = className + "." + methodName;
         if (user == null) {
@@ -198,9 +212,8 @@ public class BaseHandler implements XmlRpcInvocationHandler {
         }
         else {
             if (!user.hasRole(RoleFactory.SAT_ADMIN)) {
-                Optional<WebEndpoint> endpointOpts = WebEndpointFactory.lookupByUserIdClassMethodScope(user.getId(),
-                        apiEndpoint, WebEndpoint.Scope.A);
-                if (endpointOpts.isEmpty()) {
+                if (!WebEndpointFactory.isAccessibleByClassMethodScope(user.getId(), apiEndpoint,
+                        WebEndpoint.Scope.A)) {
                     throw new SecurityException("The " + methodName + " API is not available to user " +
                             user.getLogin());
                 }
@@ -208,13 +221,14 @@ public class BaseHandler implements XmlRpcInvocationHandler {
         }
     }
 
-    private Tuple2<Method, Object[]> findFallbackMethod(
-            List<Object> params, List<Method> matchedMethods) {
+    private Tuple2<HandlerDispatchTable.Target, Object[]> findFallbackMethod(
+            List<Object> params, List<HandlerDispatchTable.Target> matchedMethods) {
 
-        Map<Boolean, List<Xor<TranslationException, Tuple2<Method, Object[]>>>> collect = matchedMethods
+        Map<Boolean, List<Xor<TranslationException, Tuple2<HandlerDispatchTable.Target, Object[]>>>> collect =
+                matchedMethods
                 .stream()
-                .map(method -> {
-                    Class<?>[] types = method.getParameterTypes();
+                .map(target -> {
+                    Class<?>[] types = target.method().getParameterTypes();
                     Object[] converted = params.toArray();
 
                     Iterator<Object> iter = params.iterator();
@@ -225,15 +239,16 @@ public class BaseHandler implements XmlRpcInvocationHandler {
                                 converted[i] = Translator.convert(curr, types[i]);
                             }
                             catch (TranslationException e) {
-                                return Xor.<TranslationException, Tuple2<Method, Object[]>>left(e);
+                                return Xor.<TranslationException, Tuple2<HandlerDispatchTable.Target, Object[]>>left(e);
                             }
                         }
                     }
-                    return Xor.<TranslationException, Tuple2<Method, Object[]>>right(new Tuple2<>(method, converted));
+                    return Xor.<TranslationException, Tuple2<HandlerDispatchTable.Target, Object[]>>right(
+                            new Tuple2<>(target, converted));
 
                 }).collect(Collectors.partitioningBy(x -> x.isRight()));
 
-        List<Tuple2<Method, Object[]>> candidates = collect.get(true).stream()
+        List<Tuple2<HandlerDispatchTable.Target, Object[]>> candidates = collect.get(true).stream()
                 .flatMap(x -> x.right().stream()).toList();
 
         List<TranslationException> exceptions = collect.get(false).stream()
@@ -250,43 +265,10 @@ public class BaseHandler implements XmlRpcInvocationHandler {
         }
     }
 
-    /**
-     * Finds the perfect match for a method based upon type
-     * @param params The parameters to find the match for.
-     * @param matchedMethods the list of methods to check for a perfect match
-     * @return null if no perfect match was found, otherwise the matched method.
-     */
-    private Method findPerfectMethod(List params, List<Method> matchedMethods) {
-        //now lets try to find one that matches parameters exactly
-        for (Method currMethod : matchedMethods) {
-            if (log.isDebugEnabled()) {
-                log.debug("findPerfectMethod test:{}", currMethod.toGenericString());
-            }
-            Class[] types = currMethod.getParameterTypes();
-            for (int i = 0; i < types.length; i++) {
-                if (log.isDebugEnabled()) {
-                    log.debug("  findPerfectMethod: compare: {} isAssignableFrom {}", types[i].getCanonicalName(),
-                            params.get(i).getClass().getCanonicalName());
-                }
-                //if we find a param that doesn't match, go to the next method
-                if (!types[i].isAssignableFrom(params.get(i).getClass())) {
-                    break;
-                }
-                //if we have gone through all of the params, and are here it is a
-                //      perfect match.
-                if (i == types.length - 1) {
-                    log.debug("  all parameter match");
-                    return currMethod;
-                }
-            }
-        }
-        return null;
-    }
-
     /**
      * Private method to find the method in the java class that is being called
      * via xml-rpc
-     * @param methods The methods contained in the class
+     * @param table The dispatch table of the class
      * @param params The parameters sent to us via xml-rpc
      * @param beanifiedMethod The method name we are looking for
      * @return The matching method we're looking for
@@ -297,23 +279,10 @@ public class BaseHandler implements XmlRpcInvocationHandler {
      *      Currently this finds methods that match the number of parameters and returns
      *          those.
      */
-    private List<Method> findMethods(Method[] methods, Collection params,
+    private List<HandlerDispatchTable.Target> findMethods(HandlerDispatchTable table, Collection params,
             String beanifiedMethod) throws XmlRpcFault {
 
-        List<Method> toReturn = new ArrayList<>();
-
-        //Loop through the methods array and find the one we are trying to call.
-        for (Method methodIn : methods) {
-            if (methodIn.getName().equals(beanifiedMethod)) {
-                // We found a method with the right name, but does the parameter count
-                // match?
-                int numberOfParams = methodIn.getParameterTypes().length;
-                if (numberOfParams == params.size()) {
-                    //Method name and number of parameters match.
-                    toReturn.add(methodIn);
-                }
-            }
-        }
+        List<HandlerDispatchTable.Target> toReturn = table.lookup(beanifiedMethod, params.size());
         if (toReturn.isEmpty()) {
             //The caller didn't get the method name or number of parameters right
             String message = "Could not find method: " + beanifiedMethod +
@@ -340,9 +309,9 @@ public class BaseHandler implements XmlRpcInvocationHandler {
      * sessionkey.
      */
     public static User getLoggedInUser(String sessionKey) {
-        //Load the session
-        WebSession session = SessionManager.loadSession(sessionKey);
-        User user = session.getUser();
+        //Load the session, API clients send the same key with every call so it is cached
+        Long userId = SessionManager.lookupUserIdByKey(sessionKey);
+        User user = userId == null ? null : UserFactory.lookupById(userId);
 
         //Make sure there was a valid user in the session. If not, the session is invalid.
         if (user == null) {
@@ -529,14 +498,4 @@ public class BaseHandler implements XmlRpcInvocationHandler {
     private boolean isSessionKey(String string) {
         return string.matches(KEY_REGEX);
     }
-
-    /**
-     * Returns true if the method is available to be exposed in the XMLRPC interface
-     * @param method the method
-     * @return true if the method is available
-     */
-    private static boolean isMethodAvailable(Method method) {
-        return !(method.isAnnotationPresent(ApiIgnore.class) &&
-                Arrays.asList(method.getAnnotation(ApiIgnore.class).value()).contains(ApiType.XMLRPC));
-    }
 }
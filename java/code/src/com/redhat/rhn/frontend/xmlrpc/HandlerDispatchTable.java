@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2025 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.frontend.xmlrpc;
+
+import com.suse.manager.api.ApiIgnore;
+import com.suse.manager.api.ApiType;
+import com.suse.manager.api.ReadOnly;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The XMLRPC methods of a handler, grouped by name and number of parameters. The table is built once, when the
+ * handler is registered, so that a call does not need to scan the handler class: every method comes with a method
+ * handle bound to the handler, and the method matching the exact types of the call arguments is remembered.
+ */
+public final class HandlerDispatchTable {
+
+    private static final Logger LOG = LogManager.getLogger(HandlerDispatchTable.class);
+
+    /** Upper bound of the remembered argument type combinations, unexpected calls are not remembered past it */
+    private static final int MAX_CACHED_SIGNATURES = 10000;
+
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+    /**
+     * A method of the handler that can be called through XMLRPC.
+     * @param method the handler method
+     * @param handle the method bound to the handler, taking the arguments as an array, null if it is not accessible
+     * @param readOnly true if the method is available to read-only API users
+     */
+    public record Target(Method method, MethodHandle handle, boolean readOnly) {
+
+        /**
+         * Calls the method with the given arguments.
+         * @param args the arguments, already converted to the parameter types
+         * @return the return value of the method, null if it is void
+         * @throws Throwable anything thrown by the method
+         */
+        public Object invoke(Object[] args) throws Throwable {
+            return (Object) handle.invokeExact(args);
+        }
+    }
+
+    private record Signature(String name, List<Class<?>> argumentTypes) {
+    }
+
+    private final Map<String, Map<Integer, List<Target>>> targets;
+    private final Map<Signature, Optional<Target>> perfectMatches = new ConcurrentHashMap<>();
+
+    /**
+     * Builds the dispatch table of a handler.
+     * @param handler the handler
+     */
+    public HandlerDispatchTable(BaseHandler handler) {
+        Map<String, Map<Integer, List<Target>>> byName = new HashMap<>();
+        for (Method method : handler.getClass().getDeclaredMethods()) {
+            if (Modifier.isPublic(method.getModifiers()) && isMethodAvailable(method)) {
+                byName.computeIfAbsent(method.getName(), n -> new HashMap<>())
+                        .computeIfAbsent(method.getParameterCount(), n -> new ArrayList<>())
+                        .add(new Target(method, bind(handler, method), method.isAnnotationPresent(ReadOnly.class)));
+            }
+        }
+
+        Map<String, Map<Integer, List<Target>>> immutable = new HashMap<>();
+        byName.forEach((name, byArity) -> {
+            Map<Integer, List<Target>> arities = new HashMap<>();
+            byArity.forEach((arity, list) -> arities.put(arity, List.copyOf(list)));
+            immutable.put(name, Map.copyOf(arities));
+        });
+        this.targets = Map.copyOf(immutable);
+    }
+
+    /**
+     * Returns the methods with the given name and number of parameters.
+     * @param name the method name
+     * @param arity the number of parameters
+     * @return the methods, empty if there is none
+     */
+    public List<Target> lookup(String name, int arity) {
+        return targets.getOrDefault(name, Map.of()).getOrDefault(arity, List.of());
+    }
+
+    /**
+     * Finds the method whose parameter types accept the given arguments as they are.
+     * @param name the method name
+     * @param params the arguments of the call
+     * @return the method, empty if none accepts the arguments without conversion
+     */
+    public Optional<Target> findPerfectMatch(String name, List<?> params) {
+        List<Class<?>> argumentTypes = new ArrayList<>(params.size());
+        for (Object param : params) {
+            argumentTypes.add(param.getClass());
+        }
+
+        Signature signature = new Signature(name, argumentTypes);
+        Optional<Target> match = perfectMatches.get(signature);
+        if (match == null) {
+            match = lookup(name, params.size()).stream()
+                    .filter(target -> accepts(target.method(), argumentTypes))
+                    .findFirst();
+            if (perfectMatches.size() < MAX_CACHED_SIGNATURES) {
+                perfectMatches.putIfAbsent(signature, match);
+            }
+        }
+        return match;
+    }
+
+    private static boolean accepts(Method method, List<Class<?>> argumentTypes) {
+        // Methods without parameters are never a perfect match, they are resolved by the conversion fallback
+        if (argumentTypes.isEmpty()) {
+            return false;
+        }
+        Class<?>[] types = method.getParameterTypes();
+        for (int i = 0; i < types.length; i++) {
+            if (!types[i].isAssignableFrom(argumentTypes.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static MethodHandle bind(BaseHandler handler, Method method) {
+        try {
+            MethodHandle handle = MethodHandles.lookup().unreflect(method).asFixedArity();
+            if (!Modifier.isStatic(method.getModifiers())) {
+                handle = handle.bindTo(handler);
+            }
+            return handle.asSpreader(Object[].class, method.getParameterCount()).asType(INVOKER_TYPE);
+        }
+        catch (IllegalAccessException e) {
+            LOG.warn("Method {} of {} is not accessible", method.getName(), handler.getClass().getName(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Returns true if the method is available to be exposed in the XMLRPC interface
+     * @param method the method
+     * @return true if the method is available
+     */
+    private static boolean isMethodAvailable(Method method) {
+        return !(method.isAnnotationPresent(ApiIgnore.class) &&
+                Arrays.asList(method.getAnnotation(ApiIgnore.class).value()).contains(ApiType.XMLRPC));
+    }
+}
@@ -122,11 +122,12 @@ public class HandlerFactory {
     }
 
     /**
-     * Add a handler to this HandlerFactory.
+     * Add a handler to this HandlerFactory, building its dispatch table.
      * @param namespace the xmlrpc namespace of this handler.
      * @param handler xml rpc handler.
      */
     public void addHandler(String namespace, BaseHandler handler) {
+       handler.getDispatchTable();
        handlers.put(namespace, handler);
     }
 
@@ -17,9 +17,12 @@ package com.redhat.rhn.frontend.xmlrpc.test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.redhat.rhn.domain.user.UserFactory;
 import com.redhat.rhn.frontend.xmlrpc.BaseHandler;
+import com.redhat.rhn.frontend.xmlrpc.HandlerDispatchTable;
 import com.redhat.rhn.frontend.xmlrpc.HandlerFactory;
 import com.redhat.rhn.frontend.xmlrpc.channel.ChannelHandler;
 import com.redhat.rhn.frontend.xmlrpc.channel.software.ChannelSoftwareHandler;
@@ -28,6 +31,8 @@ import com.redhat.rhn.testing.RhnBaseTestCase;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 public class HandlerFactoryTest extends RhnBaseTestCase {
     private HandlerFactory factory = null;
 
@@ -54,4 +59,21 @@ public class HandlerFactoryTest extends RhnBaseTestCase {
         assertNotNull(handler);
         assertEquals(ChannelSoftwareHandler.class, handler.getClass());
     }
+
+    @Test
+    public void testDispatchTable() {
+        BaseHandler handler = factory.getHandler("channel.software").get();
+        HandlerDispatchTable table = handler.getDispatchTable();
+        assertSame(table, handler.getDispatchTable());
+
+        assertEquals(1, table.lookup("listChildren", 2).size());
+        assertTrue(table.lookup("listChildren", 3).isEmpty());
+        assertTrue(table.lookup("noSuchMethod", 2).isEmpty());
+
+        HandlerDispatchTable.Target target = table.lookup("isGloballySubscribable", 2).get(0);
+        assertNotNull(target.handle());
+        assertSame(target,
+                table.findPerfectMatch("isGloballySubscribable", List.of(UserFactory.createUser(), "label")).get());
+        assertTrue(table.findPerfectMatch("isGloballySubscribable", List.of("key", "label")).isEmpty());
+    }
 }
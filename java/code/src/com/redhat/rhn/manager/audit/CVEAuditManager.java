@@ -16,6 +16,7 @@ package com.redhat.rhn.manager.audit;
 
 import static com.redhat.rhn.common.hibernate.HibernateFactory.getSession;
 
+import com.redhat.rhn.common.conf.ConfigDefaults;
 import com.redhat.rhn.common.db.datasource.DataResult;
 import com.redhat.rhn.common.db.datasource.ModeFactory;
 import com.redhat.rhn.common.db.datasource.SelectMode;
@@ -51,6 +52,7 @@ import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -437,6 +439,10 @@ public class CVEAuditManager {
      * Populate channels for CVE Audit
      */
     public static void populateCVEChannels() {
+        // Stored results depend on the relevant channels: keep the previous ones to tell which systems changed
+        Map<Long, Map<Long, Long>> previousServerChannels = ConfigDefaults.get().isCveAuditExposureStoreEnabled() ?
+                listRelevantServerChannels() : Map.of();
+
         // Empty the table first
         deleteRelevantChannels();
 
@@ -469,6 +475,29 @@ public class CVEAuditManager {
 
         insertRelevantImageChannels(relevantImageChannels);
 
+        Map<Long, Map<Long, Long>> serverChannels = relevantServerChannels.entrySet().stream()
+                .collect(Collectors.toMap(entry -> entry.getKey().getId(), entry -> toChannelRanks(entry.getValue())));
+        Set<Long> changedServers = new HashSet<>(previousServerChannels.keySet());
+        changedServers.addAll(serverChannels.keySet());
+        changedServers.removeIf(id -> Objects.equals(previousServerChannels.getOrDefault(id, Map.of()),
+                serverChannels.getOrDefault(id, Map.of())));
+        CVEExposureManager.invalidateSystems(changedServers);
+    }
+
+    private static Map<Long, Map<Long, Long>> listRelevantServerChannels() {
+        SelectMode m = ModeFactory.getMode("cve_audit_queries", "list_relevant_server_channels");
+        DataResult<Map<String, Object>> rows = m.execute(new HashMap<>());
+        Map<Long, Map<Long, Long>> result = new HashMap<>();
+        for (Map<String, Object> row : rows) {
+            result.computeIfAbsent((Long) row.get("server_id"), id -> new HashMap<>())
+                    .put((Long) row.get("channel_id"), (Long) row.get("channel_rank"));
+        }
+        return result;
+    }
+
+    private static Map<Long, Long> toChannelRanks(List<RankedChannel> channels) {
+        return channels.stream().collect(Collectors.toMap(RankedChannel::getChannelId,
+                channel -> (long) channel.getRank(), Math::min));
     }
 
     /**
@@ -813,8 +842,7 @@ public class CVEAuditManager {
      */
     public static Stream<CVEPatchStatus> listSystemsByPatchStatus(User user,
                                                                   String cveIdentifier) {
-        SelectMode m = ModeFactory.getMode("cve_audit_queries",
-                "list_systems_by_patch_status");
+        SelectMode m = ModeFactory.getMode("cve_audit_queries", "list_systems_by_patch_status");
 
         Map<String, Object> params = new HashMap<>();
         params.put("cve_identifier", cveIdentifier);
@@ -822,34 +850,55 @@ public class CVEAuditManager {
         DataResult<Map<String, Object>> results = m.execute(params);
 
         return StreamSupport.stream(results.spliterator(), false)
-                .map(row -> {
-                    /*
-                        We check "package_version" to determine if we have an EVR
-                        If the package is for an affected system, we should have at least the version and the release.
-                        Otherwise, all values will be null (no EVR present)
-                        (See: cve_audit_queries#list_systems_by_patch_status)
-                    */
-                    Optional<PackageEvr> packageEvr = Optional.ofNullable((String) row.get("package_version"))
-                            .map(pv -> new PackageEvr((String) row.get("package_epoch"), pv,
-                                    (String) row.get("package_release"), (String) row.get("package_type")));
+                .map(CVEAuditManager::toSystemPatchStatus);
+    }
 
-                    return new CVEPatchStatus(
-                            (long) row.get("system_id"),
-                            (String) row.get("system_name"),
-                            Optional.ofNullable((Long)row.get("errata_id")),
-                            (String) row.get("errata_advisory"),
-                            Optional.ofNullable((Long)row.get("package_id")),
-                            Optional.ofNullable((String)row.get("package_name")),
-                            packageEvr,
-                            getBooleanValue(row, "package_installed"),
-                            Optional.ofNullable((Long)row.get("channel_id")),
-                            (String) row.get("channel_name"),
-                            (String) row.get("channel_label"),
-                            getBooleanValue(row, "channel_assigned"),
-                            Optional.ofNullable((Long)row.get("channel_rank"))
-                    );
-                });
+    /**
+     * List the given systems with their patch status regarding a given CVE identifier, regardless of the
+     * user permissions.
+     *
+     * @param systemIds the ids of the systems
+     * @param cveIdentifier the CVE identifier to lookup
+     * @return list of system records with patch status
+     */
+    public static Stream<CVEPatchStatus> listSystemsByPatchStatus(List<Long> systemIds, String cveIdentifier) {
+        SelectMode m = ModeFactory.getMode("cve_audit_queries",
+                "list_systems_by_patch_status_for_systems");
 
+        Map<String, Object> params = new HashMap<>();
+        params.put("cve_identifier", cveIdentifier);
+        DataResult<Map<String, Object>> results = m.execute(params, systemIds);
+
+        return StreamSupport.stream(results.spliterator(), false)
+                .map(CVEAuditManager::toSystemPatchStatus);
+    }
+
+    private static CVEPatchStatus toSystemPatchStatus(Map<String, Object> row) {
+        /*
+            We check "package_version" to determine if we have an EVR
+            If the package is for an affected system, we should have at least the version and the release.
+            Otherwise, all values will be null (no EVR present)
+            (See: cve_audit_queries#list_systems_by_patch_status)
+        */
+        Optional<PackageEvr> packageEvr = Optional.ofNullable((String) row.get("package_version"))
+                .map(pv -> new PackageEvr((String) row.get("package_epoch"), pv,
+                        (String) row.get("package_release"), (String) row.get("package_type")));
+
+        return new CVEPatchStatus(
+                (long) row.get("system_id"),
+                (String) row.get("system_name"),
+                Optional.ofNullable((Long)row.get("errata_id")),
+                (String) row.get("errata_advisory"),
+                Optional.ofNullable((Long)row.get("package_id")),
+                Optional.ofNullable((String)row.get("package_name")),
+                packageEvr,
+                getBooleanValue(row, "package_installed"),
+                Optional.ofNullable((Long)row.get("channel_id")),
+                (String) row.get("channel_name"),
+                (String) row.get("channel_label"),
+                getBooleanValue(row, "channel_assigned"),
+                Optional.ofNullable((Long)row.get("channel_rank"))
+        );
     }
 
     /**
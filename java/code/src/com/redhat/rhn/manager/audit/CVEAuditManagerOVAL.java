@@ -19,21 +19,17 @@ package com.redhat.rhn.manager.audit;
 import static com.redhat.rhn.manager.audit.CVEAuditManager.SUCCESSOR_PRODUCT_RANK_BOUNDARY;
 
 import com.redhat.rhn.common.conf.ConfigDefaults;
+import com.redhat.rhn.common.hibernate.HibernateFactory;
 import com.redhat.rhn.domain.rhnpackage.PackageEvr;
 import com.redhat.rhn.domain.server.Server;
 import com.redhat.rhn.domain.server.ServerFactory;
 import com.redhat.rhn.domain.user.User;
-import com.redhat.rhn.manager.rhnpackage.PackageManager;
 
 import com.suse.oval.OVALCachingFactory;
-import com.suse.oval.OVALCleaner;
 import com.suse.oval.OsFamily;
-import com.suse.oval.OvalParser;
-import com.suse.oval.ShallowSystemPackage;
 import com.suse.oval.config.OVALConfigLoader;
 import com.suse.oval.ovaldownloader.OVALDownloadResult;
 import com.suse.oval.ovaldownloader.OVALDownloader;
-import com.suse.oval.ovaltypes.OvalRootType;
 import com.suse.oval.vulnerablepkgextractor.VulnerablePackage;
 
 import org.apache.logging.log4j.LogManager;
@@ -42,8 +38,10 @@ import org.apache.logging.log4j.Logger;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -83,24 +81,41 @@ public class CVEAuditManagerOVAL {
             throw new UnknownCVEIdentifierException();
         }
 
-        List<CVEAuditServer> result = new ArrayList<>();
+        if (ConfigDefaults.get().isCveAuditExposureStoreEnabled()) {
+            return CVEExposureManager.listSystemsByPatchStatus(user, cveIdentifier, patchStatuses);
+        }
 
         List<CVEAuditManager.CVEPatchStatus> results = CVEAuditManager.listSystemsByPatchStatus(user, cveIdentifier)
                 .toList();
 
+        return auditSystems(cveIdentifier, user.getServers(), results).stream()
+                .filter(system -> patchStatuses.contains(system.getPatchStatus()))
+                .toList();
+    }
+
+    /**
+     * Audit the given {@code clients} regarding the given CVE identifier based on OVAL and Channels data.
+     *
+     * @param cveIdentifier the CVE identifier
+     * @param clients the servers to audit
+     * @param results list produced by {@link CVEAuditManager#listSystemsByPatchStatus(User, String)} or
+     *                {@link CVEAuditManager#listSystemsByPatchStatus(List, String)} for the clients
+     * @return the system records with patch status, one for every client
+     */
+    public static List<CVEAuditServer> auditSystems(String cveIdentifier, Collection<Server> clients,
+                                                    List<CVEAuditManager.CVEPatchStatus> results) {
+        List<CVEAuditServer> result = new ArrayList<>();
+
         // Group the results by system
         Map<Long, List<CVEAuditManager.CVEPatchStatus>> resultsBySystem =
                 results.stream().collect(Collectors.groupingBy(CVEAuditManager.CVEPatchStatus::getSystemId));
 
-        Set<Server> clients = user.getServers();
+        Map<Long, CVEAuditSystemBuilder> auditWithOVALResults = ConfigDefaults.get().isOvalEnabledForCveAudit() ?
+                doAuditSystems(cveIdentifier, resultsBySystem, clients) : Collections.emptyMap();
+
         for (Server clientServer : clients) {
             CVEAuditSystemBuilder auditWithChannelsResult = null;
-            CVEAuditSystemBuilder auditWithOVALResult = null;
-
-            if (ConfigDefaults.get().isOvalEnabledForCveAudit() && checkOVALAvailability(clientServer)) {
-                auditWithOVALResult =
-                        doAuditSystem(cveIdentifier, resultsBySystem.get(clientServer.getId()), clientServer);
-            }
+            CVEAuditSystemBuilder auditWithOVALResult = auditWithOVALResults.get(clientServer.getId());
 
             if (checkChannelsErrataAvailability(clientServer)) {
                 auditWithChannelsResult =
@@ -131,15 +146,13 @@ public class CVEAuditManagerOVAL {
                 auditResult.setSystemName(clientServer.getName());
             }
 
-            if (patchStatuses.contains(auditResult.getPatchStatus())) {
-                result.add(new CVEAuditServer(
-                        auditResult.getId(),
-                        auditResult.getSystemName(),
-                        auditResult.getPatchStatus(),
-                        auditResult.getChannels(),
-                        auditResult.getErratas(),
-                        auditResult.getScanDataSources()));
-            }
+            result.add(new CVEAuditServer(
+                    auditResult.getId(),
+                    auditResult.getSystemName(),
+                    auditResult.getPatchStatus(),
+                    auditResult.getChannels(),
+                    auditResult.getErratas(),
+                    auditResult.getScanDataSources()));
         }
 
         return result;
@@ -169,6 +182,46 @@ public class CVEAuditManagerOVAL {
         return !OVALCachingFactory.canAuditCVE(cveIdentifier) && CVEAuditManager.isCVEIdentifierUnknown(cveIdentifier);
     }
 
+    /**
+     * Audit the given {@code clients} regarding the given CVE identifier based on OVAL data.
+     * <p>
+     * Clients are grouped by product, so the vulnerable packages are looked up once per product, and the packages
+     * installed on all clients are loaded at once. Clients whose product has no OVAL data are left out. The
+     * evaluation itself works on in-memory data only and runs in parallel.
+     *
+     * @param cveIdentifier the CVE identifier
+     * @param resultsBySystem lists produced by {@link CVEAuditManager#listSystemsByPatchStatus(User, String)},
+     *                        grouped by system id
+     * @param clients the servers to audit
+     * @return the audit records by system id
+     * */
+    private static Map<Long, CVEAuditSystemBuilder> doAuditSystems(
+            String cveIdentifier, Map<Long, List<CVEAuditManager.CVEPatchStatus>> resultsBySystem,
+            Collection<Server> clients) {
+        Map<String, List<Server>> clientsByProduct = clients.stream()
+                .filter(clientServer -> clientServer.getCpe() != null)
+                .collect(Collectors.groupingBy(Server::getCpe));
+
+        List<SystemAudit> audits = new ArrayList<>();
+        clientsByProduct.forEach((cpe, productClients) -> {
+            if (!OVALCachingFactory.checkOVALAvailability(cpe)) {
+                return;
+            }
+            List<ProductVulnerablePackage> vulnerablePackages = getProductVulnerablePackages(cpe, cveIdentifier);
+            for (Server clientServer : productClients) {
+                audits.add(new SystemAudit(clientServer.getId(), clientServer.getName(), vulnerablePackages,
+                        resultsBySystem.get(clientServer.getId())));
+            }
+        });
+
+        InstalledPackageIndex installedPackages = InstalledPackageIndex.loadForCve(
+                audits.stream().map(SystemAudit::systemId).toList(), cveIdentifier);
+
+        // No database access from here on, the index holds everything the evaluation needs
+        return audits.parallelStream().collect(Collectors.toMap(SystemAudit::systemId,
+                audit -> doAuditSystem(audit, installedPackages)));
+    }
+
     /**
      * Audit the given {@code clientServer} regarding the given CVE identifier based on OVAL and Channels data.
      *
@@ -182,28 +235,30 @@ public class CVEAuditManagerOVAL {
     public static CVEAuditSystemBuilder doAuditSystem(String cveIdentifier,
                                                       List<CVEAuditManager.CVEPatchStatus> results,
                                                       Server clientServer) {
+        InstalledPackageIndex installedPackages =
+                InstalledPackageIndex.loadForCve(List.of(clientServer.getId()), cveIdentifier);
+        SystemAudit audit = new SystemAudit(clientServer.getId(), clientServer.getName(),
+                getProductVulnerablePackages(clientServer.getCpe(), cveIdentifier), results);
+        return doAuditSystem(audit, installedPackages);
+    }
+
+    private static CVEAuditSystemBuilder doAuditSystem(SystemAudit audit, InstalledPackageIndex installedPackages) {
         // It's possible to find more than one patch for a particular package in the available channels. It's NOT
         // necessary to apply all of them because they will have the same outcome i.e. patch the package;
         // instead we need to choose only one. To choose the one, we rank patches based on the channel they come
         // from .e.g. assigned, successor product, etc. And for each vulnerable package we keep only the highest
         // ranking patch.
-        results = keepOnlyPatchCandidates(results);
-
-        CVEAuditSystemBuilder cveAuditServerBuilder = new CVEAuditSystemBuilder(clientServer.getId());
-        cveAuditServerBuilder.setSystemName(clientServer.getName());
-
-        List<ShallowSystemPackage> allInstalledPackages =
-                PackageManager.shallowSystemPackageList(clientServer.getId());
+        List<CVEAuditManager.CVEPatchStatus> results = keepOnlyPatchCandidates(audit.results());
 
-        LOG.debug("Vulnerable packages before filtering: {}",
-                OVALCachingFactory.getVulnerablePackagesByProductAndCve(clientServer.getCpe(), cveIdentifier));
+        CVEAuditSystemBuilder cveAuditServerBuilder = new CVEAuditSystemBuilder(audit.systemId());
+        cveAuditServerBuilder.setSystemName(audit.systemName());
 
-        Set<VulnerablePackage> clientProductVulnerablePackages =
-                OVALCachingFactory.getVulnerablePackagesByProductAndCve(clientServer.getCpe(), cveIdentifier).stream()
-                        .filter(pkg -> isPackageInstalled(pkg, allInstalledPackages))
-                        .collect(Collectors.toSet());
+        List<ProductVulnerablePackage> clientProductVulnerablePackages = audit.vulnerablePackages().stream()
+                .filter(pkg -> installedPackages.isInstalled(audit.systemId(), pkg.name()))
+                .toList();
 
-        LOG.debug("Vulnerable packages after filtering: {}", clientProductVulnerablePackages);
+        LOG.debug("Vulnerable packages of '{}' after filtering: {}", audit.systemName(),
+                clientProductVulnerablePackages);
 
         if (clientProductVulnerablePackages.isEmpty()) {
             cveAuditServerBuilder.setPatchStatus(PatchStatus.NOT_AFFECTED);
@@ -211,99 +266,23 @@ public class CVEAuditManagerOVAL {
         }
 
         // The list of vulnerable packages for which a patch has been released
-        Set<VulnerablePackage> patchedVulnerablePackages = clientProductVulnerablePackages.stream()
-                .filter(vulnerablePackage -> vulnerablePackage.getFixVersion().isPresent()).collect(
-                        Collectors.toSet());
-
-        Set<VulnerablePackage> unpatchedVulnerablePackages = clientProductVulnerablePackages.stream()
-                .filter(vulnerablePackage -> vulnerablePackage.getFixVersion().isEmpty()).collect(
-                        Collectors.toSet());
-
-        boolean allPackagesUnpatched = unpatchedVulnerablePackages.size() == clientProductVulnerablePackages.size();
+        List<ProductVulnerablePackage> patchedVulnerablePackages = clientProductVulnerablePackages.stream()
+                .filter(ProductVulnerablePackage::isPatched)
+                .toList();
 
-        if (allPackagesUnpatched) {
+        if (patchedVulnerablePackages.isEmpty()) {
             cveAuditServerBuilder.setPatchStatus(PatchStatus.AFFECTED_PATCH_UNAVAILABLE);
         }
         else {
             boolean allPackagesPatched = patchedVulnerablePackages.stream().allMatch(patchedPackage ->
-                    getInstalledPackageVersions(patchedPackage, allInstalledPackages)
-                            .stream().allMatch(installedPackage -> {
-                                String fixVersion = patchedPackage.getFixVersion().get();
-                                if ("deb".equals(installedPackage.getType())) {
-                                    return installedPackage.getPackageEVR()
-                                            .compareTo(PackageEvr.parseDebian(fixVersion)) >= 0;
-                                }
-                                else {
-                                    return installedPackage.getPackageEVR()
-                                            .compareTo(PackageEvr.parseRpm(fixVersion)) >= 0;
-                                }
-                            }));
+                    installedPackages.getInstalledVersions(audit.systemId(), patchedPackage.name())
+                            .stream().allMatch(patchedPackage::isFixedIn));
 
             if (allPackagesPatched) {
                 cveAuditServerBuilder.setPatchStatus(PatchStatus.PATCHED);
             }
             else {
-                List<CVEAuditManager.CVEPatchStatus> patchesInAssignedChannels = results.stream()
-                        .filter(CVEAuditManager.CVEPatchStatus::isChannelAssigned)
-                        .toList();
-
-                List<CVEAuditManager.CVEPatchStatus> patchesInUnassignedChannels = results.stream()
-                        .filter(cvePatchStatus -> !cvePatchStatus.isChannelAssigned())
-                        .toList();
-
-                long numberOfPackagesWithPatchInAssignedChannels =
-                        patchedVulnerablePackages.stream().filter(patchedPackage -> patchesInAssignedChannels
-                                .stream()
-                                .anyMatch(patch ->
-                                        patch.getPackageName().equals(Optional.of(patchedPackage.getName()))
-                                )
-                        ).count();
-
-                boolean allPackagesHavePatchInAssignedChannels =
-                        numberOfPackagesWithPatchInAssignedChannels == patchedVulnerablePackages.size();
-                boolean somePackagesHavePatchInAssignedChannels = numberOfPackagesWithPatchInAssignedChannels > 0;
-
-                if (allPackagesHavePatchInAssignedChannels) {
-                    cveAuditServerBuilder.setPatchStatus(PatchStatus.AFFECTED_FULL_PATCH_APPLICABLE);
-                }
-                else if (somePackagesHavePatchInAssignedChannels) {
-                    cveAuditServerBuilder.setPatchStatus(PatchStatus.AFFECTED_PARTIAL_PATCH_APPLICABLE);
-                }
-                else {
-                    long numberOfPackagesWithPatchInUnassignedChannels =
-                            patchedVulnerablePackages.stream().filter(patchedPackage -> patchesInUnassignedChannels
-                                    .stream()
-                                    .anyMatch(patch ->
-                                            patch.getPackageName().equals(Optional.of(patchedPackage.getName()))
-                                    )
-                            ).count();
-
-                    boolean somePackagesHavePatchInUnassignedChannels =
-                            numberOfPackagesWithPatchInUnassignedChannels > 0 &&
-                                    numberOfPackagesWithPatchInUnassignedChannels == patchedVulnerablePackages.size();
-
-                    boolean allPackagesHavePatchInUnassignedChannels =
-                            numberOfPackagesWithPatchInUnassignedChannels == patchedVulnerablePackages.size();
-
-                    if (allPackagesHavePatchInUnassignedChannels) {
-                        boolean allPackagesHavePatchInSuccessorChannel = patchesInUnassignedChannels.stream()
-                                .allMatch(patch ->
-                                        patch.getChannelRank().orElse(0L) >= SUCCESSOR_PRODUCT_RANK_BOUNDARY);
-                        if (allPackagesHavePatchInSuccessorChannel) {
-                            cveAuditServerBuilder
-                                    .setPatchStatus(PatchStatus.AFFECTED_PATCH_INAPPLICABLE_SUCCESSOR_PRODUCT);
-                        }
-                        else {
-                            cveAuditServerBuilder.setPatchStatus(PatchStatus.AFFECTED_PATCH_INAPPLICABLE);
-                        }
-                    }
-                    else if (somePackagesHavePatchInUnassignedChannels) {
-                        cveAuditServerBuilder.setPatchStatus(PatchStatus.AFFECTED_PATCH_INAPPLICABLE);
-                    }
-                    else {
-                        cveAuditServerBuilder.setPatchStatus(PatchStatus.AFFECTED_PATCH_UNAVAILABLE_IN_UYUNI);
-                    }
-                }
+                cveAuditServerBuilder.setPatchStatus(getAffectedPatchStatus(patchedVulnerablePackages, results));
             }
         }
 
@@ -313,9 +292,86 @@ public class CVEAuditManagerOVAL {
         return cveAuditServerBuilder;
     }
 
+    /**
+     * Determines the status of an affected system depending on the channels the patches are available in.
+     * */
+    private static PatchStatus getAffectedPatchStatus(List<ProductVulnerablePackage> patchedVulnerablePackages,
+                                                      List<CVEAuditManager.CVEPatchStatus> results) {
+        List<CVEAuditManager.CVEPatchStatus> patchesInUnassignedChannels = results.stream()
+                .filter(cvePatchStatus -> !cvePatchStatus.isChannelAssigned())
+                .toList();
+
+        Set<String> packagesWithPatchInAssignedChannels = getPatchedPackageNames(results.stream()
+                .filter(CVEAuditManager.CVEPatchStatus::isChannelAssigned)
+                .toList());
+        Set<String> packagesWithPatchInUnassignedChannels = getPatchedPackageNames(patchesInUnassignedChannels);
+
+        long numberOfPackagesWithPatchInAssignedChannels = patchedVulnerablePackages.stream()
+                .filter(patchedPackage -> packagesWithPatchInAssignedChannels.contains(patchedPackage.name()))
+                .count();
+
+        boolean allPackagesHavePatchInAssignedChannels =
+                numberOfPackagesWithPatchInAssignedChannels == patchedVulnerablePackages.size();
+        boolean somePackagesHavePatchInAssignedChannels = numberOfPackagesWithPatchInAssignedChannels > 0;
+
+        if (allPackagesHavePatchInAssignedChannels) {
+            return PatchStatus.AFFECTED_FULL_PATCH_APPLICABLE;
+        }
+        else if (somePackagesHavePatchInAssignedChannels) {
+            return PatchStatus.AFFECTED_PARTIAL_PATCH_APPLICABLE;
+        }
+
+        long numberOfPackagesWithPatchInUnassignedChannels = patchedVulnerablePackages.stream()
+                .filter(patchedPackage -> packagesWithPatchInUnassignedChannels.contains(patchedPackage.name()))
+                .count();
+
+        boolean somePackagesHavePatchInUnassignedChannels =
+                numberOfPackagesWithPatchInUnassignedChannels > 0 &&
+                        numberOfPackagesWithPatchInUnassignedChannels == patchedVulnerablePackages.size();
+
+        boolean allPackagesHavePatchInUnassignedChannels =
+                numberOfPackagesWithPatchInUnassignedChannels == patchedVulnerablePackages.size();
+
+        if (allPackagesHavePatchInUnassignedChannels) {
+            boolean allPackagesHavePatchInSuccessorChannel = patchesInUnassignedChannels.stream()
+                    .allMatch(patch -> patch.getChannelRank().orElse(0L) >= SUCCESSOR_PRODUCT_RANK_BOUNDARY);
+            if (allPackagesHavePatchInSuccessorChannel) {
+                return PatchStatus.AFFECTED_PATCH_INAPPLICABLE_SUCCESSOR_PRODUCT;
+            }
+            else {
+                return PatchStatus.AFFECTED_PATCH_INAPPLICABLE;
+            }
+        }
+        else if (somePackagesHavePatchInUnassignedChannels) {
+            return PatchStatus.AFFECTED_PATCH_INAPPLICABLE;
+        }
+        else {
+            return PatchStatus.AFFECTED_PATCH_UNAVAILABLE_IN_UYUNI;
+        }
+    }
+
+    private static Set<String> getPatchedPackageNames(List<CVEAuditManager.CVEPatchStatus> patches) {
+        return patches.stream()
+                .map(CVEAuditManager.CVEPatchStatus::getPackageName)
+                .flatMap(Optional::stream)
+                .collect(Collectors.toSet());
+    }
+
+    private static List<ProductVulnerablePackage> getProductVulnerablePackages(String cpe, String cveIdentifier) {
+        List<VulnerablePackage> vulnerablePackages =
+                OVALCachingFactory.getVulnerablePackagesByProductAndCve(cpe, cveIdentifier);
+
+        LOG.debug("Vulnerable packages of '{}' before filtering: {}", cpe, vulnerablePackages);
+
+        return vulnerablePackages.stream().map(ProductVulnerablePackage::new).toList();
+    }
+
     private static List<CVEAuditManager.CVEPatchStatus> keepOnlyPatchCandidates(
             List<CVEAuditManager.CVEPatchStatus> results) {
         List<CVEAuditManager.CVEPatchStatus> patchCandidates = new ArrayList<>();
+        if (results == null) {
+            return patchCandidates;
+        }
 
         Map<String, List<CVEAuditManager.CVEPatchStatus>> resultsByPackage = results.stream()
                 .filter(result -> result.getPackageName().isPresent())
@@ -329,22 +385,6 @@ public class CVEAuditManagerOVAL {
         return patchCandidates;
     }
 
-    private static boolean isPackageInstalled(VulnerablePackage pkg, List<ShallowSystemPackage> allInstalledPackages) {
-        return allInstalledPackages.stream()
-                .anyMatch(installed -> Objects.equals(installed.getName(), pkg.getName()));
-    }
-
-    /**
-     * Returns the list of installed versions of {@code pkg}
-     * */
-    private static List<ShallowSystemPackage> getInstalledPackageVersions(
-            VulnerablePackage pkg,
-            List<ShallowSystemPackage> allInstalledPackages) {
-
-        return allInstalledPackages.stream().filter(installed -> Objects.equals(installed.getName(), pkg.getName()))
-                .collect(Collectors.toList());
-    }
-
     /**
      * List visible images with their patch status regarding a given CVE identifier.
      *
@@ -376,18 +416,28 @@ public class CVEAuditManagerOVAL {
         LOG.debug("Detected {} products eligible for OVAL synchronization: {}", productsToSync.size(), productsToSync);
 
         OVALDownloader ovalDownloader = new OVALDownloader(OVALConfigLoader.loadDefaultConfig());
+        // The OVAL data of each product replaces the previous one in its own transaction, so that a failure in the
+        // middle of a file keeps the previous data of the product intact
         for (OVALProduct product : productsToSync) {
             try {
-                syncOVALForProduct(product, ovalDownloader);
+                // Stored results depend on the OVAL data of their CVE
+                CVEExposureManager.invalidateCves(syncOVALForProduct(product, ovalDownloader));
+                HibernateFactory.commitTransaction();
             }
             catch (Exception e) {
                 LOG.error("Failed to sync OVAL for product '{} {}'",
                         product.getOsFamily().fullname(), product.getOsVersion(), e);
+                HibernateFactory.rollbackTransaction();
+            }
+            finally {
+                if (!HibernateFactory.inTransaction()) {
+                    HibernateFactory.getSession().beginTransaction();
+                }
             }
         }
     }
 
-    private static void syncOVALForProduct(OVALProduct product, OVALDownloader ovalDownloader) {
+    private static Set<Long> syncOVALForProduct(OVALProduct product, OVALDownloader ovalDownloader) {
         LOG.debug("Downloading OVAL for {} {}", product.getOsFamily(), product.getOsVersion());
         OVALDownloadResult downloadResult;
         try {
@@ -402,26 +452,29 @@ public class CVEAuditManagerOVAL {
                 downloadResult.getVulnerabilityFile().map(File::getAbsoluteFile).orElse(null));
         LOG.debug("OVAL patch file: {}", downloadResult.getPatchFile().map(File::getAbsoluteFile).orElse(null));
 
+        Set<Long> changedCves = new HashSet<>();
         downloadResult.getVulnerabilityFile().ifPresent(ovalVulnerabilityFile -> {
-            extractAndSaveOVALData(product, ovalVulnerabilityFile);
+            changedCves.addAll(extractAndSaveOVALData(product, ovalVulnerabilityFile));
             LOG.debug("Saving Vulnerability OVAL for {} {}", product.getOsFamily(), product.getOsVersion());
         });
 
         downloadResult.getPatchFile().ifPresent(patchFile -> {
-            extractAndSaveOVALData(product, patchFile);
+            changedCves.addAll(extractAndSaveOVALData(product, patchFile));
             LOG.debug("Saving Patch OVAL for {} {}", product.getOsFamily(), product.getOsVersion());
         });
 
-        LOG.debug("Saving OVAL finished");
+        LOG.debug("Saving OVAL finished, the data of {} CVEs changed", changedCves.size());
+        return changedCves;
     }
 
     /**
      * Extracts OVAL metadata from the given {@code ovalFile}, clean it and save it to the database.
+     *
+     * @return the ids of the CVEs whose OVAL data changed
      * */
-    private static void extractAndSaveOVALData(OVALProduct product, File ovalFile) {
-        OvalRootType ovalRoot = new OvalParser().parse(ovalFile);
-        OVALCleaner.cleanup(ovalRoot, product.getOsFamily(), product.getOsVersion());
-        OVALCachingFactory.savePlatformsVulnerablePackages(ovalRoot);
+    private static Set<Long> extractAndSaveOVALData(OVALProduct product, File ovalFile) {
+        return OVALCachingFactory.savePlatformsVulnerablePackages(ovalFile, product.getOsFamily(),
+                product.getOsVersion());
     }
 
     /**
@@ -435,6 +488,40 @@ public class CVEAuditManagerOVAL {
                 .map(Optional::get).collect(Collectors.toSet());
     }
 
+    /**
+     * The data needed to audit one system, read from the database before the evaluation starts.
+     * */
+    private record SystemAudit(long systemId, String systemName, List<ProductVulnerablePackage> vulnerablePackages,
+                               List<CVEAuditManager.CVEPatchStatus> results) {
+    }
+
+    /**
+     * A package vulnerable on a product, with its fix version parsed once for all the systems of the product.
+     * */
+    private record ProductVulnerablePackage(String name, String fixVersion, PackageEvr rpmFixVersion,
+                                            PackageEvr debFixVersion) {
+
+        ProductVulnerablePackage(VulnerablePackage vulnerablePackage) {
+            this(vulnerablePackage.getName(), vulnerablePackage.getFixVersion().orElse(null),
+                    vulnerablePackage.getFixVersion().map(PackageEvr::parseRpm).orElse(null),
+                    vulnerablePackage.getFixVersion().map(PackageEvr::parseDebian).orElse(null));
+        }
+
+        boolean isPatched() {
+            return fixVersion != null;
+        }
+
+        boolean isFixedIn(PackageEvr installed) {
+            PackageEvr fix = "deb".equals(installed.getType()) ? debFixVersion : rpmFixVersion;
+            return installed.compareTo(fix) >= 0;
+        }
+
+        @Override
+        public String toString() {
+            return name + (fixVersion == null ? "" : "-" + fixVersion);
+        }
+    }
+
     public static class OVALProduct {
         private OsFamily osFamily;
         private String osVersion;
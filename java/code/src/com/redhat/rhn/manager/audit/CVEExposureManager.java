@@ -0,0 +1,316 @@
+/*
+ * Copyright (c) 2025 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+
+package com.redhat.rhn.manager.audit;
+
+import com.redhat.rhn.common.conf.ConfigDefaults;
+import com.redhat.rhn.common.db.datasource.DataResult;
+import com.redhat.rhn.common.db.datasource.ModeFactory;
+import com.redhat.rhn.common.db.datasource.Row;
+import com.redhat.rhn.common.db.datasource.SelectMode;
+import com.redhat.rhn.domain.server.Server;
+import com.redhat.rhn.domain.server.ServerFactory;
+import com.redhat.rhn.domain.user.User;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the CVE audit result of every system and CVE (the exposure of the system to the CVE) in the database.
+ * <p>
+ * A CVE is audited only for the systems that have no stored result yet, all other results are read back from the
+ * store. Results are removed whenever the data they depend on changes: the packages or channels of a system,
+ * the content of a channel, the relevant channels computed for CVE audit of a system, or the OVAL data of a CVE.
+ */
+public class CVEExposureManager {
+
+    private static final Logger LOG = LogManager.getLogger(CVEExposureManager.class);
+    private static final String QUERIES = "cve_audit_queries";
+
+    private CVEExposureManager() {
+    }
+
+    /**
+     * List visible systems with their patch status regarding a given CVE identifier, auditing only the systems
+     * without stored result.
+     *
+     * @param user the calling user
+     * @param cveIdentifier the CVE identifier to lookup
+     * @param patchStatuses the patch statuses
+     * @return list of system records with patch status
+     */
+    public static List<CVEAuditServer> listSystemsByPatchStatus(User user, String cveIdentifier,
+                                                                EnumSet<PatchStatus> patchStatuses) {
+        SelectMode m = ModeFactory.getMode(QUERIES, "list_systems_without_exposure");
+        DataResult<Row> missing = m.execute(Map.of("cve_identifier", cveIdentifier, "user_id", user.getId()));
+        List<CVEAuditServer> unstored = new ArrayList<>();
+        if (!missing.isEmpty()) {
+            List<Long> systemIds = missing.stream().map(row -> (Long) row.get("id")).sorted().toList();
+            LOG.debug("Auditing {} systems without stored exposure to {}", systemIds.size(), cveIdentifier);
+            unstored = auditAndStore(cveIdentifier, systemIds);
+        }
+        if (patchStatuses.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<CVEAuditServer> result = readStore(user, cveIdentifier, patchStatuses);
+        if (!unstored.isEmpty()) {
+            unstored.stream()
+                    .filter(system -> patchStatuses.contains(system.getPatchStatus()))
+                    .forEach(result::add);
+            result.sort(Comparator.comparingLong(CVEAuditServer::getId));
+        }
+        return result;
+    }
+
+    /**
+     * Lists the CVEs of a visible system with its stored patch status. Only the CVEs audited since the system was
+     * last invalidated are covered, as the store is filled by the audits.
+     *
+     * @param user the calling user
+     * @param systemId the system id
+     * @param patchStatuses the patch statuses
+     * @return the patch status of the system by CVE identifier, ordered by CVE identifier
+     */
+    public static Map<String, PatchStatus> listCVEsBySystem(User user, Long systemId,
+                                                           EnumSet<PatchStatus> patchStatuses) {
+        Map<String, PatchStatus> result = new LinkedHashMap<>();
+        if (patchStatuses.isEmpty()) {
+            return result;
+        }
+        DataResult<Row> rows = ModeFactory.getMode(QUERIES, "list_exposure_by_system")
+                .execute(Map.of("system_id", systemId, "user_id", user.getId()), statusNames(patchStatuses));
+        for (Row row : rows) {
+            result.put((String) row.get("cve_identifier"), PatchStatus.valueOf((String) row.get("patch_status")));
+        }
+        return result;
+    }
+
+    /**
+     * Removes the stored results of a system, to be called when its packages or channels change.
+     *
+     * @param systemId the system id
+     */
+    public static void invalidateSystem(Long systemId) {
+        if (!ConfigDefaults.get().isCveAuditExposureStoreEnabled()) {
+            return;
+        }
+        Map<String, Object> params = Map.of("system_id", systemId);
+        ModeFactory.getWriteMode(QUERIES, "bump_exposure_generation_for_system").executeUpdate(params);
+        ModeFactory.getWriteMode(QUERIES, "delete_exposure_for_system").executeUpdate(params);
+    }
+
+    /**
+     * Removes the stored results of the systems using a channel, to be called when its packages or errata change.
+     *
+     * @param channelId the channel id
+     */
+    public static void invalidateChannel(Long channelId) {
+        if (!ConfigDefaults.get().isCveAuditExposureStoreEnabled()) {
+            return;
+        }
+        Map<String, Object> params = Map.of("channel_id", channelId);
+        ModeFactory.getWriteMode(QUERIES, "bump_exposure_generation_for_channel").executeUpdate(params);
+        ModeFactory.getWriteMode(QUERIES, "delete_exposure_for_channel").executeUpdate(params);
+    }
+
+    /**
+     * Removes the stored results of the given systems, to be called when their relevant channels change.
+     *
+     * @param systemIds the system ids
+     */
+    public static void invalidateSystems(Collection<Long> systemIds) {
+        if (!ConfigDefaults.get().isCveAuditExposureStoreEnabled() || systemIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = systemIds.stream().sorted().toList();
+        ModeFactory.getWriteMode(QUERIES, "bump_exposure_generations_for_systems")
+                .executeUpdate(new HashMap<>(), ids);
+        int count = ModeFactory.getWriteMode(QUERIES, "delete_exposure_for_systems")
+                .executeUpdate(new HashMap<>(), ids);
+        LOG.debug("Removed {} stored CVE exposures of {} systems", count, ids.size());
+    }
+
+    /**
+     * Removes the stored results of the given CVEs, to be called when their vulnerability data changes.
+     *
+     * @param cveIds the ids of the CVEs
+     */
+    public static void invalidateCves(Collection<Long> cveIds) {
+        if (!ConfigDefaults.get().isCveAuditExposureStoreEnabled() || cveIds.isEmpty()) {
+            return;
+        }
+        // Systems being audited for these CVEs may have no stored result to remove yet, so the generation of all
+        // the systems is bumped
+        ModeFactory.getWriteMode(QUERIES, "bump_all_exposure_generations").executeUpdate(new HashMap<>());
+        int count = ModeFactory.getWriteMode(QUERIES, "delete_exposure_for_cves")
+                .executeUpdate(new HashMap<>(), cveIds.stream().sorted().toList());
+        LOG.debug("Removed {} stored CVE exposures of {} CVEs", count, cveIds.size());
+    }
+
+    /**
+     * Audits the given systems and stores their results.
+     * <p>
+     * Invalidation bumps the generation of a system before removing its results, so a result computed from data
+     * that was invalidated in the meantime would be stored after the removal and never be removed. The generations
+     * are therefore read before auditing and again when storing, this time locking them until commit so that
+     * no invalidation can run in between: only the results of the systems whose generation did not change are
+     * stored.
+     *
+     * @param cveIdentifier the CVE identifier
+     * @param systemIds the ids of the systems to audit, sorted
+     * @return the audited systems whose result was not stored, because they were invalidated while auditing
+     */
+    private static List<CVEAuditServer> auditAndStore(String cveIdentifier, List<Long> systemIds) {
+        Map<Long, Long> generations = readGenerations("list_exposure_generations", systemIds);
+
+        List<Server> servers = ServerFactory.lookupByIds(systemIds);
+        List<CVEAuditManager.CVEPatchStatus> results =
+                CVEAuditManager.listSystemsByPatchStatus(systemIds, cveIdentifier).toList();
+        List<CVEAuditServer> audited = CVEAuditManagerOVAL.auditSystems(cveIdentifier, servers, results);
+
+        ModeFactory.getWriteMode(QUERIES, "insert_exposure_generations").executeUpdate(new HashMap<>(), systemIds);
+        Map<Long, Long> currentGenerations = readGenerations("lock_exposure_generations", systemIds);
+        // The CVE may be known only by the errata or OVAL data audited so far, without row to refer to
+        DataResult<Row> cve = ModeFactory.getMode(QUERIES, "lookup_or_insert_cve")
+                .execute(Map.of("cve_identifier", cveIdentifier));
+        Long cveId = (Long) cve.get(0).get("id");
+
+        List<Map<String, Object>> exposures = new ArrayList<>(audited.size());
+        List<Map<String, Object>> channels = new ArrayList<>();
+        List<Map<String, Object>> erratas = new ArrayList<>();
+        List<CVEAuditServer> unstored = new ArrayList<>();
+        for (CVEAuditServer system : audited) {
+            if (!Objects.equals(generations.getOrDefault(system.getId(), 0L),
+                    currentGenerations.getOrDefault(system.getId(), 0L))) {
+                unstored.add(system);
+                continue;
+            }
+            Map<String, Object> exposure = new HashMap<>();
+            exposure.put("system_id", system.getId());
+            exposure.put("cve_id", cveId);
+            exposure.put("patch_status", system.getPatchStatus().name());
+            exposure.put("scan_data_sources", system.getScanDataSources().stream()
+                    .map(ScanDataSource::name)
+                    .collect(Collectors.joining(",")));
+            exposures.add(exposure);
+
+            for (AuditChannelInfo channel : system.getChannels()) {
+                Map<String, Object> row = new HashMap<>();
+                row.put("system_id", system.getId());
+                row.put("cve_id", cveId);
+                row.put("channel_id", channel.getId());
+                row.put("channel_rank", channel.getRank());
+                channels.add(row);
+            }
+            for (ErrataIdAdvisoryPair errata : system.getErratas()) {
+                Map<String, Object> row = new HashMap<>();
+                row.put("system_id", system.getId());
+                row.put("cve_id", cveId);
+                row.put("errata_id", errata.getId());
+                erratas.add(row);
+            }
+        }
+        if (!unstored.isEmpty()) {
+            LOG.debug("Not storing the exposure to {} of {} systems invalidated while auditing", cveIdentifier,
+                    unstored.size());
+        }
+
+        executeUpdates("insert_exposure", exposures);
+        executeUpdates("insert_exposure_channel", channels);
+        executeUpdates("insert_exposure_errata", erratas);
+        return unstored;
+    }
+
+    private static Map<Long, Long> readGenerations(String modeName, List<Long> systemIds) {
+        DataResult<Row> rows = ModeFactory.getMode(QUERIES, modeName).execute(new HashMap<>(), systemIds);
+        Map<Long, Long> generations = new HashMap<>();
+        for (Row row : rows) {
+            generations.put((Long) row.get("system_id"), (Long) row.get("generation"));
+        }
+        return generations;
+    }
+
+    private static void executeUpdates(String modeName, List<Map<String, Object>> parameters) {
+        if (!parameters.isEmpty()) {
+            ModeFactory.getWriteMode(QUERIES, modeName).executeUpdates(parameters);
+        }
+    }
+
+    private static List<CVEAuditServer> readStore(User user, String cveIdentifier,
+                                                  EnumSet<PatchStatus> patchStatuses) {
+        Map<String, Object> params = Map.of("cve_identifier", cveIdentifier, "user_id", user.getId());
+
+        DataResult<Row> systems = ModeFactory.getMode(QUERIES, "list_exposure_by_cve")
+                .execute(params, statusNames(patchStatuses));
+        if (systems.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, Set<AuditChannelInfo>> channelsBySystem = new HashMap<>();
+        for (Row row : ModeFactory.getMode(QUERIES, "list_exposure_channels_by_cve").<Row>execute(params)) {
+            channelsBySystem.computeIfAbsent((Long) row.get("system_id"), id -> new LinkedHashSet<>())
+                    .add(new AuditChannelInfo((Long) row.get("channel_id"), (String) row.get("channel_name"),
+                            (String) row.get("channel_label"), (Long) row.get("channel_rank")));
+        }
+
+        Map<Long, Set<ErrataIdAdvisoryPair>> erratasBySystem = new HashMap<>();
+        for (Row row : ModeFactory.getMode(QUERIES, "list_exposure_errata_by_cve").<Row>execute(params)) {
+            erratasBySystem.computeIfAbsent((Long) row.get("system_id"), id -> new LinkedHashSet<>())
+                    .add(new ErrataIdAdvisoryPair((Long) row.get("errata_id"),
+                            (String) row.get("errata_advisory")));
+        }
+
+        List<CVEAuditServer> result = new ArrayList<>(systems.size());
+        for (Row row : systems) {
+            Long systemId = (Long) row.get("system_id");
+            result.add(new CVEAuditServer(
+                    systemId,
+                    (String) row.get("system_name"),
+                    PatchStatus.valueOf((String) row.get("patch_status")),
+                    channelsBySystem.getOrDefault(systemId, new LinkedHashSet<>()),
+                    erratasBySystem.getOrDefault(systemId, new LinkedHashSet<>()),
+                    toScanDataSources((String) row.get("scan_data_sources"))));
+        }
+        return result;
+    }
+
+    private static List<String> statusNames(EnumSet<PatchStatus> patchStatuses) {
+        return patchStatuses.stream().map(PatchStatus::name).toList();
+    }
+
+    private static Set<ScanDataSource> toScanDataSources(String value) {
+        if (StringUtils.isEmpty(value)) {
+            return Set.of();
+        }
+        return Arrays.stream(value.split(","))
+                .map(ScanDataSource::valueOf)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+}
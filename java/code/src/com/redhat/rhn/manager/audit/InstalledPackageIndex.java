@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2025 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+
+package com.redhat.rhn.manager.audit;
+
+import com.redhat.rhn.common.db.datasource.CachedStatement;
+import com.redhat.rhn.common.db.datasource.Row;
+import com.redhat.rhn.domain.rhnpackage.PackageEvr;
+
+import com.suse.oval.OVALCachingFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Read-only index of the packages installed on a set of systems, looked up by system and package name.
+ * <p>
+ * Package names are interned and the installed versions of each system are kept in flat arrays sorted by
+ * name, so a lookup is a binary search instead of a scan over the whole package list. Versions are shared
+ * between systems having the same package version installed. Once built, the index can be read from
+ * multiple threads.
+ */
+public class InstalledPackageIndex {
+
+    private final Map<Long, SystemPackages> systems;
+
+    private InstalledPackageIndex(Map<Long, SystemPackages> systemsIn) {
+        this.systems = systemsIn;
+    }
+
+    /**
+     * Loads the installed packages of the given systems that are relevant to a CVE audit, in batches of
+     * systems so that only the compact index is kept in memory.
+     *
+     * @param serverIds the ids of the systems
+     * @param cveIdentifier the CVE identifier
+     * @return the index
+     */
+    public static InstalledPackageIndex loadForCve(Collection<Long> serverIds, String cveIdentifier) {
+        Builder builder = new Builder();
+        List<Long> ids = new ArrayList<>(serverIds);
+        for (int start = 0; start < ids.size(); start += CachedStatement.BATCH_SIZE) {
+            List<Long> batch = ids.subList(start, Math.min(start + CachedStatement.BATCH_SIZE, ids.size()));
+            for (Row row : OVALCachingFactory.listInstalledVulnerablePackages(batch, cveIdentifier)) {
+                builder.add(((Number) row.get("server_id")).longValue(), (String) row.get("name"),
+                        ((Number) row.get("evr_id")).longValue(), (String) row.get("epoch"),
+                        (String) row.get("version"), (String) row.get("release"), (String) row.get("type"));
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Check if a package is installed on a system, in any version.
+     *
+     * @param serverId the system id
+     * @param name the package name
+     * @return {@code true} if the package is installed
+     */
+    public boolean isInstalled(long serverId, String name) {
+        return lookup(serverId, name) >= 0;
+    }
+
+    /**
+     * Returns the versions of a package installed on a system.
+     *
+     * @param serverId the system id
+     * @param name the package name
+     * @return the installed versions, empty if the package is not installed
+     */
+    public List<PackageEvr> getInstalledVersions(long serverId, String name) {
+        SystemPackages packages = systems.get(serverId);
+        int index = lookup(packages, name);
+        if (index < 0) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(Arrays.asList(packages.evrs)
+                .subList(packages.offsets[index], packages.offsets[index + 1]));
+    }
+
+    private int lookup(long serverId, String name) {
+        return lookup(systems.get(serverId), name);
+    }
+
+    private static int lookup(SystemPackages packages, String name) {
+        if (packages == null || name == null) {
+            return -1;
+        }
+        return Arrays.binarySearch(packages.names, name);
+    }
+
+    /**
+     * Packages installed on one system: the distinct names in sorted order, and for the name at index i
+     * the versions from {@code evrs[offsets[i]]} to {@code evrs[offsets[i + 1]]} excluded.
+     */
+    private record SystemPackages(String[] names, int[] offsets, PackageEvr[] evrs) {
+    }
+
+    /**
+     * Collects installed packages and builds an {@link InstalledPackageIndex}.
+     */
+    public static class Builder {
+
+        private final Map<String, String> names = new HashMap<>();
+        private final Map<Long, PackageEvr> evrs = new HashMap<>();
+        private final Map<Long, Map<String, List<PackageEvr>>> packagesBySystem = new HashMap<>();
+
+        /**
+         * Adds an installed package.
+         *
+         * @param serverId the system id
+         * @param name the package name
+         * @param evrId the id of the package EVR, used to share versions between systems
+         * @param epoch the package epoch
+         * @param version the package version
+         * @param release the package release
+         * @param type the package type, "rpm" or "deb"
+         * @return this builder
+         */
+        public Builder add(long serverId, String name, long evrId, String epoch, String version, String release,
+                           String type) {
+            String internedName = names.computeIfAbsent(name, n -> n);
+            PackageEvr evr = evrs.computeIfAbsent(evrId, id -> new PackageEvr(epoch, version, release, type));
+            packagesBySystem.computeIfAbsent(serverId, id -> new TreeMap<>())
+                    .computeIfAbsent(internedName, n -> new ArrayList<>(1))
+                    .add(evr);
+            return this;
+        }
+
+        /**
+         * @return the index
+         */
+        public InstalledPackageIndex build() {
+            Map<Long, SystemPackages> systems = new HashMap<>(packagesBySystem.size() * 4 / 3 + 1);
+            packagesBySystem.forEach((serverId, packages) -> systems.put(serverId, toArrays(packages)));
+            return new InstalledPackageIndex(systems);
+        }
+
+        private static SystemPackages toArrays(Map<String, List<PackageEvr>> packages) {
+            String[] sortedNames = new String[packages.size()];
+            int[] offsets = new int[packages.size() + 1];
+            PackageEvr[] versions = new PackageEvr[packages.values().stream().mapToInt(List::size).sum()];
+            int index = 0;
+            int offset = 0;
+            // the map is a TreeMap, so names come in the order Arrays.binarySearch expects
+            for (Map.Entry<String, List<PackageEvr>> entry : packages.entrySet()) {
+                sortedNames[index] = entry.getKey();
+                offsets[index] = offset;
+                for (PackageEvr evr : entry.getValue()) {
+                    versions[offset++] = evr;
+                }
+                index++;
+            }
+            offsets[index] = offset;
+            return new SystemPackages(sortedNames, offsets, versions);
+        }
+    }
+}
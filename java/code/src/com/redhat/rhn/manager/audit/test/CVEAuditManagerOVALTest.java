@@ -27,7 +27,10 @@ import static com.redhat.rhn.testing.ErrataTestUtils.createTestUser;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.redhat.rhn.common.conf.Config;
+import com.redhat.rhn.common.conf.ConfigDefaults;
 import com.redhat.rhn.common.hibernate.HibernateFactory;
 import com.redhat.rhn.domain.channel.Channel;
 import com.redhat.rhn.domain.errata.Cve;
@@ -35,10 +38,12 @@ import com.redhat.rhn.domain.errata.Errata;
 import com.redhat.rhn.domain.rhnpackage.Package;
 import com.redhat.rhn.domain.server.Server;
 import com.redhat.rhn.domain.user.User;
+import com.redhat.rhn.manager.audit.AuditChannelInfo;
 import com.redhat.rhn.manager.audit.CVEAuditManager;
 import com.redhat.rhn.manager.audit.CVEAuditManagerOVAL;
 import com.redhat.rhn.manager.audit.CVEAuditServer;
 import com.redhat.rhn.manager.audit.CVEAuditSystemBuilder;
+import com.redhat.rhn.manager.audit.CVEExposureManager;
 import com.redhat.rhn.manager.audit.PatchStatus;
 import com.redhat.rhn.manager.audit.RankedChannel;
 import com.redhat.rhn.manager.audit.UnknownCVEIdentifierException;
@@ -571,6 +576,70 @@ public class CVEAuditManagerOVALTest extends RhnBaseTestCase {
         assertEquals(PatchStatus.AFFECTED_PATCH_INAPPLICABLE, auditServer.getPatchStatus());
     }
 
+    @Test
+    public void testListSystemsByPatchStatusFromExposureStore() throws Exception {
+        Config.get().setBoolean(ConfigDefaults.CVE_AUDIT_ENABLE_EXPOSURE_STORE, "true");
+        try {
+            OvalRootType ovalRoot = ovalParser.parse(TestUtils
+                    .findTestData("/com/redhat/rhn/manager/audit/test/oval/oval-def-1.xml"));
+
+            Cve cve = createTestCve("CVE-2022-2991");
+
+            extractAndSaveVulnerablePackages(ovalRoot);
+
+            User user = createTestUser();
+            Errata errata = createTestErrata(user, Set.of(cve));
+            Channel channel = createTestChannel(user, errata);
+            Server server = createTestServer(user, Set.of(channel));
+            server.setCpe(CPE_OPENSUSE_LEAP_15_4);
+
+            Package unpatched = createTestPackage(user, channel, "noarch",
+                    "kernel-debug-base", "0", "4.12.13", "150100.197.137.2");
+            createTestPackage(user, errata, channel, "noarch",
+                    "kernel-debug-base", "0", "4.12.14", "150100.197.137.2");
+            createTestInstalledPackage(unpatched, server);
+
+            CVEAuditManager.populateCVEChannels();
+            HibernateFactory.getSession().flush();
+
+            CVEAuditServer audited = CVEAuditManagerOVAL.listSystemsByPatchStatus(user, cve.getName(),
+                    EnumSet.allOf(PatchStatus.class)).stream().findAny().get();
+            assertEquals(PatchStatus.AFFECTED_FULL_PATCH_APPLICABLE, audited.getPatchStatus());
+            assertEquals(List.of(PatchStatus.AFFECTED_FULL_PATCH_APPLICABLE.name()), storedPatchStatus(server));
+
+            // the second lookup is served from the store
+            CVEAuditServer stored = CVEAuditManagerOVAL.listSystemsByPatchStatus(user, cve.getName(),
+                    EnumSet.allOf(PatchStatus.class)).stream().findAny().get();
+            assertEquals(audited.getPatchStatus(), stored.getPatchStatus());
+            assertEquals(audited.getChannels().stream().map(AuditChannelInfo::getId).collect(Collectors.toSet()),
+                    stored.getChannels().stream().map(AuditChannelInfo::getId).collect(Collectors.toSet()));
+            assertEquals(audited.getErratas(), stored.getErratas());
+            assertEquals(audited.getScanDataSources(), stored.getScanDataSources());
+            assertTrue(CVEAuditManagerOVAL.listSystemsByPatchStatus(user, cve.getName(),
+                    EnumSet.of(PatchStatus.PATCHED)).isEmpty());
+            assertEquals(Map.of(cve.getName(), PatchStatus.AFFECTED_FULL_PATCH_APPLICABLE),
+                    CVEExposureManager.listCVEsBySystem(user, server.getId(), EnumSet.allOf(PatchStatus.class)));
+
+            // unchanged relevant channels and OVAL data keep the stored result
+            CVEAuditManager.populateCVEChannels();
+            assertEquals(Set.of(), OVALCachingFactory.savePlatformsVulnerablePackages(ovalRoot));
+            assertEquals(List.of(PatchStatus.AFFECTED_FULL_PATCH_APPLICABLE.name()), storedPatchStatus(server));
+
+            CVEExposureManager.invalidateSystem(server.getId());
+            assertTrue(storedPatchStatus(server).isEmpty());
+        }
+        finally {
+            Config.get().setBoolean(ConfigDefaults.CVE_AUDIT_ENABLE_EXPOSURE_STORE, "false");
+        }
+    }
+
+    private static List<String> storedPatchStatus(Server server) {
+        return HibernateFactory.getSession()
+                .createNativeQuery("SELECT patch_status FROM suseCVEExposure WHERE system_id = :sid", String.class)
+                .setParameter("sid", server.getId())
+                .getResultList();
+    }
+
     private static void extractAndSaveVulnerablePackages(OvalRootType rootType) {
         OVALCleaner.cleanup(rootType, OsFamily.LEAP, "15.4");
         OVALCachingFactory.savePlatformsVulnerablePackages(rootType);
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2025 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+
+package com.redhat.rhn.manager.audit.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.redhat.rhn.domain.rhnpackage.PackageEvr;
+import com.redhat.rhn.manager.audit.InstalledPackageIndex;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+/**
+ * Test for {@link InstalledPackageIndex}
+ */
+public class InstalledPackageIndexTest {
+
+    @Test
+    public void testLookup() {
+        InstalledPackageIndex index = new InstalledPackageIndex.Builder()
+                .add(1L, "openssl", 10L, null, "3.0.8", "1.1", "rpm")
+                .add(1L, "kernel-default", 11L, null, "5.14.21", "150500.55.1", "rpm")
+                .add(1L, "kernel-default", 12L, null, "5.14.21", "150500.55.7", "rpm")
+                .add(1L, "bash", 13L, null, "4.4", "9.1", "rpm")
+                .add(2L, "openssl", 10L, null, "3.0.8", "1.1", "rpm")
+                .build();
+
+        assertTrue(index.isInstalled(1L, "bash"));
+        assertTrue(index.isInstalled(1L, "openssl"));
+        assertTrue(index.isInstalled(2L, "openssl"));
+        assertFalse(index.isInstalled(2L, "bash"));
+        assertFalse(index.isInstalled(3L, "openssl"));
+        assertFalse(index.isInstalled(1L, "zsh"));
+
+        List<PackageEvr> kernels = index.getInstalledVersions(1L, "kernel-default");
+        assertEquals(2, kernels.size());
+        assertEquals("150500.55.1", kernels.get(0).getRelease());
+        assertEquals("150500.55.7", kernels.get(1).getRelease());
+        assertTrue(index.getInstalledVersions(2L, "kernel-default").isEmpty());
+        assertTrue(index.getInstalledVersions(3L, "kernel-default").isEmpty());
+
+        // the same version installed on different systems is shared
+        assertSame(index.getInstalledVersions(1L, "openssl").get(0), index.getInstalledVersions(2L, "openssl").get(0));
+    }
+}
@@ -2265,6 +2265,9 @@ public class ChannelManager extends BaseManager {
         params.put("reason", reason);
         params.put("force", force ? "Y" : "N");
         m.executeUpdate(params);
+
+        // the channel content changed, packages must not be served from paths looked up before
+        PackageFactory.invalidatePathCache(channelLabel);
     }
 
     /**
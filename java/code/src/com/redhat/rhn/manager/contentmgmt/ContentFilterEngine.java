@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2025 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.manager.contentmgmt;
+
+import static java.util.stream.Collectors.groupingBy;
+
+import com.redhat.rhn.domain.channel.Channel;
+import com.redhat.rhn.domain.contentmgmt.ContentFilter;
+import com.redhat.rhn.domain.contentmgmt.ContentProjectFactory;
+import com.redhat.rhn.domain.contentmgmt.ErrataFilter;
+import com.redhat.rhn.domain.contentmgmt.FilterCriteria;
+import com.redhat.rhn.domain.contentmgmt.FilterablePackage;
+import com.redhat.rhn.domain.contentmgmt.ModularPackageFilter;
+import com.redhat.rhn.domain.contentmgmt.PackageFilter;
+import com.redhat.rhn.domain.errata.Errata;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Runs the content lifecycle filters against all the packages and errata of a source channel.
+ *
+ * The filters are compiled once: their values are parsed a single time, the filters matching package names or NEVRAs
+ * by equality are merged into set lookups and the filters on package capabilities are evaluated in the database.
+ * Packages are tested as lightweight projections and the result is returned as sets of package ids, so the package
+ * entities of the channel are never loaded.
+ *
+ * An entity is filtered out when any DENY filter matches it and no ALLOW filter does.
+ */
+public class ContentFilterEngine {
+
+    private static final Logger LOG = LogManager.getLogger(ContentFilterEngine.class);
+
+    private static final Set<String> INDEXED_FIELDS = Set.of("name", "nevr", "nevra");
+    private static final String PROVIDES_NAME_FIELD = "package_provides_name";
+
+    private final Channel source;
+    private Map<Long, List<FilterablePackage>> errataPackages;
+
+    /**
+     * Standard constructor
+     * @param sourceIn the source channel
+     */
+    public ContentFilterEngine(Channel sourceIn) {
+        this.source = sourceIn;
+    }
+
+    /**
+     * Filters the packages of the source channel.
+     *
+     * @param filters the package filters
+     * @return Pair containing (left side) the ids of the packages not filtered-out
+     * and (right side) the ids of the packages filtered out
+     */
+    public Pair<Set<Long>, Set<Long>> filterPackages(Collection<PackageFilter> filters) {
+        List<FilterablePackage> packages = ContentProjectFactory.listFilterablePackages(source);
+        LOG.debug("Filtering {} packages through {} filter(s)", packages.size(), filters.size());
+
+        Map<ContentFilter.Rule, List<PackageFilter>> filtersByRule = filters.stream()
+                .collect(groupingBy(ContentFilter::getRule));
+        Predicate<FilterablePackage> deny = compilePackageFilters(filtersByRule.get(ContentFilter.Rule.DENY));
+        Predicate<FilterablePackage> allow = compilePackageFilters(filtersByRule.get(ContentFilter.Rule.ALLOW));
+
+        Set<Long> allowed = new HashSet<>();
+        Set<Long> denied = new HashSet<>();
+        for (FilterablePackage pack : packages) {
+            if (deny.test(pack) && !allow.test(pack)) {
+                denied.add(pack.id());
+            }
+            else {
+                allowed.add(pack.id());
+            }
+        }
+        return Pair.of(allowed, denied);
+    }
+
+    /**
+     * Filters the errata of the source channel.
+     *
+     * @param filters the errata filters
+     * @return Pair containing (left side) the errata not filtered-out and (right side) the errata filtered out
+     */
+    public Pair<Set<Errata>, Set<Errata>> filterErrata(Collection<ErrataFilter> filters) {
+        Set<Errata> errata = source.getErratas();
+        LOG.debug("Filtering {} errata through {} filter(s)", errata.size(), filters.size());
+
+        Map<ContentFilter.Rule, List<ErrataFilter>> filtersByRule = filters.stream()
+                .collect(groupingBy(ContentFilter::getRule));
+        Predicate<Errata> deny = compileErrataFilters(filtersByRule.get(ContentFilter.Rule.DENY));
+        Predicate<Errata> allow = compileErrataFilters(filtersByRule.get(ContentFilter.Rule.ALLOW));
+
+        Set<Errata> allowed = new HashSet<>();
+        Set<Errata> denied = new HashSet<>();
+        for (Errata erratum : errata) {
+            if (deny.test(erratum) && !allow.test(erratum)) {
+                denied.add(erratum);
+            }
+            else {
+                allowed.add(erratum);
+            }
+        }
+        return Pair.of(allowed, denied);
+    }
+
+    private Predicate<FilterablePackage> compilePackageFilters(List<PackageFilter> filters) {
+        if (filters == null || filters.isEmpty()) {
+            return pack -> false;
+        }
+
+        Map<String, Set<String>> equalValues = new HashMap<>();
+        List<String> providedNames = new ArrayList<>();
+        List<Predicate<FilterablePackage>> predicates = new ArrayList<>();
+        for (PackageFilter filter : filters) {
+            if (filter instanceof ModularPackageFilter) {
+                predicates.add(filter.compile());
+                continue;
+            }
+
+            FilterCriteria criteria = filter.getCriteria();
+            if (criteria.getMatcher() == FilterCriteria.Matcher.EQUALS &&
+                    INDEXED_FIELDS.contains(criteria.getField())) {
+                equalValues.computeIfAbsent(criteria.getField(), f -> new HashSet<>()).add(criteria.getValue());
+            }
+            else if (criteria.getMatcher() == FilterCriteria.Matcher.PROVIDES_NAME) {
+                providedNames.add(criteria.getValue());
+            }
+            else {
+                predicates.add(filter.compile());
+            }
+        }
+
+        equalValues.forEach((field, values) -> {
+            Function<FilterablePackage, String> getter = PackageFilter.fieldGetter(field);
+            predicates.add(pack -> values.contains(getter.apply(pack)));
+        });
+        if (!providedNames.isEmpty()) {
+            Set<Long> ids = ContentProjectFactory.listPackageIdsProvidingNames(source, providedNames);
+            predicates.add(pack -> ids.contains(pack.id()));
+        }
+        return anyOf(predicates);
+    }
+
+    private Predicate<Errata> compileErrataFilters(List<ErrataFilter> filters) {
+        if (filters == null || filters.isEmpty()) {
+            return erratum -> false;
+        }
+
+        List<String> providedNames = new ArrayList<>();
+        List<Predicate<Errata>> predicates = new ArrayList<>();
+        for (ErrataFilter filter : filters) {
+            if (PROVIDES_NAME_FIELD.equals(filter.getCriteria().getField())) {
+                providedNames.add(filter.getCriteria().getValue());
+            }
+            else {
+                predicates.add(erratum -> filter.test(erratum,
+                        () -> getErrataPackages().getOrDefault(erratum.getId(), List.of())));
+            }
+        }
+
+        if (!providedNames.isEmpty()) {
+            Set<Long> ids = ContentProjectFactory.listErrataIdsProvidingNames(source, providedNames);
+            predicates.add(erratum -> ids.contains(erratum.getId()));
+        }
+        return anyOf(predicates);
+    }
+
+    private Map<Long, List<FilterablePackage>> getErrataPackages() {
+        if (errataPackages == null) {
+            errataPackages = ContentProjectFactory.listErrataFilterablePackages(source);
+        }
+        return errataPackages;
+    }
+
+    private static <T> Predicate<T> anyOf(List<Predicate<T>> predicates) {
+        return entity -> {
+            for (Predicate<T> predicate : predicates) {
+                if (predicate.test(entity)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+}
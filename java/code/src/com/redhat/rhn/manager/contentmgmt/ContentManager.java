@@ -87,7 +87,6 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -997,18 +996,21 @@ public class ContentManager {
         List<PackageFilter> packageFilters = extractFiltersOfType(filters, PackageFilter.class);
         List<ErrataFilter> errataFilters = extractFiltersOfType(filters, ErrataFilter.class);
 
-        Set<Package> oldTgtPackages = new HashSet<>(tgt.getPackages());
+        // packages are filtered and aligned in the database, write pending changes of the channels first
+        HibernateFactory.getSession().flush();
+        Set<Long> oldTgtPackageIds = new HashSet<>(ChannelFactory.getPackageIds(tgt.getId()));
+        ContentFilterEngine filterEngine = new ContentFilterEngine(src);
 
         // align packages
-        alignPackages(src, tgt, packageFilters);
+        alignPackages(filterEngine, tgt, packageFilters, oldTgtPackageIds);
 
         // align errata and the cache (rhnServerNeededCache)
-        alignErrata(src, tgt, errataFilters, user);
+        alignErrata(filterEngine, src, tgt, errataFilters, user);
 
         // align the package cache
         // this must be done after aligning errata since some packages may belong to a retracted erratum and we don't
         // want them in the cache. For this we need the errata to be up-to-date in target
-        alignPackageCache(tgt, oldTgtPackages);
+        alignPackageCache(tgt, oldTgtPackageIds);
 
         // a lot was inserted into tables at this point. Make sure stats are up-to-date before continuing
         analyzeAlignTables();
@@ -1042,16 +1044,20 @@ public class ContentManager {
         ChannelFactory.analyzeServerNeededCache();
     }
 
-    private void alignPackageCache(Channel channel, Set<Package> oldChannelPackages) {
+    private void alignPackageCache(Channel channel, Set<Long> oldChannelPackageIds) {
+        Set<Long> channelPackageIds = new HashSet<>(ChannelFactory.getPackageIds(channel.getId()));
+
         // remove entries for deleted packages
-        Set<Package> removedPackages = new HashSet<>(oldChannelPackages);
-        removedPackages.removeAll(channel.getPackages());
-        ErrataCacheManager.deleteCacheEntriesForChannelPackages(channel.getId(), extractPackageIds(removedPackages));
+        List<Long> removedPackageIds = oldChannelPackageIds.stream()
+                .filter(id -> !channelPackageIds.contains(id))
+                .collect(toList());
+        ErrataCacheManager.deleteCacheEntriesForChannelPackages(channel.getId(), removedPackageIds);
 
         // add cache entries for new ones
-        Set<Package> newTgtPackages = new HashSet<>(channel.getPackages());
-        newTgtPackages.removeAll(oldChannelPackages);
-        ErrataCacheManager.insertCacheForChannelPackages(channel.getId(), null, extractPackageIds(newTgtPackages));
+        List<Long> newPackageIds = channelPackageIds.stream()
+                .filter(id -> !oldChannelPackageIds.contains(id))
+                .collect(toList());
+        ErrataCacheManager.insertCacheForChannelPackages(channel.getId(), null, newPackageIds);
     }
 
     // helper for extracting certain filter types
@@ -1063,12 +1069,30 @@ public class ContentManager {
                 .collect(toList());
     }
 
-    private void alignPackages(Channel srcChannel, Channel tgtChannel, Collection<PackageFilter> filters) {
-        tgtChannel.getPackages().clear();
-        LOG.debug("Filtering {} entities through {} filter(s)", srcChannel.getPackages().size(), filters.size());
-        Set<Package> newPackages = filterEntities(srcChannel.getPackages(), filters).getLeft();
-        tgtChannel.getPackages().addAll(newPackages);
-        ChannelFactory.save(tgtChannel);
+    /**
+     * Align the packages of a target {@link Channel} to the packages of the source channel that pass the filters.
+     *
+     * Only the difference between the current and the new package ids is written to the target channel.
+     *
+     * @param filterEngine the filter engine of the source {@link Channel}
+     * @param tgtChannel the target {@link Channel}
+     * @param filters the {@link PackageFilter}s
+     * @param oldTgtPackageIds the ids of the packages of the target {@link Channel} before the alignment
+     */
+    private void alignPackages(ContentFilterEngine filterEngine, Channel tgtChannel, Collection<PackageFilter> filters,
+            Set<Long> oldTgtPackageIds) {
+        Set<Long> newPackageIds = filterEngine.filterPackages(filters).getLeft();
+
+        List<Long> removedPackageIds = oldTgtPackageIds.stream()
+                .filter(id -> !newPackageIds.contains(id))
+                .collect(toList());
+        List<Long> addedPackageIds = newPackageIds.stream()
+                .filter(id -> !oldTgtPackageIds.contains(id))
+                .collect(toList());
+
+        ChannelFactory.removeChannelPackages(tgtChannel.getId(), removedPackageIds);
+        ChannelFactory.addChannelPackages(tgtChannel.getId(), addedPackageIds);
+        HibernateFactory.getSession().refresh(tgtChannel);
     }
 
     /**
@@ -1081,14 +1105,15 @@ public class ContentManager {
      * 3. Remove the {@link Package}s from excluded errata from target channel
      * 4. Merge the included errata to target channel
      *
+     * @param filterEngine the filter engine of the source {@link Channel}
      * @param src the source {@link Channel}
      * @param tgt the target {@link Channel}
      * @param errataFilters the {@link ErrataFilter}s
      * @param user the {@link User}
      */
-    private void alignErrata(Channel src, Channel tgt, Collection<ErrataFilter> errataFilters, User user) {
-        LOG.debug("Filtering {} entities through {} filter(s)", src.getErratas().size(), errataFilters.size());
-        Pair<Set<Errata>, Set<Errata>> partitionedErrata = filterEntities(src.getErratas(), errataFilters);
+    private void alignErrata(ContentFilterEngine filterEngine, Channel src, Channel tgt,
+            Collection<ErrataFilter> errataFilters, User user) {
+        Pair<Set<Errata>, Set<Errata>> partitionedErrata = filterEngine.filterErrata(errataFilters);
         Set<Errata> includedErrata = partitionedErrata.getLeft();
         Set<Errata> excludedErrata = partitionedErrata.getRight();
 
@@ -1100,46 +1125,6 @@ public class ContentManager {
         ErrataManager.mergeErrataToChannel(user, includedErrata, tgt, src, false, false);
     }
 
-    /**
-     * Filters given entities based on given filters.
-     *
-     * Returns a Pair containing:
-     * - Left side: set of entities that are kept (not filtered out)
-     * - Right side: set of entities that are filtered out
-     *
-     * Entities are processed one-by-one by filters as follows:
-     * - when any DENY filter is satisfied for an entity -> this entity gets filtered out
-     * - when an ALLOW is satisfied for an entity -> this entity gets NOT filtered out (even if it had been filtered out
-     *   by a DENY filter = ALLOW filters have higher priority)
-     *
-     * @param entities entities, e.g. packages
-     * @param filters filters, e.g. package filters
-     * @param <T> the type of the entity (e.g. Package)
-     * @return Pair containing (left side) a set of entities not filtered-out
-     * and (right side) a set of entities filtered out
-     */
-    private <T> Pair<Set<T>, Set<T>> filterEntities(Set<T> entities, Collection<? extends ContentFilter<T>> filters) {
-        Map<ContentFilter.Rule, List<ContentFilter<T>>> filtersByRule = filters.stream()
-                .collect(groupingBy(ContentFilter::getRule));
-        List<ContentFilter<T>> denyFilters = filtersByRule.getOrDefault(ContentFilter.Rule.DENY, emptyList());
-        List<ContentFilter<T>> allowFilters = filtersByRule.getOrDefault(ContentFilter.Rule.ALLOW, emptyList());
-
-        // First add the denied packages by testing all DENY filters against a package, and then filter out any package
-        // that is explicitly allowed by testing all ALLOW filters against the same package and negating the result.
-        Set<T> denied = entities.stream().filter(
-                e -> denyFilters.stream().anyMatch(f -> f.test(e)) &&
-                allowFilters.stream().noneMatch(f -> f.test(e))
-        ).collect(Collectors.toUnmodifiableSet());
-
-        Set<T> allowed = new HashSet<>(entities);
-        allowed.removeAll(denied);
-        return Pair.of(allowed, denied);
-    }
-
-    private static List<Long> extractPackageIds(Collection<Package> packages) {
-        return packages.stream().map(Package::getId).collect(toList());
-    }
-
     /**
      * Ensures that given user has the Org admin role
      *
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2025 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.manager.contentmgmt.test;
+
+import static com.redhat.rhn.domain.contentmgmt.ContentFilter.Rule.ALLOW;
+import static com.redhat.rhn.domain.contentmgmt.ContentFilter.Rule.DENY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.redhat.rhn.common.hibernate.HibernateFactory;
+import com.redhat.rhn.domain.channel.Channel;
+import com.redhat.rhn.domain.channel.test.ChannelFactoryTest;
+import com.redhat.rhn.domain.contentmgmt.ContentFilter;
+import com.redhat.rhn.domain.contentmgmt.ErrataFilter;
+import com.redhat.rhn.domain.contentmgmt.FilterCriteria;
+import com.redhat.rhn.domain.contentmgmt.PackageFilter;
+import com.redhat.rhn.domain.errata.Errata;
+import com.redhat.rhn.domain.errata.test.ErrataFactoryTest;
+import com.redhat.rhn.domain.rhnpackage.Package;
+import com.redhat.rhn.domain.rhnpackage.test.PackageTest;
+import com.redhat.rhn.manager.contentmgmt.ContentFilterEngine;
+import com.redhat.rhn.testing.BaseTestCaseWithUser;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Tests for {@link ContentFilterEngine}
+ */
+public class ContentFilterEngineTest extends BaseTestCaseWithUser {
+
+    private Channel channel;
+    private Package pkg1;
+    private Package pkg2;
+    private Errata errata;
+
+    @Override
+    @BeforeEach
+    public void setUp() throws Exception {
+        super.setUp();
+        pkg1 = PackageTest.createTestPackage(user.getOrg());
+        pkg2 = PackageTest.createTestPackage(user.getOrg());
+        errata = ErrataFactoryTest.createTestErrata(user.getOrg().getId());
+        errata.addPackage(pkg1);
+
+        channel = ChannelFactoryTest.createTestChannel(user, false);
+        channel.addPackage(pkg1);
+        channel.addPackage(pkg2);
+        channel.addErrata(errata);
+        channel = HibernateFactory.reload(channel);
+    }
+
+    /**
+     * Test that the packages are partitioned like {@link PackageFilter#test} does, with the equality filters merged
+     */
+    @Test
+    public void testFilterPackages() {
+        ContentFilterEngine engine = new ContentFilterEngine(channel);
+
+        Pair<Set<Long>, Set<Long>> result = engine.filterPackages(List.of());
+        assertEquals(Set.of(pkg1.getId(), pkg2.getId()), result.getLeft());
+        assertEquals(Set.of(), result.getRight());
+
+        PackageFilter denyNevra = packageFilter(DENY, FilterCriteria.Matcher.EQUALS, "nevra",
+                pkg1.getNevraWithEpoch());
+        PackageFilter denyName = packageFilter(DENY, FilterCriteria.Matcher.EQUALS, "name",
+                pkg2.getPackageName().getName());
+        result = engine.filterPackages(List.of(denyNevra, denyName));
+        assertEquals(Set.of(), result.getLeft());
+        assertEquals(Set.of(pkg1.getId(), pkg2.getId()), result.getRight());
+
+        PackageFilter allowMatches = packageFilter(ALLOW, FilterCriteria.Matcher.MATCHES, "name",
+                pkg2.getPackageName().getName() + ".*");
+        result = engine.filterPackages(List.of(denyNevra, denyName, allowMatches));
+        assertEquals(Set.of(pkg2.getId()), result.getLeft());
+        assertEquals(Set.of(pkg1.getId()), result.getRight());
+    }
+
+    /**
+     * Test that the errata are filtered on the packages loaded with the errata projections
+     */
+    @Test
+    public void testFilterErrata() {
+        ContentFilterEngine engine = new ContentFilterEngine(channel);
+
+        ErrataFilter denyPackageName = new ErrataFilter();
+        denyPackageName.setRule(DENY);
+        denyPackageName.setCriteria(new FilterCriteria(FilterCriteria.Matcher.CONTAINS_PKG_NAME, "package_name",
+                pkg1.getPackageName().getName()));
+        Pair<Set<Errata>, Set<Errata>> result = engine.filterErrata(List.of(denyPackageName));
+        assertEquals(Set.of(), result.getLeft());
+        assertEquals(Set.of(errata), result.getRight());
+
+        denyPackageName.setCriteria(new FilterCriteria(FilterCriteria.Matcher.CONTAINS_PKG_NAME, "package_name",
+                pkg2.getPackageName().getName()));
+        result = engine.filterErrata(List.of(denyPackageName));
+        assertEquals(Set.of(errata), result.getLeft());
+        assertEquals(Set.of(), result.getRight());
+    }
+
+    private static PackageFilter packageFilter(ContentFilter.Rule rule, FilterCriteria.Matcher matcher, String field,
+            String value) {
+        PackageFilter filter = new PackageFilter();
+        filter.setRule(rule);
+        filter.setCriteria(new FilterCriteria(matcher, field, value));
+        return filter;
+    }
+}
@@ -75,11 +75,13 @@ import com.redhat.rhn.frontend.dto.SystemOverview;
 import com.redhat.rhn.frontend.events.CloneErrataEvent;
 import com.redhat.rhn.frontend.events.NewCloneErrataEvent;
 import com.redhat.rhn.frontend.listview.PageControl;
+import com.redhat.rhn.frontend.taglibs.list.helper.SelectModePageSource;
 import com.redhat.rhn.frontend.xmlrpc.InvalidErrataException;
 import com.redhat.rhn.frontend.xmlrpc.InvalidParameterException;
 import com.redhat.rhn.manager.BaseManager;
 import com.redhat.rhn.manager.action.ActionManager;
 import com.redhat.rhn.manager.action.MinionActionManager;
+import com.redhat.rhn.manager.audit.CVEExposureManager;
 import com.redhat.rhn.manager.channel.ChannelManager;
 import com.redhat.rhn.manager.errata.cache.ErrataCacheManager;
 import com.redhat.rhn.manager.rhnset.RhnSetDecl;
@@ -762,6 +764,23 @@ public class ErrataManager extends BaseManager {
         return makeDataResult(params, elabParams, pc, m);
     }
 
+    /**
+     * Returns the systems affected by a given errata as a data set of the list tag, which
+     * filters, sorts and pages them in the database when it can, instead of loading all of them.
+     * @param user Logged-in user.
+     * @param eid Errata ID.
+     * @return data set of SystemOverview objects
+     */
+    public static SelectModePageSource<SystemOverview> systemsAffectedPageSource(User user, Long eid) {
+        SelectMode m = ModeFactory.getMode("System_queries", "affected_by_errata");
+        Map<String, Object> params = new HashMap<>();
+        params.put("eid", eid);
+        params.put(USER_ID, user.getId());
+        Map<String, Object> elabParams = new HashMap<>();
+        elabParams.put("eid", eid);
+        return new SelectModePageSource<>(m, params, elabParams, "name", "id");
+    }
+
     /**
      * Returns the systems affected by a given errata
      *
@@ -1402,26 +1421,24 @@ public class ErrataManager extends BaseManager {
             }
         }
 
+        List<Long> missingClones = new ArrayList<>();
         for (ErrataOverview erratum : toClone) {
             if (!eidToClone.containsKey(erratum.getId())) {
                 // no owned clones yet, lets make our own
-                // hibernate was too slow, had to rewrite in mode queries
-                Long cloneId = ErrataHelper.cloneErrataFaster(erratum.getId(), user
-                        .getOrg());
-                eids.add(cloneId);
+                missingClones.add(erratum.getId());
             }
             else {
                 // we have one already, reuse it
                 eids.add(eidToClone.get(erratum.getId()).getId());
             }
         }
+        // hibernate was too slow, had to rewrite in mode queries cloning all of them at once
+        eids.addAll(ErrataHelper.cloneErrataFaster(missingClones, user.getOrg()).values());
 
         ChannelFactory.addErrataToChannel(eids, toCid);
 
         // for things like errata email and auto errata updates
-        for (Long eid : eids) {
-            ErrataManager.addErrataChannelNotifications(eid, toCid);
-        }
+        ErrataManager.addErrataChannelNotifications(eids, toCid);
         return eids;
     }
 
@@ -1532,6 +1549,26 @@ public class ErrataManager extends BaseManager {
         m.executeUpdate(params);
     }
 
+    /**
+     * delete any present and then enqueue channel notifications for the given
+     * channel and errata, with one statement each for all of them.
+     * See {@link #addErrataChannelNotifications(Long, Long)}.
+     * @param eids the errata to enqueue
+     * @param cid affected channel
+     */
+    public static void addErrataChannelNotifications(Collection<Long> eids, Long cid) {
+        List<Long> eidList = new ArrayList<>(eids);
+        Map<String, Object> params = new HashMap<>();
+        params.put("cid", cid);
+        WriteMode m = ModeFactory.getWriteMode(ERRATA_QUERIES,
+                "clear_errata_channel_notifications");
+        m.executeUpdate(params, eidList);
+        java.sql.Date newDate = new java.sql.Date(new java.util.Date().getTime());
+        params.put("datetime", newDate);
+        m = ModeFactory.getWriteMode(ERRATA_QUERIES, "insert_errata_channel_notifications");
+        m.executeUpdate(params, eidList);
+    }
+
     /**
      * Delete all errata notifications for an errata in specified channel
      * @param errataId the errata ID to clear notifications for
@@ -2142,6 +2179,8 @@ public class ErrataManager extends BaseManager {
      * @param server the server
      */
     public static void insertErrataCacheTask(Server server) {
+        // stored CVE audit results are outdated right away, not only once the task ran
+        CVEExposureManager.invalidateSystem(server.getId());
         TaskFactory.createTask(server.getOrg(), ErrataCacheWorker.FOR_SERVER, server.getId());
     }
 
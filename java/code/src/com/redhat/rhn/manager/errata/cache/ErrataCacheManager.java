@@ -29,6 +29,7 @@ import com.redhat.rhn.domain.errata.ErrataFactory;
 import com.redhat.rhn.domain.org.Org;
 import com.redhat.rhn.frontend.dto.ErrataCacheDto;
 import com.redhat.rhn.frontend.events.UpdateErrataCacheEvent;
+import com.redhat.rhn.manager.audit.CVEExposureManager;
 import com.redhat.rhn.manager.errata.ErrataManager;
 
 import org.apache.logging.log4j.LogManager;
@@ -311,6 +312,7 @@ public class ErrataCacheManager extends HibernateFactory {
         if (pids.isEmpty()) {
             return;
         }
+        CVEExposureManager.invalidateChannel(cid);
         int count = 0;
         Map<String, Object> params = new HashMap<>();
         params.put("channel_id", cid);
@@ -348,6 +350,7 @@ public class ErrataCacheManager extends HibernateFactory {
         if (eids.isEmpty()) {
             return;
         }
+        CVEExposureManager.invalidateChannel(cid);
         int count = 0;
         WriteMode m = ModeFactory.getWriteMode("ErrataCache_queries",
                 "delete_needed_cache_for_channel_errata");
@@ -389,6 +392,8 @@ public class ErrataCacheManager extends HibernateFactory {
      * @param cid - channel to update caches for.
      */
     public static void updateErrataAndPackageCacheForChannel(Long cid) {
+        CVEExposureManager.invalidateChannel(cid);
+
         // Clear em out
 
         CallableMode m = ModeFactory.getCallableMode("ErrataCache_queries",
@@ -406,6 +411,7 @@ public class ErrataCacheManager extends HibernateFactory {
      */
     public static void deleteCacheEntriesForChannelPackages(Long cid,
             List<Long> pids) {
+        CVEExposureManager.invalidateChannel(cid);
         WriteMode m = ModeFactory.getWriteMode("ErrataCache_queries",
                 "delete_needed_cache_for_channel_packages");
         Map<String, Object> params = new HashMap<>();
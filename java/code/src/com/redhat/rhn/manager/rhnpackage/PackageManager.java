@@ -52,6 +52,7 @@ import com.redhat.rhn.frontend.dto.SsmRemovePackageListItem;
 import com.redhat.rhn.frontend.dto.SsmUpgradablePackageListItem;
 import com.redhat.rhn.frontend.dto.UpgradablePackageListItem;
 import com.redhat.rhn.frontend.listview.PageControl;
+import com.redhat.rhn.frontend.taglibs.list.helper.SelectModePageSource;
 import com.redhat.rhn.frontend.xmlrpc.PermissionCheckFailureException;
 import com.redhat.rhn.manager.BaseManager;
 import com.redhat.rhn.manager.channel.ChannelManager;
@@ -230,18 +231,18 @@ public class PackageManager extends BaseManager {
     }
 
     /**
-     * List the package in a channel (for the web UI lists)
-     * @param cid the channel id
-     * @return the list of packages
+     * List the package in a channel (for the web UI lists), as a data set of the list tag which
+     * filters, sorts and pages them in the database when it can, instead of loading all of them.
+     * @param cid The channel id
+     * @return data set of PackageOverview objects
      */
-    public static DataResult listPackagesInChannelForList(Long cid) {
+    public static SelectModePageSource<PackageOverview> packagesInChannelPageSource(Long cid) {
         SelectMode m = ModeFactory.getMode("Package_queries", "packages_in_channel");
         Map<String, Object> params = new HashMap<>();
         params.put("cid", cid);
-        return m.execute(params);
+        return new SelectModePageSource<>(m, params, new HashMap<>(), "nvrea", "id");
     }
 
-
     /**
      * Runs Channel_queries.org_pkg_channels query.
      * @param orgId The id of the org for the logged in user
@@ -190,7 +190,7 @@ public class PackageManagerRetractedTest extends BaseTestCaseWithUser {
         ChannelFactory.refreshNewestPackageCache(clonedChannel, "java::test");
 
         // only the "newerPkg" is retracted in the original channel
-        DataResult<PackageOverview> pkgsOriginal = PackageManager.listPackagesInChannelForList(channel.getId());
+        List<PackageOverview> pkgsOriginal = PackageManager.packagesInChannelPageSource(channel.getId());
         Map<Long, PackageOverview> pkgsOriginalMap = pkgsOriginal.stream()
                 .collect(Collectors.toMap(PackageOverview::getId, p -> p));
         assertFalse(pkgsOriginalMap.get(oldPkg.getId()).getRetracted());
@@ -198,7 +198,7 @@ public class PackageManagerRetractedTest extends BaseTestCaseWithUser {
         assertFalse(pkgsOriginalMap.get(newestPkg.getId()).getRetracted());
 
         // no package retracted in the cloned channel
-        pkgsOriginal = PackageManager.listPackagesInChannelForList(clonedChannel.getId());
+        pkgsOriginal = PackageManager.packagesInChannelPageSource(clonedChannel.getId());
         pkgsOriginalMap = pkgsOriginal.stream().collect(Collectors.toMap(PackageOverview::getId, p -> p));
         assertFalse(pkgsOriginalMap.get(oldPkg.getId()).getRetracted());
         assertFalse(pkgsOriginalMap.get(newerPkg.getId()).getRetracted());
@@ -23,6 +23,7 @@ import com.redhat.rhn.common.util.TimeUtils;
 import com.redhat.rhn.domain.session.InvalidSessionIdException;
 import com.redhat.rhn.domain.session.WebSession;
 import com.redhat.rhn.domain.session.WebSessionFactory;
+import com.redhat.rhn.domain.session.WebSessionFactory.CachedWebSession;
 import com.redhat.rhn.domain.user.User;
 import com.redhat.rhn.manager.BaseManager;
 
@@ -352,22 +353,8 @@ public class SessionManager extends BaseManager {
      * @return Returns the session if the key is valid.
      */
     public static WebSession lookupByKey(String key) {
-        //Make sure we didn't get null for a key
-        if (key == null || key.equals("")) {
-            throw new InvalidSessionIdException("Session key cannot be empty null.");
-        }
-
-        //Get the id
-        String[] keyParts = StringUtils.split(key, 'x');
-
-        //make sure the id is numeric and can be made into a Long
-        if (!StringUtils.isNumeric(keyParts[0])) {
-            throw new InvalidSessionIdException("Session id: " + keyParts[0] +
-                          " is not valid. Session ids must be numeric.");
-        }
-
         //Load the session
-        Long sessionId = Long.valueOf(keyParts[0]);
+        Long sessionId = parseSessionId(key);
         WebSession session = WebSessionFactory.lookupById(sessionId);
 
         //Make sure we found a session
@@ -385,6 +372,47 @@ public class SessionManager extends BaseManager {
         return session;
     }
 
+    /**
+     * Lookup the id of the user logged into a Session by the key of the session. Unlike
+     * {@link #lookupByKey(String)}, the session is read from a short-lived cache, so that API clients
+     * sending many calls with the same key do not load the session for every call.
+     * @param key The key containing the session id and hash
+     * @return Returns the id of the user logged into the session, null if none
+     */
+    public static Long lookupUserIdByKey(String key) {
+        Long sessionId = parseSessionId(key);
+        CachedWebSession session = WebSessionFactory.lookupCachedById(sessionId);
+
+        if (session == null) {
+            throw new LookupException("Could not find session with id: " + sessionId);
+        }
+
+        if (!isPxtSessionKeyValid(key)) {
+            throw new InvalidSessionIdException("Session id: " + sessionId +
+                           " is not valid.");
+        }
+
+        return session.webUserId();
+    }
+
+    private static Long parseSessionId(String key) {
+        //Make sure we didn't get null for a key
+        if (key == null || key.equals("")) {
+            throw new InvalidSessionIdException("Session key cannot be empty null.");
+        }
+
+        //Get the id
+        String[] keyParts = StringUtils.split(key, 'x');
+
+        //make sure the id is numeric and can be made into a Long
+        if (!StringUtils.isNumeric(keyParts[0])) {
+            throw new InvalidSessionIdException("Session id: " + keyParts[0] +
+                          " is not valid. Session ids must be numeric.");
+        }
+
+        return Long.valueOf(keyParts[0]);
+    }
+
     /**
      * Removes all the sessions of a user. This action is useful
      * especially when we disable/deactivate a user. We donot want
@@ -396,12 +424,46 @@ public class SessionManager extends BaseManager {
     }
 
     /**
+     * Extends the lifetime of a session. The new expiration time is only stored when it
+     * moves by more than {@link #lifetimeRefreshValue()}, so that a session used by
+     * many calls in a row is not updated by every one of them.
      * @param session session which lifetime should be extended
      */
     public static void extendSessionLifetime(WebSession session) {
-        session.setExpires(TimeUtils.currentTimeSeconds() +
-                SessionManager.lifetimeValue());
+        long expires = TimeUtils.currentTimeSeconds() + SessionManager.lifetimeValue();
+        if (expires - session.getExpires() < lifetimeRefreshValue()) {
+            return;
+        }
+        session.setExpires(expires);
         WebSessionFactory.save(session);
     }
-}
 
+    /**
+     * Extends the lifetime of the session identified by the given key, like
+     * {@link #extendSessionLifetime(WebSession)}, reading the current expiration time
+     * from the session cache.
+     * @param sessionKey key of the session which lifetime should be extended
+     */
+    public static void extendSessionLifetime(String sessionKey) {
+        Long sessionId = parseSessionId(sessionKey);
+        CachedWebSession cached = WebSessionFactory.lookupCachedById(sessionId);
+        long expires = TimeUtils.currentTimeSeconds() + SessionManager.lifetimeValue();
+        if (cached == null || expires - cached.expires() < lifetimeRefreshValue()) {
+            return;
+        }
+
+        WebSession session = WebSessionFactory.lookupById(sessionId);
+        if (session != null) {
+            extendSessionLifetime(session);
+        }
+    }
+
+    /**
+     * Returns the time a session expiration time can lag behind its last use, in seconds:
+     * a tenth of the session lifetime, at most one minute.
+     * @return the refresh interval of the session expiration time, in seconds
+     */
+    public static long lifetimeRefreshValue() {
+        return Math.min(60, lifetimeValue() / 10);
+    }
+}
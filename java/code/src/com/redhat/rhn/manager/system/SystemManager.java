@@ -105,6 +105,8 @@ import com.redhat.rhn.frontend.dto.SystemScheduleDto;
 import com.redhat.rhn.frontend.dto.VirtualSystemOverview;
 import com.redhat.rhn.frontend.dto.kickstart.KickstartSessionDto;
 import com.redhat.rhn.frontend.listview.PageControl;
+import com.redhat.rhn.frontend.taglibs.list.ListPageSource;
+import com.redhat.rhn.frontend.taglibs.list.helper.SelectModePageSource;
 import com.redhat.rhn.frontend.xmlrpc.InvalidProxyVersionException;
 import com.redhat.rhn.frontend.xmlrpc.ProxySystemIsSatelliteException;
 import com.redhat.rhn.manager.BaseManager;
@@ -885,11 +887,28 @@ public class SystemManager extends BaseManager {
      */
     public static DataResult<SystemOverview> systemListNew(User user,
                       Function<Optional<PageControl>, PagedSqlQueryBuilder.FilterWithValue> parser, PageControl pc) {
+        return systemListQueryBuilder()
+                .run(Map.of("user_id", user.getId()), pc, parser, SystemOverview.class);
+    }
+
+    /**
+     * Streams all systems visible to user based on the overview table, fetching them from the
+     * database a batch at a time. The stream has to be closed once consumed.
+     * @param user Currently logged in user.
+     * @param fetchSize the number of systems to fetch at a time
+     * @return stream of SystemOverviews.
+     */
+    public static Stream<SystemOverview> systemListStream(User user, int fetchSize) {
+        return systemListQueryBuilder()
+                .stream(Map.of("user_id", user.getId()), null, null, SystemOverview.class, fetchSize,
+                        HibernateFactory.getSession());
+    }
+
+    private static PagedSqlQueryBuilder systemListQueryBuilder() {
         return new PagedSqlQueryBuilder()
                 .select("O.*, (O.enhancement_errata + O.security_errata + O.bug_errata) as totalErrataCount")
                 .from("suseSystemOverview O, rhnUserServerPerms USP")
-                .where("O.id = USP.server_id AND USP.user_id = :user_id")
-                .run(Map.of("user_id", user.getId()), pc, parser, SystemOverview.class);
+                .where("O.id = USP.server_id AND USP.user_id = :user_id");
     }
 
     /**
@@ -1126,6 +1145,19 @@ public class SystemManager extends BaseManager {
                         VirtualSystemOverview.class);
     }
 
+    /**
+     * Streams the virtual systems visible to user, fetching them from the database a batch at a time.
+     * The stream has to be closed once consumed.
+     * @param user Currently logged in user.
+     * @param fetchSize the number of systems to fetch at a time
+     * @return stream of VirtualSystemOverviews.
+     */
+    public static Stream<VirtualSystemOverview> virtualSystemsStream(User user, int fetchSize) {
+        return virtualSystemsListQueryBuilder()
+                .stream(Map.of("user_id", user.getId()), null, null, VirtualSystemOverview.class, fetchSize,
+                        HibernateFactory.getSession());
+    }
+
     /**
      * @return the Paged SQL query builder used for the virtual systems list.
      */
@@ -3025,6 +3057,21 @@ public class SystemManager extends BaseManager {
         return retval;
     }
 
+    /**
+     * Get the systems in an rhnset as a data set of the list tag, which filters, sorts and
+     * pages them in the database when it can, instead of loading all of them.
+     * @param user the user doing the lookup
+     * @param setLabel the label of the set
+     * @return data set of SystemOverview objects
+     */
+    public static ListPageSource<SystemOverview> inSetPageSource(User user, String setLabel) {
+        SelectMode mode = ModeFactory.getMode("System_queries", "in_set");
+        Map<String, Object> params = new HashMap<>();
+        params.put("user_id", user.getId());
+        params.put("set_label", setLabel);
+        return new SelectModePageSource<>(mode, params, new HashMap<>(), "name", "id");
+    }
+
     /**
      * Find a system by it's name (must be an exact string match)
      * @param user  the user doing the search
@@ -3891,7 +3938,8 @@ public class SystemManager extends BaseManager {
      * @param sid the ID of the system to update
      */
     public static void updateSystemOverview(Long sid) {
-        // We need the server to be already in the database to update it
+        // We need the server to be already in the database to update it.
+        // Duplicated tasks of a system are merged when the queue driver claims them.
         if (sid != null) {
             TaskFactory.createTask(OrgFactory.getSatelliteOrg(), SystemsOverviewUpdateDriver.TASK_NAME, sid);
         }
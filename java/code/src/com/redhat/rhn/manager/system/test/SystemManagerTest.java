@@ -758,6 +758,22 @@ public class SystemManagerTest extends JMockBaseTestCaseWithUser {
         assertNotEmpty(dr);
     }
 
+    @Test
+    public void testUpdateSystemOverviewsInBatch() {
+        User user = UserTestUtils.findNewUser(TestStatics.TESTUSER, TestStatics.TESTORG);
+        user.addPermanentRole(RoleFactory.ORG_ADMIN);
+        Server server1 = ServerFactoryTest.createTestServer(user, true);
+        Server server2 = ServerFactoryTest.createTestServer(user, true);
+
+        // A removed system is skipped
+        assertEquals(2, SystemsOverviewUpdateWorker.doUpdate(List.of(server1.getId(), server2.getId(), -1L)));
+
+        List<Long> ids = SystemManager.registeredList(user, null, 0).stream()
+                .map(SystemOverview::getId)
+                .toList();
+        assertTrue(ids.containsAll(List.of(server1.getId(), server2.getId())));
+    }
+
     @Test
     public void testDeactivateProxy() throws Exception {
         User user = UserTestUtils.findNewUser(TestStatics.TESTUSER, TestStatics.TESTORG);
@@ -71,6 +71,21 @@ public class TaskManager {
         return m.execute(params);
     }
 
+    /**
+     * Get the modification stamps of the packages in a channel, which tell whether the repository
+     * metadata of a package has to be regenerated
+     * @param channel channel info
+     * @return rows with package id, last modification date, number of susedata rows and whether the
+     * package xml snippets are cached in the database, ordered by package id
+     */
+    public static DataResult<Map<String, Object>> getChannelPackageStamps(Channel channel) {
+        SelectMode m = ModeFactory.getMode(TaskConstants.MODE_NAME,
+                TaskConstants.TASK_QUERY_REPOMD_GENERATOR_CHANNEL_PACKAGE_STAMPS);
+        Map<String, Object> params = new HashMap<>();
+        params.put("channel_id", channel.getId());
+        return m.execute(params);
+    }
+
     /**
      * Get capabilities of a certain type for a package
      * @param packageId the package's id
@@ -39,6 +39,7 @@ import com.redhat.rhn.domain.server.Server;
 import com.redhat.rhn.domain.user.User;
 import com.redhat.rhn.taskomatic.domain.TaskoSchedule;
 import com.redhat.rhn.taskomatic.task.RepoSyncTask;
+import com.redhat.rhn.taskomatic.task.ReportDbUpdateTask;
 
 import com.suse.manager.utils.MinionServerUtils;
 
@@ -883,4 +884,13 @@ public class TaskomaticApi {
         invoke(SCHEDULE_SINGLE_SAT_BUNCH_RUN, "mgr-sync-refresh-bunch",
                 Map.of("noRepoSync", !withReposync), earliest);
     }
+
+    /**
+     * Schedule a full refresh of the local reporting db, also when the incremental refresh is enabled
+     * @throws TaskomaticApiException if there is an error
+     */
+    public void scheduleReportDbFullRefresh() throws TaskomaticApiException {
+        invoke(SCHEDULE_SINGLE_SAT_BUNCH_RUN, "mgr-update-reporting-bunch",
+                Map.of(ReportDbUpdateTask.FULL_REFRESH_KEY, true));
+    }
 }
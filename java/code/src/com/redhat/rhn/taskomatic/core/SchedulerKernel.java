@@ -30,6 +30,8 @@ import com.redhat.rhn.taskomatic.TaskoXmlRpcServer;
 import com.redhat.rhn.taskomatic.TaskomaticApi;
 import com.redhat.rhn.taskomatic.domain.TaskoRun;
 import com.redhat.rhn.taskomatic.domain.TaskoSchedule;
+import com.redhat.rhn.taskomatic.task.HubReportDbUpdateDriver;
+import com.redhat.rhn.taskomatic.task.systems.SystemsOverviewUpdateDriver;
 
 import com.suse.manager.metrics.PrometheusExporter;
 
@@ -107,6 +109,10 @@ public class SchedulerKernel {
 
             PrometheusExporter.INSTANCE.startHttpServer();
             PrometheusExporter.INSTANCE.registerScheduler(SchedulerKernel.scheduler, "taskomatic");
+            PrometheusExporter.INSTANCE.registerSystemsOverviewUpdate(SystemsOverviewUpdateDriver.METRICS,
+                    "system_overview_update");
+            PrometheusExporter.INSTANCE.registerHubReportDbUpdate(HubReportDbUpdateDriver.METRICS,
+                    "hub_report_db_update");
         }
         catch (SchedulerException e) {
             throw new InstantiationException("this.scheduler failed");
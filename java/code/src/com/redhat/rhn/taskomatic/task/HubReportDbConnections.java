@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2025 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.taskomatic.task;
+
+import com.redhat.rhn.common.conf.ConfigDefaults;
+import com.redhat.rhn.common.hibernate.ConnectionManager;
+import com.redhat.rhn.common.hibernate.ConnectionManagerFactory;
+import com.redhat.rhn.domain.credentials.ReportDBCredentials;
+import com.redhat.rhn.domain.server.MgrServerInfo;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Keeps the connection managers used to aggregate the reporting databases of the peripherals into the local one.
+ * Creating a connection manager builds a session factory and a connection pool, so they are created once and reused
+ * by every run, until the connection parameters of the peripheral change or the peripheral is removed.
+ */
+public final class HubReportDbConnections {
+
+    private static final Logger LOG = LogManager.getLogger(HubReportDbConnections.class);
+
+    private static final Map<Long, PeripheralConnection> PERIPHERALS = new HashMap<>();
+
+    private static ConnectionManager local;
+
+    private HubReportDbConnections() {
+    }
+
+    /**
+     * The connection parameters of a peripheral reporting database together with its connection manager.
+     */
+    private record PeripheralConnection(String user, String password, String url, ConnectionManager manager) {
+
+        boolean matches(String userIn, String passwordIn, String urlIn) {
+            return Objects.equals(user, userIn) && Objects.equals(password, passwordIn) && Objects.equals(url, urlIn);
+        }
+    }
+
+    /**
+     * Returns the connection manager of the local reporting database.
+     * @return the connection manager
+     */
+    public static synchronized ConnectionManager getLocal() {
+        if (local == null) {
+            local = ConnectionManagerFactory.localReportingConnectionManager();
+        }
+        return local;
+    }
+
+    /**
+     * Returns the connection manager of the reporting database of a peripheral, creating a new one if the connection
+     * parameters changed since the last call.
+     * @param mgrServerInfo the peripheral
+     * @return the connection manager
+     */
+    public static synchronized ConnectionManager getPeripheral(MgrServerInfo mgrServerInfo) {
+        ReportDBCredentials credentials = mgrServerInfo.getReportDbCredentials();
+        String url = ConfigDefaults.get().remoteReportDBUrl(mgrServerInfo.getReportDbHost(),
+                mgrServerInfo.getReportDbPort(), mgrServerInfo.getReportDbName());
+
+        PeripheralConnection connection = PERIPHERALS.get(mgrServerInfo.getId());
+        if (connection != null && connection.matches(credentials.getUsername(), credentials.getPassword(), url)) {
+            return connection.manager();
+        }
+
+        if (connection != null) {
+            LOG.debug("Connection parameters of peripheral {} changed", mgrServerInfo.getId());
+            close(connection);
+        }
+
+        ConnectionManager manager = ConnectionManagerFactory.reportingConnectionManager(credentials.getUsername(),
+                credentials.getPassword(), url);
+        PERIPHERALS.put(mgrServerInfo.getId(),
+                new PeripheralConnection(credentials.getUsername(), credentials.getPassword(), url, manager));
+        return manager;
+    }
+
+    /**
+     * Closes the connection managers of the peripherals that are not in the given list anymore.
+     * @param mgrServerIds the ids of the existing peripherals
+     */
+    public static synchronized void retain(Collection<Long> mgrServerIds) {
+        PERIPHERALS.entrySet().removeIf(entry -> {
+            if (mgrServerIds.contains(entry.getKey())) {
+                return false;
+            }
+            LOG.debug("Closing connections to removed peripheral {}", entry.getKey());
+            close(entry.getValue());
+            return true;
+        });
+    }
+
+    private static void close(PeripheralConnection connection) {
+        if (!connection.manager().isInitialized()) {
+            return;
+        }
+        try {
+            connection.manager().close();
+        }
+        catch (RuntimeException ex) {
+            LOG.warn("Unable to close the connections to {}", connection.url(), ex);
+        }
+    }
+}
@@ -39,6 +39,8 @@ import javax.persistence.criteria.CriteriaQuery;
  */
 public class HubReportDbUpdateDriver extends AbstractQueueDriver<MgrServerInfo> {
 
+    public static final HubReportDbUpdateMetrics METRICS = new HubReportDbUpdateMetrics();
+
     private static final Set<MgrServerInfo> CURRENT_MGR_SERVER_INFOS = Collections.synchronizedSet(new HashSet<>());
     private Logger log;
 
@@ -73,6 +75,8 @@ public class HubReportDbUpdateDriver extends AbstractQueueDriver<MgrServerInfo>
     protected List<MgrServerInfo> getCandidates() {
         synchronized (CURRENT_MGR_SERVER_INFOS) {
             Set<MgrServerInfo> candidates = getMgrServers();
+            // Release the connections kept for the peripherals that were removed
+            HubReportDbConnections.retain(candidates.stream().map(MgrServerInfo::getId).toList());
             // Do not return candidates we are talking to already
             for (MgrServerInfo s : CURRENT_MGR_SERVER_INFOS) {
                 if (candidates.contains(s)) {
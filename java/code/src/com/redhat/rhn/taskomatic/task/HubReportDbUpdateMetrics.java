@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2025 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.taskomatic.task;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Timings of the aggregation of the peripheral reporting databases into the hub, by peripheral.
+ */
+public class HubReportDbUpdateMetrics {
+
+    /**
+     * Outcome of the last synchronizations of a peripheral.
+     * @param lastDurationMillis duration of the last synchronization, in milliseconds
+     * @param lastRows rows copied by the last successful synchronization
+     * @param lastSuccess time of the last successful synchronization, in milliseconds since the epoch, 0 if none
+     * @param failures number of failed synchronizations
+     */
+    public record PeripheralSync(long lastDurationMillis, long lastRows, long lastSuccess, long failures) {
+    }
+
+    private final Map<String, PeripheralSync> peripherals = new ConcurrentHashMap<>();
+
+    /**
+     * Records a successful synchronization of a peripheral.
+     * @param peripheral the peripheral name
+     * @param millis the duration of the synchronization, in milliseconds
+     * @param rows the number of copied rows
+     */
+    public void syncDone(String peripheral, long millis, long rows) {
+        peripherals.compute(peripheral, (name, sync) ->
+                new PeripheralSync(millis, rows, System.currentTimeMillis(), sync == null ? 0 : sync.failures()));
+    }
+
+    /**
+     * Records a failed synchronization of a peripheral.
+     * @param peripheral the peripheral name
+     * @param millis the time spent before the failure, in milliseconds
+     */
+    public void syncFailed(String peripheral, long millis) {
+        peripherals.compute(peripheral, (name, sync) -> sync == null ?
+                new PeripheralSync(millis, 0, 0, 1) :
+                new PeripheralSync(millis, sync.lastRows(), sync.lastSuccess(), sync.failures() + 1));
+    }
+
+    /**
+     * @return the last synchronizations by peripheral name
+     */
+    public Map<String, PeripheralSync> getPeripherals() {
+        return Map.copyOf(peripherals);
+    }
+}
@@ -17,16 +17,13 @@ package com.redhat.rhn.taskomatic.task;
 import static com.redhat.rhn.common.conf.ConfigDefaults.REPORT_DB_BATCH_SIZE;
 
 import com.redhat.rhn.common.conf.Config;
-import com.redhat.rhn.common.conf.ConfigDefaults;
 import com.redhat.rhn.common.db.datasource.DataResult;
 import com.redhat.rhn.common.db.datasource.SelectMode;
 import com.redhat.rhn.common.db.datasource.WriteMode;
 import com.redhat.rhn.common.hibernate.ConnectionManager;
-import com.redhat.rhn.common.hibernate.ConnectionManagerFactory;
 import com.redhat.rhn.common.hibernate.HibernateFactory;
 import com.redhat.rhn.common.hibernate.ReportDbHibernateFactory;
 import com.redhat.rhn.common.util.TimeUtils;
-import com.redhat.rhn.domain.credentials.ReportDBCredentials;
 import com.redhat.rhn.domain.server.MgrServerInfo;
 import com.redhat.rhn.domain.server.Server;
 import com.redhat.rhn.domain.server.ServerFactory;
@@ -40,6 +37,8 @@ import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 
@@ -105,38 +104,31 @@ public class HubReportDbUpdateWorker implements QueueWorker {
         return tableEntry.stream().map(t -> String.valueOf(t.getValue())).collect(Collectors.toList());
     }
 
-    private void updateRemoteData(Session remoteSession, Session localSession, String tableName, long mgmId) {
-        TimeUtils.logTime(log, "Refreshing table " + tableName, () -> {
-            SelectMode query = dbHelper.generateQuery(remoteSession, tableName, log);
-
+    private long updateRemoteData(Session remoteSession, Session localSession, String tableName, long mgmId) {
+        return TimeUtils.logTime(log, "Refreshing table " + tableName, () -> {
             // Remove all the existing data
             log.debug("Deleting existing data in table {}", tableName);
             WriteMode delete = dbHelper.generateDelete(localSession, tableName);
             delete.executeUpdate(Map.of("mgm_id", mgmId));
 
-            // Extract the first batch
-            DataResult<Map<String, Object>> firstBatch = query.execute(Map.of("offset", 0, "limit", batchSize));
-            firstBatch.forEach(e -> e.remove("mgm_id"));
-
-            if (!firstBatch.isEmpty()) {
-                // Generate the insert using the column name retrieved from the select
-                WriteMode insert = dbHelper.generateInsert(localSession, tableName, mgmId, firstBatch.get(0).keySet());
-                insert.executeBatchUpdates(firstBatch);
-                log.debug("Extracted {} rows for table {}", firstBatch.size(), tableName);
-
-                // Iterate further if we can have additional rows
-                if (firstBatch.size() == batchSize) {
-                    dbHelper.<Map<String, Object>>batchStream(query, batchSize, batchSize)
-                            .forEach(batch -> {
-                                batch.forEach(e -> e.remove("mgm_id"));
-                                insert.executeBatchUpdates(batch);
-                                log.debug("Extracted {} rows more for table {}", firstBatch.size(), tableName);
-                            });
+            // Read the remote table by key, so that every batch is an index range scan instead of an offset scan
+            AtomicReference<WriteMode> insert = new AtomicReference<>();
+            AtomicLong rows = new AtomicLong();
+            dbHelper.forEachBatch(remoteSession, tableName, batchSize, log, batch -> {
+                batch.forEach(e -> e.remove("mgm_id"));
+                if (insert.get() == null) {
+                    // Generate the insert using the column name retrieved from the select
+                    insert.set(dbHelper.generateInsert(localSession, tableName, mgmId, batch.get(0).keySet()));
                 }
-            }
-            else {
+                insert.get().executeBatchUpdates(batch);
+                rows.addAndGet(batch.size());
+                log.debug("Extracted {} rows for table {}", batch.size(), tableName);
+            });
+
+            if (rows.get() == 0) {
                 log.debug("No data extracted for table {}", tableName);
             }
+            return rows.get();
         });
     }
 
@@ -145,31 +137,29 @@ public class HubReportDbUpdateWorker implements QueueWorker {
         try {
             HubReportDbUpdateDriver.getCurrentMgrServerInfos().add(mgrServerInfo);
             parentQueue.workerStarting();
-            ConnectionManager localRcm = ConnectionManagerFactory.localReportingConnectionManager();
+            ConnectionManager localRcm = HubReportDbConnections.getLocal();
             ReportDbHibernateFactory localRh = new ReportDbHibernateFactory(localRcm);
-            ReportDBCredentials credentials = mgrServerInfo.getReportDbCredentials();
-            ConnectionManager remoteDBCM = ConnectionManagerFactory.reportingConnectionManager(
-                    credentials.getUsername(), credentials.getPassword(),
-                    ConfigDefaults.get().remoteReportDBUrl(
-                            mgrServerInfo.getReportDbHost(),
-                            mgrServerInfo.getReportDbPort(),
-                            mgrServerInfo.getReportDbName())
-                    );
-            ReportDbHibernateFactory remoteDB = new ReportDbHibernateFactory(remoteDBCM);
+            ReportDbHibernateFactory remoteDB =
+                    new ReportDbHibernateFactory(HubReportDbConnections.getPeripheral(mgrServerInfo));
+            String peripheral = mgrServerInfo.getReportDbHost();
+            long start = System.currentTimeMillis();
             try {
                 List<String> existingTables = filterExistingTables(remoteDB.getSession(), mgrServerInfo.getId());
-                existingTables.forEach(table -> {
-                    updateRemoteData(remoteDB.getSession(), localRh.getSession(), table, mgrServerInfo.getId());
-                });
+                long rows = 0;
+                for (String table : existingTables) {
+                    rows += updateRemoteData(remoteDB.getSession(), localRh.getSession(), table, mgrServerInfo.getId());
+                }
                 dbHelper.analyzeReportDb(localRh.getSession());
                 Server mgrServer = ServerFactory.lookupById(mgrServerInfo.getId());
                 mgrServer.getMgrServerInfo().setReportDbLastSynced(new Date());
                 ServerFactory.save(mgrServer);
                 HibernateFactory.commitTransaction();
                 localRcm.commitTransaction();
+                HubReportDbUpdateDriver.METRICS.syncDone(peripheral, System.currentTimeMillis() - start, rows);
                 log.info("Reporting db updated for server {} successfully.", mgrServerInfo.getServer().getId());
             }
             catch (RuntimeException ex) {
+                HubReportDbUpdateDriver.METRICS.syncFailed(peripheral, System.currentTimeMillis() - start);
                 log.warn("Unable to update reporting db", ex);
 
                 try {
@@ -180,10 +170,9 @@ public class HubReportDbUpdateWorker implements QueueWorker {
                 }
             }
             finally {
+                // The connection managers are kept open and reused by the next runs
                 remoteDB.closeSession();
-                remoteDB.closeSessionFactory();
                 localRcm.closeSession();
-                localRcm.close();
             }
         }
         catch (Exception e) {
@@ -29,12 +29,22 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.logging.log4j.Logger;
 import org.hibernate.Session;
-
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyOut;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -85,16 +95,74 @@ public class ReportDBHelper {
                 .takeWhile(batch -> !batch.isEmpty());
     }
 
-    private String getOrderColumns(Session session, String table, Logger log) {
+    /**
+     * Reads all the local entries of a report db table in batches, passing each batch to the given consumer.
+     * Batches follow the primary key or the order index of the table, each one starting after the last row of the
+     * previous one, so that reading a batch costs the same no matter how far in the table it is. When the ordering
+     * columns may contain null values, batches are read by offset instead.
+     * @param session session the queries should use
+     * @param table table name
+     * @param batchSize minimum size of a batch, rows sharing the ordering values of the last row are added to it
+     * @param log the logger
+     * @param consumer called with every batch, it may modify the rows of the batch
+     */
+    public void forEachBatch(Session session, String table, int batchSize, Logger log,
+                             Consumer<DataResult<Map<String, Object>>> consumer) {
+        OrderColumns orderColumns = getOrderColumns(session, table, log);
+        if (!orderColumns.notNull()) {
+            SelectMode query = generateQuery(session, table, orderColumns);
+            this.<Map<String, Object>>batchStream(query, batchSize, 0).forEach(consumer);
+            return;
+        }
+
+        List<String> columns = orderColumns.columns();
+        String order = String.join(", ", columns);
+        String select = "SELECT * FROM " + table + " WHERE mgm_id = " + LOCAL_MGM_ID;
+        String fetch = " ORDER BY " + order + " FETCH FIRST :limit ROWS WITH TIES";
+
+        SelectMode firstQuery = new GeneratedSelectMode("select_first." + table, session, select + fetch,
+                List.of("limit"));
+        List<String> nextParams = new ArrayList<>(columns);
+        nextParams.add("limit");
+        SelectMode nextQuery = new GeneratedSelectMode("select_next." + table, session,
+                select + " AND (" + order + ") > (" +
+                        columns.stream().map(c -> ":" + c).collect(Collectors.joining(", ")) + ")" + fetch,
+                nextParams);
+
+        Set<String> positionColumns = new HashSet<>(columns);
+        Map<String, Object> parametersMap = new HashMap<>();
+        parametersMap.put("limit", batchSize);
+        DataResult<Map<String, Object>> batch = firstQuery.execute(parametersMap);
+        while (!batch.isEmpty()) {
+            boolean lastBatch = batch.size() < batchSize;
+            // Read the position before the consumer can change the rows
+            updateParameters(parametersMap, batch, positionColumns);
+            consumer.accept(batch);
+            if (lastBatch) {
+                break;
+            }
+            batch = nextQuery.execute(parametersMap);
+        }
+    }
+
+    /**
+     * The columns ordering the rows of a report db table
+     * @param columns the column names
+     * @param notNull true if none of the columns can contain null values
+     */
+    private record OrderColumns(List<String> columns, boolean notNull) {
+    }
+
+    private OrderColumns getOrderColumns(Session session, String table, Logger log) {
         String orderSQL =
-                "SELECT string_agg(a.attname, ', ') AS order " +
+                "SELECT string_agg(a.attname, ', ') AS order, bool_and(a.attnotnull) AS not_null " +
                 "  FROM pg_constraint AS c " +
                 "    CROSS JOIN LATERAL UNNEST(c.conkey) AS cols(colnum) " +
                 "    INNER JOIN pg_attribute AS a ON a.attrelid = c.conrelid AND cols.colnum = a.attnum " +
                 " WHERE c.contype = 'p' " +
                 "   AND c.conrelid = '" + table + "'::REGCLASS " +
                 "UNION " +
-                "SELECT string_agg(a.attname, ', ') AS order " +
+                "SELECT string_agg(a.attname, ', ') AS order, bool_and(a.attnotnull) AS not_null " +
                 "  FROM pg_index ix " +
                 "  JOIN pg_class t on t.oid = ix.indrelid " +
                 "  JOIN pg_class i on i.oid = ix.indexrelid " +
@@ -105,10 +173,15 @@ public class ReportDBHelper {
 
         GeneratedSelectMode orderQuery = new GeneratedSelectMode("orderquery." + table, session, orderSQL , List.of());
 
-        DataResult<Map<String, String>> order = orderQuery.execute();
-        String orderColumns = order.stream().findFirst().map(o -> o.getOrDefault("order", "ctid")).orElse("ctid");
+        DataResult<Map<String, Object>> order = orderQuery.execute();
+        OrderColumns orderColumns = order.stream()
+                .filter(o -> o.get("order") != null)
+                .findFirst()
+                .map(o -> new OrderColumns(List.of(((String) o.get("order")).split(", ")),
+                        Boolean.TRUE.equals(o.get("not_null"))))
+                .orElse(new OrderColumns(List.of("ctid"), false));
 
-        log.debug("Order Columns of {} by: {}", table, orderColumns);
+        log.debug("Order Columns of {} by: {}", table, orderColumns.columns());
         return orderColumns;
     }
 
@@ -133,10 +206,12 @@ public class ReportDBHelper {
      * @return select mode query
      */
     public SelectMode generateQuery(Session session, String table, Logger log) {
-        String orderColumns = getOrderColumns(session, table, log);
+        return generateQuery(session, table, getOrderColumns(session, table, log));
+    }
 
-        final String sqlStatement = "SELECT * FROM " + table +
-                " WHERE mgm_id = " + LOCAL_MGM_ID +  " ORDER BY " + orderColumns + " OFFSET :offset LIMIT :limit";
+    private SelectMode generateQuery(Session session, String table, OrderColumns orderColumns) {
+        final String sqlStatement = "SELECT * FROM " + table + " WHERE mgm_id = " + LOCAL_MGM_ID +
+                " ORDER BY " + String.join(", ", orderColumns.columns()) + " OFFSET :offset LIMIT :limit";
         return new GeneratedSelectMode("select." + table, session, sqlStatement, List.of("offset", "limit"));
     }
 
@@ -153,6 +228,20 @@ public class ReportDBHelper {
         return new GeneratedWriteMode("delete." + table, session, sqlStatement, params);
     }
 
+    /**
+     * Generates a delete statement for the rows of a single system in a report db table, that takes mgm_id and
+     * system_id as parameters
+     * @param session session the query should use
+     * @param table table name
+     * @return write mode query
+     */
+    public WriteMode generateDeleteBySystem(Session session, String table) {
+        final String sqlStatement = "DELETE FROM " + table + " WHERE mgm_id = :mgm_id AND system_id = :system_id";
+        final List<String> params = List.of("mgm_id", "system_id");
+
+        return new GeneratedWriteMode("delete_system." + table, session, sqlStatement, params);
+    }
+
     /**
      * Generates an insert statement for a report db table
      * @param session session the query should use
@@ -197,6 +286,72 @@ public class ReportDBHelper {
         return new GeneratedWriteMode("insert." + table, session, sqlStatement, params);
     }
 
+    /**
+     * Copies the result of a query on the main database into a report db table, streaming the rows from one
+     * database to the other with the PostgreSQL COPY protocol. The rows are loaded into a temporary table first and
+     * inserted from there ignoring duplicates, like the statements generated by
+     * {@link #generateInsertWithDate(Session, String, long, Set)}.
+     * @param source session of the database to copy the data from
+     * @param target session of the report db to copy the data to
+     * @param sqlStatement query to copy the result of, without bind parameters
+     * @param table table name
+     * @param mgmId mgmId to insert
+     * @return the number of copied rows
+     */
+    public long copyInto(Session source, Session target, String sqlStatement, String table, long mgmId) {
+        return source.doReturningWork(sourceConnection -> target.doReturningWork(targetConnection ->
+                copyInto(sourceConnection, targetConnection, sqlStatement, table, mgmId)));
+    }
+
+    private long copyInto(Connection sourceConnection, Connection targetConnection, String sqlStatement,
+                          String table, long mgmId) throws SQLException {
+        CopyOut copyOut = sourceConnection.unwrap(PGConnection.class).getCopyAPI()
+                .copyOut("COPY (" + sqlStatement + ") TO STDOUT WITH (FORMAT csv, HEADER)");
+        try {
+            // The header lists the columns of the query, quoted when needed the same way as SQL identifiers
+            String columns = new String(copyOut.readFromCopy(), StandardCharsets.UTF_8).trim();
+            String stagingTable = "copy_" + table;
+
+            try (Statement statement = targetConnection.createStatement()) {
+                statement.execute("CREATE TEMPORARY TABLE IF NOT EXISTS " + stagingTable + " ON COMMIT DROP AS " +
+                        "SELECT * FROM " + table + " WITH NO DATA");
+                statement.execute("TRUNCATE " + stagingTable);
+            }
+
+            long rows;
+            CopyIn copyIn = targetConnection.unwrap(PGConnection.class).getCopyAPI()
+                    .copyIn("COPY " + stagingTable + " (" + columns + ") FROM STDIN WITH (FORMAT csv)");
+            try {
+                byte[] row;
+                while ((row = copyOut.readFromCopy()) != null) {
+                    copyIn.writeToCopy(row, 0, row.length);
+                }
+                rows = copyIn.endCopy();
+            }
+            finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+            }
+
+            if (rows > 0) {
+                try (Statement statement = targetConnection.createStatement()) {
+                    statement.executeUpdate(String.format(
+                            "INSERT INTO %1$s (mgm_id, synced_date, %2$s) " +
+                            "     SELECT %3$s, current_timestamp, %2$s FROM %4$s " +
+                            "ON CONFLICT DO NOTHING",
+                            table, columns, mgmId, stagingTable));
+                }
+            }
+            return rows;
+        }
+        finally {
+            if (copyOut.isActive()) {
+                copyOut.cancelCopy();
+            }
+        }
+    }
+
     /**
      * Analyzes the report database tables after massive inserts
      * @param session session the query should use
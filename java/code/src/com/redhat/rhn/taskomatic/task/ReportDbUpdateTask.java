@@ -18,22 +18,34 @@ import static com.redhat.rhn.common.conf.ConfigDefaults.REPORT_DB_BATCH_SIZE;
 import static com.redhat.rhn.taskomatic.task.ReportDBHelper.LOCAL_MGM_ID;
 
 import com.redhat.rhn.common.conf.Config;
+import com.redhat.rhn.common.conf.ConfigDefaults;
+import com.redhat.rhn.common.db.NamedPreparedStatement;
 import com.redhat.rhn.common.db.datasource.DataResult;
 import com.redhat.rhn.common.db.datasource.ModeFactory;
 import com.redhat.rhn.common.db.datasource.SelectMode;
 import com.redhat.rhn.common.db.datasource.WriteMode;
 import com.redhat.rhn.common.hibernate.ConnectionManager;
 import com.redhat.rhn.common.hibernate.ConnectionManagerFactory;
+import com.redhat.rhn.common.hibernate.HibernateFactory;
 import com.redhat.rhn.common.hibernate.ReportDbHibernateFactory;
 import com.redhat.rhn.common.util.TimeUtils;
 
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.hibernate.Session;
+import org.quartz.JobDataMap;
 import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 
 public class ReportDbUpdateTask extends RhnJavaJob {
@@ -67,15 +79,67 @@ public class ReportDbUpdateTask extends RhnJavaJob {
     public static final String REPORT_ID = "report_id";
     public static final String RESULT_TYPE = "result_type";
 
+    /**
+     * Job parameter requesting a full refresh of the reporting db when the incremental refresh is enabled
+     */
+    public static final String FULL_REFRESH_KEY = "full_refresh";
+
+    private static final List<ReportTable> TABLES = List.of(
+        ReportTable.of(GENERAL_REPORT_QUERIES, "SystemGroup", Map.of(SYSTEM_GROUP_ID, 0)),
+        ReportTable.of(GENERAL_REPORT_QUERIES, "SystemGroupPermission",
+            Map.of(SYSTEM_GROUP_ID, 0, ACCOUNT_ID, 0)),
+        ReportTable.of(GENERAL_REPORT_QUERIES, "Account", Map.of(ACCOUNT_ID, 0)),
+        ReportTable.of(GENERAL_REPORT_QUERIES, "AccountGroup", Map.of(ACCOUNT_ID, 0, ACCOUNT_GROUP_ID, 0)),
+        ReportTable.of(SYSTEM_REPORT_QUERIES, "System", Map.of(SYSTEM_ID, 0)),
+        ReportTable.of(SYSTEM_REPORT_QUERIES, "SystemHistory", Map.of(SYSTEM_ID, 0, HISTORY_ID, 0)),
+        ReportTable.of(SYSTEM_REPORT_QUERIES, "SystemAction", Map.of(SYSTEM_ID, 0, ACTION_ID, 0)),
+        ReportTable.of(SYSTEM_REPORT_QUERIES, "SystemChannel", Map.of(SYSTEM_ID, 0, CHANNEL_ID, 0)),
+        ReportTable.of(SYSTEM_REPORT_QUERIES, "SystemConfigChannel", Map.of(SYSTEM_ID, 0, CONFIG_CHANNEL_ID, 0)),
+        ReportTable.of(SYSTEM_REPORT_QUERIES, "SystemVirtualData", Map.of(INSTANCE_ID, 0)),
+        ReportTable.of(SYSTEM_REPORT_QUERIES, "SystemNetInterface", Map.of(SYSTEM_ID, 0, INTERFACE_ID, 0)),
+        ReportTable.of(SYSTEM_REPORT_QUERIES, "SystemNetAddressV4",
+            Map.of(SYSTEM_ID, 0, INTERFACE_ID, 0, ADDRESS, "")),
+        ReportTable.of(SYSTEM_REPORT_QUERIES, "SystemNetAddressV6",
+            Map.of(SYSTEM_ID, 0, INTERFACE_ID, 0, ADDRESS, "")),
+        ReportTable.of(SYSTEM_REPORT_QUERIES, "SystemOutdated", Map.of(SYSTEM_ID, 0)),
+        ReportTable.of(SYSTEM_REPORT_QUERIES, "SystemGroupMember", Map.of(SYSTEM_ID, 0, SYSTEM_GROUP_ID, 0)),
+        ReportTable.of(SYSTEM_REPORT_QUERIES, "SystemEntitlement", Map.of(SYSTEM_ID, 0, SYSTEM_GROUP_ID, 0)),
+        ReportTable.bySystem(SYSTEM_REPORT_QUERIES, "SystemErrata", Map.of(SYSTEM_ID, 0, ERRATA_ID, 0),
+            Map.of(ERRATA_ID, 0)),
+        ReportTable.byId(SYSTEM_REPORT_QUERIES, "SystemPackageInstalled", Map.of(NAME, "")),
+        ReportTable.byId(SYSTEM_REPORT_QUERIES, "SystemPackageUpdate", Map.of(PACKAGE_ID, 0)),
+        ReportTable.of(SYSTEM_REPORT_QUERIES, "SystemCustomInfo", Map.of(ORGANIZATION, "", SYSTEM_ID, 0, KEY, "")),
+        ReportTable.of(CHANNEL_REPORT_QUERIES, "Channel", Map.of(CHANNEL_ID, 0)),
+        ReportTable.of(CHANNEL_REPORT_QUERIES, "ChannelErrata", Map.of(CHANNEL_ID, 0, ERRATA_ID, 0)),
+        ReportTable.of(CHANNEL_REPORT_QUERIES, "ChannelPackage", Map.of(CHANNEL_ID, 0, PACKAGE_ID, 0)),
+        ReportTable.of(CHANNEL_REPORT_QUERIES, "ChannelRepository", Map.of(CHANNEL_ID, 0, REPOSITORY_ID, 0)),
+        ReportTable.of(CHANNEL_REPORT_QUERIES, "Errata", Map.of(ERRATA_ID, 0)),
+        ReportTable.of(CHANNEL_REPORT_QUERIES, "Package", Map.of(PACKAGE_ID, 0)),
+        ReportTable.of(CHANNEL_REPORT_QUERIES, "Repository", Map.of(REPOSITORY_ID, 0)),
+        ReportTable.of(SCAP_REPORT_QUERIES, "XccdScan", Map.of(SCAN_ID, 0)),
+        ReportTable.of(SCAP_REPORT_QUERIES, "XccdScanResult", Map.of(SCAN_ID, 0, RULE_ID, 0, IDENT_ID, 0)),
+        ReportTable.of(COCO_ATTESTATION_REPORT_QUERIES, "CoCoAttestation", Map.of(REPORT_ID, 0)),
+        ReportTable.of(COCO_ATTESTATION_REPORT_QUERIES, "CoCoAttestationResult",
+            Map.of(REPORT_ID, 0, RESULT_TYPE, 0))
+    );
+
     private final int batchSize;
 
     private final ReportDBHelper dbHelper;
 
+    private final boolean incremental;
+
+    private final boolean copyRefresh;
+
+    private final int workers;
+
     /**
      * Default constructor
      */
     public ReportDbUpdateTask() {
-        this(ReportDBHelper.INSTANCE, Config.get().getInt(REPORT_DB_BATCH_SIZE, 2000));
+        this(ReportDBHelper.INSTANCE, Config.get().getInt(REPORT_DB_BATCH_SIZE, 2000),
+            ConfigDefaults.get().isReportDbIncrementalRefreshEnabled(),
+            ConfigDefaults.get().isReportDbCopyRefreshEnabled(), ConfigDefaults.get().getReportDbRefreshWorkers());
     }
 
     /**
@@ -84,8 +148,34 @@ public class ReportDbUpdateTask extends RhnJavaJob {
      * @param batchSizeIn the batch size
      */
     public ReportDbUpdateTask(ReportDBHelper dbHelperIn, int batchSizeIn) {
+        this(dbHelperIn, batchSizeIn, false);
+    }
+
+    /**
+     * Constructor used for unit test to specify the {@link ReportDBHelper} and the refresh mode
+     * @param dbHelperIn the {@link ReportDBHelper}
+     * @param batchSizeIn the batch size
+     * @param incrementalIn true to refresh the per-system tables only for the systems that changed
+     */
+    public ReportDbUpdateTask(ReportDBHelper dbHelperIn, int batchSizeIn, boolean incrementalIn) {
+        this(dbHelperIn, batchSizeIn, incrementalIn, false, 1);
+    }
+
+    /**
+     * Constructor used for unit test to specify the {@link ReportDBHelper}, the refresh mode and how tables are copied
+     * @param dbHelperIn the {@link ReportDBHelper}
+     * @param batchSizeIn the batch size
+     * @param incrementalIn true to refresh the per-system tables only for the systems that changed
+     * @param copyRefreshIn true to stream the data into the tables with COPY, each table in its own transaction
+     * @param workersIn number of tables copied concurrently
+     */
+    public ReportDbUpdateTask(ReportDBHelper dbHelperIn, int batchSizeIn, boolean incrementalIn,
+                              boolean copyRefreshIn, int workersIn) {
         this.dbHelper = dbHelperIn;
         this.batchSize = batchSizeIn;
+        this.incremental = incrementalIn;
+        this.copyRefresh = copyRefreshIn;
+        this.workers = workersIn;
     }
 
     @Override
@@ -93,78 +183,28 @@ public class ReportDbUpdateTask extends RhnJavaJob {
         ConnectionManager rcm = ConnectionManagerFactory.localReportingConnectionManager();
         ReportDbHibernateFactory rh = new ReportDbHibernateFactory(rcm);
 
+        boolean fullRefresh = !incremental || isFullRefreshRequested(arg0);
+        // Systems changed up to now, they are all covered by this refresh
+        Map<Long, Long> changedSystems = listChangedSystems();
+
         try {
-            fillReportDbTable(rh.getSession(), GENERAL_REPORT_QUERIES, "SystemGroup",
-                Map.of(SYSTEM_GROUP_ID, 0));
-            fillReportDbTable(rh.getSession(), GENERAL_REPORT_QUERIES, "SystemGroupPermission",
-                Map.of(SYSTEM_GROUP_ID, 0, ACCOUNT_ID, 0));
-            fillReportDbTable(rh.getSession(), GENERAL_REPORT_QUERIES, "Account",
-                Map.of(ACCOUNT_ID, 0));
-            fillReportDbTable(rh.getSession(), GENERAL_REPORT_QUERIES, "AccountGroup",
-                Map.of(ACCOUNT_ID, 0, ACCOUNT_GROUP_ID, 0));
-
-            fillReportDbTable(rh.getSession(), SYSTEM_REPORT_QUERIES, "System",
-                Map.of(SYSTEM_ID, 0));
-            fillReportDbTable(rh.getSession(), SYSTEM_REPORT_QUERIES, "SystemHistory",
-                Map.of(SYSTEM_ID, 0, HISTORY_ID, 0));
-            fillReportDbTable(rh.getSession(), SYSTEM_REPORT_QUERIES, "SystemAction",
-                Map.of(SYSTEM_ID, 0, ACTION_ID, 0));
-            fillReportDbTable(rh.getSession(), SYSTEM_REPORT_QUERIES, "SystemChannel",
-                Map.of(SYSTEM_ID, 0, CHANNEL_ID, 0));
-            fillReportDbTable(rh.getSession(), SYSTEM_REPORT_QUERIES, "SystemConfigChannel",
-                Map.of(SYSTEM_ID, 0, CONFIG_CHANNEL_ID, 0));
-            fillReportDbTable(rh.getSession(), SYSTEM_REPORT_QUERIES, "SystemVirtualData",
-                Map.of(INSTANCE_ID, 0));
-            fillReportDbTable(rh.getSession(), SYSTEM_REPORT_QUERIES, "SystemNetInterface",
-                Map.of(SYSTEM_ID, 0, INTERFACE_ID, 0));
-            fillReportDbTable(rh.getSession(), SYSTEM_REPORT_QUERIES, "SystemNetAddressV4",
-                Map.of(SYSTEM_ID, 0, INTERFACE_ID, 0, ADDRESS, ""));
-            fillReportDbTable(rh.getSession(), SYSTEM_REPORT_QUERIES, "SystemNetAddressV6",
-                Map.of(SYSTEM_ID, 0, INTERFACE_ID, 0, ADDRESS, ""));
-            fillReportDbTable(rh.getSession(), SYSTEM_REPORT_QUERIES, "SystemOutdated",
-                Map.of(SYSTEM_ID, 0));
-            fillReportDbTable(rh.getSession(), SYSTEM_REPORT_QUERIES, "SystemGroupMember",
-                Map.of(SYSTEM_ID, 0, SYSTEM_GROUP_ID, 0));
-            fillReportDbTable(rh.getSession(), SYSTEM_REPORT_QUERIES, "SystemEntitlement",
-                Map.of(SYSTEM_ID, 0, SYSTEM_GROUP_ID, 0));
-            fillReportDbTable(rh.getSession(), SYSTEM_REPORT_QUERIES, "SystemErrata",
-                Map.of(SYSTEM_ID, 0, ERRATA_ID, 0));
-            fillReportDbTableById(rh.getSession(), SYSTEM_REPORT_QUERIES, "SystemPackageInstalled",
-                Map.of(NAME, ""));
-            fillReportDbTableById(rh.getSession(), SYSTEM_REPORT_QUERIES, "SystemPackageUpdate",
-                Map.of(PACKAGE_ID, 0));
-            fillReportDbTable(rh.getSession(), SYSTEM_REPORT_QUERIES, "SystemCustomInfo",
-                Map.of(ORGANIZATION, "", SYSTEM_ID, 0, KEY, ""));
-
-            fillReportDbTable(rh.getSession(), CHANNEL_REPORT_QUERIES, "Channel",
-                Map.of(CHANNEL_ID, 0));
-            fillReportDbTable(rh.getSession(), CHANNEL_REPORT_QUERIES, "ChannelErrata",
-                Map.of(CHANNEL_ID, 0, ERRATA_ID, 0));
-            fillReportDbTable(rh.getSession(), CHANNEL_REPORT_QUERIES, "ChannelPackage",
-                Map.of(CHANNEL_ID, 0, PACKAGE_ID, 0));
-            fillReportDbTable(rh.getSession(), CHANNEL_REPORT_QUERIES, "ChannelRepository",
-                Map.of(CHANNEL_ID, 0, REPOSITORY_ID, 0));
-            fillReportDbTable(rh.getSession(), CHANNEL_REPORT_QUERIES, "Errata",
-                Map.of(ERRATA_ID, 0));
-            fillReportDbTable(rh.getSession(), CHANNEL_REPORT_QUERIES, "Package",
-                Map.of(PACKAGE_ID, 0));
-            fillReportDbTable(rh.getSession(), CHANNEL_REPORT_QUERIES, "Repository",
-                Map.of(REPOSITORY_ID, 0));
-
-            fillReportDbTable(rh.getSession(), SCAP_REPORT_QUERIES, "XccdScan",
-                Map.of(SCAN_ID, 0));
-            fillReportDbTable(rh.getSession(), SCAP_REPORT_QUERIES, "XccdScanResult",
-                Map.of(SCAN_ID, 0, RULE_ID, 0, IDENT_ID, 0));
-
-            fillReportDbTable(rh.getSession(), COCO_ATTESTATION_REPORT_QUERIES, "CoCoAttestation",
-                    Map.of(REPORT_ID, 0));
-            fillReportDbTable(rh.getSession(), COCO_ATTESTATION_REPORT_QUERIES, "CoCoAttestationResult",
-                    Map.of(REPORT_ID, 0, RESULT_TYPE, 0));
+            if (copyRefresh) {
+                copyReportDbTables(rh, fullRefresh, changedSystems.keySet());
+            }
+            else {
+                for (ReportTable table : TABLES) {
+                    refreshReportDbTable(rh.getSession(), table, fullRefresh, changedSystems.keySet());
+                }
+            }
 
             dbHelper.analyzeReportDb(rh.getSession());
 
             rh.commitTransaction();
             log.info("Reporting db updated successfully.");
+
+            // Only now the changes are in the reporting db. Systems changed again meanwhile have a higher change
+            // id and are kept for the next run.
+            clearChangedSystems(changedSystems);
         }
         catch (RuntimeException ex) {
             try {
@@ -197,6 +237,202 @@ public class ReportDbUpdateTask extends RhnJavaJob {
         });
     }
 
+    private void refreshReportDbTable(Session session, ReportTable table, boolean fullRefresh,
+                                      Collection<Long> changedSystemIds) {
+        if (!fullRefresh && table.isPerSystem()) {
+            refreshReportDbTableBySystem(session, table.xmlName(), table.tableName(), table.systemFilterMap(),
+                changedSystemIds);
+        }
+        else if (table.byId()) {
+            fillReportDbTableById(session, table.xmlName(), table.tableName(), table.filterMap());
+        }
+        else {
+            fillReportDbTable(session, table.xmlName(), table.tableName(), table.filterMap());
+        }
+    }
+
+    private void copyReportDbTables(ReportDbHibernateFactory rh, boolean fullRefresh,
+                                    Collection<Long> changedSystemIds) {
+        if (workers <= 1) {
+            for (ReportTable table : TABLES) {
+                copyReportDbTable(HibernateFactory.getSession(), rh.getSession(), table, fullRefresh,
+                    changedSystemIds);
+                rh.commitTransaction();
+            }
+            return;
+        }
+
+        // Make sure the session factory is initialized before the workers use it
+        rh.getSession();
+
+        ExecutorService executor = Executors.newFixedThreadPool(workers,
+            new BasicThreadFactory.Builder().namingPattern("report-db-refresh-%d").build());
+        try {
+            List<Future<?>> results = new ArrayList<>(TABLES.size());
+            for (ReportTable table : TABLES) {
+                results.add(executor.submit(() -> copyReportDbTableInTransaction(rh, table, fullRefresh,
+                    changedSystemIds)));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        }
+        catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Unable to copy table", ex.getCause());
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while copying tables", ex);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void copyReportDbTableInTransaction(ReportDbHibernateFactory rh, ReportTable table, boolean fullRefresh,
+                                                Collection<Long> changedSystemIds) {
+        try {
+            copyReportDbTable(HibernateFactory.getSession(), rh.getSession(), table, fullRefresh, changedSystemIds);
+            rh.commitTransaction();
+        }
+        catch (RuntimeException ex) {
+            try {
+                rh.rollbackTransaction();
+            }
+            catch (RuntimeException rollbackException) {
+                log.warn("Unable to rollback transaction", rollbackException);
+            }
+            throw ex;
+        }
+        finally {
+            rh.closeSession();
+            HibernateFactory.closeSession();
+        }
+    }
+
+    /**
+     * Replaces the data of a table streaming it with COPY. The delete and the copy happen in the same transaction of
+     * the target session, so readers see the previous data until that transaction is committed.
+     */
+    private void copyReportDbTable(Session source, Session target, ReportTable table, boolean fullRefresh,
+                                   Collection<Long> changedSystemIds) {
+        String tableName = table.tableName();
+        TimeUtils.logTime(log, "Copying table " + tableName, () -> {
+            if (!fullRefresh && table.isPerSystem()) {
+                deleteSystemsData(target, tableName, changedSystemIds);
+                for (Long systemId : changedSystemIds) {
+                    copyQuery(source, target, table.xmlName(), tableName + "_byId", tableName,
+                        table.systemFilterMap(), systemId);
+                }
+                return;
+            }
+
+            log.debug("Deleting existing data in table {}", tableName);
+            WriteMode delete = dbHelper.generateDelete(target, tableName);
+            delete.executeUpdate(Map.of("mgm_id", LOCAL_MGM_ID));
+
+            if (table.byId()) {
+                SelectMode queryData = ModeFactory.getMode(table.xmlName(), tableName + "_Ids", Map.class);
+                DataResult<Map<String, Long>> dataSet = queryData.execute();
+                for (Map<String, Long> data : dataSet) {
+                    copyQuery(source, target, table.xmlName(), tableName + "_byId", tableName, table.filterMap(),
+                        data.get("id"));
+                }
+            }
+            else {
+                long rows = copyQuery(source, target, table.xmlName(), tableName, tableName, table.filterMap(),
+                    null);
+                log.debug("Copied {} rows for table {}", rows, tableName);
+            }
+        });
+    }
+
+    private long copyQuery(Session source, Session target, String xmlName, String queryName, String tableName,
+                           Map<String, Object> filterMap, Long id) {
+        Map<String, Object> parametersMap = new HashMap<>(filterMap);
+        if (id != null) {
+            parametersMap.put("id", id);
+        }
+        // The whole result is streamed at once, the limit is only needed to extract the data in batches
+        parametersMap.put("limit", Long.MAX_VALUE);
+
+        SelectMode query = ModeFactory.getMode(xmlName, queryName);
+        String sqlStatement = NamedPreparedStatement.inlineBindParams(query.getQuery().getOrigQuery(), parametersMap);
+        return dbHelper.copyInto(source, target, sqlStatement, tableName, LOCAL_MGM_ID);
+    }
+
+    private void deleteSystemsData(Session session, String tableName, Collection<Long> systemIds) {
+        if (systemIds.isEmpty()) {
+            return;
+        }
+
+        // Remove the existing data of the changed systems only
+        log.debug("Deleting existing data of {} systems in table {}", systemIds.size(), tableName);
+        List<Map<String, Object>> deleteParameters = new ArrayList<>(systemIds.size());
+        for (Long systemId : systemIds) {
+            deleteParameters.add(Map.of("mgm_id", LOCAL_MGM_ID, SYSTEM_ID, systemId));
+        }
+        WriteMode delete = dbHelper.generateDeleteBySystem(session, tableName);
+        delete.executeUpdates(deleteParameters);
+    }
+
+    private void refreshReportDbTableBySystem(Session session, String xmlName, String tableName,
+                                              Map<String, Object> filterMap, Collection<Long> systemIds) {
+        TimeUtils.logTime(log, "Refreshing table " + tableName + " for " + systemIds.size() + " changed systems",
+            () -> {
+                deleteSystemsData(session, tableName, systemIds);
+
+                for (Long systemId : systemIds) {
+                    Map<String, Object> parametersMap = new HashMap<>(filterMap);
+                    parametersMap.put("id", systemId);
+                    parametersMap.put("limit", batchSize);
+
+                    fillTableInBatches(session, xmlName, tableName + "_byId", tableName, parametersMap,
+                        filterMap.keySet());
+                }
+            });
+    }
+
+    private static Map<Long, Long> listChangedSystems() {
+        SelectMode query = ModeFactory.getMode(SYSTEM_REPORT_QUERIES, "ChangedSystems", Map.class);
+        DataResult<Map<String, Long>> rows = query.execute();
+
+        Map<Long, Long> changedSystems = new HashMap<>();
+        rows.forEach(row -> changedSystems.put(row.get("id"), row.get("change_id")));
+        return changedSystems;
+    }
+
+    private void clearChangedSystems(Map<Long, Long> changedSystems) {
+        if (changedSystems.isEmpty()) {
+            return;
+        }
+
+        List<Map<String, Object>> parameters = new ArrayList<>(changedSystems.size());
+        changedSystems.forEach((id, changeId) -> parameters.add(Map.of("id", id, "change_id", changeId)));
+
+        WriteMode delete = ModeFactory.getWriteMode(SYSTEM_REPORT_QUERIES, "delete_changed_system");
+        delete.executeUpdates(parameters);
+        log.debug("Cleared {} changed systems", changedSystems.size());
+    }
+
+    private boolean isFullRefreshRequested(JobExecutionContext context) {
+        JobDataMap dataMap = context.getJobDetail().getJobDataMap();
+        if (!dataMap.containsKey(FULL_REFRESH_KEY)) {
+            return false;
+        }
+
+        try {
+            return dataMap.getBooleanValue(FULL_REFRESH_KEY);
+        }
+        catch (ClassCastException e) {
+            // if the provided value is not a bool we treat the presence of the key as a true
+            return true;
+        }
+    }
+
     private void fillReportDbTableById(Session session, String xmlName, String tableName,
                                        Map<String, Object> filterMap) {
         TimeUtils.logTime(log, "Refreshing table " + tableName, () -> {
@@ -258,4 +494,34 @@ public class ReportDbUpdateTask extends RhnJavaJob {
     public String getConfigNamespace() {
         return "report_db_update";
     }
+
+    /**
+     * A report db table and the query filling it
+     * @param xmlName the name of the queries file
+     * @param tableName the table name, also used as query name
+     * @param filterMap the initial values of the query filters
+     * @param byId true if the table is filled one system at a time with the tableName_byId query
+     * @param systemFilterMap the initial values of the filters of the tableName_byId query, null if the table cannot
+     * be refreshed only for the changed systems
+     */
+    private record ReportTable(String xmlName, String tableName, Map<String, Object> filterMap, boolean byId,
+                               Map<String, Object> systemFilterMap) {
+
+        static ReportTable of(String xmlName, String tableName, Map<String, Object> filterMap) {
+            return new ReportTable(xmlName, tableName, filterMap, false, null);
+        }
+
+        static ReportTable byId(String xmlName, String tableName, Map<String, Object> filterMap) {
+            return new ReportTable(xmlName, tableName, filterMap, true, filterMap);
+        }
+
+        static ReportTable bySystem(String xmlName, String tableName, Map<String, Object> filterMap,
+                                    Map<String, Object> systemFilterMap) {
+            return new ReportTable(xmlName, tableName, filterMap, false, systemFilterMap);
+        }
+
+        boolean isPerSystem() {
+            return systemFilterMap != null;
+        }
+    }
 }
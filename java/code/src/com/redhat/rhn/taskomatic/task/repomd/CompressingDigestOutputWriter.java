@@ -18,23 +18,41 @@ import com.redhat.rhn.common.util.StringUtil;
 
 import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.security.DigestOutputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.zip.GZIPOutputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
 
 /**
+ * Compresses a stream while computing digests of both the uncompressed and the compressed bytes.
  *
- *
+ * When created with an {@link Executor}, written bytes are collected in chunks which are digested and
+ * compressed asynchronously, in order, so that the writing thread only has to produce the content.
+ * Gzip compression then also deflates blocks in parallel, see {@link ParallelGzipOutputStream}.
+ * The number of chunks waiting for compression is bounded, a writer faster than the compression waits.
  */
 public class CompressingDigestOutputWriter extends OutputStream {
 
+    private static final int CHUNK_SIZE = 256 * 1024;
+    private static final int MAX_PENDING_CHUNKS = 8;
+
     private DigestOutputStream uncompressedDigestStream;
     private DigestOutputStream compressedDigestStream;
     private OutputStream compressedStream;
     private BufferedOutputStream bufferedStream;
 
+    private Executor compressionExecutor;
+    private byte[] chunk;
+    private int chunkLength;
+    private Semaphore pendingChunks;
+    private CompletableFuture<Void> lastChunk;
+
     /**
      *
      * @param stream The stream to compress
@@ -44,12 +62,49 @@ public class CompressingDigestOutputWriter extends OutputStream {
      */
     public CompressingDigestOutputWriter(OutputStream stream, String checksumAlgo)
                                         throws NoSuchAlgorithmException, IOException {
-            compressedDigestStream = new DigestOutputStream(stream,
-                    MessageDigest.getInstance(checksumAlgo));
-            compressedStream = new GZIPOutputStream(compressedDigestStream);
-            uncompressedDigestStream = new DigestOutputStream(compressedStream,
-                    MessageDigest.getInstance(checksumAlgo));
-            bufferedStream = new BufferedOutputStream(uncompressedDigestStream);
+        this(stream, checksumAlgo, null, RepomdCompression.GZIP);
+    }
+
+    /**
+     * Creates a writer compressing in the background.
+     *
+     * @param stream The stream to compress
+     * @param checksumAlgo checksum algorithm
+     * @param compressionExecutorIn executor to run compression on
+     * @throws NoSuchAlgorithmException nosuchalgorithmexception
+     * @throws IOException ioexception
+     */
+    public CompressingDigestOutputWriter(OutputStream stream, String checksumAlgo, Executor compressionExecutorIn)
+                                        throws NoSuchAlgorithmException, IOException {
+        this(stream, checksumAlgo, compressionExecutorIn, RepomdCompression.GZIP);
+    }
+
+    /**
+     * Creates a writer with the given compression.
+     *
+     * @param stream The stream to compress
+     * @param checksumAlgo checksum algorithm
+     * @param compressionExecutorIn executor to run compression on, null to compress in the writing thread.
+     * It must not be a bounded pool, since compression tasks wait for other tasks.
+     * @param compression the compression format
+     * @throws NoSuchAlgorithmException nosuchalgorithmexception
+     * @throws IOException ioexception
+     */
+    public CompressingDigestOutputWriter(OutputStream stream, String checksumAlgo, Executor compressionExecutorIn,
+                                         RepomdCompression compression)
+                                        throws NoSuchAlgorithmException, IOException {
+        compressedDigestStream = new DigestOutputStream(stream,
+                MessageDigest.getInstance(checksumAlgo));
+        compressedStream = compression.open(compressedDigestStream, compressionExecutorIn);
+        uncompressedDigestStream = new DigestOutputStream(compressedStream,
+                MessageDigest.getInstance(checksumAlgo));
+        bufferedStream = new BufferedOutputStream(uncompressedDigestStream);
+        if (compressionExecutorIn != null) {
+            compressionExecutor = compressionExecutorIn;
+            chunk = new byte[CHUNK_SIZE];
+            pendingChunks = new Semaphore(MAX_PENDING_CHUNKS);
+            lastChunk = CompletableFuture.completedFuture(null);
+        }
     }
 
     /**
@@ -59,7 +114,14 @@ public class CompressingDigestOutputWriter extends OutputStream {
      */
     @Override
     public void write(int arg0) throws IOException {
-        bufferedStream.write(arg0);
+        if (compressionExecutor == null) {
+            bufferedStream.write(arg0);
+            return;
+        }
+        if (chunkLength == chunk.length) {
+            submitChunk();
+        }
+        chunk[chunkLength++] = (byte) arg0;
     }
 
     /**
@@ -69,7 +131,32 @@ public class CompressingDigestOutputWriter extends OutputStream {
      */
     @Override
     public void write(byte[] b) throws IOException {
-        bufferedStream.write(b);
+        write(b, 0, b.length);
+    }
+
+    /**
+     * write part of a byte array
+     * @param b bytes
+     * @param off offset of the first byte to write
+     * @param len number of bytes to write
+     * @throws IOException ioexception
+     */
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (compressionExecutor == null) {
+            bufferedStream.write(b, off, len);
+            return;
+        }
+        int written = 0;
+        while (written < len) {
+            if (chunkLength == chunk.length) {
+                submitChunk();
+            }
+            int count = Math.min(len - written, chunk.length - chunkLength);
+            System.arraycopy(b, off + written, chunk, chunkLength, count);
+            chunkLength += count;
+            written += count;
+        }
     }
 
     /**
@@ -78,7 +165,12 @@ public class CompressingDigestOutputWriter extends OutputStream {
      */
     @Override
     public void flush() throws IOException {
-        bufferedStream.flush();
+        if (compressionExecutor == null) {
+            bufferedStream.flush();
+        }
+        else if (chunkLength > 0) {
+            submitChunk();
+        }
     }
 
     /**
@@ -87,7 +179,61 @@ public class CompressingDigestOutputWriter extends OutputStream {
      */
     @Override
     public void close() throws IOException {
-        bufferedStream.close();
+        try {
+            if (compressionExecutor != null) {
+                if (chunkLength > 0) {
+                    submitChunk();
+                }
+                awaitChunks();
+            }
+        }
+        finally {
+            bufferedStream.close();
+        }
+    }
+
+    /**
+     * Hands the current chunk over to the compression executor, waiting if too many chunks are pending.
+     */
+    private void submitChunk() throws IOException {
+        if (lastChunk.isCompletedExceptionally()) {
+            awaitChunks();
+        }
+        try {
+            pendingChunks.acquire();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for compression");
+        }
+        byte[] data = chunk;
+        int length = chunkLength;
+        lastChunk = lastChunk.thenRunAsync(() -> {
+            try {
+                uncompressedDigestStream.write(data, 0, length);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, compressionExecutor);
+        lastChunk.whenComplete((result, error) -> pendingChunks.release());
+        chunk = new byte[CHUNK_SIZE];
+        chunkLength = 0;
+    }
+
+    /**
+     * Waits for all submitted chunks to be compressed, rethrowing the first failure.
+     */
+    private void awaitChunks() throws IOException {
+        try {
+            lastChunk.join();
+        }
+        catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
     }
 
     /**
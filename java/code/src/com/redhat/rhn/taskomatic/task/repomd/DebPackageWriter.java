@@ -23,7 +23,7 @@ import com.redhat.rhn.manager.task.TaskManager;
 import com.redhat.rhn.taskomatic.task.TaskConstants;
 
 import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.TeeOutputStream;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -31,13 +31,16 @@ import org.apache.logging.log4j.Logger;
 import java.io.BufferedWriter;
 import java.io.Closeable;
 import java.io.File;
-import java.io.FileWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.StringWriter;
 import java.util.Collection;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 /**
  *
@@ -61,7 +64,16 @@ public class DebPackageWriter implements Closeable {
         channelLabel = channel.getLabel();
         filenamePackages = prefix + "Packages";
         FileUtils.deleteQuietly(new File(filenamePackages));
-        out = new BufferedWriter(new FileWriter(filenamePackages, true));
+        FileUtils.deleteQuietly(new File(filenamePackages + ".xz"));
+
+        // the compressed variants are written along with the plain file instead of compressing it afterwards
+        OutputStream packages = new TeeOutputStream(new FileOutputStream(filenamePackages),
+                new GZIPOutputStream(new FileOutputStream(filenamePackages + ".gz")));
+        if (RepomdCompression.fromLabel(ConfigDefaults.get().getRepodataCompression()) == RepomdCompression.XZ) {
+            packages = new TeeOutputStream(packages,
+                    RepomdCompression.XZ.open(new FileOutputStream(filenamePackages + ".xz"), null));
+        }
+        out = new BufferedWriter(new OutputStreamWriter(packages), 64 * 1024);
     }
 
     private String getFilename(PackageDto pkgDto) {
@@ -323,10 +335,11 @@ public class DebPackageWriter implements Closeable {
     }
 
     /**
-     * Finish writing the Package file.
+     * Finish writing the Package file and its compressed variants.
+     * @throws IOException in case of IO error
      */
     @Override
-    public void close() {
-        IOUtils.closeQuietly(out);
+    public void close() throws IOException {
+        out.close();
     }
 }
@@ -81,8 +81,9 @@ public class DebReleaseWriter {
             writer.println("Date: " + RFC822_DATE_FORMAT.format(ZonedDateTime.now()));
             writer.println("Description: " + Optional.ofNullable(channel.getDescription()).orElse(""));
 
-            List<File> metadataFiles = Arrays.asList("Packages", "Packages.gz")
+            List<File> metadataFiles = Arrays.asList("Packages", "Packages.gz", "Packages.xz")
                     .stream().map(name -> new File(pathPrefix + name))
+                    .filter(file -> !file.getName().equals("Packages.xz") || file.exists())
                     .toList();
 
             writer.println("MD5Sum:");
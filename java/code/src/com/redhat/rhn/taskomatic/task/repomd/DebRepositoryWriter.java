@@ -26,15 +26,12 @@ import com.redhat.rhn.manager.satellite.SystemCommandExecutor;
 import com.redhat.rhn.manager.task.TaskManager;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
-import java.util.zip.GZIPOutputStream;
 
 /**
 *
@@ -115,7 +112,6 @@ public class DebRepositoryWriter extends RepositoryWriter {
         // batch the elaboration so we don't have to hold many thousands of
         // packages in memory at once
         final int batchSize = 1000;
-        String packagesFile;
         try (DebPackageWriter writer = new DebPackageWriter(channel, prefix)) {
             for (long i = 0; i < channel.getPackageCount(); i += batchSize) {
                 DataResult<PackageDto> packageBatch = TaskManager.getChannelPackageDtos(channel, i, batchSize);
@@ -130,21 +126,12 @@ public class DebRepositoryWriter extends RepositoryWriter {
                     HibernateFactory.commitTransaction();
                 }
             }
-            packagesFile = writer.getFilenamePackages();
         }
         catch (IOException e) {
             log.error("Could not write Packages file for channel {}", channel.getLabel(), e);
             return;
         }
 
-        try {
-            gzipCompress(packagesFile);
-        }
-        catch (IOException e) {
-            log.error("Failed to create Packages.gz {}", e.toString());
-            return;
-        }
-
         DebReleaseWriter releaseWriter = new DebReleaseWriter(channel, prefix);
         releaseWriter.generateRelease();
 
@@ -175,31 +162,4 @@ public class DebRepositoryWriter extends RepositoryWriter {
         packageBatch.stream().forEach(pkgDto ->
                 pkgDto.setExtraTags(extraTags.get(pkgDto.getId())));
     }
-
-    /**
-     * Compresses file using GZIP
-     * @param filename the filename to compress
-     * @throws IOException io error
-     */
-    public void gzipCompress(String filename) throws IOException {
-        // Create the GZIP output stream
-        String outFilename = filename + ".gz";
-        try (GZIPOutputStream outGz = new GZIPOutputStream(new FileOutputStream(
-                outFilename, false))) {
-
-            // Open the input file
-            try (FileInputStream in = new FileInputStream(filename)) {
-                // Transfer bytes from the input file to the GZIP output stream
-                byte[] buf = new byte[1024];
-                int len;
-                while ((len = in.read(buf)) > 0) {
-                    outGz.write(buf, 0, len);
-                }
-            }
-
-            // Complete the GZIP file
-            outGz.finish();
-        }
-    }
-
 }
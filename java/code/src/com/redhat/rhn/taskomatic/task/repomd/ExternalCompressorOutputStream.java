@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2025 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.taskomatic.task.repomd;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Output stream compressing through an external command, like xz or zstd, reading the data on its
+ * standard input and writing the compressed data to its standard output.
+ */
+public class ExternalCompressorOutputStream extends OutputStream {
+
+    private final String[] command;
+    private final OutputStream target;
+    private final Process process;
+    private final OutputStream stdin;
+    private final Thread pump;
+    private IOException pumpFailure;
+    private boolean closed;
+
+    /**
+     * Starts the compression command.
+     * @param commandIn the command line
+     * @param out the stream to write the compressed data to
+     * @throws IOException if the command cannot be started
+     */
+    public ExternalCompressorOutputStream(String[] commandIn, OutputStream out) throws IOException {
+        this.command = commandIn;
+        this.target = out;
+        process = new ProcessBuilder(command)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        stdin = new BufferedOutputStream(process.getOutputStream(), 64 * 1024);
+        pump = new Thread(() -> {
+            try (InputStream stdout = process.getInputStream()) {
+                stdout.transferTo(out);
+            }
+            catch (IOException e) {
+                pumpFailure = e;
+            }
+        }, "repomd-" + command[0].substring(command[0].lastIndexOf('/') + 1));
+        pump.setDaemon(true);
+        pump.start();
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        stdin.write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        stdin.write(b, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        stdin.flush();
+    }
+
+    /**
+     * Waits for the command to write all compressed data, then closes the target stream.
+     * @throws IOException if the command fails
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            stdin.close();
+            pump.join();
+            int exitCode = process.waitFor();
+            if (pumpFailure != null) {
+                throw pumpFailure;
+            }
+            if (exitCode != 0) {
+                throw new IOException("Compression command " + Arrays.toString(command) +
+                        " failed with exit code " + exitCode);
+            }
+        }
+        catch (InterruptedException e) {
+            process.destroy();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for " + command[0]);
+        }
+        finally {
+            target.close();
+        }
+    }
+}
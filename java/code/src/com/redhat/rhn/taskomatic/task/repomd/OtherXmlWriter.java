@@ -82,15 +82,16 @@ public class OtherXmlWriter extends RepomdWriter {
     /**
      *
      * @param pkgDto pkg info to add to xml
+     * @return the xml fragment added for the package
      */
-    public void addPackage(PackageDto pkgDto) {
+    public String addPackage(PackageDto pkgDto) {
 
         try {
             String xml = pkgDto.getOtherXml();
             if (ConfigDefaults.get().useDBRepodata() && !StringUtils.isEmpty(xml)) {
                 if (xml != null) {
                     handler.addCharacters(xml);
-                    return;
+                    return xml;
                 }
             }
 
@@ -106,6 +107,7 @@ public class OtherXmlWriter extends RepomdWriter {
             String pkg =  st.toString();
             PackageManager.updateRepoOther(pkgDto.getId(), pkg);
             handler.addCharacters(pkg);
+            return pkg;
 
         }
         catch (SAXException e) {
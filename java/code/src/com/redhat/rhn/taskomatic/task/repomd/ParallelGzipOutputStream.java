@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2025 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.taskomatic.task.repomd;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Gzip output stream deflating blocks of input in parallel, like pigz does.
+ *
+ * Each block is deflated on its own, primed with the last 32K of the previous block as dictionary, and
+ * ends with a sync flush so that the raw deflate outputs can be concatenated. The result is a single
+ * standard gzip member readable by any gzip implementation, with a compression ratio close to the one of
+ * {@link java.util.zip.GZIPOutputStream}, but not byte-identical to it.
+ */
+public class ParallelGzipOutputStream extends OutputStream {
+
+    private static final int BLOCK_SIZE = 128 * 1024;
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+    private static final int MAX_PENDING_BLOCKS = 16;
+    private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+
+    private final OutputStream out;
+    private final Executor executor;
+    private final Deque<CompletableFuture<byte[]>> pending = new ArrayDeque<>();
+    private final CRC32 crc = new CRC32();
+    private byte[] block = new byte[BLOCK_SIZE];
+    private int blockLength;
+    private byte[] dictionary;
+    private long totalLength;
+    private boolean closed;
+
+    /**
+     * Standard constructor.
+     * @param outIn the stream to write the compressed data to
+     * @param executorIn the executor deflating the blocks
+     * @throws IOException if the gzip header cannot be written
+     */
+    public ParallelGzipOutputStream(OutputStream outIn, Executor executorIn) throws IOException {
+        this.out = outIn;
+        this.executor = executorIn;
+        out.write(HEADER);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (blockLength == block.length) {
+            submitBlock(false);
+        }
+        block[blockLength++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        int written = 0;
+        while (written < len) {
+            if (blockLength == block.length) {
+                submitBlock(false);
+            }
+            int count = Math.min(len - written, block.length - blockLength);
+            System.arraycopy(b, off + written, block, blockLength, count);
+            blockLength += count;
+            written += count;
+        }
+    }
+
+    /**
+     * Writes the blocks deflated so far. Buffered input is kept to be deflated with the following
+     * data, so a flush does not degrade compression.
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void flush() throws IOException {
+        while (!pending.isEmpty() && pending.peekFirst().isDone()) {
+            out.write(await(pending.pollFirst()));
+        }
+        out.flush();
+    }
+
+    /**
+     * Deflates the remaining input and writes the gzip trailer.
+     * @throws IOException if writing fails
+     */
+    public void finish() throws IOException {
+        if (closed) {
+            return;
+        }
+        submitBlock(true);
+        while (!pending.isEmpty()) {
+            out.write(await(pending.pollFirst()));
+        }
+        writeIntLE((int) crc.getValue());
+        writeIntLE((int) totalLength);
+        closed = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        }
+        finally {
+            out.close();
+        }
+    }
+
+    private void submitBlock(boolean last) throws IOException {
+        byte[] input = block;
+        int length = blockLength;
+        byte[] dict = dictionary;
+        crc.update(input, 0, length);
+        totalLength += length;
+
+        if (length >= DICTIONARY_SIZE) {
+            dictionary = Arrays.copyOfRange(input, length - DICTIONARY_SIZE, length);
+        }
+        else if (length > 0) {
+            byte[] previous = dict == null ? new byte[0] : dict;
+            int keep = Math.min(previous.length, DICTIONARY_SIZE - length);
+            dictionary = new byte[keep + length];
+            System.arraycopy(previous, previous.length - keep, dictionary, 0, keep);
+            System.arraycopy(input, 0, dictionary, keep, length);
+        }
+
+        while (pending.size() >= MAX_PENDING_BLOCKS) {
+            out.write(await(pending.pollFirst()));
+        }
+        pending.addLast(CompletableFuture.supplyAsync(() -> deflate(input, length, dict, last), executor));
+        block = new byte[BLOCK_SIZE];
+        blockLength = 0;
+    }
+
+    private static byte[] deflate(byte[] input, int length, byte[] dict, boolean last) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            if (dict != null) {
+                deflater.setDictionary(dict);
+            }
+            deflater.setInput(input, 0, length);
+            ByteArrayOutputStream result = new ByteArrayOutputStream(length / 3 + 64);
+            byte[] buffer = new byte[64 * 1024];
+            if (last) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    int count = deflater.deflate(buffer);
+                    result.write(buffer, 0, count);
+                }
+            }
+            else {
+                int count;
+                do {
+                    count = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                    result.write(buffer, 0, count);
+                } while (count == buffer.length);
+            }
+            return result.toByteArray();
+        }
+        finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] await(CompletableFuture<byte[]> future) throws IOException {
+        try {
+            return future.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for compression");
+        }
+        catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private void writeIntLE(int value) throws IOException {
+        out.write(value & 0xff);
+        out.write((value >> 8) & 0xff);
+        out.write((value >> 16) & 0xff);
+        out.write((value >> 24) & 0xff);
+    }
+}
@@ -86,15 +86,16 @@ public class PrimaryXmlWriter extends RepomdWriter {
     /**
      *
      * @param pkgDto pkg info to add to xml
+     * @return the xml fragment added for the package
      */
-    public void addPackage(PackageDto pkgDto) {
+    public String addPackage(PackageDto pkgDto) {
         try {
             String xml = pkgDto.getPrimaryXml();
             if (ConfigDefaults.get().useDBRepodata() && !StringUtils.isEmpty(xml)) {
 
                 if (xml != null) {
                     handler.addCharacters(xml);
-                    return;
+                    return xml;
                 }
             }
 
@@ -116,6 +117,7 @@ public class PrimaryXmlWriter extends RepomdWriter {
             String pkg =  st.toString();
             PackageManager.updateRepoPrimary(pkgDto.getId(), pkg);
             handler.addCharacters(pkg);
+            return pkg;
 
         }
         catch (SAXException e) {
@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2025 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.taskomatic.task.repomd;
+
+import com.redhat.rhn.common.conf.ConfigDefaults;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the per-package xml fragments of the last metadata generation of a channel on disk, so that
+ * the next generation only has to produce the fragments of new or modified packages.
+ *
+ * The cache consists of a data file with the fragments of each package, in the order they were added,
+ * and an index file with the package id, the {@link PackageStamp} the fragments were generated from and
+ * the position of the fragments in the data file. A new generation is written to temporary files which
+ * replace the previous ones on {@link #commit()}.
+ */
+public class RepodataFragmentCache implements Closeable {
+
+    public static final String INDEX_FILE = "fragments.idx";
+    public static final String DATA_FILE = "fragments.dat";
+
+    private static final Logger LOG = LogManager.getLogger(RepodataFragmentCache.class);
+    private static final int FORMAT_VERSION = 1;
+    private static final String NEW_SUFFIX = ".new";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final File indexFile;
+    private final File dataFile;
+    private final File newIndexFile;
+    private final File newDataFile;
+
+    private final Map<Long, Entry> previous;
+    private final RandomAccessFile previousData;
+
+    private final DataOutputStream index;
+    private final DataOutputStream data;
+    private long offset;
+    private int reused;
+    private boolean committed;
+
+    /**
+     * The state of the database a package fragment was generated from.
+     * @param modified last modification time of the package or of its susedata
+     * @param metadataRows number of susedata rows (keywords, EULAs) of the package
+     */
+    public record PackageStamp(long modified, long metadataRows) { }
+
+    private record Entry(PackageStamp stamp, long offset, int[] lengths) { }
+
+    private RepodataFragmentCache(File dir) throws IOException {
+        indexFile = new File(dir, INDEX_FILE);
+        dataFile = new File(dir, DATA_FILE);
+        newIndexFile = new File(dir, INDEX_FILE + NEW_SUFFIX);
+        newDataFile = new File(dir, DATA_FILE + NEW_SUFFIX);
+
+        Map<Long, Entry> entries = readIndex(indexFile);
+        RandomAccessFile reader = null;
+        if (!entries.isEmpty() && dataFile.isFile()) {
+            reader = new RandomAccessFile(dataFile, "r");
+        }
+        else {
+            entries = Map.of();
+        }
+        previous = entries;
+        previousData = reader;
+
+        index = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(newIndexFile), BUFFER_SIZE));
+        data = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(newDataFile), BUFFER_SIZE));
+        index.writeInt(FORMAT_VERSION);
+    }
+
+    /**
+     * Opens the fragment cache in a directory, creating it if needed.
+     * @param dir the cache directory of a channel, outside of the published repodata
+     * @return the cache, holding the fragments of the last generation if they could be read
+     * @throws IOException if the files of the new generation cannot be created
+     */
+    public static RepodataFragmentCache open(File dir) throws IOException {
+        Files.createDirectories(dir.toPath());
+        return new RepodataFragmentCache(dir);
+    }
+
+    /**
+     * Returns the cache directory of a channel.
+     * @param channelLabel the channel label
+     * @return the directory under {@link ConfigDefaults#getIncrementalRepodataCacheDir()}
+     */
+    public static File getDirectory(String channelLabel) {
+        return new File(ConfigDefaults.get().getIncrementalRepodataCacheDir(), channelLabel);
+    }
+
+    /**
+     * Deletes the cache of a channel, if any.
+     * @param channelLabel the channel label
+     */
+    public static void delete(String channelLabel) {
+        File dir = getDirectory(channelLabel);
+        for (String name : List.of(INDEX_FILE, DATA_FILE, INDEX_FILE + NEW_SUFFIX, DATA_FILE + NEW_SUFFIX)) {
+            File file = new File(dir, name);
+            if (file.exists() && !file.delete()) {
+                LOG.info("Couldn't remove {}", file.getAbsolutePath());
+            }
+        }
+        if (dir.isDirectory() && !dir.delete()) {
+            LOG.info("Couldn't remove {}", dir.getAbsolutePath());
+        }
+    }
+
+    private static Map<Long, Entry> readIndex(File file) {
+        Map<Long, Entry> entries = new HashMap<>();
+        if (!file.isFile()) {
+            return entries;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file),
+                BUFFER_SIZE))) {
+            if (in.readInt() != FORMAT_VERSION) {
+                return new HashMap<>();
+            }
+            while (true) {
+                long packageId;
+                try {
+                    packageId = in.readLong();
+                }
+                catch (EOFException e) {
+                    return entries;
+                }
+                PackageStamp stamp = new PackageStamp(in.readLong(), in.readLong());
+                long entryOffset = in.readLong();
+                int[] lengths = new int[in.readInt()];
+                for (int i = 0; i < lengths.length; i++) {
+                    lengths[i] = in.readInt();
+                }
+                entries.put(packageId, new Entry(stamp, entryOffset, lengths));
+            }
+        }
+        catch (IOException e) {
+            LOG.warn("Ignoring unreadable repodata fragment index {}: {}", file, e.getMessage());
+            return new HashMap<>();
+        }
+    }
+
+    /**
+     * Returns the fragments of the previous generation for a package, if they are still valid.
+     * @param packageId the package id
+     * @param stamp the current state of the package
+     * @return the fragments, or null if the package has to be generated again
+     * @throws IOException if the data file cannot be read
+     */
+    public List<String> get(long packageId, PackageStamp stamp) throws IOException {
+        Entry entry = previous.get(packageId);
+        if (entry == null || !entry.stamp().equals(stamp)) {
+            return null;
+        }
+        int total = 0;
+        for (int length : entry.lengths()) {
+            total += length;
+        }
+        byte[] bytes = new byte[total];
+        previousData.seek(entry.offset());
+        previousData.readFully(bytes);
+
+        List<String> fragments = new ArrayList<>(entry.lengths().length);
+        int position = 0;
+        for (int length : entry.lengths()) {
+            fragments.add(new String(bytes, position, length, StandardCharsets.UTF_8));
+            position += length;
+        }
+        reused++;
+        return fragments;
+    }
+
+    /**
+     * Adds the fragments of a package to the new generation.
+     * @param packageId the package id
+     * @param stamp the state of the package the fragments were generated from
+     * @param fragments the fragments
+     * @throws IOException if the files cannot be written
+     */
+    public void put(long packageId, PackageStamp stamp, List<String> fragments) throws IOException {
+        index.writeLong(packageId);
+        index.writeLong(stamp.modified());
+        index.writeLong(stamp.metadataRows());
+        index.writeLong(offset);
+        index.writeInt(fragments.size());
+        for (String fragment : fragments) {
+            byte[] bytes = fragment.getBytes(StandardCharsets.UTF_8);
+            data.write(bytes);
+            index.writeInt(bytes.length);
+            offset += bytes.length;
+        }
+    }
+
+    /**
+     * Replaces the previous generation with the new one.
+     * @throws IOException if the files cannot be moved
+     */
+    public void commit() throws IOException {
+        closeFiles();
+        Files.move(newDataFile.toPath(), dataFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        Files.move(newIndexFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        committed = true;
+    }
+
+    /**
+     * @return the number of packages whose fragments were reused from the previous generation
+     */
+    public int getReusedCount() {
+        return reused;
+    }
+
+    /**
+     * Closes the files, discarding the new generation unless it was committed.
+     * @throws IOException if the files cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        closeFiles();
+        if (!committed) {
+            Files.deleteIfExists(newIndexFile.toPath());
+            Files.deleteIfExists(newDataFile.toPath());
+        }
+    }
+
+    private void closeFiles() throws IOException {
+        index.close();
+        data.close();
+        if (previousData != null) {
+            previousData.close();
+        }
+    }
+}
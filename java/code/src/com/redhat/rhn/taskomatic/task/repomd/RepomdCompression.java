@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2025 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.taskomatic.task.repomd;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compression formats for repository metadata files.
+ *
+ * Gzip is implemented in Java, in parallel blocks when an executor is available. Xz and zstd use the
+ * command line tools, which are multi-threaded on their own.
+ */
+public enum RepomdCompression {
+
+    GZIP("gz", null),
+    XZ("xz", new String[] {"/usr/bin/xz", "--stdout", "--threads=0"}),
+    ZSTD("zst", new String[] {"/usr/bin/zstd", "--quiet", "--stdout", "-T0"});
+
+    private static final Logger LOG = LogManager.getLogger(RepomdCompression.class);
+
+    private final String extension;
+    private final String[] command;
+
+    RepomdCompression(String extensionIn, String[] commandIn) {
+        this.extension = extensionIn;
+        this.command = commandIn;
+    }
+
+    /**
+     * @return the file name extension, without the dot
+     */
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Opens a compressing stream.
+     * @param out the stream to write the compressed data to, closed with the returned stream
+     * @param executor the executor to compress gzip blocks in parallel, null to compress in the calling thread.
+     * It has to be able to run tasks while one of its threads waits for them.
+     * @return the compressing stream
+     * @throws IOException if the stream cannot be opened
+     */
+    public OutputStream open(OutputStream out, Executor executor) throws IOException {
+        if (command != null) {
+            return new ExternalCompressorOutputStream(command, out);
+        }
+        if (executor != null) {
+            return new ParallelGzipOutputStream(out, executor);
+        }
+        return new GZIPOutputStream(out);
+    }
+
+    /**
+     * Returns the compression matching a configured label, like "gz", "gzip", "xz" or "zstd".
+     * @param label the configured label
+     * @return the matching compression, gzip if the label is empty or unknown
+     */
+    public static RepomdCompression fromLabel(String label) {
+        if (label == null || label.isBlank()) {
+            return GZIP;
+        }
+        return Arrays.stream(values())
+                .filter(c -> c.name().equalsIgnoreCase(label.trim()) || c.extension.equalsIgnoreCase(label.trim()))
+                .findFirst()
+                .orElseGet(() -> {
+                    LOG.warn("Unknown repository metadata compression '{}', using gzip", label);
+                    return GZIP;
+                });
+    }
+}
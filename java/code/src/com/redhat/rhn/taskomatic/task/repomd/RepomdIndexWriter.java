@@ -37,6 +37,7 @@ public class RepomdIndexWriter {
     private RepomdIndexData group;
     private RepomdIndexData modules;
     private RepomdIndexData products;
+    private RepomdCompression compression;
 
     /**
      *
@@ -55,7 +56,30 @@ public class RepomdIndexWriter {
             RepomdIndexData susedataDataIn, RepomdIndexData updateinfoIn,
             RepomdIndexData groupIn, RepomdIndexData modulesIn,
             RepomdIndexData productsIn) {
+        this(writerIn, primaryIn, filelistsIn, otherIn, susedataDataIn, updateinfoIn, groupIn, modulesIn,
+                productsIn, RepomdCompression.GZIP);
+    }
+
+    /**
+     *
+     * @param writerIn content writer
+     * @param primaryIn primary.xml data
+     * @param filelistsIn filelists.xml data
+     * @param otherIn other.xml data
+     * @param susedataDataIn susedata.xml data
+     * @param updateinfoIn updateinfo.xml data
+     * @param groupIn group data
+     * @param modulesIn modules data
+     * @param productsIn products data
+     * @param compressionIn compression of the xml metadata files
+     */
+    public RepomdIndexWriter(Writer writerIn, RepomdIndexData primaryIn,
+            RepomdIndexData filelistsIn, RepomdIndexData otherIn,
+            RepomdIndexData susedataDataIn, RepomdIndexData updateinfoIn,
+            RepomdIndexData groupIn, RepomdIndexData modulesIn,
+            RepomdIndexData productsIn, RepomdCompression compressionIn) {
 
+        this.compression = compressionIn;
         this.primary = primaryIn;
         this.filelists = filelistsIn;
         this.other = otherIn;
@@ -126,7 +150,7 @@ public class RepomdIndexWriter {
         SimpleAttributesImpl attr = new SimpleAttributesImpl();
         attr.addAttribute("type", type);
 
-        String location = type + ".xml.gz";
+        String location = type + ".xml." + compression.getExtension();
         // special case for comps file
         if (type.equals("group")) {
             location = "comps.xml";
@@ -157,6 +157,22 @@ public abstract class RepomdWriter {
     }
 
 
+    /**
+     * Adds an xml fragment previously returned when adding a package
+     * @param fragment the xml fragment
+     */
+    public void addFragment(String fragment) {
+        if (fragment.isEmpty()) {
+            return;
+        }
+        try {
+            handler.addCharacters(fragment);
+        }
+        catch (SAXException e) {
+            throw new RepomdRuntimeException(e);
+        }
+    }
+
     /**
      *
      * @param channel channel info
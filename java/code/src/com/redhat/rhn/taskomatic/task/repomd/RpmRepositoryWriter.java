@@ -29,10 +29,13 @@ import com.redhat.rhn.manager.rhnpackage.PackageManager;
 import com.redhat.rhn.manager.satellite.Executor;
 import com.redhat.rhn.manager.satellite.SystemCommandExecutor;
 import com.redhat.rhn.manager.task.TaskManager;
+import com.redhat.rhn.taskomatic.task.repomd.RepodataFragmentCache.PackageStamp;
 
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 
 import java.io.BufferedWriter;
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -40,6 +43,7 @@ import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.security.DigestInputStream;
@@ -51,7 +55,13 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  *
@@ -59,13 +69,13 @@ import java.util.List;
  */
 public class RpmRepositoryWriter extends RepositoryWriter {
 
-    private static final String PRIMARY_FILE = "primary.xml.gz.new";
-    private static final String FILELISTS_FILE = "filelists.xml.gz.new";
-    private static final String OTHER_FILE = "other.xml.gz.new";
+    private static final String PRIMARY_FILE = "primary.xml";
+    private static final String FILELISTS_FILE = "filelists.xml";
+    private static final String OTHER_FILE = "other.xml";
     private static final String REPOMD_FILE = "repomd.xml.new";
-    private static final String UPDATEINFO_FILE = "updateinfo.xml.gz.new";
+    private static final String UPDATEINFO_FILE = "updateinfo.xml";
     private static final String PRODUCTS_FILE = "products.xml";
-    private static final String SUSEDATA_FILE = "susedata.xml.gz.new";
+    private static final String SUSEDATA_FILE = "susedata.xml";
     private static final String NOREPO_FILE = "noyumrepo.txt";
     private static final String SOLV_FILE = "solv.new";
     private static final String REPO2SOLV = "/usr/bin/repo2solv";
@@ -73,6 +83,15 @@ public class RpmRepositoryWriter extends RepositoryWriter {
     private static final String GROUP = "groups";
     private static final String MODULES = "modules";
 
+    private static final int WRITER_BUFFER_SIZE = 64 * 1024;
+
+    private final RepomdCompression compression =
+            RepomdCompression.fromLabel(ConfigDefaults.get().getRepodataCompression());
+
+    // compresses the metadata streams and generates updateinfo while packages are being serialized
+    private static final ExecutorService BACKGROUND_POOL = Executors.newCachedThreadPool(
+            new BasicThreadFactory.Builder().namingPattern("repomd-background-%d").daemon(true).build());
+
     /**
      * Utility class to move/copy files around in the 'repodata' directory
      */
@@ -213,6 +232,17 @@ public class RpmRepositoryWriter extends RepositoryWriter {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void deleteRepomdFiles(String channelLabelToProcess, boolean deleteDir) {
+        super.deleteRepomdFiles(channelLabelToProcess, deleteDir);
+        if (deleteDir) {
+            RepodataFragmentCache.delete(channelLabelToProcess);
+        }
+    }
+
     /**
      *
      * @param channel channelinfo for repomd file creation
@@ -255,92 +285,96 @@ public class RpmRepositoryWriter extends RepositoryWriter {
         log.info("Generating new repository metadata for channel '{}'({}) {} packages, {} errata", channel.getLabel(),
                 checksumType, channel.getPackageCount(), channel.getErrataCount());
 
-        CompressingDigestOutputWriter primaryFile, filelistsFile, otherFile, susedataFile;
-
-        try {
-            primaryFile = new CompressingDigestOutputWriter(
-                    new FileOutputStream(prefix + PRIMARY_FILE),
-                    checksumAlgo);
-            filelistsFile = new CompressingDigestOutputWriter(
-                    new FileOutputStream(prefix + FILELISTS_FILE),
-                    checksumAlgo);
-            otherFile = new CompressingDigestOutputWriter(
-                    new FileOutputStream(prefix + OTHER_FILE), checksumAlgo);
-            susedataFile = new CompressingDigestOutputWriter(
-                    new FileOutputStream(prefix + SUSEDATA_FILE), checksumAlgo);
-        }
-        catch (IOException | NoSuchAlgorithmException e) {
-            throw new RepomdRuntimeException(e);
-        }
+        // updateinfo only depends on the channel errata, generate it while the package streams are written
+        CompletableFuture<RepomdIndexData> updateinfoFuture = startUpdateinfoGeneration(channel, prefix,
+                checksumAlgo);
 
-        BufferedWriter primaryBufferedWriter = new BufferedWriter(
-                new OutputStreamWriter(primaryFile));
-        BufferedWriter filelistsBufferedWriter = new BufferedWriter(
-                new OutputStreamWriter(filelistsFile));
-        BufferedWriter otherBufferedWriter = new BufferedWriter(
-                new OutputStreamWriter(otherFile));
-        BufferedWriter susedataBufferedWriter = new BufferedWriter(
-                new OutputStreamWriter(susedataFile));
-        PrimaryXmlWriter primary = new PrimaryXmlWriter(
-                primaryBufferedWriter);
-        FilelistsXmlWriter filelists = new FilelistsXmlWriter(
-                filelistsBufferedWriter);
-        OtherXmlWriter other = new OtherXmlWriter(otherBufferedWriter);
-        SuseDataXmlWriter susedata = new SuseDataXmlWriter(
-                susedataBufferedWriter);
+        CompressingDigestOutputWriter primaryFile = null;
+        CompressingDigestOutputWriter filelistsFile = null;
+        CompressingDigestOutputWriter otherFile = null;
+        CompressingDigestOutputWriter susedataFile = null;
         Date start = new Date();
-
-        primary.begin(channel);
-        filelists.begin(channel);
-        other.begin(channel);
-        susedata.begin(channel);
-
-        // batch the elaboration so we don't have to hold many thousands of packages in memory at once
-        final int batchSize = 1000;
-        for (long i = 0; i < channel.getPackageCount(); i += batchSize) {
-            DataResult<PackageDto> packageBatch = TaskManager.getChannelPackageDtos(channel, i, batchSize);
-            packageBatch.elaborate();
-            for (PackageDto pkgDto : packageBatch) {
-                // this is a sanity check
-                // package may have been deleted before packageBatch.elaborate()
-                if (pkgDto.getChecksum() == null) {
-                    // channel content changed, we cannot guarantee correct repodata
-                    throw new RepomdRuntimeException("Package with id " + pkgDto.getId() +
-                            " removed from server, interrupting repo generation for " +
-                            channel.getLabel());
-                }
-                primary.addPackage(pkgDto);
-                filelists.addPackage(pkgDto);
-                other.addPackage(pkgDto);
-                susedata.addPackage(pkgDto);
+        boolean written = false;
+        try {
+            primaryFile = openMetadataFile(prefix + tempName(PRIMARY_FILE), checksumAlgo);
+            filelistsFile = openMetadataFile(prefix + tempName(FILELISTS_FILE), checksumAlgo);
+            otherFile = openMetadataFile(prefix + tempName(OTHER_FILE), checksumAlgo);
+            susedataFile = openMetadataFile(prefix + tempName(SUSEDATA_FILE), checksumAlgo);
+
+            BufferedWriter primaryBufferedWriter = new BufferedWriter(
+                    new OutputStreamWriter(primaryFile), WRITER_BUFFER_SIZE);
+            BufferedWriter filelistsBufferedWriter = new BufferedWriter(
+                    new OutputStreamWriter(filelistsFile), WRITER_BUFFER_SIZE);
+            BufferedWriter otherBufferedWriter = new BufferedWriter(
+                    new OutputStreamWriter(otherFile), WRITER_BUFFER_SIZE);
+            BufferedWriter susedataBufferedWriter = new BufferedWriter(
+                    new OutputStreamWriter(susedataFile), WRITER_BUFFER_SIZE);
+            PrimaryXmlWriter primary = new PrimaryXmlWriter(primaryBufferedWriter);
+            FilelistsXmlWriter filelists = new FilelistsXmlWriter(filelistsBufferedWriter);
+            OtherXmlWriter other = new OtherXmlWriter(otherBufferedWriter);
+            SuseDataXmlWriter susedata = new SuseDataXmlWriter(susedataBufferedWriter);
+
+            primary.begin(channel);
+            filelists.begin(channel);
+            other.begin(channel);
+            susedata.begin(channel);
+
+            // in incremental mode the fragments of unchanged packages are taken over from the last generation
+            Map<Long, PackageStamp> stamps = Collections.emptyMap();
+            RepodataFragmentCache fragmentCache = null;
+            if (ConfigDefaults.get().isIncrementalRepodata()) {
+                stamps = getPackageStamps(channel);
                 try {
-                    primaryFile.flush();
-                    filelistsFile.flush();
-                    otherFile.flush();
-                    susedataFile.flush();
+                    fragmentCache = RepodataFragmentCache.open(
+                            RepodataFragmentCache.getDirectory(channel.getLabel()));
                 }
                 catch (IOException e) {
                     throw new RepomdRuntimeException(e);
                 }
             }
-            log.info("Processed {} packages", i + packageBatch.getEnd());
-            if (commitTransaction) {
-                // commit pre generated XML snippets in the cache
-                HibernateFactory.commitTransaction();
+
+            try {
+                writePackages(channel, primary, filelists, other, susedata, List.of(primaryBufferedWriter,
+                        filelistsBufferedWriter, otherBufferedWriter, susedataBufferedWriter), stamps, fragmentCache);
             }
+            catch (IOException e) {
+                closeQuietly(fragmentCache);
+                throw new RepomdRuntimeException(e);
+            }
+            catch (RuntimeException e) {
+                closeQuietly(fragmentCache);
+                throw e;
+            }
+            if (fragmentCache != null) {
+                log.info("Reused the metadata of {} unchanged packages", fragmentCache.getReusedCount());
+                try {
+                    fragmentCache.commit();
+                }
+                catch (IOException e) {
+                    log.warn("Unable to store the package metadata fragments of '{}'", channel.getLabel(), e);
+                }
+            }
+            primary.end();
+            filelists.end();
+            other.end();
+            susedata.end();
+            try {
+                primaryBufferedWriter.close();
+                filelistsBufferedWriter.close();
+                otherBufferedWriter.close();
+                susedataBufferedWriter.close();
+            }
+            catch (IOException e) {
+                throw new RepomdRuntimeException(e);
+            }
+            written = true;
         }
-        primary.end();
-        filelists.end();
-        other.end();
-        susedata.end();
-        try {
-            primaryBufferedWriter.close();
-            filelistsBufferedWriter.close();
-            otherBufferedWriter.close();
-            susedataBufferedWriter.close();
-        }
-        catch (IOException e) {
-            throw new RepomdRuntimeException(e);
+        finally {
+            if (!written) {
+                // do not leave the other files open and updateinfo running for a generation that failed
+                updateinfoFuture.cancel(true);
+                closeQuietly(primaryFile, filelistsFile, otherFile, susedataFile);
+            }
         }
 
         RepomdIndexData primaryData = new RepomdIndexData(primaryFile.getCompressedChecksum(),
@@ -352,10 +386,13 @@ public class RpmRepositoryWriter extends RepositoryWriter {
         RepomdIndexData susedataData = new RepomdIndexData(susedataFile.getCompressedChecksum(),
                 susedataFile.getUncompressedChecksum(), channel.getLastModified());
 
-        if (log.isDebugEnabled()) {
-            log.debug("Starting updateinfo generation for '{}\"", channel.getLabel());
+        RepomdIndexData updateinfoData;
+        try {
+            updateinfoData = updateinfoFuture.join();
+        }
+        catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new RepomdRuntimeException(e.getCause());
         }
-        RepomdIndexData updateinfoData = generateUpdateinfo(channel, prefix, checksumAlgo);
         RepomdIndexData productsData = generateProducts(channel, prefix, checksumAlgo);
         RepomdIndexData groupsData = loadRepoMetadataFile(channel, checksumAlgo, GROUP);
         RepomdIndexData modulesData = loadRepoMetadataFile(channel, checksumAlgo, MODULES);
@@ -383,7 +420,7 @@ public class RpmRepositoryWriter extends RepositoryWriter {
             indexFile = new FileWriter(prefix + REPOMD_FILE);
             RepomdIndexWriter index = new RepomdIndexWriter(indexFile, primaryData,
                     filelistsData, otherData, susedataData, updateinfoData,
-                    groupsData, modulesData, productsData);
+                    groupsData, modulesData, productsData, compression);
             index.writeRepomdIndex();
             indexFile.close();
         }
@@ -393,14 +430,17 @@ public class RpmRepositoryWriter extends RepositoryWriter {
 
         List<File> createdFiles = new ArrayList<>();
         RepomdFileOrganizer organizer = new RepomdFileOrganizer(prefix, channel.getLastModified().getTime());
-        createdFiles.add(organizer.move(PRIMARY_FILE, "primary.xml.gz", primaryData.getChecksum()));
-        createdFiles.add(organizer.move(FILELISTS_FILE, "filelists.xml.gz", filelistsData.getChecksum()));
-        createdFiles.add(organizer.move(OTHER_FILE, "other.xml.gz", otherData.getChecksum()));
-        createdFiles.add(organizer.move(SUSEDATA_FILE, "susedata.xml.gz", susedataData.getChecksum()));
+        createdFiles.add(organizer.move(tempName(PRIMARY_FILE), finalName(PRIMARY_FILE), primaryData.getChecksum()));
+        createdFiles.add(organizer.move(tempName(FILELISTS_FILE), finalName(FILELISTS_FILE),
+                filelistsData.getChecksum()));
+        createdFiles.add(organizer.move(tempName(OTHER_FILE), finalName(OTHER_FILE), otherData.getChecksum()));
+        createdFiles.add(organizer.move(tempName(SUSEDATA_FILE), finalName(SUSEDATA_FILE),
+                susedataData.getChecksum()));
 
         // Optional files
         if (updateinfoData != null) {
-            createdFiles.add(organizer.move(UPDATEINFO_FILE, "updateinfo.xml.gz", updateinfoData.getChecksum()));
+            createdFiles.add(organizer.move(tempName(UPDATEINFO_FILE), finalName(UPDATEINFO_FILE),
+                    updateinfoData.getChecksum()));
         }
         if (productsData != null) {
             createdFiles.add(organizer.move(PRODUCTS_FILE, "products.xml", productsData.getChecksum()));
@@ -442,6 +482,155 @@ public class RpmRepositoryWriter extends RepositoryWriter {
                 .forEach(File::delete);
     }
 
+    /**
+     * Adds the metadata of all channel packages to the primary, filelists, other and susedata writers.
+     * @param channel the channel
+     * @param primary the primary writer
+     * @param filelists the filelists writer
+     * @param other the other writer
+     * @param susedata the susedata writer
+     * @param outputs the outputs of the writers, flushed after each batch
+     * @param stamps the current package stamps, empty if incremental generation is disabled
+     * @param fragmentCache the fragment cache, null if incremental generation is disabled
+     * @throws IOException if writing fails
+     */
+    private void writePackages(Channel channel, PrimaryXmlWriter primary, FilelistsXmlWriter filelists,
+            OtherXmlWriter other, SuseDataXmlWriter susedata, List<Writer> outputs, Map<Long, PackageStamp> stamps,
+            RepodataFragmentCache fragmentCache) throws IOException {
+        // batch the elaboration so we don't have to hold many thousands of packages in memory at once
+        final int batchSize = 1000;
+        for (long i = 0; i < channel.getPackageCount(); i += batchSize) {
+            DataResult<PackageDto> packageBatch = TaskManager.getChannelPackageDtos(channel, i, batchSize);
+            List<PackageDto> batchPackages = new ArrayList<>(packageBatch);
+            Map<Long, List<String>> cachedFragments = getCachedFragments(fragmentCache, stamps, batchPackages);
+            packageBatch.removeIf(pkgDto -> cachedFragments.containsKey(pkgDto.getId()));
+            if (!packageBatch.isEmpty()) {
+                packageBatch.elaborate();
+            }
+            for (PackageDto pkgDto : batchPackages) {
+                List<String> fragments = cachedFragments.get(pkgDto.getId());
+                if (fragments != null) {
+                    primary.addFragment(fragments.get(0));
+                    filelists.addFragment(fragments.get(1));
+                    other.addFragment(fragments.get(2));
+                    susedata.addFragment(fragments.get(3));
+                }
+                else {
+                    // this is a sanity check
+                    // package may have been deleted before packageBatch.elaborate()
+                    if (pkgDto.getChecksum() == null) {
+                        // channel content changed, we cannot guarantee correct repodata
+                        throw new RepomdRuntimeException("Package with id " + pkgDto.getId() +
+                                " removed from server, interrupting repo generation for " +
+                                channel.getLabel());
+                    }
+                    fragments = List.of(primary.addPackage(pkgDto), filelists.addPackage(pkgDto),
+                            other.addPackage(pkgDto), susedata.addPackage(pkgDto));
+                }
+                PackageStamp stamp = stamps.get(pkgDto.getId());
+                if (fragmentCache != null && stamp != null) {
+                    fragmentCache.put(pkgDto.getId(), stamp, fragments);
+                }
+            }
+            // hand the batch over to the compression threads
+            for (Writer output : outputs) {
+                output.flush();
+            }
+            log.info("Processed {} packages", i + packageBatch.getEnd());
+            if (commitTransaction) {
+                // commit pre generated XML snippets in the cache
+                HibernateFactory.commitTransaction();
+            }
+        }
+    }
+
+    private String finalName(String metadataFile) {
+        return metadataFile + "." + compression.getExtension();
+    }
+
+    private String tempName(String metadataFile) {
+        return finalName(metadataFile) + ".new";
+    }
+
+    /**
+     * Returns the state of the channel packages their cached metadata fragments can be checked against.
+     * Packages without metadata snippets in the database are left out, so they are generated again.
+     * @param channel the channel
+     * @return the package stamps by package id
+     */
+    private static Map<Long, PackageStamp> getPackageStamps(Channel channel) {
+        boolean checkDBRepodata = ConfigDefaults.get().useDBRepodata();
+        Map<Long, PackageStamp> stamps = new HashMap<>();
+        for (Map<String, Object> row : TaskManager.getChannelPackageStamps(channel)) {
+            if (checkDBRepodata && ((Number) row.get("repodata_cached")).intValue() == 0) {
+                continue;
+            }
+            stamps.put(((Number) row.get("id")).longValue(), new PackageStamp(((Date) row.get("modified")).getTime(),
+                    ((Number) row.get("metadata_rows")).longValue()));
+        }
+        return stamps;
+    }
+
+    /**
+     * Looks up the still valid fragments of the previous generation for a batch of packages.
+     * @param fragmentCache the fragment cache, null if incremental generation is disabled
+     * @param stamps the current package stamps
+     * @param packages the packages of the batch
+     * @return the primary, filelists, other and susedata fragments by package id
+     * @throws IOException if the fragments cannot be read
+     */
+    private static Map<Long, List<String>> getCachedFragments(RepodataFragmentCache fragmentCache,
+            Map<Long, PackageStamp> stamps, List<PackageDto> packages) throws IOException {
+        Map<Long, List<String>> fragments = new HashMap<>();
+        if (fragmentCache == null) {
+            return fragments;
+        }
+        for (PackageDto pkgDto : packages) {
+            PackageStamp stamp = stamps.get(pkgDto.getId());
+            List<String> cached = stamp == null ? null : fragmentCache.get(pkgDto.getId(), stamp);
+            if (cached != null && cached.size() == 4) {
+                fragments.put(pkgDto.getId(), cached);
+            }
+        }
+        return fragments;
+    }
+
+    private void closeQuietly(RepodataFragmentCache fragmentCache) {
+        if (fragmentCache == null) {
+            return;
+        }
+        try {
+            fragmentCache.close();
+        }
+        catch (IOException e) {
+            log.warn("Unable to close the package metadata fragments", e);
+        }
+    }
+
+    private CompressingDigestOutputWriter openMetadataFile(String path, String checksumAlgo) {
+        try {
+            return new CompressingDigestOutputWriter(new FileOutputStream(path), checksumAlgo, BACKGROUND_POOL,
+                    compression);
+        }
+        catch (IOException | NoSuchAlgorithmException e) {
+            throw new RepomdRuntimeException(e);
+        }
+    }
+
+    private void closeQuietly(Closeable... streams) {
+        for (Closeable stream : streams) {
+            if (stream == null) {
+                continue;
+            }
+            try {
+                stream.close();
+            }
+            catch (IOException e) {
+                log.warn("Unable to close a repository metadata file", e);
+            }
+        }
+    }
+
     private void generateSolv(Channel channel) {
         String repodir  = mountPoint + File.separator + pathPrefix +
                           File.separator + channel.getLabel() + File.separator;
@@ -578,6 +767,34 @@ public class RpmRepositoryWriter extends RepositoryWriter {
         return true;
     }
 
+    /**
+     * Starts the generation of the update info for given channel. Outside of unit tests, where all data
+     * is committed, it runs in a background thread using its own database session.
+     * @param channel channel info
+     * @param prefix repodata file prefix
+     * @param checksumAlgo checksum type
+     * @return the future repodata index
+     */
+    private CompletableFuture<RepomdIndexData> startUpdateinfoGeneration(Channel channel, String prefix,
+            String checksumAlgo) {
+        if (log.isDebugEnabled()) {
+            log.debug("Starting updateinfo generation for '{}'", channel.getLabel());
+        }
+        if (!commitTransaction || channel.getErrataCount() == 0) {
+            return CompletableFuture.completedFuture(generateUpdateinfo(channel, prefix, checksumAlgo));
+        }
+        Long channelId = channel.getId();
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                Channel backgroundChannel = ChannelFactory.lookupById(channelId);
+                return generateUpdateinfo(backgroundChannel, prefix, checksumAlgo);
+            }
+            finally {
+                HibernateFactory.closeSession();
+            }
+        }, BACKGROUND_POOL);
+    }
+
     /**
      * Generates update info for given channel
      * @param channel channel info
@@ -595,7 +812,7 @@ public class RpmRepositoryWriter extends RepositoryWriter {
         CompressingDigestOutputWriter updateinfoFile;
         try {
             updateinfoFile = new CompressingDigestOutputWriter(
-                    new FileOutputStream(prefix + UPDATEINFO_FILE), checksumtypeIn);
+                    new FileOutputStream(prefix + tempName(UPDATEINFO_FILE)), checksumtypeIn, null, compression);
         }
         catch (IOException | NoSuchAlgorithmException e) {
             throw new RepomdRuntimeException(e);
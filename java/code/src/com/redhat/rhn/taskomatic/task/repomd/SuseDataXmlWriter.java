@@ -79,8 +79,9 @@ public class SuseDataXmlWriter extends RepomdWriter {
     /**
      *
      * @param pkgDto pkg info to add to xml
+     * @return the xml fragment added for the package
      */
-    public void addPackage(PackageDto pkgDto) {
+    public String addPackage(PackageDto pkgDto) {
         long pkgId = pkgDto.getId();
         List<String> eulas = new EulaManager().getEulasForPackage(pkgId);
 
@@ -89,7 +90,7 @@ public class SuseDataXmlWriter extends RepomdWriter {
 
         if (keywords.isEmpty() && eulas.isEmpty()) {
             // this package has no keywords and no EULA
-            return;
+            return "";
         }
         try {
             ByteArrayOutputStream st = new ByteArrayOutputStream();
@@ -104,6 +105,7 @@ public class SuseDataXmlWriter extends RepomdWriter {
 
             String pkg =  st.toString();
             handler.addCharacters(pkg);
+            return pkg;
         }
         catch (SAXException e) {
             throw new RepomdRuntimeException(e);
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2025 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.taskomatic.task.repomd.test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.redhat.rhn.common.util.StringUtil;
+import com.redhat.rhn.taskomatic.task.repomd.CompressingDigestOutputWriter;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Test for {@link CompressingDigestOutputWriter}
+ */
+public class CompressingDigestOutputWriterTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testAsyncCompressionMatchesSync() throws Exception {
+        ByteArrayOutputStream syncBytes = new ByteArrayOutputStream();
+        ByteArrayOutputStream asyncBytes = new ByteArrayOutputStream();
+        CompressingDigestOutputWriter sync = new CompressingDigestOutputWriter(syncBytes, "sha256");
+        CompressingDigestOutputWriter async = new CompressingDigestOutputWriter(asyncBytes, "sha256", executor);
+
+        for (int i = 0; i < 50_000; i++) {
+            byte[] line = ("<package name=\"pkg-" + i + "\"/>\n").getBytes(StandardCharsets.UTF_8);
+            sync.write(line);
+            async.write(line);
+            sync.write(i % 128);
+            async.write(i % 128);
+            if (i % 1000 == 0) {
+                sync.flush();
+                async.flush();
+            }
+        }
+        sync.close();
+        async.close();
+
+        // blocks are deflated in parallel, so only the uncompressed content is identical
+        assertArrayEquals(gunzip(syncBytes.toByteArray()), gunzip(asyncBytes.toByteArray()));
+        assertEquals(sync.getUncompressedChecksum(), async.getUncompressedChecksum());
+        assertEquals(sha256(asyncBytes.toByteArray()), async.getCompressedChecksum());
+        assertTrue(asyncBytes.size() < syncBytes.size() * 1.1);
+    }
+
+    private static byte[] gunzip(byte[] compressed) throws Exception {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static String sha256(byte[] bytes) throws Exception {
+        return StringUtil.getHexString(MessageDigest.getInstance("sha256").digest(bytes));
+    }
+}
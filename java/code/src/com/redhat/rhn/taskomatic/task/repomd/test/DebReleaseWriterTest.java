@@ -26,7 +26,6 @@ import com.redhat.rhn.domain.rhnpackage.PackageFactory;
 import com.redhat.rhn.manager.rhnpackage.test.PackageManagerTest;
 import com.redhat.rhn.taskomatic.task.repomd.DebPackageWriter;
 import com.redhat.rhn.taskomatic.task.repomd.DebReleaseWriter;
-import com.redhat.rhn.taskomatic.task.repomd.DebRepositoryWriter;
 import com.redhat.rhn.testing.BaseTestCaseWithUser;
 
 import org.junit.jupiter.api.AfterEach;
@@ -67,10 +66,6 @@ public class DebReleaseWriterTest extends BaseTestCaseWithUser {
         DebPackageWriter pkgWriter = new DebPackageWriter(channel, prefix);
         pkgWriter.close();
 
-        DebRepositoryWriter repoWriter = new DebRepositoryWriter("", prefix);
-        repoWriter.setCommitTransaction(false);
-        repoWriter.gzipCompress(pkgWriter.getFilenamePackages());
-
         DebReleaseWriter releaseWriter = new DebReleaseWriter(channel, prefix);
         releaseWriter.generateRelease();
         ZonedDateTime now = ZonedDateTime.now();
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2025 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.taskomatic.task.repomd.test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import com.redhat.rhn.taskomatic.task.repomd.ParallelGzipOutputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Test for {@link ParallelGzipOutputStream}
+ */
+public class ParallelGzipOutputStreamTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        assertRoundTrip(new byte[0]);
+        assertRoundTrip("<metadata packages=\"0\"/>".getBytes());
+
+        // several blocks of compressible and random data, with a partial last block
+        Random random = new Random(42);
+        byte[] data = new byte[3 * 128 * 1024 + 12345];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = i % 3 == 0 ? (byte) random.nextInt() : (byte) ('a' + i % 7);
+        }
+        assertRoundTrip(data);
+    }
+
+    private void assertRoundTrip(byte[] data) throws Exception {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (ParallelGzipOutputStream out = new ParallelGzipOutputStream(compressed, executor)) {
+            // mix single bytes and arrays, with flushes in between
+            int half = data.length / 2;
+            for (int i = 0; i < Math.min(half, 1000); i++) {
+                out.write(data[i]);
+            }
+            out.flush();
+            out.write(data, Math.min(half, 1000), data.length - Math.min(half, 1000));
+        }
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray()))) {
+            assertArrayEquals(data, in.readAllBytes());
+        }
+    }
+}
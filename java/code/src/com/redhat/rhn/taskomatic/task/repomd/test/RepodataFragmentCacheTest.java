@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2025 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.taskomatic.task.repomd.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.redhat.rhn.taskomatic.task.repomd.RepodataFragmentCache;
+import com.redhat.rhn.taskomatic.task.repomd.RepodataFragmentCache.PackageStamp;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Test for {@link RepodataFragmentCache}
+ */
+public class RepodataFragmentCacheTest {
+
+    @TempDir
+    private File dir;
+
+    @Test
+    public void testReuseUnchangedPackages() throws Exception {
+        PackageStamp stamp = new PackageStamp(1000L, 0L);
+        List<String> fragments1 = List.of("<package name=\"a\"/>", "<package name=\"a\">\u00e4</package>", "", "");
+        List<String> fragments2 = List.of("<package name=\"b\"/>", "", "<package name=\"b\"/>", "<keyword/>");
+
+        try (RepodataFragmentCache cache = RepodataFragmentCache.open(dir)) {
+            assertNull(cache.get(1L, stamp));
+            cache.put(1L, stamp, fragments1);
+            cache.put(2L, stamp, fragments2);
+            cache.commit();
+        }
+
+        try (RepodataFragmentCache cache = RepodataFragmentCache.open(dir)) {
+            assertEquals(fragments2, cache.get(2L, stamp));
+            assertEquals(fragments1, cache.get(1L, stamp));
+            assertNull(cache.get(2L, new PackageStamp(2000L, 0L)));
+            assertNull(cache.get(1L, new PackageStamp(1000L, 1L)));
+            assertNull(cache.get(3L, stamp));
+            assertEquals(2, cache.getReusedCount());
+        }
+    }
+
+    @Test
+    public void testUncommittedGenerationIsDiscarded() throws Exception {
+        PackageStamp stamp = new PackageStamp(1000L, 0L);
+        try (RepodataFragmentCache cache = RepodataFragmentCache.open(dir)) {
+            cache.put(1L, stamp, List.of("<package/>"));
+        }
+        assertFalse(new File(dir, RepodataFragmentCache.INDEX_FILE).exists());
+        assertFalse(new File(dir, RepodataFragmentCache.INDEX_FILE + ".new").exists());
+
+        try (RepodataFragmentCache cache = RepodataFragmentCache.open(dir)) {
+            assertNull(cache.get(1L, stamp));
+        }
+    }
+
+    @Test
+    public void testCorruptIndexIsIgnored() throws Exception {
+        PackageStamp stamp = new PackageStamp(1000L, 0L);
+        try (RepodataFragmentCache cache = RepodataFragmentCache.open(dir)) {
+            cache.put(1L, stamp, List.of("<package/>"));
+            cache.commit();
+        }
+        File index = new File(dir, RepodataFragmentCache.INDEX_FILE);
+        byte[] bytes = Files.readAllBytes(index.toPath());
+        Files.write(index.toPath(), Arrays.copyOf(bytes, bytes.length - 2));
+        assertTrue(index.exists());
+
+        try (RepodataFragmentCache cache = RepodataFragmentCache.open(dir)) {
+            assertNull(cache.get(1L, stamp));
+        }
+    }
+}
@@ -14,7 +14,7 @@
  */
 package com.redhat.rhn.taskomatic.task.systems;
 
-import com.redhat.rhn.common.conf.Config;
+import com.redhat.rhn.common.conf.ConfigDefaults;
 import com.redhat.rhn.domain.task.Task;
 import com.redhat.rhn.domain.task.TaskFactory;
 import com.redhat.rhn.taskomatic.task.threaded.AbstractQueueDriver;
@@ -22,15 +22,16 @@ import com.redhat.rhn.taskomatic.task.threaded.QueueWorker;
 
 import org.apache.logging.log4j.Logger;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Driver for the threaded system overview update queue
  */
-public class SystemsOverviewUpdateDriver extends AbstractQueueDriver<Long> {
+public class SystemsOverviewUpdateDriver extends AbstractQueueDriver<List<Long>> {
 
     public static final String TASK_NAME = "update_system_overview";
+    public static final SystemsOverviewUpdateMetrics METRICS = new SystemsOverviewUpdateMetrics();
     private Logger logger = null;
 
     @Override
@@ -44,21 +45,30 @@ public class SystemsOverviewUpdateDriver extends AbstractQueueDriver<Long> {
     }
 
     @Override
-    protected List<Long> getCandidates() {
+    protected List<List<Long>> getCandidates() {
         // Candidates are system IDs, deduplicated to avoid useless updates
-        return TaskFactory.getTaskListByNameLike(TASK_NAME).stream()
+        List<Long> sids = TaskFactory.getTaskListByNameLike(TASK_NAME).stream()
             .map(Task::getData)
             .distinct()
-            .collect(Collectors.toList());
+            .toList();
+        METRICS.setPendingSystems(sids.size());
+
+        // Each worker updates a chunk of systems with a single statement
+        int batchSize = ConfigDefaults.get().getTaskoSystemsOverviewUpdateBatchSize();
+        List<List<Long>> batches = new ArrayList<>();
+        for (int start = 0; start < sids.size(); start += batchSize) {
+            batches.add(sids.subList(start, Math.min(start + batchSize, sids.size())));
+        }
+        return batches;
     }
 
     @Override
     public int getMaxWorkers() {
-        return Config.get().getInt("taskomatic.systems_overview_update_workers", 2);
+        return ConfigDefaults.get().getTaskoSystemsOverviewUpdateWorkers();
     }
 
     @Override
-    protected QueueWorker makeWorker(Long sid) {
-        return new SystemsOverviewUpdateWorker(sid, logger);
+    protected QueueWorker makeWorker(List<Long> sids) {
+        return new SystemsOverviewUpdateWorker(sids, logger);
     }
 }
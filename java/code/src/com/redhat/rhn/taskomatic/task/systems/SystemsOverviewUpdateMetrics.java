@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2025 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.taskomatic.task.systems;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters about the system overview update queue, to follow how fast it drains.
+ */
+public class SystemsOverviewUpdateMetrics {
+
+    private final LongAdder updatedSystems = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder updateMillis = new LongAdder();
+    private final AtomicLong pendingSystems = new AtomicLong();
+
+    /**
+     * Records a chunk of systems being updated.
+     * @param updatedSystemsIn the number of updated systems
+     * @param millis the time spent updating them, in milliseconds
+     */
+    public void batchDone(int updatedSystemsIn, long millis) {
+        updatedSystems.add(updatedSystemsIn);
+        batches.increment();
+        updateMillis.add(millis);
+    }
+
+    /**
+     * @param pendingSystemsIn the number of distinct systems waiting for an update
+     */
+    public void setPendingSystems(long pendingSystemsIn) {
+        pendingSystems.set(pendingSystemsIn);
+    }
+
+    /**
+     * @return the total number of updated systems
+     */
+    public long getUpdatedSystems() {
+        return updatedSystems.sum();
+    }
+
+    /**
+     * @return the total number of update statements
+     */
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    /**
+     * @return the total time spent updating systems, in milliseconds
+     */
+    public long getUpdateMillis() {
+        return updateMillis.sum();
+    }
+
+    /**
+     * @return the number of distinct systems waiting for an update when the queue was last fetched
+     */
+    public long getPendingSystems() {
+        return pendingSystems.get();
+    }
+}
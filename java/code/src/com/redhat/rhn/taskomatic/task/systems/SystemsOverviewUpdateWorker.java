@@ -15,7 +15,10 @@
 package com.redhat.rhn.taskomatic.task.systems;
 
 import com.redhat.rhn.common.db.datasource.CallableMode;
+import com.redhat.rhn.common.db.datasource.DataResult;
 import com.redhat.rhn.common.db.datasource.ModeFactory;
+import com.redhat.rhn.common.db.datasource.Row;
+import com.redhat.rhn.common.db.datasource.SelectMode;
 import com.redhat.rhn.common.hibernate.HibernateFactory;
 import com.redhat.rhn.domain.task.TaskFactory;
 import com.redhat.rhn.taskomatic.task.threaded.QueueWorker;
@@ -24,26 +27,27 @@ import com.redhat.rhn.taskomatic.task.threaded.TaskQueue;
 import org.apache.logging.log4j.Logger;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
- * Performs overview table refresh for a given server
+ * Performs overview table refresh for a given chunk of servers
  */
 public class SystemsOverviewUpdateWorker implements QueueWorker {
 
     private final Logger logger;
-    private final Long sid;
+    private final List<Long> sids;
     private TaskQueue parentQueue;
 
 
     /**
      * Constructor
      *
-     * @param sidIn The ID of server to update the overview from
+     * @param sidsIn The IDs of servers to update the overview from
      * @param loggerIn the logger
      */
-    public SystemsOverviewUpdateWorker(Long sidIn, Logger loggerIn) {
-        sid = sidIn;
+    public SystemsOverviewUpdateWorker(List<Long> sidsIn, Logger loggerIn) {
+        sids = sidsIn;
         logger = loggerIn;
     }
 
@@ -55,14 +59,20 @@ public class SystemsOverviewUpdateWorker implements QueueWorker {
     @Override
     public void run() {
         try {
-            removeTask(sid);
+            removeTasks(sids);
             parentQueue.workerStarting();
-            doUpdate(sid);
+            long start = System.currentTimeMillis();
+            int updated = doUpdate(sids);
             HibernateFactory.commitTransaction();
+            SystemsOverviewUpdateDriver.METRICS.batchDone(updated, System.currentTimeMillis() - start);
         }
         catch (Exception e) {
-            logger.error(e.getMessage(), e);
+            // A single failing system must not keep the whole chunk from being updated
+            logger.warn("Unable to update the overview of {} systems at once, updating them one by one: {}",
+                    sids.size(), e.getMessage());
             HibernateFactory.rollbackTransaction();
+            HibernateFactory.closeSession();
+            updateOneByOne();
         }
         finally {
             parentQueue.workerDone();
@@ -71,6 +81,27 @@ public class SystemsOverviewUpdateWorker implements QueueWorker {
 
     }
 
+    private void updateOneByOne() {
+        long start = System.currentTimeMillis();
+        int updated = 0;
+        for (Long sid : sids) {
+            try {
+                removeTask(sid);
+                doUpdate(sid);
+                HibernateFactory.commitTransaction();
+                updated++;
+            }
+            catch (Exception e) {
+                logger.error(e.getMessage(), e);
+                HibernateFactory.rollbackTransaction();
+            }
+            finally {
+                HibernateFactory.closeSession();
+            }
+        }
+        SystemsOverviewUpdateDriver.METRICS.batchDone(updated, System.currentTimeMillis() - start);
+    }
+
     /**
      * Actually trigger the update_system_overview procedure.
      *
@@ -84,6 +115,20 @@ public class SystemsOverviewUpdateWorker implements QueueWorker {
         mode.execute(params, new HashMap<>());
     }
 
+    /**
+     * Trigger the update_system_overview procedure for all the given systems with one statement.
+     *
+     * This should only be called by the worker or unit tests.
+     *
+     * @param sidsIn systems to update
+     * @return the number of updated systems, not counting the ones removed in the meantime
+     */
+    public static int doUpdate(List<Long> sidsIn) {
+        SelectMode mode = ModeFactory.getMode("System_queries", "update_system_overviews");
+        DataResult<Row> updated = mode.execute(sidsIn);
+        return updated.size();
+    }
+
     /**
      * Remove system overview update tasks for a system ID
      *
@@ -92,4 +137,13 @@ public class SystemsOverviewUpdateWorker implements QueueWorker {
     public static void removeTask(Long sid) {
         TaskFactory.deleteByNameData(SystemsOverviewUpdateDriver.TASK_NAME, sid);
     }
+
+    /**
+     * Remove system overview update tasks for the given system IDs
+     *
+     * @param sidsIn the System ids to remove the tasks from
+     */
+    public static void removeTasks(List<Long> sidsIn) {
+        TaskFactory.deleteByNameData(SystemsOverviewUpdateDriver.TASK_NAME, sidsIn);
+    }
 }
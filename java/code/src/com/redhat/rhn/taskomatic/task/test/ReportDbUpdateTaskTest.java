@@ -18,9 +18,11 @@ import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.redhat.rhn.common.hibernate.ConnectionManager;
 import com.redhat.rhn.common.hibernate.ConnectionManagerFactory;
+import com.redhat.rhn.common.hibernate.HibernateFactory;
 import com.redhat.rhn.domain.channel.Channel;
 import com.redhat.rhn.domain.channel.ChannelFactory;
 import com.redhat.rhn.domain.rhnpackage.Package;
@@ -37,9 +39,12 @@ import com.redhat.rhn.testing.PackageTestUtils;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.hibernate.Session;
+import org.jmock.Expectations;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.quartz.JobDataMap;
+import org.quartz.JobDetail;
 import org.quartz.JobExecutionContext;
 
 import java.math.BigDecimal;
@@ -170,6 +175,84 @@ public class ReportDbUpdateTaskTest extends JMockBaseTestCaseWithUser {
         });
     }
 
+    @Test
+    public void canRefreshOnlyTheChangedSystems() {
+        JobDetail jobDetail = mock(JobDetail.class);
+        context().checking(new Expectations() {{
+            allowing(contextMock).getJobDetail();
+            will(returnValue(jobDetail));
+
+            allowing(jobDetail).getJobDataMap();
+            will(returnValue(new JobDataMap()));
+        }});
+
+        Server changed = ServerFactoryTest.createTestServer(user);
+        Server unchanged = ServerFactoryTest.createTestServer(user);
+        PackageTestUtils.installPackagesOnServer(List.of(PackageTest.createTestPackage(user.getOrg())), changed);
+        PackageTestUtils.installPackagesOnServer(List.of(PackageTest.createTestPackage(user.getOrg())), unchanged);
+        HibernateFactory.getSession().flush();
+
+        // Both systems have been logged as changed by the package triggers
+        assertTrue(isLoggedAsChanged(changed));
+        assertTrue(isLoggedAsChanged(unchanged));
+
+        ReportDbUpdateTask task = new ReportDbUpdateTask(ReportDBHelper.INSTANCE, 2, true);
+        assertDoesNotThrow(() -> task.execute(contextMock));
+
+        assertEquals(1, countInstalledPackages(changed));
+        assertEquals(1, countInstalledPackages(unchanged));
+        assertFalse(isLoggedAsChanged(changed));
+        assertFalse(isLoggedAsChanged(unchanged));
+
+        // Install more packages on one of the systems only
+        PackageTestUtils.installPackagesOnServer(List.of(PackageTest.createTestPackage(user.getOrg()),
+            PackageTest.createTestPackage(user.getOrg())), changed);
+        HibernateFactory.getSession().flush();
+
+        assertTrue(isLoggedAsChanged(changed));
+        assertFalse(isLoggedAsChanged(unchanged));
+
+        assertDoesNotThrow(() -> task.execute(contextMock));
+
+        assertEquals(3, countInstalledPackages(changed));
+        assertEquals(1, countInstalledPackages(unchanged));
+        assertFalse(isLoggedAsChanged(changed));
+    }
+
+    @Test
+    public void canSyncTablesUsingCopy() {
+        Server server = ServerFactoryTest.createTestServer(user);
+        PackageTestUtils.installPackagesOnServer(List.of(PackageTest.createTestPackage(user.getOrg()),
+            PackageTest.createTestPackage(user.getOrg())), server);
+        HibernateFactory.getSession().flush();
+
+        // A single worker uses the current session, which is the only one seeing the test data
+        ReportDbUpdateTask task = new ReportDbUpdateTask(ReportDBHelper.INSTANCE, 2, false, true, 1);
+        assertDoesNotThrow(() -> task.execute(contextMock));
+
+        assertEquals(2, countInstalledPackages(server));
+
+        // Copying again replaces the existing rows
+        assertDoesNotThrow(() -> task.execute(contextMock));
+        assertEquals(2, countInstalledPackages(server));
+    }
+
+    private static boolean isLoggedAsChanged(Server server) {
+        return !HibernateFactory.getSession()
+            .createNativeQuery("SELECT server_id FROM suseReportDbChangedSystem WHERE server_id = :id")
+            .setParameter("id", server.getId())
+            .getResultList()
+            .isEmpty();
+    }
+
+    private static long countInstalledPackages(Server server) {
+        Number count = (Number) getSession()
+            .createNativeQuery("SELECT COUNT(*) FROM SystemPackageInstalled WHERE mgm_id = 1 AND system_id = :id")
+            .setParameter("id", server.getId())
+            .getSingleResult();
+        return count.longValue();
+    }
+
     private static synchronized Session getSession() {
         if (reportDbConnectionManager == null) {
             reportDbConnectionManager = ConnectionManagerFactory.localReportingConnectionManager();
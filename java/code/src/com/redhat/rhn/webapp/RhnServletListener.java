@@ -17,12 +17,15 @@ package com.redhat.rhn.webapp;
 import com.redhat.rhn.GlobalInstanceHolder;
 import com.redhat.rhn.common.hibernate.HibernateFactory;
 import com.redhat.rhn.common.messaging.MessageQueue;
+import com.redhat.rhn.domain.rhnpackage.PackageFactory;
+import com.redhat.rhn.frontend.xmlrpc.BaseHandler;
 import com.redhat.rhn.manager.satellite.StartupTasksCommand;
 import com.redhat.rhn.manager.satellite.UpgradeCommand;
 
 import com.suse.manager.metrics.PrometheusExporter;
 import com.suse.manager.metrics.SystemsCollector;
 import com.suse.manager.reactor.SaltReactor;
+import com.suse.manager.webui.utils.token.DownloadTokenCache;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -131,6 +134,11 @@ public class RhnServletListener implements ServletContextListener {
         logStart("Hibernate");
 
         PrometheusExporter.INSTANCE.registerSystemsCollector();
+        PrometheusExporter.INSTANCE.registerXmlRpcCalls(BaseHandler.CALL_DURATION);
+        PrometheusExporter.INSTANCE.registerCache(DownloadTokenCache.getTokens(), "download_token_cache");
+        PrometheusExporter.INSTANCE.registerCache(DownloadTokenCache.getChannelAccess(),
+                "download_channel_access_cache");
+        PrometheusExporter.INSTANCE.registerCache(PackageFactory.getPathCache(), "download_package_path_cache");
 
         // the following is not safe to run in the testsuite
         // and will be excluded from test runs
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2025 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.suse.manager.metrics;
+
+import com.suse.manager.reactor.EventCoalescer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.prometheus.client.Collector;
+
+/**
+ * Exports the number of handled and coalesced events of an {@link EventCoalescer}.
+ */
+public class EventCoalescerCollector extends Collector {
+
+    private final EventCoalescer coalescer;
+    private final String coalescerId;
+
+    /**
+     * Standard constructor.
+     * @param coalescerIn the event coalescer
+     * @param coalescerIdIn a unique ID for the coalescer
+     */
+    public EventCoalescerCollector(EventCoalescer coalescerIn, String coalescerIdIn) {
+        this.coalescer = coalescerIn;
+        this.coalescerId = coalescerIdIn;
+    }
+
+    @Override
+    public List<MetricFamilySamples> collect() {
+        List<MetricFamilySamples> out = new ArrayList<>();
+
+        out.add(CustomCollectorUtils.counterFor("handled_events_total",
+                "Events handled", coalescer.getHandledCount(), coalescerId));
+        out.add(CustomCollectorUtils.counterFor("coalesced_events_total",
+                "Repeated events dropped in favour of a later one, never handled", coalescer.getCoalescedCount(),
+                coalescerId));
+
+        return out;
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2025 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.suse.manager.metrics;
+
+import com.redhat.rhn.common.util.ExpiringCache;
+
+import java.util.List;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.CounterMetricFamily;
+import io.prometheus.client.GaugeMetricFamily;
+
+/**
+ * Exports the hits, misses and size of an {@link ExpiringCache}.
+ */
+public class ExpiringCacheCollector extends Collector {
+
+    private final ExpiringCache<?, ?> cache;
+    private final String cacheId;
+
+    /**
+     * Standard constructor.
+     * @param cacheIn the cache
+     * @param cacheIdIn a unique ID for the cache
+     */
+    public ExpiringCacheCollector(ExpiringCache<?, ?> cacheIn, String cacheIdIn) {
+        this.cache = cacheIn;
+        this.cacheId = cacheIdIn;
+    }
+
+    @Override
+    public List<MetricFamilySamples> collect() {
+        return List.of(
+                new CounterMetricFamily(cacheId + "_hits_total",
+                        cacheId + " - Lookups answered from the cache", cache.getHits()),
+                new CounterMetricFamily(cacheId + "_misses_total",
+                        cacheId + " - Lookups that loaded the value", cache.getMisses()),
+                new GaugeMetricFamily(cacheId + "_size",
+                        cacheId + " - Number of entries in the cache", cache.size()));
+    }
+}
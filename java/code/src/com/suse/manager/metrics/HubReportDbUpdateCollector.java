@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2025 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.suse.manager.metrics;
+
+import com.redhat.rhn.taskomatic.task.HubReportDbUpdateMetrics;
+import com.redhat.rhn.taskomatic.task.HubReportDbUpdateMetrics.PeripheralSync;
+
+import java.util.List;
+import java.util.Map;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.CounterMetricFamily;
+import io.prometheus.client.GaugeMetricFamily;
+
+/**
+ * Exports the duration and outcome of the last reporting database synchronization of every peripheral of a hub.
+ */
+public class HubReportDbUpdateCollector extends Collector {
+
+    private static final List<String> LABELS = List.of("peripheral");
+
+    private final HubReportDbUpdateMetrics metrics;
+    private final String metricsId;
+
+    /**
+     * Standard constructor.
+     * @param metricsIn the hub reporting database update metrics
+     * @param metricsIdIn a unique ID for the metrics
+     */
+    public HubReportDbUpdateCollector(HubReportDbUpdateMetrics metricsIn, String metricsIdIn) {
+        this.metrics = metricsIn;
+        this.metricsId = metricsIdIn;
+    }
+
+    @Override
+    public List<MetricFamilySamples> collect() {
+        GaugeMetricFamily duration = new GaugeMetricFamily(metricsId + "_last_duration_seconds",
+                metricsId + " - Duration of the last synchronization", LABELS);
+        GaugeMetricFamily rows = new GaugeMetricFamily(metricsId + "_last_rows",
+                metricsId + " - Rows copied by the last successful synchronization", LABELS);
+        GaugeMetricFamily success = new GaugeMetricFamily(metricsId + "_last_success_timestamp_seconds",
+                metricsId + " - Time of the last successful synchronization", LABELS);
+        CounterMetricFamily failures = new CounterMetricFamily(metricsId + "_failures_total",
+                metricsId + " - Failed synchronizations", LABELS);
+
+        for (Map.Entry<String, PeripheralSync> entry : metrics.getPeripherals().entrySet()) {
+            List<String> labels = List.of(entry.getKey());
+            PeripheralSync sync = entry.getValue();
+            duration.addMetric(labels, sync.lastDurationMillis() / 1000.0);
+            rows.addMetric(labels, sync.lastRows());
+            success.addMetric(labels, sync.lastSuccess() / 1000.0);
+            failures.addMetric(labels, sync.failures());
+        }
+
+        return List.of(duration, rows, success, failures);
+    }
+}
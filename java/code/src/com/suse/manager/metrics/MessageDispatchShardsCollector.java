@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2025 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.suse.manager.metrics;
+
+import com.redhat.rhn.common.messaging.MessageDispatchShards;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.CounterMetricFamily;
+import io.prometheus.client.GaugeMetricFamily;
+
+/**
+ * Exports queue depth, task counts and latency for each message queue dispatch shard.
+ */
+public class MessageDispatchShardsCollector extends Collector {
+
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final MessageDispatchShards shards;
+    private final String shardsId;
+
+    /**
+     * Standard constructor.
+     * @param shardsIn the dispatch shards
+     * @param shardsIdIn a unique ID for the shards
+     */
+    public MessageDispatchShardsCollector(MessageDispatchShards shardsIn, String shardsIdIn) {
+        this.shards = shardsIn;
+        this.shardsId = shardsIdIn;
+    }
+
+    @Override
+    public List<MetricFamilySamples> collect() {
+        List<MetricFamilySamples> out = new ArrayList<>();
+        List<? extends ThreadPoolExecutor> pools = shards.getShards();
+
+        GaugeMetricFamily queued = new GaugeMetricFamily(shardsId + "_queue_size",
+                "Number of messages waiting in the shard", List.of("shard"));
+        addSamples(queued, pools.size(), i -> pools.get(i).getQueue().size());
+        out.add(queued);
+
+        GaugeMetricFamily active = new GaugeMetricFamily(shardsId + "_active_threads",
+                "Number of shard threads executing a message", List.of("shard"));
+        addSamples(active, pools.size(), i -> pools.get(i).getActiveCount());
+        out.add(active);
+
+        CounterMetricFamily tasks = new CounterMetricFamily(shardsId + "_tasks_total",
+                "Messages dispatched to the shard", List.of("shard"));
+        addSamples(tasks, pools.size(), i -> pools.get(i).getTaskCount());
+        out.add(tasks);
+
+        CounterMetricFamily completed = new CounterMetricFamily(shardsId + "_completed_tasks_total",
+                "Messages executed by the shard", List.of("shard"));
+        addSamples(completed, pools.size(), i -> pools.get(i).getCompletedTaskCount());
+        out.add(completed);
+
+        CounterMetricFamily wait = new CounterMetricFamily(shardsId + "_wait_seconds_total",
+                "Time messages spent waiting in the shard queue", List.of("shard"));
+        addSamples(wait, pools.size(), i -> shards.getWaitNanos(i) / NANOS_PER_SECOND);
+        out.add(wait);
+
+        CounterMetricFamily execution = new CounterMetricFamily(shardsId + "_execution_seconds_total",
+                "Time spent executing messages of the shard", List.of("shard"));
+        addSamples(execution, pools.size(), i -> shards.getExecutionNanos(i) / NANOS_PER_SECOND);
+        out.add(execution);
+
+        return out;
+    }
+
+    private static void addSamples(GaugeMetricFamily family, int count, ToDoubleFunction<Integer> value) {
+        for (int i = 0; i < count; i++) {
+            family.addMetric(List.of(String.valueOf(i)), value.applyAsDouble(i));
+        }
+    }
+
+    private static void addSamples(CounterMetricFamily family, int count, ToDoubleFunction<Integer> value) {
+        for (int i = 0; i < count; i++) {
+            family.addMetric(List.of(String.valueOf(i)), value.applyAsDouble(i));
+        }
+    }
+}
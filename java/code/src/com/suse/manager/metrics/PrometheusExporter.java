@@ -15,6 +15,12 @@
 package com.suse.manager.metrics;
 
 import com.redhat.rhn.common.conf.ConfigDefaults;
+import com.redhat.rhn.common.messaging.MessageDispatchShards;
+import com.redhat.rhn.common.util.ExpiringCache;
+import com.redhat.rhn.taskomatic.task.HubReportDbUpdateMetrics;
+import com.redhat.rhn.taskomatic.task.systems.SystemsOverviewUpdateMetrics;
+
+import com.suse.manager.reactor.EventCoalescer;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -24,6 +30,9 @@ import java.io.IOException;
 import java.util.List;
 import java.util.concurrent.ThreadPoolExecutor;
 
+import io.prometheus.client.Collector;
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.Histogram;
 import io.prometheus.client.exporter.HTTPServer;
 
 /**
@@ -76,6 +85,84 @@ public enum PrometheusExporter {
         }
     }
 
+    /**
+     * Registers the message queue dispatch shards for monitoring.
+     * @param shards the dispatch shards
+     * @param shardsId a unique ID for the shards
+     * @return the registered collector, to be unregistered once the shards are shut down, or null if monitoring is
+     * disabled
+     */
+    public Collector registerMessageDispatchShards(MessageDispatchShards shards, String shardsId) {
+        if (ENABLED) {
+            return new MessageDispatchShardsCollector(shards, shardsId).register();
+        }
+        return null;
+    }
+
+    /**
+     * Unregisters a collector, so that another one exporting the same metrics can be registered.
+     * @param collector the collector, ignored if null
+     */
+    public void unregister(Collector collector) {
+        if (collector != null) {
+            CollectorRegistry.defaultRegistry.unregister(collector);
+        }
+    }
+
+    /**
+     * Registers the Salt event queues collector for monitoring.
+     * @param collector the collector
+     */
+    public void registerSaltEventCollector(SaltEventCollector collector) {
+        if (ENABLED) {
+            collector.register();
+        }
+    }
+
+    /**
+     * Registers an event coalescer for monitoring.
+     * @param coalescer the event coalescer
+     * @param coalescerId a unique ID for the coalescer
+     */
+    public void registerEventCoalescer(EventCoalescer coalescer, String coalescerId) {
+        if (ENABLED) {
+            new EventCoalescerCollector(coalescer, coalescerId).register();
+        }
+    }
+
+    /**
+     * Registers the system overview update queue for monitoring.
+     * @param metrics the system overview update metrics
+     * @param metricsId a unique ID for the metrics
+     */
+    public void registerSystemsOverviewUpdate(SystemsOverviewUpdateMetrics metrics, String metricsId) {
+        if (ENABLED) {
+            new SystemsOverviewUpdateCollector(metrics, metricsId).register();
+        }
+    }
+
+    /**
+     * Registers the hub reporting database update for monitoring.
+     * @param metrics the hub reporting database update metrics
+     * @param metricsId a unique ID for the metrics
+     */
+    public void registerHubReportDbUpdate(HubReportDbUpdateMetrics metrics, String metricsId) {
+        if (ENABLED) {
+            new HubReportDbUpdateCollector(metrics, metricsId).register();
+        }
+    }
+
+    /**
+     * Registers an expiring cache for monitoring.
+     * @param cache the cache
+     * @param cacheId a unique ID for the cache
+     */
+    public void registerCache(ExpiringCache<?, ?> cache, String cacheId) {
+        if (ENABLED) {
+            new ExpiringCacheCollector(cache, cacheId).register();
+        }
+    }
+
     /**
      * Registers a Scheduler for monitoring.
      * @param scheduler a scheduler
@@ -95,4 +182,14 @@ public enum PrometheusExporter {
             new SystemsCollector().register();
         }
     }
+
+    /**
+     * Registers the duration histogram of the XMLRPC API calls for monitoring.
+     * @param callDuration the histogram
+     */
+    public void registerXmlRpcCalls(Histogram callDuration) {
+        if (ENABLED) {
+            callDuration.register();
+        }
+    }
 }
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2025 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.suse.manager.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.CounterMetricFamily;
+import io.prometheus.client.GaugeMetricFamily;
+
+/**
+ * Collects throughput and lag figures of the Salt event queues read from the database.
+ */
+public class SaltEventCollector extends Collector {
+
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long UNKNOWN = -1;
+
+    private final LongAdder[] handled;
+    private final LongAdder[] parseNanos;
+    private final LongAdder[] handleNanos;
+    private final AtomicLongArray pending;
+
+    /**
+     * Standard constructor.
+     * @param queueCount the number of event queues, including queue 0
+     */
+    public SaltEventCollector(int queueCount) {
+        handled = newAdders(queueCount);
+        parseNanos = newAdders(queueCount);
+        handleNanos = newAdders(queueCount);
+        pending = new AtomicLongArray(queueCount);
+    }
+
+    private static LongAdder[] newAdders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /**
+     * Records the decoding of an event.
+     * @param queue the event queue
+     * @param nanos the time spent decoding
+     */
+    public void parsed(int queue, long nanos) {
+        parseNanos[queue].add(nanos);
+    }
+
+    /**
+     * Records the handling of an event.
+     * @param queue the event queue
+     * @param nanos the time spent notifying listeners
+     */
+    public void handled(int queue, long nanos) {
+        handled[queue].increment();
+        handleNanos[queue].add(nanos);
+    }
+
+    /**
+     * Records the number of events last found waiting in the database.
+     * @param counts the number of events per queue
+     */
+    public void pending(List<Long> counts) {
+        for (int i = 0; i < counts.size() && i < pending.length(); i++) {
+            pending.set(i, counts.get(i));
+        }
+    }
+
+    /**
+     * Records that the events waiting in the database were not counted, so that the last counts are not
+     * exported as current ones.
+     */
+    public void pendingUnknown() {
+        for (int i = 0; i < pending.length(); i++) {
+            pending.set(i, UNKNOWN);
+        }
+    }
+
+    @Override
+    public List<MetricFamilySamples> collect() {
+        List<MetricFamilySamples> out = new ArrayList<>();
+
+        CounterMetricFamily handledTotal = new CounterMetricFamily("salt_events_handled_total",
+                "Salt events handled", List.of("queue"));
+        CounterMetricFamily parseSeconds = new CounterMetricFamily("salt_events_parse_seconds_total",
+                "Time spent decoding Salt events", List.of("queue"));
+        CounterMetricFamily handleSeconds = new CounterMetricFamily("salt_events_handle_seconds_total",
+                "Time spent handling Salt events", List.of("queue"));
+        GaugeMetricFamily pendingEvents = new GaugeMetricFamily("salt_events_pending",
+                "Salt events waiting in the database, NaN while every queue is busy and they are not counted",
+                List.of("queue"));
+        for (int i = 0; i < handled.length; i++) {
+            List<String> labels = List.of(String.valueOf(i));
+            handledTotal.addMetric(labels, handled[i].sum());
+            parseSeconds.addMetric(labels, parseNanos[i].sum() / NANOS_PER_SECOND);
+            handleSeconds.addMetric(labels, handleNanos[i].sum() / NANOS_PER_SECOND);
+            long pendingCount = pending.get(i);
+            pendingEvents.addMetric(labels, pendingCount == UNKNOWN ? Double.NaN : pendingCount);
+        }
+        out.add(handledTotal);
+        out.add(parseSeconds);
+        out.add(handleSeconds);
+        out.add(pendingEvents);
+
+        return out;
+    }
+}
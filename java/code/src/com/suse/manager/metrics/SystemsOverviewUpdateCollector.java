@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2025 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.suse.manager.metrics;
+
+import com.redhat.rhn.taskomatic.task.systems.SystemsOverviewUpdateMetrics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.prometheus.client.Collector;
+
+/**
+ * Exports the drain rate of the system overview update queue: the rate of the updated systems counter is the
+ * number of systems updated per second.
+ */
+public class SystemsOverviewUpdateCollector extends Collector {
+
+    private final SystemsOverviewUpdateMetrics metrics;
+    private final String metricsId;
+
+    /**
+     * Standard constructor.
+     * @param metricsIn the system overview update metrics
+     * @param metricsIdIn a unique ID for the metrics
+     */
+    public SystemsOverviewUpdateCollector(SystemsOverviewUpdateMetrics metricsIn, String metricsIdIn) {
+        this.metrics = metricsIn;
+        this.metricsId = metricsIdIn;
+    }
+
+    @Override
+    public List<MetricFamilySamples> collect() {
+        List<MetricFamilySamples> out = new ArrayList<>();
+
+        out.add(CustomCollectorUtils.counterFor("updated_systems_total",
+                "Systems whose overview was updated", metrics.getUpdatedSystems(), metricsId));
+        out.add(CustomCollectorUtils.counterFor("update_batches_total",
+                "Statements updating a chunk of systems", metrics.getBatches(), metricsId));
+        out.add(CustomCollectorUtils.counterFor("update_milliseconds_total",
+                "Time spent updating systems", metrics.getUpdateMillis(), metricsId));
+        out.add(CustomCollectorUtils.gaugeFor("pending_systems",
+                "Systems waiting for an update", metrics.getPendingSystems(), metricsId));
+
+        return out;
+    }
+}
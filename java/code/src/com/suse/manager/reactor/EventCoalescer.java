@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2025 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.suse.manager.reactor;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Coalesces repeated idempotent events, like beacons reporting the same change of a minion over and over.
+ *
+ * An event is identified by a key (typically minion id and event type) and a payload. The first event of
+ * a key is handled right away and opens a window. Repetitions with the same payload within the window are
+ * not handled immediately: the last one is kept and handled once, when the window closes, so that a change
+ * reported after the first event was handled is never lost. An event with a different payload reports a
+ * change of state and is always handled right away, superseding any kept repetition.
+ *
+ * Kept repetitions are handled by {@link #flush()}, which has to be called periodically.
+ */
+public class EventCoalescer {
+
+    private final long windowMillis;
+    private final LongSupplier clock;
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+    private final LongAdder handled = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * Standard constructor.
+     * @param windowMillisIn the coalescing window in milliseconds, 0 or less disables coalescing
+     */
+    public EventCoalescer(long windowMillisIn) {
+        this(windowMillisIn, System::currentTimeMillis);
+    }
+
+    /**
+     * Constructor with a custom clock, for testing.
+     * @param windowMillisIn the coalescing window in milliseconds, 0 or less disables coalescing
+     * @param clockIn supplier of the current time in milliseconds
+     */
+    public EventCoalescer(long windowMillisIn, LongSupplier clockIn) {
+        this.windowMillis = windowMillisIn;
+        this.clock = clockIn;
+    }
+
+    /**
+     * @return true if events are coalesced, false if every event is handled right away
+     */
+    public boolean isEnabled() {
+        return windowMillis > 0;
+    }
+
+    /**
+     * Decides whether an event has to be handled right away.
+     * @param key the key identifying the event source and type
+     * @param payload the event payload relevant for handling, may be null
+     * @param trailing handles the event later, run by {@link #flush()} when the window closes if this is
+     * the last repetition coalesced in it
+     * @return true if the event has to be handled right away, false if it was coalesced
+     */
+    public boolean accept(String key, Object payload, Runnable trailing) {
+        if (!isEnabled()) {
+            handled.increment();
+            return true;
+        }
+        long now = clock.getAsLong();
+        Window current = new Window(now, payload, null);
+        Window result = windows.compute(key, (k, previous) -> {
+            if (previous != null && previous.trailing() != null) {
+                // superseded by this event, the kept repetition is never handled
+                dropped.increment();
+            }
+            return previous != null && now - previous.start() < windowMillis &&
+                    Objects.equals(previous.payload(), payload) ?
+                    new Window(previous.start(), payload, trailing) : current;
+        });
+        if (result == current) {
+            handled.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Handles the last repetition kept for every window that has closed, which opens a new window for
+     * its key, and forgets the closed windows without repetitions.
+     */
+    public void flush() {
+        long now = clock.getAsLong();
+        for (String key : windows.keySet()) {
+            Runnable[] due = new Runnable[1];
+            windows.computeIfPresent(key, (k, window) -> {
+                if (now - window.start() < windowMillis) {
+                    return window;
+                }
+                due[0] = window.trailing();
+                return due[0] == null ? null : new Window(now, window.payload(), null);
+            });
+            if (due[0] != null) {
+                handled.increment();
+                due[0].run();
+            }
+        }
+    }
+
+    /**
+     * @return the number of events handled, right away or when their window closed
+     */
+    public long getHandledCount() {
+        return handled.sum();
+    }
+
+    /**
+     * @return the number of events never handled because a later event superseded them. An event is counted
+     * either as handled or as coalesced, except the repetitions still kept in an open window.
+     */
+    public long getCoalescedCount() {
+        return dropped.sum();
+    }
+
+    private record Window(long start, Object payload, Runnable trailing) { }
+}
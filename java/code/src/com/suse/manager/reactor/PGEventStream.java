@@ -27,6 +27,7 @@ import com.redhat.rhn.domain.reactor.SaltEventFactory;
 import com.redhat.rhn.frontend.events.TransactionHelper;
 
 import com.suse.manager.metrics.PrometheusExporter;
+import com.suse.manager.metrics.SaltEventCollector;
 import com.suse.salt.netapi.datatypes.Event;
 import com.suse.salt.netapi.event.AbstractEventStream;
 import com.suse.salt.netapi.exception.SaltException;
@@ -43,18 +44,24 @@ import org.apache.logging.log4j.Logger;
 import java.io.IOException;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.LongStream;
-import java.util.stream.Stream;
 
 /**
  * Listen for notifications from the Postgres database (suseSaltEvent) and react on those.
@@ -64,6 +71,21 @@ public class PGEventStream extends AbstractEventStream implements PGNotification
     private static final Logger LOG = LogManager.getLogger(PGEventStream.class);
     private static final int MAX_EVENTS_PER_COMMIT = ConfigDefaults.get().getSaltEventsPerCommit();
     private static final int THREAD_POOL_SIZE = ConfigDefaults.get().getSaltEventThreadPoolSize();
+    private static final int PARSER_THREADS = ConfigDefaults.get().getSaltEventParserThreads();
+
+    // shared by all stream instances, as the reactor creates a new one on every reconnection; off by default, and
+    // only of use when more than one event is popped per commit
+    private static final ExecutorService PARSER_POOL = PARSER_THREADS > 0 && MAX_EVENTS_PER_COMMIT > 1 ?
+            Executors.newFixedThreadPool(PARSER_THREADS, new BasicThreadFactory.Builder()
+                    .namingPattern("salt-event-parser-%d")
+                    .daemon(true)
+                    .build()) :
+            null;
+    private static final SaltEventCollector METRICS = new SaltEventCollector(THREAD_POOL_SIZE + 1);
+
+    static {
+        PrometheusExporter.INSTANCE.registerSaltEventCollector(METRICS);
+    }
 
     private final PGConnection connection;
     private final List<ThreadPoolExecutor> executorServices = IntStream.range(0, THREAD_POOL_SIZE + 1).mapToObj(i ->
@@ -135,10 +157,18 @@ public class PGEventStream extends AbstractEventStream implements PGNotification
                     try (Statement s = connection.createStatement()) {
                         s.execute("SELECT 'salt-event-connection-watchdog';");
 
+                        // counting scans the whole table: skip it while every queue is busy anyway,
+                        // as there would be nothing to reschedule
+                        if (executorServices.stream().allMatch(e -> e.getActiveCount() > 0)) {
+                            METRICS.pendingUnknown();
+                            return;
+                        }
+
                         // if we have any rows in suseSaltEvent that do not yet have a process task active
                         // then schedule tasks for them
                         // this can only happen in case we lost notifications somehow
                         List<Long> allJobs = SaltEventFactory.countSaltEvents(THREAD_POOL_SIZE + 1);
+                        METRICS.pending(allJobs);
 
                         List<Long> missingJobs = IntStream.range(0, allJobs.size())
                             .mapToObj(i -> executorServices.get(i).getActiveCount() > 0 ? 0 : allJobs.get(i))
@@ -193,34 +223,86 @@ public class PGEventStream extends AbstractEventStream implements PGNotification
                 LOG.trace("Scheduling a job for queue {}", queue);
                 ThreadPoolExecutor executor = executorServices.get(queue);
                 executor.execute(() -> {
+                    Map<Long, Event> parsedEvents = prefetchEvents(queue);
                     List<SaltEvent> uncommittedEvents = new LinkedList<>();
                     TransactionHelper.handlingTransaction(
-                            () -> processEvents(uncommittedEvents, queue),
+                            () -> processEvents(uncommittedEvents, parsedEvents, queue),
                             e -> handleExceptions(uncommittedEvents, e));
                 });
             });
         });
     }
 
+    /**
+     * Reads the next events of a queue without popping them and decodes them in the parser pool, before the
+     * transaction handling them is opened, so that decoding does not lengthen it. The events popped by that
+     * transaction are normally the same ones, as a queue is handled by a single thread: any other event is
+     * decoded inline, like the ones failing to decode here.
+     *
+     * @param queue the index of the thread processing the events
+     * @return the decoded events, by id
+     */
+    private static Map<Long, Event> prefetchEvents(int queue) {
+        if (PARSER_POOL == null) {
+            return Map.of();
+        }
+        List<SaltEvent> events = new ArrayList<>();
+        TransactionHelper.handlingTransaction(
+                () -> events.addAll(SaltEventFactory.peekSaltEvents(MAX_EVENTS_PER_COMMIT, queue).toList()),
+                e -> LOG.warn("Unable to prefetch the events of queue {}", queue, e));
+        if (events.size() < 2) {
+            return Map.of();
+        }
+
+        List<CompletableFuture<Event>> futures = events.stream()
+                .map(event -> CompletableFuture.supplyAsync(() -> parse(event, queue), PARSER_POOL))
+                .collect(toList());
+        Map<Long, Event> parsedEvents = new HashMap<>();
+        for (int i = 0; i < events.size(); i++) {
+            try {
+                parsedEvents.put(events.get(i).getId(), futures.get(i).join());
+            }
+            catch (CompletionException e) {
+                LOG.debug("Unable to decode event {} ahead of its handling", events.get(i).getId(), e);
+            }
+        }
+        return parsedEvents;
+    }
+
     /**
      * Reads one or more events from suseSaltEvent and notifies listeners
      * (typically, {@link PGEventListener#notify(Event)}).
      *
      * @param uncommittedEvents used to keep track of events being processed
+     * @param parsedEvents the events already decoded by {@link #prefetchEvents(int)}, by id
      * @param queue the index of the thread processing the events
      */
-    private void processEvents(List<SaltEvent> uncommittedEvents, int queue) {
-        Stream<SaltEvent> events = SaltEventFactory.popSaltEvents(MAX_EVENTS_PER_COMMIT, queue)
-                .sorted(comparing(SaltEvent::getMinionId, nullsLast(naturalOrder())).thenComparing(SaltEvent::getId));
+    private void processEvents(List<SaltEvent> uncommittedEvents, Map<Long, Event> parsedEvents, int queue) {
+        List<SaltEvent> events = SaltEventFactory.popSaltEvents(MAX_EVENTS_PER_COMMIT, queue)
+                .sorted(comparing(SaltEvent::getMinionId, nullsLast(naturalOrder())).thenComparing(SaltEvent::getId))
+                .collect(toList());
 
-        events.forEach(event -> {
+        for (SaltEvent event : events) {
             if (LOG.isTraceEnabled()) {
                 LOG.trace("Handling event {} in worker #{}", event.getId(), queue);
                 LOG.trace(event.getData());
             }
             uncommittedEvents.add(event);
-            notifyListeners(JsonParser.EVENTS.parse(event.getData()));
-        });
+            Event parsed = parsedEvents.get(event.getId());
+            if (parsed == null) {
+                parsed = parse(event, queue);
+            }
+            long start = System.nanoTime();
+            notifyListeners(parsed);
+            METRICS.handled(queue, System.nanoTime() - start);
+        }
+    }
+
+    private static Event parse(SaltEvent event, int queue) {
+        long start = System.nanoTime();
+        Event parsed = JsonParser.EVENTS.parse(event.getData());
+        METRICS.parsed(queue, System.nanoTime() - start);
+        return parsed;
     }
 
     /**
@@ -17,6 +17,7 @@ package com.suse.manager.reactor;
 import static java.util.stream.Stream.empty;
 import static java.util.stream.Stream.of;
 
+import com.redhat.rhn.common.conf.ConfigDefaults;
 import com.redhat.rhn.common.messaging.EventMessage;
 import com.redhat.rhn.common.messaging.MessageQueue;
 import com.redhat.rhn.domain.server.MinionServer;
@@ -27,6 +28,7 @@ import com.redhat.rhn.taskomatic.TaskomaticApiException;
 
 import com.suse.cloud.CloudPaygManager;
 import com.suse.manager.attestation.AttestationManager;
+import com.suse.manager.metrics.PrometheusExporter;
 import com.suse.manager.reactor.messaging.ApplyStatesEventMessage;
 import com.suse.manager.reactor.messaging.ApplyStatesEventMessageAction;
 import com.suse.manager.reactor.messaging.BatchStartedEventMessage;
@@ -63,11 +65,16 @@ import com.suse.salt.netapi.event.EventStream;
 import com.suse.salt.netapi.event.JobReturnEvent;
 import com.suse.salt.netapi.event.MinionStartEvent;
 
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.Date;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 /**
@@ -78,6 +85,9 @@ public class SaltReactor {
     // Logger for this class
     private static final Logger LOG = LogManager.getLogger(SaltReactor.class);
 
+    // Beacons whose handling is idempotent, so that repetitions can be coalesced
+    private static final Set<String> COALESCED_BEACONS = Set.of("pkgset", "reboot_info", "inotify");
+
     // Reference to the SaltService instance
     private final SaltApi saltApi;
     private final SystemQuery systemQuery;
@@ -86,6 +96,13 @@ public class SaltReactor {
     private final CloudPaygManager paygMgr;
     private final AttestationManager attestationMgr;
 
+    // Drops repeated beacons of a minion reporting the same change
+    private final EventCoalescer beaconCoalescer = new EventCoalescer(
+            TimeUnit.SECONDS.toMillis(ConfigDefaults.get().getSaltEventCoalescingWindow()));
+
+    // Handles the last coalesced beacon of every closed window
+    private ScheduledExecutorService coalescerFlusher;
+
     // The event stream object
     private EventStream eventStream;
 
@@ -141,6 +158,15 @@ public class SaltReactor {
 
         MessageQueue.publish(new RefreshGeneratedSaltFilesEventMessage());
 
+        PrometheusExporter.INSTANCE.registerEventCoalescer(beaconCoalescer, "salt_beacon");
+        if (beaconCoalescer.isEnabled()) {
+            coalescerFlusher = Executors.newSingleThreadScheduledExecutor(new BasicThreadFactory.Builder()
+                    .namingPattern("salt-beacon-coalescer-%d")
+                    .daemon(true)
+                    .build());
+            coalescerFlusher.scheduleWithFixedDelay(this::flushCoalescedBeacons, 1, 1, TimeUnit.SECONDS);
+        }
+
         connectToEventStream();
     }
 
@@ -152,6 +178,18 @@ public class SaltReactor {
         if (eventStream != null) {
             eventStream.removeEventListener(listener);
         }
+        if (coalescerFlusher != null) {
+            coalescerFlusher.shutdownNow();
+        }
+    }
+
+    private void flushCoalescedBeacons() {
+        try {
+            beaconCoalescer.flush();
+        }
+        catch (RuntimeException e) {
+            LOG.error("Could not handle coalesced beacon events", e);
+        }
     }
 
     /**
@@ -255,6 +293,8 @@ public class SaltReactor {
      * @return event handler runnable
      */
     private Stream<EventMessage> eventToMessages(JobReturnEvent jobReturnEvent) {
+        // Not coalesced: every job return carries the result of its own job, like the package list of
+        // a package refresh, which has to be recorded even if an equal one was just handled
         return of(new JobReturnEventMessage(jobReturnEvent));
     }
 
@@ -266,6 +306,17 @@ public class SaltReactor {
      * Public only for unit tests.
      */
     public Stream<EventMessage> eventToMessages(BeaconEvent beaconEvent) {
+        if (COALESCED_BEACONS.contains(beaconEvent.getBeacon()) &&
+                !beaconCoalescer.accept(beaconKey(beaconEvent), beaconPayload(beaconEvent),
+                        () -> MessageQueue.publish(new RunnableEventMessage("SaltReactor.CoalescedBeacon",
+                                () -> handleBeacon(beaconEvent).forEach(MessageQueue::publish))))) {
+            LOG.debug("Coalesced {} beacon event of minion {}", beaconEvent.getBeacon(), beaconEvent.getMinionId());
+            return empty();
+        }
+        return handleBeacon(beaconEvent);
+    }
+
+    private Stream<EventMessage> handleBeacon(BeaconEvent beaconEvent) {
         if (beaconEvent.getBeacon().equals("pkgset") && beaconEvent.getAdditional().equals("changed")) {
             return of(
                     new RunnableEventMessage("ZypperEvent.PackageSetChanged",
@@ -310,6 +361,32 @@ public class SaltReactor {
         return empty();
     }
 
+    /**
+     * Returns the key under which repetitions of a beacon event are coalesced. Inventory changes are
+     * coalesced per inventory, as each one is refreshed on its own.
+     *
+     * @param beaconEvent beacon event
+     * @return the key
+     */
+    private String beaconKey(BeaconEvent beaconEvent) {
+        String key = beaconEvent.getMinionId() + "/" + beaconEvent.getBeacon();
+        return beaconEvent.getBeacon().equals("inotify") ? key + "/" + beaconEvent.getAdditional() : key;
+    }
+
+    /**
+     * Returns the part of a beacon event that matters for handling it: a repeated event with the same
+     * payload can be coalesced, while a different payload reports a different change.
+     *
+     * @param beaconEvent beacon event
+     * @return the payload
+     */
+    private Object beaconPayload(BeaconEvent beaconEvent) {
+        if (beaconEvent.getBeacon().equals("reboot_info")) {
+            return beaconEvent.getData().get("reboot_needed");
+        }
+        return beaconEvent.getAdditional();
+    }
+
     private Stream<EventMessage> eventToMessages(PXEEvent pxeEvent) {
         return of(new PXEEventMessage(pxeEvent));
     }
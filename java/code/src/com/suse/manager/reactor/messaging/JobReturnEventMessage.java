@@ -51,6 +51,15 @@ public class JobReturnEventMessage implements EventMessage {
         return null;
     }
 
+    /**
+     * Job returns of the same minion are dispatched in order.
+     * @return the minion id
+     */
+    @Override
+    public Object getDispatchKey() {
+        return jobReturnEvent.getMinionId();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -70,6 +70,15 @@ public class RegisterMinionEventMessage implements EventMessage {
         return minionStartupGrains;
     }
 
+    /**
+     * Registrations of the same minion are dispatched in order.
+     * @return the minion id
+     */
+    @Override
+    public Object getDispatchKey() {
+        return minionId;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2025 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.suse.manager.reactor.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.suse.manager.reactor.EventCoalescer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Test for {@link EventCoalescer}
+ */
+public class EventCoalescerTest {
+
+    private static final Runnable NONE = () -> { };
+
+    @Test
+    public void testCoalesceWithinWindow() {
+        AtomicLong now = new AtomicLong(1000);
+        EventCoalescer coalescer = new EventCoalescer(500, now::get);
+
+        assertTrue(coalescer.accept("minion1/pkgset", "changed", NONE));
+        now.addAndGet(100);
+        assertFalse(coalescer.accept("minion1/pkgset", "changed", NONE));
+        assertTrue(coalescer.accept("minion2/pkgset", "changed", NONE));
+        now.addAndGet(500);
+        assertTrue(coalescer.accept("minion1/pkgset", "changed", NONE));
+
+        assertEquals(3, coalescer.getHandledCount());
+        assertEquals(1, coalescer.getCoalescedCount());
+    }
+
+    @Test
+    public void testRepetitionAfterHandlingIsHandledWhenWindowCloses() {
+        AtomicLong now = new AtomicLong(1000);
+        EventCoalescer coalescer = new EventCoalescer(500, now::get);
+        List<String> handled = new ArrayList<>();
+
+        // the first event is handled right away, e.g. a package refresh is dispatched
+        assertTrue(coalescer.accept("minion1/pkgset", "changed", () -> handled.add("first")));
+        handled.add("first");
+
+        // the package set changes again after the refresh was dispatched
+        now.addAndGet(100);
+        assertFalse(coalescer.accept("minion1/pkgset", "changed", () -> handled.add("second")));
+        now.addAndGet(100);
+        assertFalse(coalescer.accept("minion1/pkgset", "changed", () -> handled.add("third")));
+        coalescer.flush();
+        assertEquals(List.of("first"), handled);
+
+        // only the last repetition is handled, once, when the window closes
+        now.addAndGet(300);
+        coalescer.flush();
+        coalescer.flush();
+        assertEquals(List.of("first", "third"), handled);
+
+        // handling it opened a new window
+        now.addAndGet(100);
+        assertFalse(coalescer.accept("minion1/pkgset", "changed", () -> handled.add("fourth")));
+        now.addAndGet(500);
+        coalescer.flush();
+        assertEquals(List.of("first", "third", "fourth"), handled);
+
+        // closed windows without repetitions are forgotten
+        now.addAndGet(500);
+        coalescer.flush();
+        assertTrue(coalescer.accept("minion1/pkgset", "changed", NONE));
+        assertEquals(List.of("first", "third", "fourth"), handled);
+        assertEquals(4, coalescer.getHandledCount());
+        // only the second one was dropped, the ones handled later are not counted twice
+        assertEquals(1, coalescer.getCoalescedCount());
+    }
+
+    @Test
+    public void testChangedPayloadIsAccepted() {
+        AtomicLong now = new AtomicLong(1000);
+        EventCoalescer coalescer = new EventCoalescer(500, now::get);
+        List<Boolean> handled = new ArrayList<>();
+
+        assertTrue(coalescer.accept("minion1/reboot_info", true, NONE));
+        assertTrue(coalescer.accept("minion1/reboot_info", false, NONE));
+        assertTrue(coalescer.accept("minion1/reboot_info", true, NONE));
+        assertFalse(coalescer.accept("minion1/reboot_info", true, () -> handled.add(true)));
+
+        // a change of state supersedes the coalesced repetition
+        assertTrue(coalescer.accept("minion1/reboot_info", false, NONE));
+        now.addAndGet(500);
+        coalescer.flush();
+        assertTrue(handled.isEmpty());
+    }
+
+    @Test
+    public void testDisabled() {
+        EventCoalescer coalescer = new EventCoalescer(0);
+
+        assertFalse(coalescer.isEnabled());
+        assertTrue(coalescer.accept("minion1/pkgset", "changed", NONE));
+        assertTrue(coalescer.accept("minion1/pkgset", "changed", NONE));
+        assertEquals(0, coalescer.getCoalescedCount());
+    }
+}
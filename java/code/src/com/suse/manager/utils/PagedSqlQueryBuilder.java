@@ -293,26 +293,9 @@ public class PagedSqlQueryBuilder {
                                                       Function<Optional<PageControl>, FilterWithValue> filterParser,
                                                       Class<T> clazz, Session session) {
         Optional<PageControl> pageControl = Optional.ofNullable(pc);
-        String whereWithFilter = Optional.ofNullable(where).orElse("");
-
-        FilterWithValue filter = Optional.ofNullable(filterParser).map(parser -> parser.apply(pageControl)).
-                orElse(FilterWithValue.NO_FILTER);
-        if (!"".equals(filter.getValue())) {
-            whereWithFilter = (where != null) ?
-                    String.format("(%s) AND %s", where, filter.getFilter()) :
-                    filter.getFilter();
-        }
-
-        String sortSql = "";
-        if (pageControl.map(PageControl::getSortColumn).orElse(null) != null) {
-            String sortDirection = pc.isSortDescending() ? "DESC" : "ASC";
-            sortSql = String.format(" ORDER BY %s %s", pc.getSortColumn(), sortDirection);
-        }
-        String sql = String.format(
-                "SELECT %s FROM %s WHERE %s%s",
-                select, from, whereWithFilter, sortSql);
-
-        Query<Tuple> query = session.createNativeQuery(sql, Tuple.class);
+        FilterWithValue filter = parseFilter(pageControl, filterParser);
+        String whereWithFilter = getWhereWithFilter(filter);
+        Query<Tuple> query = createQuery(parameters, pageControl, filter, session);
 
         if (pageControl.isPresent()) {
             query.setFirstResult(pageControl.map(PageControl::getStart).orElse(1) - 1);
@@ -324,16 +307,7 @@ public class PagedSqlQueryBuilder {
         String countSql = String.format("SELECT count(%s) FROM %s WHERE %s", idColumn,
                 countFrom != null ? countFrom : from, whereWithFilter);
         Query<Tuple> countQuery = session.createNativeQuery(countSql, Tuple.class);
-
-        for (Map.Entry<String, Object> entry : parameters.entrySet()) {
-            query.setParameter(entry.getKey(), entry.getValue());
-            countQuery.setParameter(entry.getKey(), entry.getValue());
-        }
-
-        if (!"".equals(filter.getValue())) {
-            query = query.setParameter("filter_value", filter.getValue());
-            countQuery = countQuery.setParameter("filter_value", filter.getValue());
-        }
+        setParameters(countQuery, parameters, filter);
 
         List<T> rows = runQuery(query, clazz);
 
@@ -349,6 +323,76 @@ public class PagedSqlQueryBuilder {
         return dr;
     }
 
+    /**
+     * Run the query and stream all its rows, ignoring the paging of the page control. The rows are fetched
+     * from a database cursor fetchSize at a time instead of being loaded at once, so the stream has to be
+     * consumed within the transaction and closed afterwards.
+     *
+     * @param parameters the query parameters
+     * @param pc the page control providing the filter and sort, can be null
+     * @param filterParser function converting the PageControl filter into a FilterWithValue
+     * @param clazz the class of the row objects
+     * @param fetchSize the number of rows to fetch from the database at a time
+     * @param session the hibernate session to use
+     * @param <T> the type of the returned rows
+     *
+     * @return the stream of rows
+     */
+    public <T extends BaseTupleDto> Stream<T> stream(Map<String, Object> parameters, PageControl pc,
+                                                     Function<Optional<PageControl>, FilterWithValue> filterParser,
+                                                     Class<T> clazz, int fetchSize, Session session) {
+        Optional<PageControl> pageControl = Optional.ofNullable(pc);
+        FilterWithValue filter = parseFilter(pageControl, filterParser);
+        Query<Tuple> query = createQuery(parameters, pageControl, filter, session);
+        query.setFetchSize(fetchSize);
+
+        Function<Tuple, T> factory = getDTOFactory(clazz);
+        return query.stream().map(factory);
+    }
+
+    private FilterWithValue parseFilter(Optional<PageControl> pageControl,
+                                        Function<Optional<PageControl>, FilterWithValue> filterParser) {
+        return Optional.ofNullable(filterParser).map(parser -> parser.apply(pageControl)).
+                orElse(FilterWithValue.NO_FILTER);
+    }
+
+    private String getWhereWithFilter(FilterWithValue filter) {
+        String whereWithFilter = Optional.ofNullable(where).orElse("");
+        if (!"".equals(filter.getValue())) {
+            whereWithFilter = (where != null) ?
+                    String.format("(%s) AND %s", where, filter.getFilter()) :
+                    filter.getFilter();
+        }
+        return whereWithFilter;
+    }
+
+    private Query<Tuple> createQuery(Map<String, Object> parameters, Optional<PageControl> pageControl,
+                                     FilterWithValue filter, Session session) {
+        String sortSql = "";
+        if (pageControl.map(PageControl::getSortColumn).orElse(null) != null) {
+            PageControl pc = pageControl.get();
+            String sortDirection = pc.isSortDescending() ? "DESC" : "ASC";
+            sortSql = String.format(" ORDER BY %s %s", pc.getSortColumn(), sortDirection);
+        }
+        String sql = String.format(
+                "SELECT %s FROM %s WHERE %s%s",
+                select, from, getWhereWithFilter(filter), sortSql);
+
+        Query<Tuple> query = session.createNativeQuery(sql, Tuple.class);
+        setParameters(query, parameters, filter);
+        return query;
+    }
+
+    private static void setParameters(Query<Tuple> query, Map<String, Object> parameters, FilterWithValue filter) {
+        for (Map.Entry<String, Object> entry : parameters.entrySet()) {
+            query.setParameter(entry.getKey(), entry.getValue());
+        }
+
+        if (!"".equals(filter.getValue())) {
+            query.setParameter("filter_value", filter.getValue());
+        }
+    }
+
     private <T> List<T> runQuery(Query<Tuple> query, Class<T> clazz) {
         try {
             LOG.debug("Running pages query");
@@ -366,25 +410,37 @@ public class PagedSqlQueryBuilder {
     }
 
     private <T> List<T> createDTOs(List<Tuple> data, Class<T> clazz) {
+        Function<Tuple, T> factory;
         try {
-            final Constructor<T> ctor = clazz.getConstructor(Tuple.class);
-
-            return data.stream().map(t -> {
-                try {
-                    return ctor.newInstance(t);
-                }
-                catch (IllegalAccessException |
-                       InstantiationException | InvocationTargetException e) {
-                    // Should never happen given the type has to be a BaseTupleDto
-                    LOG.error("Failed to create {} from SQL tuple", clazz.getName(), e);
-                    return null;
-                }
-            }).collect(Collectors.toList());
+            factory = getDTOFactory(clazz);
         }
-        catch (NoSuchMethodException e) {
+        catch (IllegalArgumentException e) {
             LOG.error("Cannot create {} objects from Tuple", clazz.getName());
             return List.of();
         }
+        return data.stream().map(factory).collect(Collectors.toList());
+    }
+
+    private <T> Function<Tuple, T> getDTOFactory(Class<T> clazz) {
+        final Constructor<T> ctor;
+        try {
+            ctor = clazz.getConstructor(Tuple.class);
+        }
+        catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("Cannot create " + clazz.getName() + " objects from Tuple", e);
+        }
+
+        return t -> {
+            try {
+                return ctor.newInstance(t);
+            }
+            catch (IllegalAccessException |
+                   InstantiationException | InvocationTargetException e) {
+                // Should never happen given the type has to be a BaseTupleDto
+                LOG.error("Failed to create {} from SQL tuple", clazz.getName(), e);
+                return null;
+            }
+        };
     }
 
     /**
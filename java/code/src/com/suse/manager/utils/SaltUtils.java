@@ -65,6 +65,7 @@ import com.redhat.rhn.domain.rhnpackage.PackageEvr;
 import com.redhat.rhn.domain.rhnpackage.PackageEvrFactory;
 import com.redhat.rhn.domain.rhnpackage.PackageFactory;
 import com.redhat.rhn.domain.rhnpackage.PackageName;
+import com.redhat.rhn.domain.rhnpackage.PackageNevraResolver;
 import com.redhat.rhn.domain.rhnpackage.PackageType;
 import com.redhat.rhn.domain.server.AnsibleFactory;
 import com.redhat.rhn.domain.server.InstalledPackage;
@@ -1663,39 +1664,46 @@ public class SaltUtils {
      */
     private static List<InstalledPackage> createPackagesFromSalt(
             Map<String, Tuple2<String, Pkg.Info>> packageInfoAndNameBySaltPackageKey, Server server) {
-        List<String> names = new ArrayList<>(packageInfoAndNameBySaltPackageKey.values().stream().map(Tuple2::getA)
-                .collect(Collectors.toSet()));
-        Collections.sort(names);
+        Map<String, PackageName> packageNames = PackageNevraResolver.resolveNames(
+                packageInfoAndNameBySaltPackageKey.values().stream().map(Tuple2::getA).collect(Collectors.toSet()));
 
-        Map<String, PackageName> packageNames = names.stream().collect(Collectors.toMap(Function.identity(),
-                PackageFactory::lookupOrCreatePackageByName));
-
-
-        Map<String, PackageEvr> packageEvrsBySaltPackageKey = packageInfoAndNameBySaltPackageKey.entrySet().stream()
+        Map<String, PackageEvr> parsedEvrsBySaltPackageKey = packageInfoAndNameBySaltPackageKey.entrySet().stream()
                 .collect(Collectors.toMap(Map.Entry::getKey,
                         e -> {
                             Pkg.Info pkgInfo = e.getValue().getB();
-                            return parsePackageEvr(pkgInfo.getEpoch(), pkgInfo.getVersion().get(),
+                            return toPackageEvr(pkgInfo.getEpoch(), pkgInfo.getVersion().get(),
                                     pkgInfo.getRelease(), server.getPackageType());
                         }));
+        Map<PackageNevraResolver.EvrKey, PackageEvr> packageEvrs =
+                PackageNevraResolver.resolveEvrs(parsedEvrsBySaltPackageKey.values());
+
+        Map<String, PackageArch> packageArchs = PackageNevraResolver.resolveArches(
+                packageInfoAndNameBySaltPackageKey.values().stream()
+                        .map(t -> toPackageArchLabel(t.getB().getArchitecture().get(), server.getPackageType()))
+                        .collect(Collectors.toSet()));
 
         return packageInfoAndNameBySaltPackageKey.entrySet().stream().map(e -> createInstalledPackage(
                 packageNames.get(e.getValue().getA()),
-                packageEvrsBySaltPackageKey.get(e.getKey()), e.getValue().getB(), server))
+                packageEvrs.get(PackageNevraResolver.EvrKey.of(parsedEvrsBySaltPackageKey.get(e.getKey()))),
+                packageArchs.get(toPackageArchLabel(e.getValue().getB().getArchitecture().get(),
+                        server.getPackageType())),
+                e.getValue().getB(), server))
                 .collect(Collectors.toList());
     }
 
     /**
-     * Create a {@link InstalledPackage} object from package name, evr, package info and server and return it.
+     * Create a {@link InstalledPackage} object from package name, evr, arch, package info and server and return it.
      *
      * @param packageName the package name
      * @param packageEvr the package evr
+     * @param packageArch the package arch
      * @param pkgInfo the package info
      * @param server server this package will be added to
      * @return the InstalledPackage object
      */
     private static InstalledPackage createInstalledPackage(PackageName packageName,
                                                            PackageEvr packageEvr,
+                                                           PackageArch packageArch,
                                                            Pkg.Info pkgInfo, Server server) {
         InstalledPackage pkg = new InstalledPackage();
         pkg.setEvr(packageEvr);
@@ -1704,16 +1712,21 @@ public class SaltUtils {
                 .orElse(null));
         pkg.setName(packageName);
         pkg.setServer(server);
-
-        // Add -deb suffix to architectures for Debian systems
-        String pkgArch = pkgInfo.getArchitecture().get();
-        if (server.getPackageType() == PackageType.DEB) {
-            pkgArch += "-deb";
-        }
-        pkg.setArch(PackageFactory.lookupPackageArchByLabel(pkgArch));
+        pkg.setArch(packageArch);
         return pkg;
     }
 
+    /**
+     * Add -deb suffix to architectures for Debian systems
+     *
+     * @param arch the architecture reported by salt
+     * @param type the package type of the system
+     * @return the package architecture label
+     */
+    private static String toPackageArchLabel(String arch, PackageType type) {
+        return type == PackageType.DEB ? arch + "-deb" : arch;
+    }
+
     /**
      * Returns a key string that uniquely identifies an installed package (as a
      * Hibernated object)
@@ -1936,11 +1949,16 @@ public class SaltUtils {
 
     private static PackageEvr parsePackageEvr(Optional<String> epoch, String version, Optional<String> release,
                                               PackageType type) {
+        return PackageEvrFactory.lookupOrCreatePackageEvr(toPackageEvr(epoch, version, release, type));
+    }
+
+    private static PackageEvr toPackageEvr(Optional<String> epoch, String version, Optional<String> release,
+                                           PackageType type) {
         switch (type) {
             case DEB:
-                return PackageEvrFactory.lookupOrCreatePackageEvr(PackageEvr.parseDebian(version));
+                return PackageEvr.parseDebian(version);
             case RPM:
-                return PackageEvrFactory.lookupOrCreatePackageEvr(epoch.map(StringUtils::trimToNull).orElse(null),
+                return new PackageEvr(epoch.map(StringUtils::trimToNull).orElse(null),
                         version, release.orElse("0"), PackageType.RPM);
             default:
                 throw new RuntimeException("unreachable");
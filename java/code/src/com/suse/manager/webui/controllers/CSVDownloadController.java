@@ -16,22 +16,23 @@
 package com.suse.manager.webui.controllers;
 
 import static com.suse.manager.webui.utils.SparkApplicationHelper.withUser;
+import static spark.Spark.exception;
 import static spark.Spark.get;
 
-import com.redhat.rhn.common.db.datasource.DataResult;
 import com.redhat.rhn.common.util.CSVWriter;
+import com.redhat.rhn.common.util.download.CSVDownloadUtils;
+import com.redhat.rhn.common.util.download.DownloadAbortedException;
 import com.redhat.rhn.domain.user.User;
-import com.redhat.rhn.frontend.dto.SystemOverview;
-import com.redhat.rhn.frontend.dto.VirtualSystemOverview;
 import com.redhat.rhn.manager.system.SystemManager;
 
 import org.apache.http.HttpStatus;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.io.StringWriter;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import spark.Request;
 import spark.Response;
@@ -53,6 +54,11 @@ public class CSVDownloadController {
     public static void initRoutes() {
         get("/manager/systems/csv/virtualSystems", withUser(CSVDownloadController::virtualSystemsCSV));
         get("/manager/systems/csv/all", withUser(CSVDownloadController::allSystemsCSV));
+
+        // Spark would append its error page to the rows already sent: let the servlet container abort instead
+        exception(DownloadAbortedException.class, (exception, request, response) -> {
+            throw exception;
+        });
     }
 
     /**
@@ -66,12 +72,10 @@ public class CSVDownloadController {
     public static String virtualSystemsCSV(Request request, Response response, User user) {
         // Querying the data again may not be optimal... but caching them in the
         // session may grow big!
-        DataResult<VirtualSystemOverview> virtual = SystemManager.virtualSystemsList(user, null);
-        virtual.elaborate();
-
         List<String> columns = Arrays.asList("name", "id", "securityErrata", "bugErrata", "enhancementErrata",
                 "outdatedPackages", "lastCheckin", "entitlementLevel", "channelLabels");
-        return writeCsv(response, virtual, columns, "virtual-systems.csv");
+        return writeCsv(request, response, columns, "virtual-systems.csv",
+                () -> SystemManager.virtualSystemsStream(user, CSVDownloadUtils.BATCH_SIZE));
     }
 
     /**
@@ -83,29 +87,35 @@ public class CSVDownloadController {
      * @return the json response
      */
     public static String allSystemsCSV(Request request, Response response, User user) {
-        DataResult<SystemOverview> all = SystemManager.systemListNew(user, null, null);
-
         List<String> columns = Arrays.asList("serverName", "id", "securityErrata", "bugErrata", "enhancementErrata",
                 "outdatedPackages", "extraPkgCount", "configFilesWithDifferences", "lastCheckin", "entitlementLevel",
                 "channelLabels", "proxy", "mgrServer", "virtualHost", "virtualGuest", "requiresReboot",
                 "statusType");
-        return writeCsv(response, all, columns, "systems.csv");
+        return writeCsv(request, response, columns, "systems.csv",
+                () -> SystemManager.systemListStream(user, CSVDownloadUtils.BATCH_SIZE));
     }
 
-    private static String writeCsv(Response response, List<?> data, List<String> columns, String filename) {
-        CSVWriter csvWriterObj = new CSVWriter(new StringWriter());
-        csvWriterObj.setColumns(columns);
-        try {
-            csvWriterObj.write(data);
+    private static String writeCsv(Request request, Response response, List<String> columns, String filename,
+                                   Supplier<Stream<?>> rows) {
+        // The rows are written to the response as they are read from the database
+        try (Stream<?> stream = rows.get()) {
+            CSVWriter csvWriter = CSVDownloadUtils.openCSVWriter(request.raw(), response.raw(), filename, ',');
+            csvWriter.setColumns(columns);
+            csvWriter.beginRows();
+            stream.forEach(csvWriter::writeRow);
+            csvWriter.endRows();
+            // not closed on failures, so that an aborted download does not end like a complete one
+            csvWriter.close();
         }
         catch (Exception e) {
             LOG.error("Failed to write CSV", e);
+            // Once the first rows are sent, the download has to fail instead of ending like a complete file
+            if (response.raw().isCommitted()) {
+                throw new DownloadAbortedException("Failed to write CSV", e);
+            }
+            response.raw().reset();
             Spark.halt(HttpStatus.SC_INTERNAL_SERVER_ERROR);
         }
-
-        response.header("Content-Disposition", String.format("attachment; filename=\"%s\"", filename));
-        response.header("Content-Length", Integer.toString(csvWriterObj.getContents().length()));
-        response.type("text/csv");
-        return csvWriterObj.getContents();
+        return "";
     }
 }
@@ -27,17 +27,16 @@ import com.redhat.rhn.domain.channel.ClonedChannel;
 import com.redhat.rhn.domain.channel.Comps;
 import com.redhat.rhn.domain.channel.MediaProducts;
 import com.redhat.rhn.domain.channel.Modules;
-import com.redhat.rhn.domain.rhnpackage.Package;
 import com.redhat.rhn.domain.rhnpackage.PackageEvr;
 import com.redhat.rhn.domain.rhnpackage.PackageFactory;
 import com.redhat.rhn.domain.server.MinionServer;
 
 import com.suse.cloud.CloudPaygManager;
+import com.suse.manager.webui.utils.token.DownloadTokenCache;
 import com.suse.manager.webui.utils.token.Token;
 import com.suse.manager.webui.utils.token.TokenParser;
 import com.suse.manager.webui.utils.token.TokenParsingException;
 
-import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.HttpStatus;
@@ -505,17 +504,17 @@ public class DownloadController {
 
         String mountPoint = Config.get().getString(ConfigDefaults.MOUNT_POINT);
         PkgInfo pkgInfo = parsePackageFileName(path);
-        Package pkg = PackageFactory.lookupByChannelLabelNevraCs(channel, pkgInfo.getName(),
+        String pkgPath = PackageFactory.lookupPathByChannelLabelNevraCs(channel, pkgInfo.getName(),
                 pkgInfo.getVersion(), pkgInfo.getRelease(), pkgInfo.getEpoch(), pkgInfo.getArch(),
                 pkgInfo.getChecksum());
-        if (pkg == null) {
+        if (pkgPath == null) {
             if (LOG.isDebugEnabled()) {
                 LOG.error("{}: Package not found in channel: {}", path, StringUtil.sanitizeLogInput(channel));
             }
             halt(HttpStatus.SC_NOT_FOUND, String.format("%s not found in %s", basename, channel));
         }
 
-        File file = new File(mountPoint, pkg.getPath()).getAbsoluteFile();
+        File file = new File(mountPoint, pkgPath).getAbsoluteFile();
 
         return downloadFile(request, response, file);
     }
@@ -634,54 +633,55 @@ public class DownloadController {
      * @param filename the filename
      */
     private void validateToken(String token, String channel, String filename) {
-
-        AccessTokenFactory.lookupByToken(token).ifPresentOrElse(obj -> {
+        DownloadTokenCache.VerifiedToken verified = DownloadTokenCache.verify(token);
+        if (verified.inDatabase()) {
             Instant now = Instant.now();
-            if (!obj.getValid() || now.isAfter(obj.getExpiration().toInstant())) {
+            if (!verified.valid() || now.isAfter(verified.storedExpiration())) {
                 LOG.info("Forbidden: invalid token ...{} to access {}", sanitizeToken(token), filename);
                 halt(HttpStatus.SC_FORBIDDEN, "This token is not valid");
             }
-        }, () -> LOG.debug("Token ...{} to access {} doesn't exists in the database - could be an image build token",
-                sanitizeToken(token), filename)
-        );
-        try {
-            Token parsedToken = new TokenParser().usingServerSecret().parse(token);
-            if (Optional.ofNullable(parsedToken.getExpirationTime())
-                .map(exp -> exp.isBefore(Instant.now()))
-                .orElse(false)) {
-                LOG.info("Forbidden: Token expired");
-                halt(HttpStatus.SC_FORBIDDEN, "Token expired");
-            }
-
-            // enforce channel claim
-            List<String> onlyChannels = parsedToken.getListClaim("onlyChannels", String.class);
-            if (CollectionUtils.isEmpty(onlyChannels)) {
-                LOG.info("Token ...{} does not provide access to any channel", () -> sanitizeToken(token));
-            }
-            else if (!onlyChannels.contains(channel)) {
-                LOG.info("Forbidden: Token ...{} does not provide access to channel {}",
-                    () -> sanitizeToken(token), () -> channel);
-                LOG.info("Token allow access only to the following channels: {}", () -> String.join(",", onlyChannels));
-                halt(HttpStatus.SC_FORBIDDEN, "Token does not provide access to channel %s".formatted(channel));
-            }
-
-            // enforce org claim
-            Long orgId = parsedToken.getClaim("org", Long.class);
-            if (orgId == null) {
-                LOG.info("Forbidden: Token does not specify the organization");
-                halt(HttpStatus.SC_BAD_REQUEST, "Token does not specify the organization");
-            }
-            else if (!ChannelFactory.isAccessibleBy(channel, orgId)) {
-                String sanitChannel = StringUtil.sanitizeLogInput(channel);
-                LOG.info("Forbidden: Token does not provide access to channel {}", sanitChannel);
-                halt(HttpStatus.SC_FORBIDDEN, "Token does not provide access to channel %s".formatted(sanitChannel));
-            }
         }
-        catch (TokenParsingException e) {
+        else {
+            LOG.debug("Token ...{} to access {} doesn't exists in the database - could be an image build token",
+                    sanitizeToken(token), filename);
+        }
+
+        if (verified.parsingError() != null) {
             LOG.info("Forbidden: Token ...{} is not valid to access {} in {}: {}",
-                () -> sanitizeToken(token), () -> filename, () -> channel, () -> e.getMessage());
+                () -> sanitizeToken(token), () -> filename, () -> channel, verified::parsingError);
             halt(HttpStatus.SC_FORBIDDEN,
-                "Token is not valid to access %s in %s: %s".formatted(filename, channel, e.getMessage()));
+                "Token is not valid to access %s in %s: %s".formatted(filename, channel, verified.parsingError()));
+        }
+
+        if (Optional.ofNullable(verified.expiration())
+            .map(exp -> exp.isBefore(Instant.now()))
+            .orElse(false)) {
+            LOG.info("Forbidden: Token expired");
+            halt(HttpStatus.SC_FORBIDDEN, "Token expired");
+        }
+
+        // enforce channel claim
+        List<String> onlyChannels = verified.onlyChannels();
+        if (onlyChannels.isEmpty()) {
+            LOG.info("Token ...{} does not provide access to any channel", () -> sanitizeToken(token));
+        }
+        else if (!onlyChannels.contains(channel)) {
+            LOG.info("Forbidden: Token ...{} does not provide access to channel {}",
+                () -> sanitizeToken(token), () -> channel);
+            LOG.info("Token allow access only to the following channels: {}", () -> String.join(",", onlyChannels));
+            halt(HttpStatus.SC_FORBIDDEN, "Token does not provide access to channel %s".formatted(channel));
+        }
+
+        // enforce org claim
+        Long orgId = verified.orgId();
+        if (orgId == null) {
+            LOG.info("Forbidden: Token does not specify the organization");
+            halt(HttpStatus.SC_BAD_REQUEST, "Token does not specify the organization");
+        }
+        else if (!DownloadTokenCache.isAccessibleBy(channel, orgId)) {
+            String sanitChannel = StringUtil.sanitizeLogInput(channel);
+            LOG.info("Forbidden: Token does not provide access to channel {}", sanitChannel);
+            halt(HttpStatus.SC_FORBIDDEN, "Token does not provide access to channel %s".formatted(sanitChannel));
         }
     }
 
@@ -486,6 +486,37 @@ public class DownloadControllerTest extends BaseTestCaseWithUser {
         }
     }
 
+    /**
+     * Test that a token revoked after a download can not be used anymore, even if its
+     * verification was remembered.
+     *
+     * @throws Exception if anything goes wrong
+     */
+    @Test
+    public void testTokenRevokedAfterDownload() throws Exception {
+        Token token = new DownloadTokenBuilder(user.getOrg().getId())
+            .usingServerSecret()
+            .allowingOnlyChannels(Set.of(channel.getLabel()))
+            .build();
+        AccessToken accessToken = saveTokenToDataBase(token);
+
+        Map<String, String> params = new HashMap<>();
+        params.put(accessToken.getToken(), "");
+        assertNotNull(downloadController.downloadPackage(getMockRequestWithParams(params), response));
+
+        accessToken.setValid(false);
+        AccessTokenFactory.save(accessToken);
+
+        try {
+            downloadController.downloadPackage(getMockRequestWithParams(params), response);
+            fail(String.format("%s should halt 403 if the token was revoked",
+                    DownloadController.class.getSimpleName()));
+        }
+        catch (spark.HaltException e) {
+            assertEquals(403, e.getStatusCode());
+        }
+    }
+
     /**
      * Test a download with a correct channel in the token and the token
      * in a query param.
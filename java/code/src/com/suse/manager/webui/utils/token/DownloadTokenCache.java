@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2025 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.suse.manager.webui.utils.token;
+
+import com.redhat.rhn.common.conf.ConfigDefaults;
+import com.redhat.rhn.common.hibernate.HibernateFactory;
+import com.redhat.rhn.common.util.ExpiringCache;
+import com.redhat.rhn.domain.channel.AccessToken;
+import com.redhat.rhn.domain.channel.AccessTokenFactory;
+import com.redhat.rhn.domain.channel.ChannelFactory;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Remembers the download tokens already verified and the channels already found accessible by an organization, so
+ * that the packages requested by a client in a row do not each look up, parse and verify the same token again.
+ *
+ * Only the tokens that may be accepted and the accessible channels are remembered. The expiration times are kept and
+ * checked by the caller on every request. Tokens changed through {@link AccessTokenFactory} are dropped immediately
+ * and again once the transaction completes, other changes are seen once the entries expire.
+ */
+public final class DownloadTokenCache {
+
+    /**
+     * The outcome of the database lookup and the verification of a token.
+     * @param inDatabase true if the token is stored in the database, false for tokens not bound to a minion
+     * @param valid the validity flag of the stored token
+     * @param storedExpiration the expiration time of the stored token, null if the token is not stored
+     * @param expiration the expiration time claimed by the token, null if none
+     * @param onlyChannels the channels the token gives access to
+     * @param orgId the organization claimed by the token, null if none
+     * @param parsingError the reason why the token could not be parsed or verified, null if it was
+     */
+    public record VerifiedToken(boolean inDatabase, boolean valid, Instant storedExpiration, Instant expiration,
+                                List<String> onlyChannels, Long orgId, String parsingError) {
+
+        /**
+         * Tells if the token may be accepted: it could be parsed and verified and, if it is stored, it is valid.
+         * The expiration times and the claims still have to be checked.
+         * @return true if the token may be accepted
+         */
+        public boolean isAcceptable() {
+            return parsingError == null && (!inDatabase || valid);
+        }
+    }
+
+    private record ChannelAccess(String channelLabel, Long orgId) {
+    }
+
+    private static final ExpiringCache<String, VerifiedToken> TOKENS = new ExpiringCache<>(
+            ConfigDefaults.get().getDownloadCacheTtl() * 1000L, ConfigDefaults.get().getDownloadCacheSize());
+
+    private static final ExpiringCache<ChannelAccess, Boolean> CHANNEL_ACCESS = new ExpiringCache<>(
+            ConfigDefaults.get().getDownloadCacheTtl() * 1000L, ConfigDefaults.get().getDownloadCacheSize());
+
+    private DownloadTokenCache() {
+    }
+
+    /**
+     * Looks up and verifies a token with the server secret, or returns the outcome of a previous verification.
+     * @param token the serialized token
+     * @return the verified token
+     */
+    public static VerifiedToken verify(String token) {
+        if (token == null) {
+            return load(null);
+        }
+        // Rejected tokens are not cached, so that a token becoming valid is accepted right away
+        return TOKENS.get(token, DownloadTokenCache::load, VerifiedToken::isAcceptable);
+    }
+
+    /**
+     * Checks if a channel is accessible by an organization, reusing the answer of a previous call.
+     * @param channelLabel the channel label
+     * @param orgId the organization id
+     * @return true if the channel is accessible
+     */
+    public static boolean isAccessibleBy(String channelLabel, Long orgId) {
+        return CHANNEL_ACCESS.get(new ChannelAccess(channelLabel, orgId),
+                key -> ChannelFactory.isAccessibleBy(channelLabel, orgId), accessible -> accessible);
+    }
+
+    /**
+     * Drops the verification of a token, after it was changed or deleted, and again once the current transaction
+     * completes.
+     * @param token the serialized token
+     */
+    public static void invalidate(String token) {
+        if (token != null) {
+            HibernateFactory.runNowAndAfterTransaction(() -> TOKENS.invalidate(token));
+        }
+    }
+
+    /**
+     * Drops all the verified tokens and channel access decisions.
+     */
+    public static void clear() {
+        TOKENS.clear();
+        CHANNEL_ACCESS.clear();
+    }
+
+    /**
+     * @return the cache of the verified tokens
+     */
+    public static ExpiringCache<String, VerifiedToken> getTokens() {
+        return TOKENS;
+    }
+
+    /**
+     * @return the cache of the channel access decisions
+     */
+    public static ExpiringCache<?, Boolean> getChannelAccess() {
+        return CHANNEL_ACCESS;
+    }
+
+    private static VerifiedToken load(String token) {
+        Optional<AccessToken> stored = AccessTokenFactory.lookupByToken(token);
+        boolean valid = stored.map(AccessToken::getValid).orElse(false);
+        Instant storedExpiration = stored.map(t -> t.getExpiration().toInstant()).orElse(null);
+        try {
+            Token parsedToken = new TokenParser().usingServerSecret().parse(token);
+            List<String> onlyChannels = parsedToken.getListClaim("onlyChannels", String.class);
+            return new VerifiedToken(stored.isPresent(), valid, storedExpiration, parsedToken.getExpirationTime(),
+                    onlyChannels == null ? List.of() : List.copyOf(onlyChannels),
+                    parsedToken.getClaim("org", Long.class), null);
+        }
+        catch (TokenParsingException e) {
+            return new VerifiedToken(stored.isPresent(), valid, storedExpiration, null, List.of(), null,
+                    String.valueOf(e.getMessage()));
+        }
+    }
+}
@@ -15,8 +15,6 @@
 
 package com.suse.oval;
 
-import static java.util.stream.Collectors.groupingBy;
-
 import com.redhat.rhn.common.db.datasource.CallableMode;
 import com.redhat.rhn.common.db.datasource.DataResult;
 import com.redhat.rhn.common.db.datasource.ModeFactory;
@@ -35,12 +33,14 @@ import com.suse.oval.vulnerablepkgextractor.VulnerablePackagesExtractors;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.hibernate.Session;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 public class OVALCachingFactory extends HibernateFactory {
@@ -59,53 +59,47 @@ public class OVALCachingFactory extends HibernateFactory {
      * Extracts and save the list of vulnerable packages from {@code rootType}
      *
      * @param rootType the OVAL root to extract from
+     * @return the ids of the CVEs whose vulnerable packages changed
      * */
-    public static void savePlatformsVulnerablePackages(OvalRootType rootType) {
-        CallableMode mode = ModeFactory.getCallableMode("oval_queries", "add_product_vulnerable_package");
-
+    public static Set<Long> savePlatformsVulnerablePackages(OvalRootType rootType) {
         OVALLookupHelper ovalLookupHelper = new OVALLookupHelper(rootType);
 
-        List<ProductVulnerablePackages> productVulnerablePackages = new ArrayList<>();
+        VulnerablePackagesWriter writer = new VulnerablePackagesWriter();
         for (DefinitionType definition : rootType.getDefinitions()) {
             VulnerablePackagesExtractor vulnerablePackagesExtractor =
                     VulnerablePackagesExtractors.create(definition, rootType.getOsFamily(), ovalLookupHelper);
 
-            productVulnerablePackages.addAll(vulnerablePackagesExtractor.extract());
+            writer.write(vulnerablePackagesExtractor.extract());
         }
+        return writer.flush();
+    }
 
-        // Clear previous OVAL metadata
-        productVulnerablePackages.stream()
-                .collect(groupingBy(ProductVulnerablePackages::getProductCpe))
-                .keySet().forEach(OVALCachingFactory::clearOVALMetadataByPlatform);
-
-        // Write OVAL metadata in batches
-        DataResult<Map<String, Object>> batch = new DataResult<>(new ArrayList<>(1000));
-        for (ProductVulnerablePackages pvp : productVulnerablePackages) {
-            for (String cve : pvp.getCves()) {
-                for (VulnerablePackage vulnerablePackage : pvp.getVulnerablePackages()) {
-                    Map<String, Object> params = new HashMap<>();
-                    params.put("product_name", pvp.getProductCpe());
-                    params.put("cve_name", cve);
-                    params.put("package_name", vulnerablePackage.getName());
-                    params.put("fix_version", vulnerablePackage.getFixVersion().orElse(null));
-
-                    batch.add(params);
-
-                    if (batch.size() % 1000 == 0) {
-                        mode.getQuery().executeBatchUpdates(batch);
-                        batch.clear();
-                        commitTransaction();
-
-                        Session session = getSession();
-                        if (!inTransaction()) {
-                            session.beginTransaction();
-                        }
-                    }
-                }
+    /**
+     * Extracts and save the list of vulnerable packages from the given OVAL file, reading and cleaning up one
+     * definition at a time instead of the whole file at once.
+     *
+     * @param ovalFile the OVAL file to extract from
+     * @param osFamily the osFamily of the OVAL
+     * @param osVersion the osVersion of the OVAL
+     * @return the ids of the CVEs whose vulnerable packages changed
+     * */
+    public static Set<Long> savePlatformsVulnerablePackages(File ovalFile, OsFamily osFamily, String osVersion) {
+        OvalParser parser = new OvalParser();
+
+        // Only the tests, objects and states are kept in memory while definitions are streamed
+        OvalRootType resources = VulnerablePackagesExtractors.requiresLookupHelper(osFamily) ?
+                parser.parseResources(ovalFile) : new OvalRootType();
+        OVALCleaner.cleanup(resources, osFamily, osVersion);
+        OVALLookupHelper ovalLookupHelper = new OVALLookupHelper(resources);
+
+        VulnerablePackagesWriter writer = new VulnerablePackagesWriter();
+        parser.parseDefinitions(ovalFile, definition -> {
+            if (OVALCleaner.isRelevant(definition, osFamily)) {
+                OVALCleaner.cleanup(definition, osFamily, osVersion);
+                writer.write(VulnerablePackagesExtractors.create(definition, osFamily, ovalLookupHelper).extract());
             }
-        }
-
-        mode.getQuery().executeBatchUpdates(new DataResult<>(batch));
+        });
+        return writer.flush();
     }
 
     /**
@@ -132,6 +126,20 @@ public class OVALCachingFactory extends HibernateFactory {
         }).collect(Collectors.toList());
     }
 
+    /**
+     * Lists the installed packages of the given systems that are vulnerable to {@code cve} on at least one
+     * platform. Packages not mentioned by any OVAL definition of the CVE are left out, so the result stays
+     * small even for systems with thousands of packages installed.
+     *
+     * @param serverIds the ids of the systems
+     * @param cve the cve identifier
+     * @return rows with the server_id, name, evr_id, epoch, version, release and type of the installed packages
+     * */
+    public static DataResult<Row> listInstalledVulnerablePackages(List<Long> serverIds, String cve) {
+        SelectMode mode = ModeFactory.getMode("oval_queries", "list_installed_vulnerable_packages");
+        return mode.execute(Map.of("cve_name", cve), serverIds);
+    }
+
     /**
      * Verify the presence of OVAL data in the database for the given CVE to determine whether an audit of the CVE
      * can be conducted.
@@ -181,6 +189,73 @@ public class OVALCachingFactory extends HibernateFactory {
         return !result.isEmpty();
     }
 
+    /**
+     * Writes vulnerable packages to the database in batches within the current transaction, so that the previous
+     * OVAL metadata of a platform, cleared when the platform is first seen, is only replaced once the caller
+     * commits and stays intact if writing fails halfway. The vulnerable packages of each CVE are compared before and
+     * after the platform is written, to tell which CVEs changed.
+     * */
+    private static class VulnerablePackagesWriter {
+        private static final int BATCH_SIZE = 1000;
+
+        private final CallableMode mode = ModeFactory.getCallableMode("oval_queries", "add_product_vulnerable_package");
+        private final Map<String, Map<Long, String>> previousFingerprints = new HashMap<>();
+        private final DataResult<Map<String, Object>> batch = new DataResult<>(new ArrayList<>(BATCH_SIZE));
+
+        void write(List<ProductVulnerablePackages> productVulnerablePackages) {
+            for (ProductVulnerablePackages pvp : productVulnerablePackages) {
+                // Clear previous OVAL metadata
+                if (!previousFingerprints.containsKey(pvp.getProductCpe())) {
+                    previousFingerprints.put(pvp.getProductCpe(), listCveFingerprints(pvp.getProductCpe()));
+                    clearOVALMetadataByPlatform(pvp.getProductCpe());
+                }
+                for (String cve : pvp.getCves()) {
+                    for (VulnerablePackage vulnerablePackage : pvp.getVulnerablePackages()) {
+                        Map<String, Object> params = new HashMap<>();
+                        params.put("product_name", pvp.getProductCpe());
+                        params.put("cve_name", cve);
+                        params.put("package_name", vulnerablePackage.getName());
+                        params.put("fix_version", vulnerablePackage.getFixVersion().orElse(null));
+
+                        batch.add(params);
+
+                        if (batch.size() == BATCH_SIZE) {
+                            mode.getQuery().executeBatchUpdates(batch);
+                            batch.clear();
+                        }
+                    }
+                }
+            }
+        }
+
+        Set<Long> flush() {
+            mode.getQuery().executeBatchUpdates(new DataResult<>(batch));
+            batch.clear();
+
+            Set<Long> changedCves = new HashSet<>();
+            for (Map.Entry<String, Map<Long, String>> platform : previousFingerprints.entrySet()) {
+                Map<Long, String> previous = platform.getValue();
+                Map<Long, String> current = listCveFingerprints(platform.getKey());
+                previous.forEach((cveId, fingerprint) -> {
+                    if (!fingerprint.equals(current.get(cveId))) {
+                        changedCves.add(cveId);
+                    }
+                });
+                current.keySet().stream().filter(cveId -> !previous.containsKey(cveId)).forEach(changedCves::add);
+            }
+            return changedCves;
+        }
+
+        private static Map<Long, String> listCveFingerprints(String platformCpe) {
+            SelectMode fingerprints = ModeFactory.getMode("oval_queries", "list_oval_cve_fingerprints_by_platform");
+            Map<Long, String> result = new HashMap<>();
+            for (Row row : fingerprints.<Row>execute(Map.of("cpe", platformCpe))) {
+                result.put((Long) row.get("cve_id"), (String) row.get("fingerprint"));
+            }
+            return result;
+        }
+    }
+
     @Override
     protected Logger getLogger() {
         return LOG;
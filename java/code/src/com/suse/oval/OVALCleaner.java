@@ -57,25 +57,44 @@ public class OVALCleaner {
         root.setOsFamily(osFamily);
         root.setOsVersion(osVersion);
 
-        if (osFamily == OsFamily.REDHAT_ENTERPRISE_LINUX) {
-            root.getDefinitions().removeIf(def -> def.getId().contains("unaffected"));
+        root.getDefinitions().removeIf(def -> !isRelevant(def, osFamily));
+
+        root.getDefinitions().forEach(definition -> cleanup(definition, osFamily, osVersion));
+        root.getTests().forEach(test -> doCleanupTest(test, osFamily, osVersion));
+        root.getStates().forEach(state -> doCleanupState(state, osFamily, osVersion));
+        root.getObjects().forEach(object -> doCleanupObject(object, osFamily, osVersion));
+    }
+
+    /**
+     * Checks if the given {@code definition} is of interest for vulnerable packages extraction.
+     *
+     * @param definition the OVAL definition to check
+     * @param osFamily the osFamily of the OVAL
+     * @return {@code false} if the definition has to be ignored
+     * */
+    public static boolean isRelevant(DefinitionType definition, OsFamily osFamily) {
+        if (osFamily == OsFamily.REDHAT_ENTERPRISE_LINUX && definition.getId().contains("unaffected")) {
+            return false;
         }
 
         // Debian OVAL files could contain patch definitions, but we're only interested in vulnerability definitions
-        if (osFamily == OsFamily.DEBIAN || osFamily == OsFamily.UBUNTU) {
-            root.getDefinitions().removeIf(def -> def.getDefinitionClass() != DefinitionClassEnum.VULNERABILITY);
+        if ((osFamily == OsFamily.DEBIAN || osFamily == OsFamily.UBUNTU) &&
+                definition.getDefinitionClass() != DefinitionClassEnum.VULNERABILITY) {
+            return false;
         }
 
         // Although it's rare, but it's possible to get null criteria trees.
-        root.getDefinitions().removeIf(def -> def.getCriteria() == null);
-
-        root.getDefinitions().forEach(definition -> doCleanupDefinition(definition, osFamily, osVersion));
-        root.getTests().forEach(test -> doCleanupTest(test, osFamily, osVersion));
-        root.getStates().forEach(state -> doCleanupState(state, osFamily, osVersion));
-        root.getObjects().forEach(object -> doCleanupObject(object, osFamily, osVersion));
+        return definition.getCriteria() != null;
     }
 
-    private static void doCleanupDefinition(DefinitionType definition, OsFamily osFamily, String osVersion) {
+    /**
+     * Cleanup a single relevant {@code definition} based on {@code osFamily} and {@code osVersion}
+     *
+     * @param definition the OVAL definition to clean up
+     * @param osFamily the osFamily of the OVAL
+     * @param osVersion the osVersion of the OVAL
+     * */
+    public static void cleanup(DefinitionType definition, OsFamily osFamily, String osVersion) {
         fillCves(definition, osFamily);
         fillOsFamily(definition, osFamily);
         fillOsVersion(definition, osVersion);
@@ -16,21 +16,36 @@
 package com.suse.oval;
 
 import com.suse.oval.exceptions.OvalParserException;
+import com.suse.oval.ovaltypes.DefinitionType;
+import com.suse.oval.ovaltypes.ObjectsType;
 import com.suse.oval.ovaltypes.OvalRootType;
+import com.suse.oval.ovaltypes.StatesType;
+import com.suse.oval.ovaltypes.TestsType;
 
+import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.file.Files;
+import java.util.function.Consumer;
 
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Unmarshaller;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 /**
  * The Oval Parser is responsible for parsing OVAL(Open Vulnerability and Assessment Language) documents
  */
 public class OvalParser {
 
+    private static final String OVAL_DEFINITIONS_NAMESPACE = "http://oval.mitre.org/XMLSchema/oval-definitions-5";
+
     /**
      * Parse the given OVAL file
      *
@@ -39,8 +54,7 @@ public class OvalParser {
      * */
     public OvalRootType parse(File ovalFile) throws OvalParserException {
         try {
-            JAXBContext jaxbContext = JAXBContext.newInstance(OvalRootType.class);
-            Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
+            Unmarshaller unmarshaller = JaxbContextHolder.INSTANCE.createUnmarshaller();
             return (OvalRootType) unmarshaller.unmarshal(ovalFile);
         }
         catch (JAXBException e) {
@@ -63,4 +77,126 @@ public class OvalParser {
         }
     }
 
+    /**
+     * Parse the tests, objects and states of the given OVAL file, skipping its definitions. Definitions are the
+     * biggest part of an OVAL file and can be read one by one with {@link #parseDefinitions(File, Consumer)}.
+     *
+     * @param ovalFile the OVAL file to parse
+     * @return the parsed OVAL encapsulated in a {@link OvalRootType} object without definitions
+     * */
+    public OvalRootType parseResources(File ovalFile) throws OvalParserException {
+        OvalRootType root = new OvalRootType();
+        stream(ovalFile, (reader, unmarshaller) -> {
+            switch (reader.getLocalName()) {
+                case "definitions" -> skipElement(reader);
+                case "tests" -> root.setTests(unmarshaller.unmarshal(reader, TestsType.class).getValue().getTests());
+                case "objects" -> root.setObjects(
+                        unmarshaller.unmarshal(reader, ObjectsType.class).getValue().getObjects());
+                case "states" -> root.setStates(
+                        unmarshaller.unmarshal(reader, StatesType.class).getValue().getStates());
+                default -> reader.next();
+            }
+            return true;
+        });
+        return root;
+    }
+
+    /**
+     * Parse the definitions of the given OVAL file one at a time, so that only the definition being processed is
+     * kept in memory, no matter how big the file is.
+     *
+     * @param ovalFile the OVAL file to parse
+     * @param consumer called with every parsed definition, in document order
+     * */
+    public void parseDefinitions(File ovalFile, Consumer<DefinitionType> consumer) throws OvalParserException {
+        stream(ovalFile, (reader, unmarshaller) -> {
+            switch (reader.getLocalName()) {
+                case "definition" -> consumer.accept(unmarshaller.unmarshal(reader, DefinitionType.class).getValue());
+                case "tests", "objects", "states" -> {
+                    // Definitions come first, there is nothing left to read
+                    return false;
+                }
+                default -> reader.next();
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Walks the start elements of the OVAL definitions namespace in the given file.
+     * */
+    private static void stream(File ovalFile, ElementHandler handler) {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(ovalFile.toPath()))) {
+            XMLStreamReader reader = factory.createXMLStreamReader(in);
+            try {
+                Unmarshaller unmarshaller = JaxbContextHolder.INSTANCE.createUnmarshaller();
+                boolean proceed = true;
+                while (proceed && reader.hasNext()) {
+                    if (reader.isStartElement() && OVAL_DEFINITIONS_NAMESPACE.equals(reader.getNamespaceURI())) {
+                        // The handler moves the reader past the element it handled
+                        proceed = handler.handle(reader, unmarshaller);
+                    }
+                    else {
+                        reader.next();
+                    }
+                }
+            }
+            finally {
+                reader.close();
+            }
+        }
+        catch (IOException | XMLStreamException | JAXBException e) {
+            throw new OvalParserException("Failed to parse the given OVAL file at: " + ovalFile.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Moves the reader from a start element to the event following the matching end element.
+     * */
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 0;
+        do {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            }
+            else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        } while (depth >= 0);
+        reader.next();
+    }
+
+    @FunctionalInterface
+    private interface ElementHandler {
+        /**
+         * Handles the start element the reader is positioned on.
+         *
+         * @return {@code false} to stop reading the file
+         * */
+        boolean handle(XMLStreamReader reader, Unmarshaller unmarshaller) throws XMLStreamException, JAXBException;
+    }
+
+    /**
+     * Creating a JAXB context is expensive, while the context is thread safe, so it is created only once.
+     * */
+    private static final class JaxbContextHolder {
+        private static final JAXBContext INSTANCE = createContext();
+
+        private JaxbContextHolder() {
+        }
+
+        private static JAXBContext createContext() {
+            try {
+                return JAXBContext.newInstance(OvalRootType.class);
+            }
+            catch (JAXBException e) {
+                throw new OvalParserException("Failed to create the OVAL JAXB context", e);
+            }
+        }
+    }
 }
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2025 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+
+package com.suse.oval.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.redhat.rhn.testing.TestUtils;
+
+import com.suse.oval.OvalParser;
+import com.suse.oval.ovaltypes.DefinitionType;
+import com.suse.oval.ovaltypes.ObjectType;
+import com.suse.oval.ovaltypes.OvalRootType;
+import com.suse.oval.ovaltypes.StateType;
+import com.suse.oval.ovaltypes.TestType;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test for {@link OvalParser}
+ */
+public class OvalParserTest {
+
+    private final OvalParser ovalParser = new OvalParser();
+
+    @ParameterizedTest
+    @ValueSource(strings = {"oval-def-1.xml", "oval-def-2.xml", "oval-def-3.xml"})
+    public void testStreamingParseMatchesFullParse(String fileName) throws Exception {
+        File ovalFile = new File(TestUtils.findTestData("/com/redhat/rhn/manager/audit/test/oval/" + fileName)
+                .toURI());
+        OvalRootType fullRoot = ovalParser.parse(ovalFile);
+
+        OvalRootType resources = ovalParser.parseResources(ovalFile);
+        assertTrue(resources.getDefinitions().isEmpty());
+        assertFalse(resources.getTests().isEmpty());
+        assertEquals(fullRoot.getTests().stream().map(TestType::getId).toList(),
+                resources.getTests().stream().map(TestType::getId).toList());
+        assertEquals(fullRoot.getTests().stream().map(TestType::getClass).toList(),
+                resources.getTests().stream().map(TestType::getClass).toList());
+        assertEquals(fullRoot.getObjects().stream().map(ObjectType::getPackageName).toList(),
+                resources.getObjects().stream().map(ObjectType::getPackageName).toList());
+        assertEquals(fullRoot.getStates().stream().map(StateType::getId).toList(),
+                resources.getStates().stream().map(StateType::getId).toList());
+
+        List<DefinitionType> definitions = new ArrayList<>();
+        ovalParser.parseDefinitions(ovalFile, definitions::add);
+        assertFalse(definitions.isEmpty());
+        assertEquals(fullRoot.getDefinitions().stream().map(DefinitionType::getId).toList(),
+                definitions.stream().map(DefinitionType::getId).toList());
+        assertEquals(fullRoot.getDefinitions().stream().map(d -> d.getMetadata().getTitle()).toList(),
+                definitions.stream().map(d -> d.getMetadata().getTitle()).toList());
+        assertEquals(fullRoot.getDefinitions().stream().map(d -> d.getCriteria().getChildren().size()).toList(),
+                definitions.stream().map(d -> d.getCriteria().getChildren().size()).toList());
+    }
+}
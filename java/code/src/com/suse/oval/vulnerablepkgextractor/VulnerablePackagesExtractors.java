@@ -29,6 +29,27 @@ public class VulnerablePackagesExtractors {
 
     private VulnerablePackagesExtractors() {
     }
+
+    /**
+     * Checks if the extractors of the given {@code osFamily} look up OVAL tests, objects and states, or only read
+     * the definitions.
+     *
+     * @param osFamily the os family
+     * @return {@code true} if an {@link OVALLookupHelper} over the OVAL resources is needed
+     * */
+    public static boolean requiresLookupHelper(OsFamily osFamily) {
+        switch (osFamily) {
+            case LEAP:
+            case LEAP_MICRO:
+            case SUSE_LINUX_ENTERPRISE_SERVER:
+            case SUSE_LINUX_ENTERPRISE_DESKTOP:
+            case SUSE_LINUX_ENTERPRISE_MICRO:
+                return true;
+            default:
+                return false;
+        }
+    }
+
     /**
      * Create and returns a {@link VulnerablePackagesExtractor} instance based on the given {@code osFamily} argument
      *
@@ -250,6 +250,9 @@ Requires:       tomcat-native
 Requires(pre):  salt
 Requires(pre):  tomcat >= 7
 Requires(pre):  uyuni-base-server
+# optional repository metadata compression formats
+Recommends:     xz
+Recommends:     zstd
 
 %if 0%{?rhel}
 Recommends:     rng-tools
@@ -0,0 +1,113 @@
+--
+-- Copyright (c) 2025 SUSE LLC
+--
+-- This software is licensed to you under the GNU General Public License,
+-- version 2 (GPLv2). There is NO WARRANTY for this software, express or
+-- implied, including the implied warranties of MERCHANTABILITY or FITNESS
+-- FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+-- along with this software; if not, see
+-- http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+--
+-- Red Hat trademarks are not licensed under GPLv2. No permission is
+-- granted to use or replicate Red Hat trademarks that are incorporated
+-- in this software or its documentation.
+--
+
+-- Log the systems whose packages, needed updates or hostname changed, so that the reporting
+-- database can be refreshed only for them
+
+CREATE OR REPLACE FUNCTION suse_rdb_changed_system(server_ids NUMERIC[]) RETURNS VOID AS
+$$
+BEGIN
+        -- Upsert in server id order so that concurrent statements lock the rows in the same order
+        INSERT INTO suseReportDbChangedSystem (server_id, change_id)
+             SELECT ids.server_id, nextval('suse_rdb_chsys_change_id_seq')
+               FROM (SELECT DISTINCT unnest(server_ids) AS server_id) ids
+              WHERE ids.server_id IS NOT NULL
+           ORDER BY ids.server_id
+        ON CONFLICT (server_id) DO UPDATE SET change_id = EXCLUDED.change_id;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION suse_rdb_changed_system_ins_trig_fun() RETURNS TRIGGER AS
+$$
+BEGIN
+        PERFORM suse_rdb_changed_system(ARRAY(SELECT server_id FROM new_rows));
+        RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION suse_rdb_changed_system_del_trig_fun() RETURNS TRIGGER AS
+$$
+BEGIN
+        PERFORM suse_rdb_changed_system(ARRAY(SELECT server_id FROM old_rows));
+        RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION suse_rdb_changed_system_up_trig_fun() RETURNS TRIGGER AS
+$$
+BEGIN
+        PERFORM suse_rdb_changed_system(ARRAY(SELECT server_id FROM new_rows
+                                              UNION
+                                              SELECT server_id FROM old_rows));
+        RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION suse_rdb_changed_server_trig_fun() RETURNS TRIGGER AS
+$$
+BEGIN
+        PERFORM suse_rdb_changed_system(ARRAY[new.id]);
+        RETURN new;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS suse_rdb_server_package_ins_trig ON rhnServerPackage;
+CREATE TRIGGER suse_rdb_server_package_ins_trig
+AFTER INSERT ON rhnServerPackage
+REFERENCING NEW TABLE AS new_rows
+FOR EACH STATEMENT
+EXECUTE PROCEDURE suse_rdb_changed_system_ins_trig_fun();
+
+DROP TRIGGER IF EXISTS suse_rdb_server_package_up_trig ON rhnServerPackage;
+CREATE TRIGGER suse_rdb_server_package_up_trig
+AFTER UPDATE ON rhnServerPackage
+REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+FOR EACH STATEMENT
+EXECUTE PROCEDURE suse_rdb_changed_system_up_trig_fun();
+
+DROP TRIGGER IF EXISTS suse_rdb_server_package_del_trig ON rhnServerPackage;
+CREATE TRIGGER suse_rdb_server_package_del_trig
+AFTER DELETE ON rhnServerPackage
+REFERENCING OLD TABLE AS old_rows
+FOR EACH STATEMENT
+EXECUTE PROCEDURE suse_rdb_changed_system_del_trig_fun();
+
+DROP TRIGGER IF EXISTS suse_rdb_server_needed_ins_trig ON rhnServerNeededCache;
+CREATE TRIGGER suse_rdb_server_needed_ins_trig
+AFTER INSERT ON rhnServerNeededCache
+REFERENCING NEW TABLE AS new_rows
+FOR EACH STATEMENT
+EXECUTE PROCEDURE suse_rdb_changed_system_ins_trig_fun();
+
+DROP TRIGGER IF EXISTS suse_rdb_server_needed_up_trig ON rhnServerNeededCache;
+CREATE TRIGGER suse_rdb_server_needed_up_trig
+AFTER UPDATE ON rhnServerNeededCache
+REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+FOR EACH STATEMENT
+EXECUTE PROCEDURE suse_rdb_changed_system_up_trig_fun();
+
+DROP TRIGGER IF EXISTS suse_rdb_server_needed_del_trig ON rhnServerNeededCache;
+CREATE TRIGGER suse_rdb_server_needed_del_trig
+AFTER DELETE ON rhnServerNeededCache
+REFERENCING OLD TABLE AS old_rows
+FOR EACH STATEMENT
+EXECUTE PROCEDURE suse_rdb_changed_system_del_trig_fun();
+
+DROP TRIGGER IF EXISTS suse_rdb_server_hostname_trig ON rhnServer;
+CREATE TRIGGER suse_rdb_server_hostname_trig
+AFTER UPDATE ON rhnServer
+FOR EACH ROW
+WHEN (OLD.hostname IS DISTINCT FROM NEW.hostname)
+EXECUTE PROCEDURE suse_rdb_changed_server_trig_fun();
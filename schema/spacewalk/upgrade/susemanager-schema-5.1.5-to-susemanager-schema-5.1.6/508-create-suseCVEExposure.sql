@@ -0,0 +1,92 @@
+--
+-- Copyright (c) 2025 SUSE LLC
+--
+-- This software is licensed to you under the GNU General Public License,
+-- version 2 (GPLv2). There is NO WARRANTY for this software, express or
+-- implied, including the implied warranties of MERCHANTABILITY or FITNESS
+-- FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+-- along with this software; if not, see
+-- http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+--
+CREATE TABLE IF NOT EXISTS suseCVEExposure
+(
+    system_id         NUMERIC NOT NULL
+                          CONSTRAINT suse_cvexp_sid_fk
+                              REFERENCES rhnServer (id)
+                              ON DELETE CASCADE,
+    cve_id            NUMERIC NOT NULL
+                          CONSTRAINT suse_cvexp_cid_fk
+                              REFERENCES rhnCVE (id)
+                              ON DELETE CASCADE,
+    patch_status      VARCHAR(64) NOT NULL,
+    scan_data_sources VARCHAR(64),
+    created           TIMESTAMPTZ
+                          DEFAULT (current_timestamp) NOT NULL,
+    CONSTRAINT suse_cvexp_sid_cid_pk PRIMARY KEY (system_id, cve_id)
+)
+
+;
+
+CREATE INDEX IF NOT EXISTS suse_cvexp_cid_status_idx
+    ON suseCVEExposure (cve_id, patch_status)
+    ;
+
+CREATE TABLE IF NOT EXISTS suseCVEExposureChannel
+(
+    system_id    NUMERIC NOT NULL,
+    cve_id       NUMERIC NOT NULL,
+    channel_id   NUMERIC NOT NULL
+                     CONSTRAINT suse_cvexpc_chid_fk
+                         REFERENCES rhnChannel (id)
+                         ON DELETE CASCADE,
+    channel_rank NUMERIC NOT NULL,
+    CONSTRAINT suse_cvexpc_exp_fk FOREIGN KEY (system_id, cve_id)
+        REFERENCES suseCVEExposure (system_id, cve_id)
+        ON DELETE CASCADE
+)
+
+;
+
+CREATE UNIQUE INDEX IF NOT EXISTS suse_cvexpc_sid_cid_chid_uq
+    ON suseCVEExposureChannel (system_id, cve_id, channel_id)
+    ;
+
+CREATE INDEX IF NOT EXISTS suse_cvexpc_chid_idx
+    ON suseCVEExposureChannel (channel_id)
+    ;
+
+CREATE TABLE IF NOT EXISTS suseCVEExposureErrata
+(
+    system_id NUMERIC NOT NULL,
+    cve_id    NUMERIC NOT NULL,
+    errata_id NUMERIC NOT NULL
+                  CONSTRAINT suse_cvexpe_eid_fk
+                      REFERENCES rhnErrata (id)
+                      ON DELETE CASCADE,
+    CONSTRAINT suse_cvexpe_exp_fk FOREIGN KEY (system_id, cve_id)
+        REFERENCES suseCVEExposure (system_id, cve_id)
+        ON DELETE CASCADE
+)
+
+;
+
+CREATE UNIQUE INDEX IF NOT EXISTS suse_cvexpe_sid_cid_eid_uq
+    ON suseCVEExposureErrata (system_id, cve_id, errata_id)
+    ;
+
+CREATE INDEX IF NOT EXISTS suse_cvexpe_eid_idx
+    ON suseCVEExposureErrata (errata_id)
+    ;
+
+
+CREATE TABLE IF NOT EXISTS suseCVEExposureGeneration
+(
+    system_id  NUMERIC NOT NULL
+                   CONSTRAINT suse_cvexpg_sid_pk PRIMARY KEY
+                   CONSTRAINT suse_cvexpg_sid_fk
+                       REFERENCES rhnServer (id)
+                       ON DELETE CASCADE,
+    generation NUMERIC DEFAULT (0) NOT NULL
+)
+
+;
@@ -0,0 +1,14 @@
+--
+-- Copyright (c) 2025 SUSE LLC
+--
+-- This software is licensed to you under the GNU General Public License,
+-- version 2 (GPLv2). There is NO WARRANTY for this software, express or
+-- implied, including the implied warranties of MERCHANTABILITY or FITNESS
+-- FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+-- along with this software; if not, see
+-- http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+--
+
+-- Snapshot tags are now indexed with an untokenized unique id. Dropping their
+-- checkpoint makes the search server rebuild the whole snapshot tag index.
+DELETE FROM rhnIndexerWork WHERE object_type = 'snapshot_tag';
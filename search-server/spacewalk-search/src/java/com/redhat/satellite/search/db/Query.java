@@ -15,10 +15,12 @@
 
 package com.redhat.satellite.search.db;
 
+import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.session.SqlSession;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -67,6 +69,19 @@ public class Query<T> {
         return retval;
     }
 
+    /**
+     * Iterate over the objects returned by the query, fetching them from the database
+     * as they are read instead of loading all of them in memory. The iterator can be
+     * used until the query is closed.
+     * @param param query param
+     * @return iterator of T
+     * @throws SQLException something bad happened
+     */
+    public Iterator<T> iterate(Object param) throws SQLException {
+        Cursor<T> cursor = session.selectCursor(queryName, param);
+        return cursor.iterator();
+    }
+
     /**
      * Load single object from query
      * @param param query apram
@@ -32,34 +32,50 @@ import org.apache.lucene.index.CorruptIndexException;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.Term;
+import org.apache.lucene.index.TermDocs;
+import org.apache.lucene.index.TermEnum;
 import org.apache.lucene.queryParser.ParseException;
 import org.apache.lucene.queryParser.QueryParser;
 import org.apache.lucene.search.Explanation;
 import org.apache.lucene.search.Hits;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.store.AlreadyClosedException;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.FSDirectory;
 import org.apache.lucene.store.LockObtainFailedException;
+import org.picocontainer.Startable;
 
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Indexing workhorse class
  *
+ * Every index has a single writer, opened on first use and kept open until the
+ * search server stops. Changes are committed in batches of
+ * search.index.commit_batch_size, or before the index is searched. Queries share
+ * one searcher per index, reopened only when the index changed.
+ *
  * @version $Rev$
  */
-public class IndexManager {
+public class IndexManager implements Startable {
 
     private static Logger log = LogManager.getLogger(IndexManager.class);
+    private static final String REBUILD_SUFFIX = ".rebuild";
+    private static final String PREVIOUS_SUFFIX = ".previous";
     private String indexWorkDir;
     private int maxHits;
     private double score_threshold;
@@ -70,6 +86,17 @@ public class IndexManager {
     private int max_ngram;
     private boolean filterDocResults = false;
     private boolean explainResults = false;
+    private int commitBatchSize;
+    private long searcherRefreshInterval;
+    // The analyzer of a writer depends on the language of the documents
+    private final Map<WriterKey, IndexWriter> writers =
+        new HashMap<WriterKey, IndexWriter>();
+    // Indexes written next to their live directory until they are swapped in
+    private final Set<String> rebuilds = new HashSet<String>();
+    private final Map<String, SearcherReference> searchers =
+        new HashMap<String, SearcherReference>();
+    private final Map<String, IndexStatistics> statistics =
+        new ConcurrentHashMap<String, IndexStatistics>();
     // Name conflict with our Configuration class and Hadoop's
     private Map<String, String> docLocaleLookUp = new TreeMap<String, String>
                                                                                                 (String.CASE_INSENSITIVE_ORDER);
@@ -97,8 +124,55 @@ public class IndexManager {
         max_ngram = config.getInt("search.max_ngram", 5);
         filterDocResults = config.getBoolean("search.doc.limit_results");
         explainResults = config.getBoolean("search.log.explain.results");
+        commitBatchSize = config.getInt("search.index.commit_batch_size", 1000);
+        searcherRefreshInterval = config.getInt("search.index.searcher_refresh_interval",
+                10000);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public void start() {
+        // Writers and searchers are opened on first use
+    }
+
+    /**
+     * Commits the pending changes and closes the writers and searchers of all the indexes.
+     */
+    public synchronized void stop() {
+        for (Map.Entry<WriterKey, IndexWriter> entry : writers.entrySet()) {
+            try {
+                // Closing the writer commits its pending changes
+                entry.getValue().close();
+            }
+            catch (IOException e) {
+                log.error("Unable to close the writer of index <" +
+                        entry.getKey().getIndexName() + ">", e);
+            }
+        }
+        writers.clear();
+        for (Map.Entry<String, SearcherReference> entry : searchers.entrySet()) {
+            try {
+                entry.getValue().release();
+            }
+            catch (IOException e) {
+                log.error("Unable to close the searcher of index <" + entry.getKey() + ">",
+                        e);
+            }
+        }
+        searchers.clear();
+        for (Map.Entry<String, IndexStatistics> entry : statistics.entrySet()) {
+            log.info("Index <" + entry.getKey() + ">: " + entry.getValue());
+        }
+    }
+
+
+    /**
+     * @return number of changes committed at once
+     */
+    public int getCommitBatchSize() {
+        return commitBatchSize;
+    }
 
     /**
      * @return String of the index working directory
@@ -142,12 +216,15 @@ public class IndexManager {
     public List<Result> search(String indexName, String query, String lang,
             boolean isFineGrained)
             throws IndexingException, QueryParseException {
-        IndexSearcher searcher = null;
-        IndexReader reader = null;
+        long start = System.currentTimeMillis();
+        SearcherReference reference = null;
         List<Result> retval = null;
         try {
-            reader = getIndexReader(indexName, lang);
-            searcher = getIndexSearcher(indexName, lang);
+            // Make the changes added so far visible to the search
+            commit(indexName);
+            reference = acquireSearcher(indexName);
+            IndexSearcher searcher = reference.getSearcher();
+            IndexReader reader = reference.getReader();
             QueryParser qp = getQueryParser(indexName, lang, isFineGrained);
             Query q = qp.parse(query);
             if (log.isDebugEnabled()) {
@@ -187,12 +264,10 @@ public class IndexManager {
             throw new QueryParseException("Could not parse query: '" + query + "'");
         }
         finally {
+            statisticsFor(indexName).searchDone(System.currentTimeMillis() - start);
             try {
-                if (searcher != null) {
-                    searcher.close();
-                }
-                if (reader != null) {
-                    reader.close();
+                if (reference != null) {
+                    reference.release();
                 }
             }
             catch (IOException ex) {
@@ -215,18 +290,7 @@ public class IndexManager {
 
         try {
             IndexWriter writer = getIndexWriter(indexName, lang);
-            try {
-                writer.flush();
-            }
-            finally {
-                try {
-                    writer.close();
-                }
-                finally {
-                    // unlock it if it is locked.
-                    unlockIndex(indexName);
-                }
-            }
+            writer.commit();
         }
         catch (CorruptIndexException e) {
             throw new IndexingException(e);
@@ -252,20 +316,7 @@ public class IndexManager {
         throws IndexingException {
 
         try {
-            IndexWriter writer = getIndexWriter(indexName, lang);
-            try {
-                writer.addDocument(doc);
-                writer.flush();
-            }
-            finally {
-                try {
-                    writer.close();
-                }
-                finally {
-                    // unlock it if it is locked.
-                    unlockIndex(indexName);
-                }
-            }
+            getIndexWriter(indexName, lang).addDocument(doc);
         }
         catch (CorruptIndexException e) {
             throw new IndexingException(e);
@@ -276,48 +327,142 @@ public class IndexManager {
         catch (IOException e) {
             throw new IndexingException(e);
         }
+        changed(indexName, 1);
     }
     /**
-     * @param indexName
+     * Adds a document to an index, replacing the documents having the same value
+     * of the unique field
+     *
+     * @param indexName index to use
      * @param doc document with data to index
      * @param uniqueField field in doc which identifies this uniquely
      * @param lang language
-     * @throws IndexingException
+     * @throws IndexingException something went wrong adding the document
      */
     public void addUniqueToIndex(String indexName, Document doc,
             String uniqueField, String lang)
         throws IndexingException {
-        IndexReader reader = null;
-        int numFound = 0;
         try {
-            reader = getIndexReader(indexName, lang);
             Term term = new Term(uniqueField, doc.get(uniqueField));
-            numFound = reader.docFreq(term);
+            getIndexWriter(indexName, lang).updateDocument(term, doc);
         }
-        catch (FileNotFoundException e) {
-            // Index doesn't exist, so this add will be unique
-            // we don't need to do anything/
+        catch (CorruptIndexException e) {
+            throw new IndexingException(e);
+        }
+        catch (LockObtainFailedException e) {
+            throw new IndexingException(e);
         }
         catch (IOException e) {
             throw new IndexingException(e);
         }
-        finally {
-            if (reader != null) {
-                try {
-                    reader.close();
-                }
-                catch (IOException e) {
-                    //
-                }
+        changed(indexName, 1);
+    }
+
+    /**
+     * Adds documents to an index, replacing the documents having the same value
+     * of the unique field
+     *
+     * @param indexName index to use
+     * @param docs documents with data to index
+     * @param uniqueField field in the documents which identifies them uniquely
+     * @param lang language
+     * @throws IndexingException something went wrong adding the documents
+     */
+    public void addUniqueToIndex(String indexName, List<Document> docs,
+            String uniqueField, String lang)
+        throws IndexingException {
+        try {
+            IndexWriter writer = getIndexWriter(indexName, lang);
+            for (Document doc : docs) {
+                writer.updateDocument(new Term(uniqueField, doc.get(uniqueField)), doc);
+            }
+        }
+        catch (CorruptIndexException e) {
+            throw new IndexingException(e);
+        }
+        catch (LockObtainFailedException e) {
+            throw new IndexingException(e);
+        }
+        catch (IOException e) {
+            throw new IndexingException(e);
+        }
+        changed(indexName, docs.size());
+    }
+
+    /**
+     * Starts building an index from scratch next to the live one. Until the rebuild
+     * is finished, the changes of the index go to the new one while the searches keep
+     * using the live one.
+     *
+     * @param indexName index to rebuild
+     * @throws IndexingException something went wrong closing the live index
+     */
+    public synchronized void startRebuild(String indexName) throws IndexingException {
+        closeWriter(indexName);
+        // Left behind by a rebuild which did not finish
+        deleteDirectory(new File(indexWorkDir + indexName + REBUILD_SUFFIX));
+        rebuilds.add(indexName);
+        log.info("Rebuilding index <" + indexName + ">");
+    }
+
+    /**
+     * Replaces the live index with the one built since {@link #startRebuild(String)}
+     *
+     * @param indexName index being rebuilt
+     * @throws IndexingException something went wrong committing or moving the index
+     */
+    public synchronized void finishRebuild(String indexName) throws IndexingException {
+        closeWriter(indexName);
+        rebuilds.remove(indexName);
+        File live = new File(indexWorkDir + indexName);
+        File rebuilt = new File(indexWorkDir + indexName + REBUILD_SUFFIX);
+        File previous = new File(indexWorkDir + indexName + PREVIOUS_SUFFIX);
+        deleteDirectory(previous);
+        if (live.exists() && !live.renameTo(previous)) {
+            throw new IndexingException("Unable to move " + live + " to " + previous);
+        }
+        if (!rebuilt.renameTo(live)) {
+            previous.renameTo(live);
+            throw new IndexingException("Unable to move " + rebuilt + " to " + live);
+        }
+        // The segments of the new index may have the names of the old ones, so the
+        // searcher is opened again instead of being reopened
+        SearcherReference current = searchers.remove(indexName);
+        if (current != null) {
+            try {
+                current.release();
             }
+            catch (IOException e) {
+                log.warn("Unable to close the searcher of index <" + indexName + ">", e);
+            }
+        }
+        // Searches still using the old files keep them open until they are done
+        deleteDirectory(previous);
+        log.info("Swapped in the rebuilt index <" + indexName + ">");
+    }
+
+    /**
+     * Drops the index built since {@link #startRebuild(String)}, the live one
+     * stays in use. Does nothing if the index is not being rebuilt.
+     *
+     * @param indexName index being rebuilt
+     */
+    public synchronized void abortRebuild(String indexName) {
+        if (!rebuilds.remove(indexName)) {
+            return;
         }
-        if (numFound > 0) {
-            log.info("Found " + numFound + " <" + indexName + " docs for " +
-                    uniqueField + ":" + doc.get(uniqueField) +
-                    " will remove them now.");
-            removeFromIndex(indexName, uniqueField, doc.get(uniqueField));
+        IndexWriter writer = removeWriter(indexName);
+        statisticsFor(indexName).takePending();
+        if (writer != null) {
+            try {
+                writer.rollback();
+            }
+            catch (IOException e) {
+                log.warn("Unable to close the writer of index <" + indexName + ">", e);
+            }
         }
-        addToIndex(indexName, doc, lang);
+        deleteDirectory(new File(indexWorkDir + indexName + REBUILD_SUFFIX));
+        log.info("Dropped the rebuild of index <" + indexName + ">");
     }
 
     /**
@@ -333,18 +478,16 @@ public class IndexManager {
         log.info("Removing <" + indexName + "> " + uniqueField + ":" +
                 objectId);
         Term t = new Term(uniqueField, objectId);
-        IndexReader reader;
         try {
-            reader = getIndexReader(indexName, IndexHandler.DEFAULT_LANG);
-            try {
-                reader.deleteDocuments(t);
-                reader.flush();
+            // Deleting by term does not analyze anything, any language will do
+            IndexWriter writer;
+            synchronized (this) {
+                writer = findWriter(indexName);
             }
-            finally {
-               if (reader != null) {
-                    reader.close();
-               }
+            if (writer == null) {
+                writer = getIndexWriter(indexName, IndexHandler.DEFAULT_LANG);
             }
+            writer.deleteDocuments(t);
         }
         catch (CorruptIndexException e) {
             throw new IndexingException(e);
@@ -352,52 +495,192 @@ public class IndexManager {
         catch (IOException e) {
             throw new IndexingException(e);
         }
+        changed(indexName, 1);
     }
 
     /**
-     * Unlocks the index at the given directory if it is currently locked.
-     * Otherwise, does nothing.
-     * @param indexName index name
-     * @throws IOException thrown if there is a problem unlocking the index.
+     * Commits the pending changes of an index, making them visible to the searches.
+     * Does nothing if the index has no pending changes.
+     *
+     * @param indexName index to commit
+     * @throws IndexingException something went wrong committing the changes
      */
-    private void unlockIndex(String indexName) throws IOException {
-        String path = indexWorkDir + indexName;
-        File f = new File(path);
-        Directory dir = FSDirectory.getDirectory(f);
-        if (IndexReader.isLocked(dir)) {
-            IndexReader.unlock(dir);
+    public void commit(String indexName) throws IndexingException {
+        IndexWriter writer;
+        synchronized (this) {
+            writer = findWriter(indexName);
+        }
+        IndexStatistics stats = statisticsFor(indexName);
+        int pending = stats.takePending();
+        if (writer == null || pending == 0) {
+            return;
         }
+        long start = System.currentTimeMillis();
+        try {
+            writer.commit();
+        }
+        catch (AlreadyClosedException e) {
+            // Closed meanwhile to rebuild the index, closing committed the changes
+            return;
+        }
+        catch (IOException e) {
+            // The changes are still in the writer, they will be part of the next commit
+            stats.addPending(pending);
+            throw new IndexingException(e);
+        }
+        long millis = System.currentTimeMillis() - start;
+        stats.commitDone(millis, pending);
+        invalidateSearcher(indexName);
+        log.info("Committed " + pending + " changes to index <" + indexName + "> in " +
+                millis + " ms");
     }
 
-    private IndexWriter getIndexWriter(String name, String lang)
+    /**
+     * Returns the search and commit statistics of every index used since the start
+     *
+     * @return the statistics by index name
+     */
+    public Map<String, Map<String, Object>> getIndexStatistics() {
+        Map<String, Map<String, Object>> retval =
+            new TreeMap<String, Map<String, Object>>();
+        for (Map.Entry<String, IndexStatistics> entry : statistics.entrySet()) {
+            retval.put(entry.getKey(), entry.getValue().toMap());
+        }
+        return retval;
+    }
+
+    private void changed(String indexName, int changes) throws IndexingException {
+        if (statisticsFor(indexName).addPending(changes) >= commitBatchSize) {
+            commit(indexName);
+        }
+    }
+
+    private IndexStatistics statisticsFor(String indexName) {
+        IndexStatistics stats = statistics.get(indexName);
+        if (stats == null) {
+            statistics.putIfAbsent(indexName, new IndexStatistics());
+            stats = statistics.get(indexName);
+        }
+        return stats;
+    }
+
+    /**
+     * Commits the pending changes of an index and closes its writer, the next
+     * change opens it again.
+     */
+    private synchronized void closeWriter(String indexName) throws IndexingException {
+        commit(indexName);
+        IndexWriter writer = removeWriter(indexName);
+        if (writer != null) {
+            try {
+                writer.close();
+            }
+            catch (IOException e) {
+                throw new IndexingException(e);
+            }
+        }
+    }
+
+    private static void deleteDirectory(File dir) {
+        // Lucene keeps all the files of an index in a single directory
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        dir.delete();
+    }
+
+    /**
+     * Returns the open writer of an index, whatever its language
+     */
+    private synchronized IndexWriter findWriter(String indexName) {
+        for (Map.Entry<WriterKey, IndexWriter> entry : writers.entrySet()) {
+            if (entry.getKey().getIndexName().equals(indexName)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private synchronized IndexWriter removeWriter(String indexName) {
+        for (Iterator<Map.Entry<WriterKey, IndexWriter>> it = writers.entrySet().iterator();
+                it.hasNext();) {
+            Map.Entry<WriterKey, IndexWriter> entry = it.next();
+            if (entry.getKey().getIndexName().equals(indexName)) {
+                it.remove();
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private synchronized IndexWriter getIndexWriter(String name, String lang)
             throws CorruptIndexException, LockObtainFailedException,
-            IOException {
-        String path = indexWorkDir + name;
-        File f = new File(path);
-        f.mkdirs();
-        Analyzer analyzer = getAnalyzer(name, lang);
-        IndexWriter writer = new IndexWriter(path, analyzer);
-        writer.setUseCompoundFile(true);
+            IOException, IndexingException {
+        WriterKey key = new WriterKey(name, lang);
+        IndexWriter writer = writers.get(key);
+        if (writer == null) {
+            // An index directory has a single writer, the one of another language
+            // commits its changes and makes room
+            closeWriter(name);
+            String path = indexWorkDir + name +
+                    (rebuilds.contains(name) ? REBUILD_SUFFIX : "");
+            File f = new File(path);
+            f.mkdirs();
+            Directory dir = FSDirectory.getDirectory(f);
+            // Only this writer can hold the lock, so a lock found here was left
+            // behind by a previous run which did not stop cleanly
+            if (IndexWriter.isLocked(dir)) {
+                log.warn("Removing stale lock of index <" + name + ">");
+                IndexWriter.unlock(dir);
+            }
+            Analyzer analyzer = getAnalyzer(name, lang);
+            writer = new IndexWriter(dir, analyzer, IndexWriter.MaxFieldLength.LIMITED);
+            writer.setUseCompoundFile(true);
+            writers.put(key, writer);
+        }
         return writer;
     }
 
-    private IndexReader getIndexReader(String indexName, String locale)
+    /**
+     * Returns the shared searcher of an index, reopening it if the index changed.
+     * The returned reference must be released after use.
+     */
+    private synchronized SearcherReference acquireSearcher(String indexName)
             throws CorruptIndexException, IOException {
-        String path = indexWorkDir + indexName;
-        log.info("IndexManager::getIndexReader(" + indexName + ", " + locale +
-                ") path = " + path);
-        File f = new File(path);
-        IndexReader retval = IndexReader.open(FSDirectory.getDirectory(f));
-        return retval;
+        SearcherReference current = searchers.get(indexName);
+        if (current == null) {
+            String path = indexWorkDir + indexName;
+            log.info("IndexManager::acquireSearcher(" + indexName + ") path = " + path);
+            current = new SearcherReference(
+                    IndexReader.open(FSDirectory.getDirectory(new File(path)), true));
+            searchers.put(indexName, current);
+        }
+        else if (current.needsCheck(searcherRefreshInterval)) {
+            IndexReader reader = current.getReader().reopen();
+            if (reader != current.getReader()) {
+                log.debug("Reopened the searcher of index <" + indexName + ">");
+                SearcherReference reopened = new SearcherReference(reader);
+                searchers.put(indexName, reopened);
+                // Searches still using the old reader keep it open until they are done
+                current.release();
+                current = reopened;
+            }
+            else {
+                current.checked();
+            }
+        }
+        current.acquire();
+        return current;
     }
 
-    private IndexSearcher getIndexSearcher(String indexName, String locale)
-            throws CorruptIndexException, IOException {
-        String path = indexWorkDir + indexName;
-        log.info("IndexManager::getIndexSearcher(" + indexName + ", " + locale +
-                ") path = " + path);
-        IndexSearcher retval = new IndexSearcher(path);
-        return retval;
+    private synchronized void invalidateSearcher(String indexName) {
+        SearcherReference current = searchers.get(indexName);
+        if (current != null) {
+            current.invalidate();
+        }
     }
 
     private QueryParser getQueryParser(String indexName, String lang,
@@ -585,36 +868,41 @@ public class IndexManager {
     }
 
     /**
-     * Removes any documents which are not related to the passed in Set of good value
-     * @param ids Set of ids of all known/good values
+     * Removes any documents which are not related to the passed in good values.
+     * The terms of the unique field are walked in order together with the ids, so
+     * that neither of them has to be loaded in memory.
+     * @param sortedIds ids of all known/good values, sorted as strings
      * @param indexName index name to operate on
      * @param uniqField the name of the field in the Document to uniquely identify
      * this record
      * @return the number of documents deleted
      */
-    public int deleteRecordsNotInList(Set<String> ids, String indexName,
+    public int deleteRecordsNotInList(Iterator<String> sortedIds, String indexName,
             String uniqField) {
         int count = 0;
-        IndexReader reader = null;
+        SearcherReference reference = null;
+        TermEnum terms = null;
         try {
-            reader = getIndexReader(indexName, IndexHandler.DEFAULT_LANG);
-
-            // Use maxDoc() to iterate over all docs, numDocs() returns the
-            // number of currently alive docs leaving out the deleted ones.
-            int maxDoc = reader.maxDoc();
-            for (int i = 0; i < maxDoc; i++) {
-                if (!reader.isDeleted(i)) {
-                    Document doc = reader.document(i);
-                    String uniqId = doc.getField(uniqField).stringValue();
-                    if (!ids.contains(uniqId)) {
-                        log.info(indexName + ":" + uniqField  + ":  <" + uniqId +
-                                "> not found in list of current/good values " +
-                                "assuming this has been deleted from Database and we " +
-                                "should remove it.");
-                        removeFromIndex(indexName, uniqField, uniqId);
-                        count++;
-                    }
+            commit(indexName);
+            reference = acquireSearcher(indexName);
+            IndexReader reader = reference.getReader();
+            terms = reader.terms(new Term(uniqField, ""));
+            String id = sortedIds.hasNext() ? sortedIds.next() : null;
+            Term term = terms.term();
+            while (term != null && uniqField.equals(term.field())) {
+                String uniqId = term.text();
+                while (id != null && id.compareTo(uniqId) < 0) {
+                    id = sortedIds.hasNext() ? sortedIds.next() : null;
+                }
+                if (!uniqId.equals(id) && isUniqueValue(reader, term)) {
+                    log.info(indexName + ":" + uniqField  + ":  <" + uniqId +
+                            "> not found in list of current/good values " +
+                            "assuming this has been deleted from Database and we " +
+                            "should remove it.");
+                    removeFromIndex(indexName, uniqField, uniqId);
+                    count++;
                 }
+                term = terms.next() ? terms.term() : null;
             }
         }
         catch (IOException e) {
@@ -626,18 +914,43 @@ public class IndexManager {
             log.info("deleteRecordsNotInList() caught exception : " + e);
         }
         finally {
-            if (reader != null) {
-                try {
-                    reader.close();
+            try {
+                if (terms != null) {
+                    terms.close();
                 }
-                catch (IOException e) {
-                    //
+                if (reference != null) {
+                    reference.release();
                 }
             }
+            catch (IOException e) {
+                //
+            }
         }
         return count;
     }
 
+    /**
+     * Checks that a term is the whole value of the field in every live document
+     * having it, so that deleting by term removes only the documents of that value.
+     * Terms coming from a tokenized unique field are not.
+     */
+    private boolean isUniqueValue(IndexReader reader, Term term) throws IOException {
+        boolean found = false;
+        TermDocs docs = reader.termDocs(term);
+        try {
+            while (docs.next()) {
+                if (!term.text().equals(reader.document(docs.doc()).get(term.field()))) {
+                    return false;
+                }
+                found = true;
+            }
+        }
+        finally {
+            docs.close();
+        }
+        return found;
+    }
+
     private void debugExplainResults(String indexName, Hits hits, IndexSearcher searcher,
             Query q, Set<Term> queryTerms)
         throws IOException {
@@ -732,4 +1045,136 @@ public class IndexManager {
         return analyzer;
     }
 
+    /**
+     * A searcher shared by the concurrent searches of an index. The reader is closed
+     * once it has been replaced and the last search using it is done.
+     */
+    private static class SearcherReference {
+        private final IndexReader reader;
+        private final IndexSearcher searcher;
+        // The index manager holds one reference as long as this is the current searcher
+        private final AtomicInteger references = new AtomicInteger(1);
+        private volatile long lastCheck = System.currentTimeMillis();
+
+        SearcherReference(IndexReader readerIn) {
+            reader = readerIn;
+            searcher = new IndexSearcher(readerIn);
+        }
+
+        IndexReader getReader() {
+            return reader;
+        }
+
+        IndexSearcher getSearcher() {
+            return searcher;
+        }
+
+        void acquire() {
+            references.incrementAndGet();
+        }
+
+        void release() throws IOException {
+            if (references.decrementAndGet() == 0) {
+                searcher.close();
+                reader.close();
+            }
+        }
+
+        boolean needsCheck(long interval) {
+            return System.currentTimeMillis() - lastCheck >= interval;
+        }
+
+        void checked() {
+            lastCheck = System.currentTimeMillis();
+        }
+
+        void invalidate() {
+            lastCheck = 0;
+        }
+    }
+
+    /**
+     * Identifies the writer of an index for the documents of a language.
+     */
+    private static class WriterKey {
+        private final String indexName;
+        private final String lang;
+
+        WriterKey(String indexNameIn, String langIn) {
+            indexName = indexNameIn;
+            lang = langIn;
+        }
+
+        String getIndexName() {
+            return indexName;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof WriterKey)) {
+                return false;
+            }
+            WriterKey key = (WriterKey) other;
+            return indexName.equals(key.indexName) && Objects.equals(lang, key.lang);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(indexName, lang);
+        }
+    }
+
+    /**
+     * Search latency and commit counters of an index.
+     */
+    private static class IndexStatistics {
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicLong commits = new AtomicLong();
+        private final AtomicLong committed = new AtomicLong();
+        private final AtomicLong commitMillis = new AtomicLong();
+        private final AtomicLong searches = new AtomicLong();
+        private final AtomicLong searchMillis = new AtomicLong();
+        private final AtomicLong maxSearchMillis = new AtomicLong();
+
+        int addPending(int changes) {
+            return pending.addAndGet(changes);
+        }
+
+        int takePending() {
+            return pending.getAndSet(0);
+        }
+
+        void commitDone(long millis, int changes) {
+            commits.incrementAndGet();
+            committed.addAndGet(changes);
+            commitMillis.addAndGet(millis);
+        }
+
+        void searchDone(long millis) {
+            searches.incrementAndGet();
+            searchMillis.addAndGet(millis);
+            long max = maxSearchMillis.get();
+            while (millis > max && !maxSearchMillis.compareAndSet(max, millis)) {
+                max = maxSearchMillis.get();
+            }
+        }
+
+        Map<String, Object> toMap() {
+            // XML-RPC has no 64 bit integers
+            Map<String, Object> retval = new TreeMap<String, Object>();
+            retval.put("pending_changes", pending.get());
+            retval.put("commits", (int) commits.get());
+            retval.put("committed_changes", (int) committed.get());
+            retval.put("commit_seconds", commitMillis.get() / 1000.0);
+            retval.put("searches", (int) searches.get());
+            retval.put("search_seconds", searchMillis.get() / 1000.0);
+            retval.put("max_search_seconds", maxSearchMillis.get() / 1000.0);
+            return retval;
+        }
+
+        @Override
+        public String toString() {
+            return toMap().toString();
+        }
+    }
 }
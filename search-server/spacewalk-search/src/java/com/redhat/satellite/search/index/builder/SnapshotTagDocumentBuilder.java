@@ -49,8 +49,9 @@ public class SnapshotTagDocumentBuilder implements DocumentBuilder {
                 store = Field.Store.YES;
                 tokenize = Field.Index.UN_TOKENIZED;
             }
-            else if (name.equals("snapshotId") || name.equals("tagNameId") ||
-                    name.equals("serverId") || name.equals("orgId")) {
+            else if (name.equals("uniqId") || name.equals("snapshotId") ||
+                    name.equals("tagNameId") || name.equals("serverId") ||
+                    name.equals("orgId")) {
                 store = Field.Store.YES;
                 tokenize = Field.Index.UN_TOKENIZED;
             }
@@ -57,6 +57,43 @@ public class IndexManagerTest extends BaseTestCase {
         assertTrue(results.size() >= 1);
     }
 
+    public void testLanguages()
+        throws IndexingException, QueryParseException {
+
+        String index = "languages";
+        DocumentBuilder pdb = new PackageDocumentBuilder();
+        Map<String, String> meta = new HashMap<String, String>();
+        meta.put("name", "english");
+        indexManager.addToIndex(index, pdb.buildDocument(new Long(1), meta), "en");
+        // The writer of the other language takes over the index directory
+        meta.put("name", "german");
+        indexManager.addToIndex(index, pdb.buildDocument(new Long(2), meta), "de");
+        assertEquals(1, indexManager.search(index, "name:english", "en").size());
+        assertEquals(1, indexManager.search(index, "name:german", "de").size());
+    }
+
+    public void testRebuild()
+        throws IndexingException, QueryParseException {
+
+        String index = "rebuilt";
+        DocumentBuilder pdb = new PackageDocumentBuilder();
+        Map<String, String> meta = new HashMap<String, String>();
+        meta.put("name", "before");
+        indexManager.addToIndex(index, pdb.buildDocument(new Long(1), meta), "en");
+        indexManager.commit(index);
+
+        indexManager.startRebuild(index);
+        meta.put("name", "after");
+        indexManager.addToIndex(index, pdb.buildDocument(new Long(2), meta), "en");
+        // The searches keep using the live index until the rebuild is finished
+        assertEquals(1, indexManager.search(index, "name:before", "en").size());
+        assertEquals(0, indexManager.search(index, "name:after", "en").size());
+
+        indexManager.finishRebuild(index);
+        assertEquals(0, indexManager.search(index, "name:before", "en").size());
+        assertEquals(1, indexManager.search(index, "name:after", "en").size());
+    }
+
 
     @SuppressWarnings("unchecked")
     @Override
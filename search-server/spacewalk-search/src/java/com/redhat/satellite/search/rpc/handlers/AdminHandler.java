@@ -22,6 +22,8 @@ import com.redhat.satellite.search.scheduler.ScheduleManager;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.Map;
+
 /**
  * XML-RPC handler which handles calls for administration
  * Updating indexes maybe more tasks later
@@ -32,6 +34,7 @@ public class AdminHandler {
 
     private static Logger log = LogManager.getLogger(AdminHandler.class);
     private ScheduleManager scheduleManager;
+    private IndexManager indexManager;
 
     /**
      * Constructor
@@ -43,6 +46,7 @@ public class AdminHandler {
             ScheduleManager schedMgr) {
         log.info("** AdminHandler constructor invoked");
         scheduleManager = schedMgr;
+        indexManager = idxManager;
     }
     /**
      * Causes the task associated with the indexName to run and index new data.
@@ -56,4 +60,13 @@ public class AdminHandler {
         }
         return scheduleManager.triggerIndexTask(indexName);
     }
+
+    /**
+     * Returns the search latency and commit counters of the indexes.
+     *
+     * @return the statistics by index name
+     */
+    public Map<String, Map<String, Object>> getIndexStatistics() {
+        return indexManager.getIndexStatistics();
+    }
 }
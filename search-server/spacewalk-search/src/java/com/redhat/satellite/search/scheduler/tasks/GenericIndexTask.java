@@ -32,14 +32,15 @@ import org.quartz.JobExecutionException;
 import org.quartz.StatefulJob;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * GenericIndexTask
@@ -64,21 +65,8 @@ public abstract class GenericIndexTask implements StatefulJob {
             //try to create the index first incase we never actually
             //   have any records (BZ 537502)
             indexManager.createIndex(getIndexName(), lang);
-            List<GenericRecord> data = getRecords(databaseManager);
-            int count = 0;
-            log.info(super.getClass().toString() + "found [" +
-                    data.size() + "] items to index");
-            for (Iterator<GenericRecord> iter = data.iterator(); iter.hasNext();) {
-                GenericRecord current = iter.next();
-                indexRecord(indexManager, current);
-                count++;
-                if (count == 10 || !iter.hasNext()) {
-                    if (System.getProperties().get("isTesting") == null) {
-                        updateLastRecord(databaseManager, current.getId());
-                    }
-                    count = 0;
-                }
-            }
+            int count = indexRecords(databaseManager, indexManager);
+            log.info(super.getClass().toString() + " indexed [" + count + "] items");
             //
             // Check to see if any records have been deleted from database, so
             // we should delete from our indexes.
@@ -135,31 +123,92 @@ public abstract class GenericIndexTask implements StatefulJob {
     }
 
     /**
-     * @param indexManager
-     * @param current
+     * Streams the records to index from the database and indexes them in batches.
+     * The documents of a batch are built in parallel, written and committed
+     * together, then the last record of the batch is recorded as checkpoint.
+     * Without checkpoint, the index is rebuilt next to the live one and swapped in
+     * once all the records are indexed, the checkpoint is recorded only then.
+     * @return number of indexed records
      */
-    private void indexRecord(IndexManager indexManager,
-            GenericRecord data)
+    private int indexRecords(DatabaseManager databaseManager, IndexManager indexManager)
+        throws SQLException, IndexingException {
+        Map<String, Object> params = getRecordsParams(databaseManager);
+        // Test runs never record a checkpoint, they would rebuild the index every time
+        boolean rebuild = ((Date) params.get("last_modified")).getTime() == 0 &&
+                !isTesting();
+        if (rebuild) {
+            // Drops the documents written with an older layout of the index
+            indexManager.startRebuild(getIndexName());
+        }
+        int batchSize = indexManager.getCommitBatchSize();
+        int count = 0;
+        long lastId = 0;
+        boolean done = false;
+        Query<GenericRecord> srvrQuery = databaseManager.getQuery(
+                getQueryRecordsToIndex());
+        try {
+            Iterator<GenericRecord> records = srvrQuery.iterate(params);
+            List<GenericRecord> batch = new ArrayList<GenericRecord>(batchSize);
+            while (records.hasNext()) {
+                batch.add(records.next());
+                if (batch.size() == batchSize || !records.hasNext()) {
+                    lastId = batch.get(batch.size() - 1).getId();
+                    indexBatch(indexManager, batch);
+                    if (!rebuild && !isTesting()) {
+                        updateLastRecord(databaseManager, lastId);
+                    }
+                    count += batch.size();
+                    batch.clear();
+                }
+            }
+            if (rebuild) {
+                indexManager.finishRebuild(getIndexName());
+                if (count > 0) {
+                    updateLastRecord(databaseManager, lastId);
+                }
+            }
+            done = true;
+        }
+        finally {
+            srvrQuery.close();
+            if (rebuild && !done) {
+                indexManager.abortRebuild(getIndexName());
+            }
+        }
+        return count;
+    }
+
+    private void indexBatch(IndexManager indexManager, List<GenericRecord> batch)
         throws IndexingException {
+        List<Document> docs = batch.parallelStream()
+                .map(this::buildDocument)
+                .collect(Collectors.toList());
+        indexManager.addUniqueToIndex(getIndexName(), docs, getUniqueFieldId(), lang);
+        // Never record a checkpoint ahead of the committed documents
+        indexManager.commit(getIndexName());
+    }
 
+    private static boolean isTesting() {
+        return System.getProperties().get("isTesting") != null;
+    }
+
+    private Document buildDocument(GenericRecord data) {
         Map<String, String> attrs = getFieldMap(data);
-        log.info(super.getClass().toString() + " Indexing object: " +
-                data.getId() + ": " + attrs.toString());
+        if (log.isDebugEnabled()) {
+            log.debug(super.getClass().toString() + " Indexing object: " +
+                    data.getId() + ": " + attrs.toString());
+        }
         DocumentBuilder pdb = BuilderFactory.getBuilder(getIndexName());
-        Document doc = pdb.buildDocument(new Long(data.getId()), attrs);
-        indexManager.addUniqueToIndex(getIndexName(), doc, getUniqueFieldId(),
-                lang);
+        return pdb.buildDocument(new Long(data.getId()), attrs);
     }
 
-
     /**
      * @param databaseManager
-     * @return
+     * @return the parameters selecting the records to index
      */
-    private List<GenericRecord> getRecords(DatabaseManager databaseManager)
+    private Map<String, Object> getRecordsParams(DatabaseManager databaseManager)
         throws SQLException {
         // What was the last object id we indexed?
-        List<GenericRecord> retval = null;
         Query<Long> query = databaseManager.getQuery(getQueryLastRecord());
         Long sid = null;
         try {
@@ -184,22 +233,12 @@ public abstract class GenericIndexTask implements StatefulJob {
             lastRun = new Date(0);
         }
         // Lookup what objects have not been indexed, or need to be reindexed.
-        Query<GenericRecord> srvrQuery = databaseManager.getQuery(
-                getQueryRecordsToIndex());
-        try {
-            Map<String, Object> params = new HashMap<String, Object>();
-            params.put("id", sid);
-            params.put("last_modified", lastRun);
-            log.info("GenericIndexTask<" + super.getClass().toString() +
-                    " last processed id = " + sid + ", lastRun was " + lastRun);
-            retval = srvrQuery.loadList(params);
-            log.info("GenericIndexTask<" + super.getClass().toString() +
-                    " number of results returned = " + retval.size());
-        }
-        finally {
-            srvrQuery.close();
-        }
-        return retval;
+        Map<String, Object> params = new HashMap<String, Object>();
+        params.put("id", sid);
+        params.put("last_modified", lastRun);
+        log.info("GenericIndexTask<" + super.getClass().toString() +
+                " last processed id = " + sid + ", lastRun was " + lastRun);
+        return params;
     }
 
     /**
@@ -210,27 +249,16 @@ public abstract class GenericIndexTask implements StatefulJob {
     protected int handleDeletedRecords(DatabaseManager databaseManager,
             IndexManager indexManager)
         throws SQLException {
-        List<Object> records = null;
-        Query<Object> query = null;
-        String uniqField = null;
-        String indexName = null;
-        HashSet<String> idSet = null;
+        // The ids are streamed in the order of the index terms
+        Query<String> query = databaseManager.getQuery(getQueryAllIds());
         try {
-            query = databaseManager.getQuery(getQueryAllIds());
-            records = query.loadList(Collections.EMPTY_MAP);
-            idSet = new HashSet<String>();
-            for (Object record : records) {
-                idSet.add(record.toString());
-            }
-            uniqField = getUniqueFieldId();
-            indexName = getIndexName();
+            return indexManager.deleteRecordsNotInList(
+                    query.iterate(Collections.EMPTY_MAP), getIndexName(),
+                    getUniqueFieldId());
         }
         finally {
-            if (query != null) {
-                query.close();
-            }
+            query.close();
         }
-        return indexManager.deleteRecordsNotInList(idSet, indexName, uniqField);
     }
 
     /**
@@ -277,7 +305,8 @@ public abstract class GenericIndexTask implements StatefulJob {
     protected abstract String getQueryLastIndexDate();
 
     /**
-     * @return name of the query which will return all current ids.
+     * @return name of the query which will return all current ids, as strings
+     * sorted in byte order
      */
     protected abstract String getQueryAllIds();
 }
@@ -68,6 +68,8 @@ public class IndexErrataTask implements Job {
                 indexErrata(indexManager, current);
                 count++;
                 if (count == 10 || !iter.hasNext()) {
+                    // Never record a checkpoint ahead of the committed documents
+                    indexManager.commit("errata");
                     if (System.getProperties().get("isTesting") == null) {
                         updateLastErrataId(databaseManager, current.getId());
                     }